@@ -59,6 +59,15 @@ public class ConfigKey<T> {
     public static final ConfigKey<String> STORAGE_KEYSPACE = key("storage.cql.keyspace");
 
     public static final ConfigKey<Long> TYPE_SHARD_THRESHOLD = key("knowledge-base.type-shard-threshold", LONG);
+    public static final ConfigKey<Long> ATTRIBUTE_CACHE_CAPACITY = key("knowledge-base.attribute-cache-capacity", LONG);
+    public static final ConfigKey<Long> REASONER_ANSWER_CACHE_CAPACITY = key("knowledge-base.reasoner-answer-cache-capacity", LONG);
+    public static final ConfigKey<Long> REASONER_MEMO_CAPACITY = key("knowledge-base.reasoner-memo-capacity", LONG);
+    public static final ConfigKey<Long> TRAVERSAL_PLAN_CACHE_CAPACITY = key("knowledge-base.traversal-plan-cache-capacity", LONG);
+    public static final ConfigKey<Integer> REASONER_PARALLELISM = key("knowledge-base.reasoner-parallelism", INT);
+    public static final ConfigKey<String> MATERIALISED_RULES_KEYSPACES = key("knowledge-base.materialised-rules-keyspaces");
+    public static final ConfigKey<Boolean> MATERIALISED_RULES_RECOMPUTE = key("knowledge-base.materialised-rules-recompute", BOOL);
+    public static final ConfigKey<String> RANGE_INDEX_DIRECTORY = key("knowledge-base.range-index-directory");
+    public static final ConfigKey<String> TEXT_INDEX_DIRECTORY = key("knowledge-base.text-index-directory");
     public static final ConfigKey<String> DATA_DIR = key("data-dir");
     public static final ConfigKey<String> LOG_DIR = key("log.dirs");
 
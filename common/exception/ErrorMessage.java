@@ -62,6 +62,7 @@ public enum ErrorMessage {
     TX_CLOSED("The transaction for keyspace [%s] is closed. Use the session to get a new transaction for the graph."),
     TRANSACTION_ALREADY_OPEN("A transaction is already open on this thread for graph [%s]. Close the current transaction before opening a new one in the same thread."),
     TRANSACTION_READ_ONLY("This transaction on graph [%s] is read only"),
+    TRANSACTION_BATCH_SCHEMA_MUTATION("This batch transaction on graph [%s] cannot mutate the schema"),
     TX_CLOSED_ON_ACTION("The transaction was %s and closed for graph [%s]. Use the session to get a new transaction for the graph."),
     TRANSACTION_CHANGED_THREAD("The transaction is no longer on the thread it was spawned on"),
     TRANSACTION_CLOSED_ON_DIFFERENT_THREAD("The transaction is being closed on a different thread to the one it was started"),
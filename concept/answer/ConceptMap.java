@@ -28,6 +28,7 @@ import javax.annotation.Nullable;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
@@ -42,7 +43,9 @@ public class ConceptMap extends Answer {
 
     private final Map<Variable, Concept> map;
     private final Explanation explanation;
-    private final Pattern pattern;
+    private volatile Pattern pattern;
+    // provenance the pattern is built from on first access, null once the pattern is built
+    private volatile PatternProvenance provenance;
 
     public ConceptMap() {
         this.map = Collections.emptyMap();
@@ -51,17 +54,33 @@ public class ConceptMap extends Answer {
     }
 
     public ConceptMap(ConceptMap map) {
-        this(map.map, map.explanation, map.pattern);
+        this(map.map, map.explanation, map);
     }
 
     public ConceptMap(Map<Variable, Concept> map, Explanation exp, Pattern pattern) {
+        this(map, exp, pattern, null);
+    }
+
+    private ConceptMap(Map<Variable, Concept> map, Explanation exp, @Nullable Pattern pattern, @Nullable PatternProvenance provenance) {
         this.map = Collections.unmodifiableMap(map);
         this.explanation = exp;
         this.pattern = pattern;
+        this.provenance = provenance;
+    }
+
+    /**
+     * @param patternSource concept map whose pattern, computed or not, is shared with the created concept map
+     */
+    private ConceptMap(Map<Variable, Concept> map, Explanation exp, ConceptMap patternSource) {
+        this.map = Collections.unmodifiableMap(map);
+        this.explanation = exp;
+        //NB: the provenance needs to be read first as it is cleared after the pattern is built
+        this.provenance = patternSource.provenance;
+        this.pattern = patternSource.pattern;
     }
 
     public ConceptMap(Map<Variable, Concept> m) {
-        this(m, new Explanation(), null);
+        this(m, new Explanation(), null, null);
     }
 
     /**
@@ -73,6 +92,35 @@ public class ConceptMap extends Answer {
         return copy;
     }
 
+    /**
+     * Used by the reasoner to avoid building the patterns of answers that are never explained.
+     *
+     * @param provenance provenance the pattern is built from when it is first requested, null if there is no pattern
+     * @return concept map with the provided concepts and explanation
+     */
+    public static ConceptMap fromProvenance(Map<Variable, Concept> map, Explanation exp, @Nullable PatternProvenance provenance) {
+        return new ConceptMap(map, exp, null, provenance);
+    }
+
+    /**
+     * @param provenance provenance the pattern is built from when it is first requested
+     * @return Copy of this concept map with a new pattern set
+     */
+    public ConceptMap withProvenance(PatternProvenance provenance) {
+        return new ConceptMap(map(), explanation(), null, provenance);
+    }
+
+    /**
+     * @return provenance of the pattern of this concept map, null if it has no pattern
+     */
+    @Nullable
+    public PatternProvenance provenance() {
+        PatternProvenance provenance = this.provenance;
+        if (provenance != null) return provenance;
+        Pattern pattern = this.pattern;
+        return pattern != null ? PatternProvenance.of(pattern) : null;
+    }
+
     /**
      * @return query pattern associated this concept map
      * In other words, return the pattern for which this concept map is a valid substitution
@@ -80,7 +128,14 @@ public class ConceptMap extends Answer {
      */
     @CheckReturnValue
     @Nullable
-    public Pattern getPattern() { return pattern;}
+    public Pattern getPattern() {
+        PatternProvenance provenance = this.provenance;
+        if (provenance != null) {
+            pattern = provenance.pattern();
+            this.provenance = null;
+        }
+        return pattern;
+    }
 
     /**
      * @return all explanations taking part in the derivation of this answer
@@ -163,7 +218,7 @@ public class ConceptMap extends Answer {
      * @return explained answer
      */
     public ConceptMap explain(Explanation exp) {
-        return new ConceptMap(this.map, exp, this.getPattern());
+        return new ConceptMap(this.map, exp, this);
     }
 
     /**
@@ -172,12 +227,10 @@ public class ConceptMap extends Answer {
      */
     @CheckReturnValue
     public ConceptMap project(Set<Variable> vars) {
-        return new ConceptMap(
-                this.map.entrySet().stream()
-                        .filter(e -> vars.contains(e.getKey()))
-                        .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue)),
-                this.explanation,
-                this.pattern
-        );
+        Map<Variable, Concept> projection = new HashMap<>();
+        for (Map.Entry<Variable, Concept> entry : map.entrySet()) {
+            if (vars.contains(entry.getKey())) projection.put(entry.getKey(), entry.getValue());
+        }
+        return new ConceptMap(projection, this.explanation, this);
     }
 }
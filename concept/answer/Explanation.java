@@ -19,7 +19,6 @@
 package grakn.core.concept.answer;
 
 import javax.annotation.CheckReturnValue;
-import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
@@ -38,7 +37,7 @@ public class Explanation {
     }
 
     public Explanation() {
-        this(new ArrayList<>());
+        this.answers = Collections.emptyList();
     }
 
     /**
@@ -0,0 +1,113 @@
+/*
+ * Copyright (C) 2020 Grakn Labs
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ */
+
+package grakn.core.concept.answer;
+
+import grakn.core.kb.concept.api.Concept;
+import graql.lang.Graql;
+import graql.lang.pattern.Conjunction;
+import graql.lang.pattern.Pattern;
+import graql.lang.statement.Statement;
+import graql.lang.statement.Variable;
+
+import javax.annotation.Nullable;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Compact reference to the queries an answer was found for, from which the pattern of the answer is built when it is
+ * first requested. Only the query patterns and the substitutions are kept, so that answers don't retain the queries
+ * and the answers they were derived from.
+ */
+public abstract class PatternProvenance {
+
+    /**
+     * @param queryPattern pattern of the query the answer was found for
+     * @param substitution concepts bound to the query variables, added to the query pattern as id statements
+     * @return provenance of the pattern of an answer to the query
+     */
+    public static PatternProvenance of(Conjunction<Pattern> queryPattern, Map<Variable, Concept> substitution) {
+        return new QueryProvenance(queryPattern, substitution);
+    }
+
+    /**
+     * @return provenance of the pattern of an answer joined from answers with the provided provenances,
+     * null if neither of them has one
+     */
+    @Nullable
+    public static PatternProvenance join(@Nullable PatternProvenance left, @Nullable PatternProvenance right) {
+        if (left == null) return right;
+        if (right == null) return left;
+        return new JoinProvenance(left, right);
+    }
+
+    static PatternProvenance of(Pattern pattern) {
+        return new FixedProvenance(pattern);
+    }
+
+    abstract Pattern pattern();
+
+    private static class QueryProvenance extends PatternProvenance {
+        private final Conjunction<Pattern> queryPattern;
+        private final Map<Variable, Concept> substitution;
+
+        QueryProvenance(Conjunction<Pattern> queryPattern, Map<Variable, Concept> substitution) {
+            this.queryPattern = queryPattern;
+            this.substitution = substitution;
+        }
+
+        @Override
+        Pattern pattern() {
+            Set<Variable> vars = queryPattern.variables();
+            Set<Pattern> patterns = new HashSet<>(queryPattern.getPatterns());
+            substitution.forEach((var, concept) -> {
+                if (vars.contains(var)) patterns.add(new Statement(var.asReturnedVar()).id(concept.id().getValue()));
+            });
+            return Graql.and(patterns);
+        }
+    }
+
+    private static class JoinProvenance extends PatternProvenance {
+        private final PatternProvenance left;
+        private final PatternProvenance right;
+
+        JoinProvenance(PatternProvenance left, PatternProvenance right) {
+            this.left = left;
+            this.right = right;
+        }
+
+        @Override
+        Pattern pattern() {
+            return Graql.and(left.pattern(), right.pattern());
+        }
+    }
+
+    private static class FixedProvenance extends PatternProvenance {
+        private final Pattern pattern;
+
+        FixedProvenance(Pattern pattern) {
+            this.pattern = pattern;
+        }
+
+        @Override
+        Pattern pattern() {
+            return pattern;
+        }
+    }
+}
@@ -374,4 +374,14 @@ public class TypeImpl<T extends Type, V extends Thing> extends SchemaConceptImpl
         vertex().property(Schema.VertexProperty.INSTANCE_COUNT, count);
     }
 
+    @Override
+    public String edgeCounts() {
+        return vertex().property(Schema.VertexProperty.EDGE_COUNTS);
+    }
+
+    @Override
+    public void writeEdgeCounts(String edgeCounts) {
+        vertex().property(Schema.VertexProperty.EDGE_COUNTS, edgeCounts);
+    }
+
 }
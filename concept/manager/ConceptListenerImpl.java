@@ -78,7 +78,12 @@ public class ConceptListenerImpl implements ConceptListener {
     public void thingDeleted(Thing thing) {
         Type type = thing.type();
         statistics.decrement(type);
+        if (thing.isRelation() && !thing.isInferred()) {
+            // the role player edges of a deleted relation are removed with it, without notifying of each casting
+            RelationImpl.from(thing.asRelation()).castingsRelation().forEach(statistics::decrementRolePlayer);
+        }
         queryCache.ackDeletion(type);
+        if (!thing.isInferred()) transactionCache.retractedType(type.label());
         conceptDeleted(thing);
         if(thing.isAttribute()) attributeDeleted(thing.asAttribute());
     }
@@ -99,6 +104,8 @@ public class ConceptListenerImpl implements ConceptListener {
     @Override
     public void schemaConceptDeleted(SchemaConcept schemaConcept) {
         ruleCache.clear();
+        // the conclusions of a deleted rule may need retracting
+        if (schemaConcept.isRule()) schemaConcept.asRule().thenTypes().forEach(type -> transactionCache.retractedType(type.label()));
         conceptDeleted(schemaConcept);
     }
 
@@ -143,6 +150,7 @@ public class ConceptListenerImpl implements ConceptListener {
         transactionCache.addNewAttribute(label, index, attribute.id());
         thingCreated(attribute, isInferred);
         attributeManager.ackAttributeInsert(index, txId);
+        if (!isInferred) statistics.valueCreated(label, value);
     }
 
     private <D> void attributeDeleted(Attribute<D> attribute) {
@@ -150,6 +158,7 @@ public class ConceptListenerImpl implements ConceptListener {
         //Track the attribute by index
         String index = Schema.generateAttributeIndex(type.label(), attribute.value().toString());
         attributeManager.ackAttributeDelete(index, txId);
+        if (!attribute.isInferred()) statistics.valueDeleted(type.label(), attribute.value());
     }
 
     @Override
@@ -172,7 +181,7 @@ public class ConceptListenerImpl implements ConceptListener {
             transactionCache.addModifiedKeyIndex(index);
         }
 
-        statistics.incrementOwnership(attribute.type());
+        statistics.incrementOwnership(owner, attribute);
         transactionCache.hasAttributeCreated(owner, attribute, isInferred);
     }
 
@@ -182,8 +191,9 @@ public class ConceptListenerImpl implements ConceptListener {
             transactionCache.trackForValidation(owner);
         }
 
-        statistics.decrementOwnership(attribute.type());
+        statistics.decrementOwnership(owner, attribute);
         transactionCache.hasAttributeDeleted(owner, attribute, isInferred);
+        if (!isInferred) transactionCache.retractedType(attribute.type().label());
     }
 
     @Override
@@ -242,6 +252,11 @@ public class ConceptListenerImpl implements ConceptListener {
     @Override
     public void castingDeleted(Casting casting) {
        transactionCache.deleteCasting(casting);
+       Relation relation = casting.getRelation();
+       if (!relation.isInferred()) {
+           statistics.decrementRolePlayer(casting);
+           transactionCache.retractedType(relation.type().label());
+       }
     }
 
     @Override
@@ -259,5 +274,7 @@ public class ConceptListenerImpl implements ConceptListener {
     @Override
     public void rolePlayerCreated(Casting casting) {
         transactionCache.trackForValidation(casting);
+        // inferred relations are discarded on commit without notifying of their castings, so they are not counted
+        if (!casting.getRelation().isInferred()) statistics.incrementRolePlayer(casting);
     }
 }
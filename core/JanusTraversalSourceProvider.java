@@ -19,10 +19,16 @@
 package grakn.core.core;
 
 import grakn.core.graph.core.JanusGraphTransaction;
+import grakn.core.graph.core.schema.SchemaStatus;
+import grakn.core.graph.graphdb.database.management.ManagementSystem;
+import grakn.core.graph.graphdb.transaction.StandardJanusGraphTx;
+import grakn.core.graph.graphdb.types.IndexType;
+import grakn.core.graph.graphdb.types.MixedIndexType;
 import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversalSource;
 import org.apache.tinkerpop.gremlin.process.traversal.strategy.verification.ReadOnlyStrategy;
 
 import javax.annotation.Nullable;
+import java.util.Arrays;
 
 /**
  * For now, we put the provider of janus traversal source in its own class to be shared everwhere
@@ -56,6 +62,18 @@ public class JanusTraversalSourceProvider {
         return graphTraversalSource;
     }
 
+    /**
+     * @return true if all values of the value index are indexed, so that the graph-centric queries of the values
+     * are answered by its backend
+     */
+    public boolean isIndexEnabled(Schema.ValueIndex valueIndex) {
+        checkThreadLocal();
+        if (!(janusGraphTransaction instanceof StandardJanusGraphTx)) return false;
+        IndexType index = ManagementSystem.getGraphIndexDirect(valueIndex.getName(), (StandardJanusGraphTx) janusGraphTransaction);
+        return index instanceof MixedIndexType && Arrays.stream(((MixedIndexType) index).getFieldKeys())
+                .allMatch(field -> field.getStatus() == SchemaStatus.ENABLED);
+    }
+
     private void checkThreadLocal() {
         if (!createdInCurrentThread.get()) {
             throw new RuntimeException("Transaction is no longer in thread it originated in");
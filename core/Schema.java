@@ -188,16 +188,16 @@ public final class Schema {
      */
     public enum VertexProperty {
         // Schema concept properties
-        SCHEMA_LABEL(String.class), LABEL_ID(Integer.class), INSTANCE_COUNT(Long.class), OWNERSHIP_COUNT(Long.class), TYPE_SHARD_CHECKPOINT(Long.class), IS_ABSTRACT(Boolean.class),
+        SCHEMA_LABEL(String.class), LABEL_ID(Integer.class), INSTANCE_COUNT(Long.class), OWNERSHIP_COUNT(Long.class), EDGE_COUNTS(String.class), TYPE_SHARD_CHECKPOINT(Long.class), IS_ABSTRACT(Boolean.class),
 
         // Attribute schema concept properties
-        REGEX(String.class), VALUE_TYPE(String.class),
+        REGEX(String.class), VALUE_TYPE(String.class), VALUE_HISTOGRAM(String.class),
 
         // Attribute concept properties
         INDEX(String.class),
 
         // Properties on all Concept vertices
-        THING_TYPE_LABEL_ID(Integer.class), IS_INFERRED(Boolean.class),
+        THING_TYPE_LABEL_ID(Integer.class), IS_INFERRED(Boolean.class), IS_MATERIALISED(Boolean.class),
 
         // Misc. properties
         CURRENT_LABEL_ID(Integer.class), RULE_WHEN(String.class), RULE_THEN(String.class), CURRENT_SHARD(String.class),
@@ -235,6 +235,39 @@ public final class Schema {
         }
     }
 
+    /**
+     * The mixed indexes of the attribute values, each held by the embedded index backend of the same name.
+     */
+    public enum ValueIndex {
+        RANGE("byValueRange", "range", VertexProperty.VALUE_LONG, VertexProperty.VALUE_DOUBLE, VertexProperty.VALUE_DATE),
+        TEXT("byValueText", "text", VertexProperty.VALUE_STRING);
+
+        private final String name;
+        private final String backend;
+        private final VertexProperty[] properties;
+
+        ValueIndex(String name, String backend, VertexProperty... properties) {
+            this.name = name;
+            this.backend = backend;
+            this.properties = properties;
+        }
+
+        @CheckReturnValue
+        public String getName() {
+            return name;
+        }
+
+        @CheckReturnValue
+        public String getBackend() {
+            return backend;
+        }
+
+        @CheckReturnValue
+        public VertexProperty[] getProperties() {
+            return properties.clone();
+        }
+    }
+
     /**
      * A property enum defining the possible labels that can go on the edge label.
      */
@@ -245,6 +278,7 @@ public final class Schema {
         RELATION_TYPE_LABEL_ID(Integer.class),
         REQUIRED(Boolean.class),
         IS_INFERRED(Boolean.class),
+        IS_MATERIALISED(Boolean.class),
         // forwards compatibility
         ATTRIBUTE_OWNED_LABEL_ID(Integer.class),
         ATTRIBUTE_OWNER_LABEL_ID(Integer.class);
@@ -31,6 +31,7 @@ import java.util.Map;
  */
 public enum StandardIndexProvider {
     LUCENE("grakn.core.graph.diskstorage.lucene.LuceneIndex", "lucene"),
+    LOCAL("grakn.core.graph.diskstorage.local.LocalIndex", "local"),
     ELASTICSEARCH("grakn.core.graph.diskstorage.es.ElasticSearchIndex", ImmutableList.of("elasticsearch", "es")),
     SOLR("grakn.core.graph.diskstorage.solr.SolrIndex", "solr");
 
@@ -17,12 +17,12 @@
 
 package grakn.core.graph.diskstorage.cql;
 
+import com.datastax.oss.driver.api.core.ConsistencyLevel;
 import com.datastax.oss.driver.api.core.CqlSession;
+import com.datastax.oss.driver.api.core.cql.AsyncResultSet;
 import com.datastax.oss.driver.api.core.cql.BatchableStatement;
 import com.datastax.oss.driver.api.core.cql.BoundStatement;
 import com.datastax.oss.driver.api.core.cql.PreparedStatement;
-import com.datastax.oss.driver.api.core.cql.ResultSet;
-import com.datastax.oss.driver.api.core.cql.Row;
 import com.datastax.oss.driver.api.core.metadata.TokenMap;
 import com.datastax.oss.driver.api.core.servererrors.QueryValidationException;
 import com.datastax.oss.driver.api.core.type.DataTypes;
@@ -31,7 +31,6 @@ import com.datastax.oss.driver.api.querybuilder.relation.Relation;
 import com.datastax.oss.driver.api.querybuilder.schema.CreateTableWithOptions;
 import com.datastax.oss.driver.api.querybuilder.schema.compaction.CompactionStrategy;
 import com.google.common.collect.ImmutableMap;
-import com.google.common.collect.Lists;
 import grakn.core.graph.diskstorage.BackendException;
 import grakn.core.graph.diskstorage.Entry;
 import grakn.core.graph.diskstorage.EntryList;
@@ -48,19 +47,17 @@ import grakn.core.graph.diskstorage.keycolumnvalue.KeySliceQuery;
 import grakn.core.graph.diskstorage.keycolumnvalue.SliceQuery;
 import grakn.core.graph.diskstorage.keycolumnvalue.StoreTransaction;
 import grakn.core.graph.diskstorage.util.StaticArrayBuffer;
-import grakn.core.graph.diskstorage.util.StaticArrayEntry;
-import grakn.core.graph.diskstorage.util.StaticArrayEntryList;
-import io.vavr.Lazy;
-import io.vavr.Tuple;
-import io.vavr.Tuple3;
 import io.vavr.collection.Array;
 import io.vavr.collection.Iterator;
 import io.vavr.control.Try;
 
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
 import java.util.function.Function;
 
 import static com.datastax.oss.driver.api.querybuilder.QueryBuilder.bindMarker;
@@ -294,35 +291,45 @@ public class CQLKeyColumnValueStore implements KeyColumnValueStore {
     }
 
     @Override
-    public EntryList getSlice(KeySliceQuery query, StoreTransaction txh) {
-        ResultSet result = this.storeManager.executeOnSession(this.getSlice.bind()
-                .setByteBuffer(KEY_BINDING, query.getKey().asByteBuffer())
-                .setByteBuffer(SLICE_START_BINDING, query.getSliceStart().asByteBuffer())
-                .setByteBuffer(SLICE_END_BINDING, query.getSliceEnd().asByteBuffer())
-                .setInt(LIMIT_BINDING, query.getLimit())
-                .setConsistencyLevel(getTransaction(txh).getReadConsistencyLevel()));
-
-        return fromResultSet(result, this.getter);
+    public EntryList getSlice(KeySliceQuery query, StoreTransaction txh) throws BackendException {
+        return getSlice(Collections.singletonList(query.getKey()), query, txh).get(query.getKey());
     }
 
+    /**
+     * Sends the slice query of every key asynchronously, with the number of requests in flight bounded by the
+     * CQLStoreManager semaphore, and waits for the first page of each result. Unlike fanning blocking queries out to
+     * a thread pool, this holds no thread per request while waiting on Cassandra. Results are paged by the configured
+     * page size, and the following pages of a result are only fetched as its CQLPagedEntryList is iterated.
+     */
     @Override
     public Map<StaticBuffer, EntryList> getSlice(List<StaticBuffer> keys, SliceQuery query, StoreTransaction txh) throws BackendException {
-        throw new UnsupportedOperationException("The CQL backend does not support multi-key queries");
-    }
+        ConsistencyLevel consistencyLevel = getTransaction(txh).getReadConsistencyLevel();
+        List<CompletableFuture<AsyncResultSet>> futures = new ArrayList<>(keys.size());
+        for (StaticBuffer key : keys) {
+            futures.add(this.storeManager.executeAsyncOnSession(this.getSlice.bind()
+                    .setByteBuffer(KEY_BINDING, key.asByteBuffer())
+                    .setByteBuffer(SLICE_START_BINDING, query.getSliceStart().asByteBuffer())
+                    .setByteBuffer(SLICE_END_BINDING, query.getSliceEnd().asByteBuffer())
+                    .setInt(LIMIT_BINDING, query.getLimit())
+                    .setPageSize(this.pageSize)
+                    .setConsistencyLevel(consistencyLevel))
+                    .toCompletableFuture());
+        }
 
-    private static EntryList fromResultSet(ResultSet resultSet, StaticArrayEntry.GetColVal<Tuple3<StaticBuffer, StaticBuffer, Row>, StaticBuffer> getter) {
-        Lazy<ArrayList<Row>> lazyList = Lazy.of(() -> Lists.newArrayList(resultSet));
-
-        // Use the Iterable overload of of ByteBuffer as it's able to allocate
-        // the byte array up front.
-        // To ensure that the Iterator instance is recreated, it is created
-        // within the closure otherwise
-        // the same iterator would be reused and would be exhausted.
-        return StaticArrayEntryList.ofStaticBuffer(() -> Iterator.ofAll(lazyList.get()).map(row -> Tuple.of(
-                StaticArrayBuffer.of(row.getByteBuffer(COLUMN_COLUMN_NAME)),
-                StaticArrayBuffer.of(row.getByteBuffer(VALUE_COLUMN_NAME)),
-                row)),
-                getter);
+        Map<StaticBuffer, EntryList> result = new HashMap<>(keys.size());
+        try {
+            for (int i = 0; i < keys.size(); i++) {
+                result.put(keys.get(i), new CQLPagedEntryList(futures.get(i).get(), this.getter));
+            }
+        } catch (InterruptedException e) {
+            futures.forEach(future -> future.cancel(true));
+            Thread.currentThread().interrupt();
+            throw EXCEPTION_MAPPER.apply(e);
+        } catch (ExecutionException e) {
+            futures.forEach(future -> future.cancel(true));
+            throw EXCEPTION_MAPPER.apply(e.getCause());
+        }
+        return result;
     }
 
     /*
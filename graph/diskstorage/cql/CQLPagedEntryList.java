@@ -0,0 +1,166 @@
+/*
+ * Copyright (C) 2020 Grakn Labs
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package grakn.core.graph.diskstorage.cql;
+
+import com.datastax.oss.driver.api.core.cql.AsyncResultSet;
+import com.datastax.oss.driver.api.core.cql.Row;
+import grakn.core.graph.core.JanusGraphException;
+import grakn.core.graph.diskstorage.Entry;
+import grakn.core.graph.diskstorage.EntryList;
+import grakn.core.graph.diskstorage.util.StaticArrayBuffer;
+import grakn.core.graph.diskstorage.util.StaticArrayEntry;
+import io.vavr.Tuple;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * EntryList over the pages of an asynchronous CQL result set, which only fetches the pages it is asked for.
+ *
+ * It starts with the first page of the result and retrieves the following pages as the entries are iterated over:
+ * the next page is requested in the background as soon as the entries of the last retrieved page start being
+ * consumed, and waited for once they run out. A vertex-centric query on a high-degree vertex can therefore start
+ * processing its relations after the first page arrives, and a query which stops early, eg. because of a limit,
+ * fetches at most one page more than it consumes. Operations which need the whole result, such as #size() or
+ * #getByteSize(), retrieve all the remaining pages.
+ *
+ * Retrieved entries are kept, so the list can be iterated any number of times, eg. when cached by a vertex.
+ * As the pages are fetched outside of the backend operation that issued the query, a failure to fetch a page is
+ * thrown as a JanusGraphException.
+ */
+class CQLPagedEntryList extends AbstractList<Entry> implements EntryList {
+
+    // estimated heap used by an entry besides its data: object headers, fields and array reference
+    private static final int ENTRY_OVERHEAD = 48;
+
+    private final CQLColValGetter getter;
+    private final List<Entry> entries = new ArrayList<>();
+
+    private AsyncResultSet lastPage;
+    private int lastPageStart;
+    private CompletionStage<AsyncResultSet> nextPage = null;
+
+    CQLPagedEntryList(AsyncResultSet firstPage, CQLColValGetter getter) {
+        this.getter = getter;
+        append(firstPage);
+    }
+
+    @Override
+    public synchronized Entry get(int index) {
+        if (index < 0 || !retrieve(index)) throw new IndexOutOfBoundsException("Index: " + index);
+        return entries.get(index);
+    }
+
+    @Override
+    public synchronized int size() {
+        retrieve(Integer.MAX_VALUE);
+        return entries.size();
+    }
+
+    @Override
+    public synchronized boolean isEmpty() {
+        return !retrieve(0);
+    }
+
+    @Override
+    public Iterator<Entry> iterator() {
+        return new Iterator<Entry>() {
+            private int index = 0;
+
+            @Override
+            public boolean hasNext() {
+                synchronized (CQLPagedEntryList.this) {
+                    return retrieve(index);
+                }
+            }
+
+            @Override
+            public Entry next() {
+                if (!hasNext()) throw new NoSuchElementException();
+                synchronized (CQLPagedEntryList.this) {
+                    return entries.get(index++);
+                }
+            }
+        };
+    }
+
+    @Override
+    public Iterator<Entry> reuseIterator() {
+        return iterator();
+    }
+
+    @Override
+    public synchronized int getByteSize() {
+        retrieve(Integer.MAX_VALUE);
+        long size = 16 + 16 + 4L * entries.size();
+        for (Entry entry : entries) {
+            size += ENTRY_OVERHEAD + entry.length();
+        }
+        return (int) Math.min(size, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Retrieves pages until the entry at the given index is available or there are no more pages
+     *
+     * @return true if the entry at the given index exists
+     */
+    private boolean retrieve(int index) {
+        while (index >= entries.size() && lastPage.hasMorePages()) {
+            CompletionStage<AsyncResultSet> page = requestNextPage();
+            nextPage = null;
+            append(await(page));
+        }
+        // prefetch the next page as soon as the last retrieved page is being consumed
+        if (index >= lastPageStart && index < entries.size() && lastPage.hasMorePages()) {
+            requestNextPage();
+        }
+        return index < entries.size();
+    }
+
+    private CompletionStage<AsyncResultSet> requestNextPage() {
+        if (nextPage == null) nextPage = lastPage.fetchNextPage();
+        return nextPage;
+    }
+
+    private static AsyncResultSet await(CompletionStage<AsyncResultSet> page) {
+        try {
+            return page.toCompletableFuture().get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new JanusGraphException("Interrupted while fetching the next page of a CQL result", e);
+        } catch (ExecutionException e) {
+            throw new JanusGraphException("Could not fetch the next page of a CQL result", e.getCause());
+        }
+    }
+
+    private void append(AsyncResultSet page) {
+        lastPage = page;
+        lastPageStart = entries.size();
+        for (Row row : page.currentPage()) {
+            entries.add(StaticArrayEntry.ofStaticBuffer(Tuple.of(
+                    StaticArrayBuffer.of(row.getByteBuffer(CQLKeyColumnValueStore.COLUMN_COLUMN_NAME)),
+                    StaticArrayBuffer.of(row.getByteBuffer(CQLKeyColumnValueStore.VALUE_COLUMN_NAME)),
+                    row), getter));
+        }
+    }
+}
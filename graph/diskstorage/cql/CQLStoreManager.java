@@ -160,7 +160,7 @@ public class CQLStoreManager extends AbstractStoreManager implements KeyColumnVa
         fb.keyConsistent(global, local);
         fb.locking(false);
         fb.optimisticLocking(true);
-        fb.multiQuery(false);
+        fb.multiQuery(true);
 
         String partitioner = this.session.getMetadata().getTokenMap().get().getPartitionerName();
         switch (partitioner.substring(partitioner.lastIndexOf('.') + 1)) {
@@ -287,7 +287,7 @@ public class CQLStoreManager extends AbstractStoreManager implements KeyColumnVa
         }
     }
 
-    private CompletionStage<AsyncResultSet> executeAsyncOnSession(Statement statement) {
+    CompletionStage<AsyncResultSet> executeAsyncOnSession(Statement statement) {
         try {
             this.semaphore.acquire();
             CompletionStage<AsyncResultSet> async = this.session.executeAsync(statement);
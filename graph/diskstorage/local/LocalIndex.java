@@ -0,0 +1,248 @@
+/*
+ * Copyright (C) 2020 Grakn Labs
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package grakn.core.graph.diskstorage.local;
+
+import com.google.common.base.Preconditions;
+import grakn.core.graph.core.Cardinality;
+import grakn.core.graph.core.attribute.Cmp;
+import grakn.core.graph.core.attribute.Text;
+import grakn.core.graph.core.schema.Mapping;
+import grakn.core.graph.diskstorage.BackendException;
+import grakn.core.graph.diskstorage.BaseTransaction;
+import grakn.core.graph.diskstorage.BaseTransactionConfig;
+import grakn.core.graph.diskstorage.BaseTransactionConfigurable;
+import grakn.core.graph.diskstorage.PermanentBackendException;
+import grakn.core.graph.diskstorage.configuration.Configuration;
+import grakn.core.graph.diskstorage.indexing.IndexEntry;
+import grakn.core.graph.diskstorage.indexing.IndexFeatures;
+import grakn.core.graph.diskstorage.indexing.IndexMutation;
+import grakn.core.graph.diskstorage.indexing.IndexProvider;
+import grakn.core.graph.diskstorage.indexing.IndexQuery;
+import grakn.core.graph.diskstorage.indexing.KeyInformation;
+import grakn.core.graph.diskstorage.indexing.RawQuery;
+import grakn.core.graph.graphdb.query.JanusGraphPredicate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import static grakn.core.graph.graphdb.configuration.GraphDatabaseConfiguration.INDEX_DIRECTORY;
+
+/**
+ * Embedded IndexProvider keeping ordered indexes of numeric fields and n-gram indexes of string fields in a local directory.
+ *
+ * Each store of the index is kept by a LocalIndexStore in its own sub-directory of the index directory, on disk rather
+ * than in memory. Comparisons of the numeric fields are answered by range scans of their ordered values, regular
+ * expressions over the string fields by matching the values holding the n-grams of their literals.
+ * Updates of concurrent transactions are applied one at a time when the transactions commit.
+ */
+public class LocalIndex implements IndexProvider {
+
+    private static final Logger LOG = LoggerFactory.getLogger(LocalIndex.class);
+
+    private static final IndexFeatures FEATURES = new IndexFeatures.Builder()
+            .setDefaultStringMapping(Mapping.STRING)
+            .supportedStringMappings(Mapping.STRING)
+            .supportsCardinality(Cardinality.SINGLE)
+            .supportNotQueryNormalForm()
+            .build();
+
+    private final Path directory;
+    private final Map<String, LocalIndexStore> stores = new ConcurrentHashMap<>();
+
+    public LocalIndex(Configuration config) throws BackendException {
+        Preconditions.checkArgument(config.has(INDEX_DIRECTORY), "Need to configure the directory of the local index");
+        directory = Paths.get(config.get(INDEX_DIRECTORY));
+        try {
+            Files.createDirectories(directory);
+        } catch (IOException e) {
+            throw new PermanentBackendException("Could not create the local index directory " + directory, e);
+        }
+    }
+
+    @Override
+    public void register(String store, String key, KeyInformation information, BaseTransaction tx) throws BackendException {
+        // fields need no registration, their values are ordered by their types
+        store(store);
+    }
+
+    @Override
+    public void mutate(Map<String, Map<String, IndexMutation>> mutations, KeyInformation.IndexRetriever information, BaseTransaction tx) {
+        ((LocalIndexTransaction) tx).mutate(mutations);
+    }
+
+    @Override
+    public void restore(Map<String, Map<String, List<IndexEntry>>> documents, KeyInformation.IndexRetriever information, BaseTransaction tx) {
+        ((LocalIndexTransaction) tx).restore(documents);
+    }
+
+    @Override
+    public Stream<String> query(IndexQuery query, KeyInformation.IndexRetriever information, BaseTransaction tx) throws BackendException {
+        LocalIndexStore store = store(query.getStore());
+        // the documents are read as the stream is consumed, so that a limited query stops reading at its limit
+        Stream<String> documents = StreamSupport.stream(Spliterators.spliteratorUnknownSize(store.query(query.getCondition()), Spliterator.ORDERED), false);
+        if (!query.getOrder().isEmpty()) documents = documents.sorted(store.order(query.getOrder()));
+        if (query.hasLimit()) documents = documents.limit(query.getLimit());
+        return documents;
+    }
+
+    @Override
+    public Stream<RawQuery.Result<String>> query(RawQuery query, KeyInformation.IndexRetriever information, BaseTransaction tx) throws BackendException {
+        throw new PermanentBackendException("Raw queries are not supported by the local index");
+    }
+
+    @Override
+    public Long totals(RawQuery query, KeyInformation.IndexRetriever information, BaseTransaction tx) throws BackendException {
+        throw new PermanentBackendException("Raw queries are not supported by the local index");
+    }
+
+    @Override
+    public BaseTransactionConfigurable beginTransaction(BaseTransactionConfig config) {
+        return new LocalIndexTransaction(this, config);
+    }
+
+    /**
+     * Stages the updates of the transaction in a batch per updated store, writes all batches out to the logs of their
+     * stores, then applies them, so that no update is read before the updates of the transaction are durable.
+     */
+    synchronized void commit(LocalIndexTransaction tx) throws BackendException {
+        Map<LocalIndexStore, SortedStore.Batch> batches = new LinkedHashMap<>();
+        try {
+            for (LocalIndexTransaction.Update update : tx.updates()) {
+                LocalIndexStore store = store(update.store);
+                SortedStore.Batch batch = batches.computeIfAbsent(store, LocalIndexStore::batch);
+                if (update.mutation != null) {
+                    store.mutate(batch, update.document, update.mutation);
+                } else {
+                    store.restore(batch, update.document, update.content);
+                }
+            }
+            for (Map.Entry<LocalIndexStore, SortedStore.Batch> batch : batches.entrySet()) {
+                batch.getKey().log(batch.getValue());
+            }
+            for (Map.Entry<LocalIndexStore, SortedStore.Batch> batch : batches.entrySet()) {
+                batch.getKey().apply(batch.getValue());
+            }
+        } catch (IOException e) {
+            throw new PermanentBackendException("Could not write to the local index " + directory, e);
+        }
+    }
+
+    @Override
+    public synchronized void close() throws BackendException {
+        try {
+            for (LocalIndexStore store : stores.values()) {
+                store.close();
+            }
+            stores.clear();
+        } catch (IOException e) {
+            throw new PermanentBackendException("Could not close the local index " + directory, e);
+        }
+    }
+
+    @Override
+    public synchronized void clearStorage() throws BackendException {
+        try {
+            for (LocalIndexStore store : stores.values()) {
+                store.delete();
+            }
+            stores.clear();
+            if (Files.isDirectory(directory)) {
+                try (Stream<Path> files = Files.walk(directory)) {
+                    // the files of a directory come before the directory in the reverse order
+                    Iterator<Path> reversed = files.sorted(Comparator.reverseOrder()).iterator();
+                    while (reversed.hasNext()) {
+                        Files.delete(reversed.next());
+                    }
+                }
+            }
+            LOG.debug("Cleared local index {}", directory);
+        } catch (IOException e) {
+            throw new PermanentBackendException("Could not clear the local index " + directory, e);
+        }
+    }
+
+    @Override
+    public boolean exists() throws BackendException {
+        if (!Files.isDirectory(directory)) return false;
+        try (DirectoryStream<Path> stores = Files.newDirectoryStream(directory, Files::isDirectory)) {
+            return stores.iterator().hasNext();
+        } catch (IOException e) {
+            throw new PermanentBackendException("Could not read the local index " + directory, e);
+        }
+    }
+
+    @Override
+    public boolean supports(KeyInformation information, JanusGraphPredicate janusgraphPredicate) {
+        if (!supports(information)) return false;
+        if (information.getDataType() == String.class) return janusgraphPredicate == Text.REGEX;
+        return janusgraphPredicate instanceof Cmp;
+    }
+
+    @Override
+    public boolean supports(KeyInformation information) {
+        Class<?> dataType = information.getDataType();
+        return (Number.class.isAssignableFrom(dataType) || dataType == String.class) && information.getCardinality() == Cardinality.SINGLE;
+    }
+
+    @Override
+    public String mapKey2Field(String key, KeyInformation information) {
+        IndexProvider.checkKeyValidity(key);
+        return key.replace(' ', REPLACEMENT_CHAR);
+    }
+
+    @Override
+    public IndexFeatures getFeatures() {
+        return FEATURES;
+    }
+
+    private LocalIndexStore store(String name) throws BackendException {
+        LocalIndexStore store = stores.get(name);
+        return store != null ? store : open(name);
+    }
+
+    /**
+     * @return the store of the given name, opening it from its directory if it was not opened yet
+     */
+    private synchronized LocalIndexStore open(String name) throws BackendException {
+        LocalIndexStore store = stores.get(name);
+        if (store == null) {
+            try {
+                store = new LocalIndexStore(directory.resolve(name));
+            } catch (IOException e) {
+                throw new PermanentBackendException("Could not open the local index store " + name, e);
+            }
+            stores.put(name, store);
+        }
+        return store;
+    }
+}
@@ -0,0 +1,535 @@
+/*
+ * Copyright (C) 2020 Grakn Labs
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package grakn.core.graph.diskstorage.local;
+
+import com.google.common.collect.AbstractIterator;
+import com.google.common.collect.Iterators;
+import com.google.common.collect.PeekingIterator;
+import grakn.core.graph.core.attribute.Cmp;
+import grakn.core.graph.core.attribute.Text;
+import grakn.core.graph.diskstorage.indexing.IndexEntry;
+import grakn.core.graph.diskstorage.indexing.IndexMutation;
+import grakn.core.graph.diskstorage.indexing.IndexQuery;
+import grakn.core.graph.graphdb.query.JanusGraphPredicate;
+import grakn.core.graph.graphdb.query.condition.Condition;
+import grakn.core.graph.graphdb.query.condition.Not;
+import grakn.core.graph.graphdb.query.condition.PredicateCondition;
+
+import javax.annotation.Nullable;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.regex.Pattern;
+import java.util.stream.IntStream;
+
+/**
+ * Documents of a single store of the LocalIndex, kept on disk in a SortedStore.
+ *
+ * The store holds three kinds of keys, each starting with its kind and followed by its order-preserving encoded parts:
+ * the value of a field of a document, under (document, field); the document holding a value, under
+ * (field, value, document), so that comparisons are answered with range scans of the field; and for string values,
+ * the document holding each NGram of the value, under (field, n-gram, document), so that only the documents holding
+ * an n-gram of the literals of a regular expression are matched against it. The updates of a transaction are staged
+ * in a batch, which is written out to the log of the store before it is applied.
+ *
+ * Queries read the documents lazily, as they are iterated. Updates are applied by a single thread at a time, queries
+ * may run concurrently with them.
+ */
+class LocalIndexStore {
+
+    private static final byte DOCUMENT_KEY = 'D';
+    private static final byte VALUE_KEY = 'V';
+    private static final byte GRAM_KEY = 'G';
+
+    // kinds of the encoded values in the value keys, numbers of all types are ordered together
+    private static final byte NUMBER = 1;
+    private static final byte STRING = 2;
+    private static final int NUMBER_LENGTH = 2 * Long.BYTES;
+
+    // the bytes ending an encoded string and escaping the zero bytes it holds
+    private static final byte ESCAPE = 0;
+    private static final byte TERMINATOR = 1;
+    private static final byte ESCAPED_ZERO = (byte) 0xFF;
+
+    private static final byte[] EMPTY = new byte[0];
+
+    private final SortedStore store;
+
+    LocalIndexStore(Path directory) throws IOException {
+        this.store = new SortedStore(directory);
+    }
+
+    /**
+     * @return new batch staging the updates of a transaction, to be logged then applied
+     */
+    SortedStore.Batch batch() {
+        return store.batch();
+    }
+
+    /**
+     * Stages the mutation of a document in the batch.
+     */
+    void mutate(SortedStore.Batch batch, String document, IndexMutation mutation) throws IOException {
+        if (mutation.isDeleted()) {
+            deleteDocument(batch, document);
+            return;
+        }
+        for (IndexEntry deletion : mutation.getDeletions()) {
+            delete(batch, document, deletion.field);
+        }
+        for (IndexEntry addition : mutation.getAdditions()) {
+            add(batch, document, addition.field, addition.value);
+        }
+    }
+
+    /**
+     * Stages the replacement of the content of the document in the batch, deleting the document if the content is empty.
+     */
+    void restore(SortedStore.Batch batch, String document, List<IndexEntry> content) throws IOException {
+        deleteDocument(batch, document);
+        for (IndexEntry entry : content) {
+            add(batch, document, entry.field, entry.value);
+        }
+    }
+
+    /**
+     * Writes the staged updates out to the disk.
+     */
+    void log(SortedStore.Batch batch) throws IOException {
+        store.log(batch);
+    }
+
+    /**
+     * Applies the logged updates, so that they are read by the queries.
+     */
+    void apply(SortedStore.Batch batch) throws IOException {
+        store.apply(batch);
+    }
+
+    /**
+     * @return documents matching the condition, read as they are iterated, failing with an UncheckedIOException if
+     * they cannot be read. Only the documents of one literal of a conjunction are read from its keys, the others are
+     * tested against the values of these documents.
+     */
+    Iterator<String> query(Condition<?> condition) {
+        switch (condition.getType()) {
+            case LITERAL:
+                return matches((PredicateCondition<?, ?>) condition);
+            case NOT:
+                Condition<?> excluded = ((Not<?>) condition).getChild();
+                return Iterators.filter(documents(), document -> !test(document, excluded));
+            case AND:
+                List<Condition<?>> conjuncts = new ArrayList<>();
+                condition.getChildren().forEach(conjuncts::add);
+                if (conjuncts.isEmpty()) return documents();
+                // the documents are read from a literal rather than tested against it
+                int literal = IntStream.range(0, conjuncts.size()).filter(i -> conjuncts.get(i).getType() == Condition.Type.LITERAL).findFirst().orElse(0);
+                Condition<?> read = conjuncts.remove(literal);
+                return Iterators.filter(query(read), document -> conjuncts.stream().allMatch(child -> test(document, child)));
+            case OR:
+                List<Iterator<String>> alternatives = new ArrayList<>();
+                List<Condition<?>> previous = new ArrayList<>();
+                for (Condition<?> child : condition.getChildren()) {
+                    // documents matching a previous alternative were read from it
+                    List<Condition<?>> matched = new ArrayList<>(previous);
+                    alternatives.add(Iterators.filter(query(child), document -> matched.stream().noneMatch(alternative -> test(document, alternative))));
+                    previous.add(child);
+                }
+                return Iterators.concat(alternatives.iterator());
+            default:
+                throw new IllegalArgumentException("Unsupported condition type: " + condition.getType());
+        }
+    }
+
+    /**
+     * @return order of the documents by the values of the order fields, documents missing a field come last
+     */
+    Comparator<String> order(List<IndexQuery.OrderEntry> orders) {
+        Comparator<String> order = (first, second) -> 0;
+        for (IndexQuery.OrderEntry entry : orders) {
+            // the values are read once per document rather than once per comparison
+            Map<String, Optional<Object>> values = new HashMap<>();
+            Comparator<Object> valueOrder = Comparator.nullsLast((a, b) -> entry.getOrder().modulateNaturalOrder(compareValues(a, b)));
+            order = order.thenComparing(document -> values.computeIfAbsent(document, d -> {
+                try {
+                    return Optional.ofNullable(value(d, entry.getKey()));
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }).orElse(null), valueOrder);
+        }
+        return order;
+    }
+
+    void close() throws IOException {
+        store.close();
+    }
+
+    /**
+     * Closes the store and removes its files.
+     */
+    void delete() throws IOException {
+        store.delete();
+    }
+
+    private Iterator<String> matches(PredicateCondition<?, ?> condition) {
+        String field = (String) condition.getKey();
+        JanusGraphPredicate predicate = condition.getPredicate();
+        Object value = condition.getValue();
+        byte[] fieldKey = key(VALUE_KEY, field);
+
+        if (value == null) {
+            if (predicate == Cmp.NOT_EQUAL) return documents(fieldKey, successor(fieldKey));
+            if (predicate != Cmp.EQUAL) throw new IllegalArgumentException("Unsupported predicate on null: " + predicate);
+            return Iterators.filter(documents(), document -> read(document, field) == null);
+        }
+        if (predicate == Text.REGEX) return matchesRegex(field, (String) value);
+
+        byte[] valueKey = concat(fieldKey, sortable(value));
+        if (predicate == Cmp.EQUAL) {
+            return documents(valueKey, successor(valueKey));
+        } else if (predicate == Cmp.NOT_EQUAL) {
+            return Iterators.concat(documents(fieldKey, valueKey), documents(successor(valueKey), successor(fieldKey)));
+        } else if (predicate == Cmp.LESS_THAN) {
+            return documents(fieldKey, valueKey);
+        } else if (predicate == Cmp.LESS_THAN_EQUAL) {
+            return documents(fieldKey, successor(valueKey));
+        } else if (predicate == Cmp.GREATER_THAN) {
+            return documents(successor(valueKey), successor(fieldKey));
+        } else if (predicate == Cmp.GREATER_THAN_EQUAL) {
+            return documents(valueKey, successor(fieldKey));
+        } else {
+            throw new IllegalArgumentException("Unsupported predicate: " + predicate);
+        }
+    }
+
+    /**
+     * Matches the regular expression against the values holding an n-gram of its literals,
+     * or against all values of the field if it has none.
+     */
+    private Iterator<String> matchesRegex(String field, String regex) {
+        Pattern pattern = Pattern.compile(regex);
+        Optional<String> gram = NGrams.requiredLiterals(regex).stream().flatMap(literal -> NGrams.of(literal).stream()).findFirst();
+        if (gram.isPresent()) {
+            byte[] gramKey = key(GRAM_KEY, field, gram.get());
+            Iterator<String> holders = Iterators.transform(store.iterator(gramKey, successor(gramKey)),
+                    entry -> readString(ByteBuffer.wrap(entry.getKey(), gramKey.length, entry.getKey().length - gramKey.length)));
+            return Iterators.filter(holders, document -> {
+                Object value = read(document, field);
+                return value instanceof String && pattern.matcher((String) value).matches();
+            });
+        }
+
+        // the string values are read from the value keys of the field
+        byte[] fieldKey = concat(key(VALUE_KEY, field), new byte[]{STRING});
+        Iterator<String> matching = Iterators.transform(store.iterator(fieldKey, successor(fieldKey)), entry -> {
+            ByteBuffer parts = ByteBuffer.wrap(entry.getKey(), fieldKey.length, entry.getKey().length - fieldKey.length);
+            String string = readString(parts);
+            return pattern.matcher(string).matches() ? readString(parts) : null;
+        });
+        return Iterators.filter(matching, Objects::nonNull);
+    }
+
+    /**
+     * @return true if the values of the document satisfy the condition
+     */
+    private boolean test(String document, Condition<?> condition) {
+        switch (condition.getType()) {
+            case LITERAL:
+                PredicateCondition<?, ?> literal = (PredicateCondition<?, ?>) condition;
+                return satisfies(read(document, (String) literal.getKey()), literal.getPredicate(), literal.getValue());
+            case NOT:
+                return !test(document, ((Not<?>) condition).getChild());
+            case AND:
+                for (Condition<?> child : condition.getChildren()) {
+                    if (!test(document, child)) return false;
+                }
+                return true;
+            case OR:
+                for (Condition<?> child : condition.getChildren()) {
+                    if (test(document, child)) return true;
+                }
+                return false;
+            default:
+                throw new IllegalArgumentException("Unsupported condition type: " + condition.getType());
+        }
+    }
+
+    /**
+     * @return true if the value of a field satisfies the predicate, comparing the values like the value keys order them
+     */
+    private static boolean satisfies(@Nullable Object value, JanusGraphPredicate predicate, @Nullable Object condition) {
+        if (condition == null) {
+            if (predicate == Cmp.EQUAL) return value == null;
+            if (predicate == Cmp.NOT_EQUAL) return value != null;
+            throw new IllegalArgumentException("Unsupported predicate on null: " + predicate);
+        }
+        if (value == null) return false;
+        if (predicate == Text.REGEX) return value instanceof String && Pattern.compile((String) condition).matcher((String) value).matches();
+
+        int order = SortedStore.KEY_ORDER.compare(sortable(value), sortable(condition));
+        if (predicate == Cmp.EQUAL) {
+            return order == 0;
+        } else if (predicate == Cmp.NOT_EQUAL) {
+            return order != 0;
+        } else if (predicate == Cmp.LESS_THAN) {
+            return order < 0;
+        } else if (predicate == Cmp.LESS_THAN_EQUAL) {
+            return order <= 0;
+        } else if (predicate == Cmp.GREATER_THAN) {
+            return order > 0;
+        } else if (predicate == Cmp.GREATER_THAN_EQUAL) {
+            return order >= 0;
+        } else {
+            throw new IllegalArgumentException("Unsupported predicate: " + predicate);
+        }
+    }
+
+    /**
+     * @return documents of the value keys from the first key inclusive to the last key exclusive
+     */
+    private Iterator<String> documents(byte[] from, byte[] to) {
+        return Iterators.transform(store.iterator(from, to), entry -> {
+            ByteBuffer parts = ByteBuffer.wrap(entry.getKey(), 1, entry.getKey().length - 1);
+            readString(parts);
+            if (parts.get() == NUMBER) {
+                parts.position(parts.position() + NUMBER_LENGTH);
+            } else {
+                readString(parts);
+            }
+            return readString(parts);
+        });
+    }
+
+    /**
+     * @return all documents of the store
+     */
+    private Iterator<String> documents() {
+        byte[] prefix = {DOCUMENT_KEY};
+        PeekingIterator<String> fields = Iterators.peekingIterator(Iterators.transform(store.iterator(prefix, successor(prefix)),
+                entry -> readString(ByteBuffer.wrap(entry.getKey(), 1, entry.getKey().length - 1))));
+        return new AbstractIterator<String>() {
+            @Override
+            protected String computeNext() {
+                if (!fields.hasNext()) return endOfData();
+                String document = fields.next();
+                // the keys of the fields of a document follow each other
+                while (fields.hasNext() && fields.peek().equals(document)) fields.next();
+                return document;
+            }
+        };
+    }
+
+    /**
+     * @return value of the field of the document, failing with an UncheckedIOException if it cannot be read
+     */
+    @Nullable
+    private Object read(String document, String field) {
+        try {
+            return value(document, field);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Nullable
+    private Object value(String document, String field) throws IOException {
+        byte[] value = store.get(key(DOCUMENT_KEY, document, field));
+        return value != null ? decode(value) : null;
+    }
+
+    private void add(SortedStore.Batch batch, String document, String field, Object value) throws IOException {
+        delete(batch, document, field);
+        batch.put(key(DOCUMENT_KEY, document, field), encode(value));
+        index(batch, document, field, value, true);
+    }
+
+    private void delete(SortedStore.Batch batch, String document, String field) throws IOException {
+        byte[] documentKey = key(DOCUMENT_KEY, document, field);
+        byte[] value = batch.get(documentKey);
+        if (value == null) return;
+        batch.remove(documentKey);
+        index(batch, document, field, decode(value), false);
+    }
+
+    private void deleteDocument(SortedStore.Batch batch, String document) throws IOException {
+        byte[] prefix = key(DOCUMENT_KEY, document);
+        List<byte[]> keys = new ArrayList<>();
+        List<byte[]> values = new ArrayList<>();
+        batch.scan(prefix, successor(prefix), (key, value) -> {
+            keys.add(key);
+            values.add(value);
+        });
+        for (int i = 0; i < keys.size(); i++) {
+            byte[] key = keys.get(i);
+            batch.remove(key);
+            index(batch, document, readString(ByteBuffer.wrap(key, prefix.length, key.length - prefix.length)), decode(values.get(i)), false);
+        }
+    }
+
+    /**
+     * Adds or removes the value key and the n-gram keys of a value of the document.
+     */
+    private void index(SortedStore.Batch batch, String document, String field, Object value, boolean add) {
+        List<byte[]> keys = new ArrayList<>();
+        keys.add(concat(key(VALUE_KEY, field), sortable(value), string(document)));
+        if (value instanceof String) {
+            for (String gram : NGrams.of((String) value)) {
+                keys.add(key(GRAM_KEY, field, gram, document));
+            }
+        }
+        for (byte[] key : keys) {
+            if (add) {
+                batch.put(key, EMPTY);
+            } else {
+                batch.remove(key);
+            }
+        }
+    }
+
+    private static byte[] key(byte kind, String... parts) {
+        ByteArrayOutputStream key = new ByteArrayOutputStream();
+        key.write(kind);
+        for (String part : parts) {
+            byte[] encoded = string(part);
+            key.write(encoded, 0, encoded.length);
+        }
+        return key.toByteArray();
+    }
+
+    private static byte[] concat(byte[]... parts) {
+        ByteArrayOutputStream concatenated = new ByteArrayOutputStream();
+        for (byte[] part : parts) {
+            concatenated.write(part, 0, part.length);
+        }
+        return concatenated.toByteArray();
+    }
+
+    /**
+     * @return the first key after all keys starting with the prefix
+     */
+    private static byte[] successor(byte[] prefix) {
+        byte[] successor = Arrays.copyOf(prefix, prefix.length);
+        for (int i = successor.length - 1; i >= 0; i--) {
+            if (successor[i] != (byte) 0xFF) {
+                successor[i]++;
+                return Arrays.copyOf(successor, i + 1);
+            }
+        }
+        throw new IllegalArgumentException("No key follows the prefix");
+    }
+
+    /**
+     * Encodes the string in UTF-8, escaping its zero bytes and ending it so that encoded strings are ordered like
+     * their bytes and no encoded string is the prefix of another.
+     */
+    private static byte[] string(String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        ByteArrayOutputStream encoded = new ByteArrayOutputStream(bytes.length + 2);
+        for (byte b : bytes) {
+            encoded.write(b);
+            if (b == ESCAPE) encoded.write(ESCAPED_ZERO);
+        }
+        encoded.write(ESCAPE);
+        encoded.write(TERMINATOR);
+        return encoded.toByteArray();
+    }
+
+    private static String readString(ByteBuffer encoded) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        while (true) {
+            byte b = encoded.get();
+            if (b == ESCAPE && encoded.get() == TERMINATOR) break;
+            bytes.write(b);
+        }
+        return new String(bytes.toByteArray(), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Encodes the value so that the encoded values are ordered like the values: strings by their UTF-8 bytes, and
+     * numbers by their double values, then exactly by their long values, as these only differ for large integers.
+     */
+    private static byte[] sortable(Object value) {
+        if (value instanceof String) return concat(new byte[]{STRING}, string((String) value));
+        if (!(value instanceof Number)) throw new IllegalArgumentException("Unsupported value type: " + value.getClass());
+
+        Number number = (Number) value;
+        double asDouble = number.doubleValue() == 0 ? 0 : number.doubleValue();
+        long bits = Double.doubleToLongBits(asDouble);
+        long asLong = isIntegral(number) ? number.longValue() : (long) asDouble;
+        return ByteBuffer.allocate(1 + NUMBER_LENGTH).put(NUMBER)
+                .putLong(bits < 0 ? ~bits : bits ^ Long.MIN_VALUE)
+                .putLong(asLong ^ Long.MIN_VALUE)
+                .array();
+    }
+
+    private static byte[] encode(Object value) {
+        if (value instanceof Long) return ByteBuffer.allocate(1 + Long.BYTES).put((byte) 'L').putLong((Long) value).array();
+        if (value instanceof Integer) return ByteBuffer.allocate(1 + Integer.BYTES).put((byte) 'I').putInt((Integer) value).array();
+        if (value instanceof Double) return ByteBuffer.allocate(1 + Double.BYTES).put((byte) 'D').putDouble((Double) value).array();
+        if (value instanceof Float) return ByteBuffer.allocate(1 + Float.BYTES).put((byte) 'F').putFloat((Float) value).array();
+        if (value instanceof String) return concat(new byte[]{'S'}, ((String) value).getBytes(StandardCharsets.UTF_8));
+        throw new IllegalArgumentException("Unsupported value type: " + value.getClass());
+    }
+
+    private static Object decode(byte[] value) {
+        ByteBuffer content = ByteBuffer.wrap(value, 1, value.length - 1);
+        switch (value[0]) {
+            case 'L':
+                return content.getLong();
+            case 'I':
+                return content.getInt();
+            case 'D':
+                return content.getDouble();
+            case 'F':
+                return content.getFloat();
+            case 'S':
+                return new String(value, 1, value.length - 1, StandardCharsets.UTF_8);
+            default:
+                throw new IllegalArgumentException("Unsupported value type: " + (char) value[0]);
+        }
+    }
+
+    /**
+     * Orders strings lexicographically, integral numbers exactly and other numbers by their double values.
+     */
+    private static int compareValues(Object first, Object second) {
+        if (first instanceof String && second instanceof String) return ((String) first).compareTo((String) second);
+        if (isIntegral(first) && isIntegral(second)) {
+            return Long.compare(((Number) first).longValue(), ((Number) second).longValue());
+        }
+        return Double.compare(((Number) first).doubleValue(), ((Number) second).doubleValue());
+    }
+
+    private static boolean isIntegral(Object value) {
+        return value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte;
+    }
+}
@@ -0,0 +1,90 @@
+/*
+ * Copyright (C) 2020 Grakn Labs
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package grakn.core.graph.diskstorage.local;
+
+import grakn.core.graph.diskstorage.BackendException;
+import grakn.core.graph.diskstorage.BaseTransactionConfig;
+import grakn.core.graph.diskstorage.BaseTransactionConfigurable;
+import grakn.core.graph.diskstorage.indexing.IndexEntry;
+import grakn.core.graph.diskstorage.indexing.IndexMutation;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Transaction of the LocalIndex, buffering the document updates until it commits.
+ */
+class LocalIndexTransaction implements BaseTransactionConfigurable {
+
+    private final LocalIndex index;
+    private final BaseTransactionConfig config;
+    private final List<Update> updates = new ArrayList<>();
+
+    LocalIndexTransaction(LocalIndex index, BaseTransactionConfig config) {
+        this.index = index;
+        this.config = config;
+    }
+
+    void mutate(Map<String, Map<String, IndexMutation>> mutations) {
+        mutations.forEach((store, documents) -> documents.forEach((document, mutation) ->
+                updates.add(new Update(store, document, mutation, null))));
+    }
+
+    void restore(Map<String, Map<String, List<IndexEntry>>> documents) {
+        documents.forEach((store, contents) -> contents.forEach((document, content) ->
+                updates.add(new Update(store, document, null, content))));
+    }
+
+    List<Update> updates() {
+        return updates;
+    }
+
+    @Override
+    public void commit() throws BackendException {
+        index.commit(this);
+        updates.clear();
+    }
+
+    @Override
+    public void rollback() {
+        updates.clear();
+    }
+
+    @Override
+    public BaseTransactionConfig getConfiguration() {
+        return config;
+    }
+
+    /**
+     * Update of a single document, either a mutation or a replacement of its content.
+     */
+    static class Update {
+        final String store;
+        final String document;
+        final IndexMutation mutation;
+        final List<IndexEntry> content;
+
+        Update(String store, String document, IndexMutation mutation, List<IndexEntry> content) {
+            this.store = store;
+            this.document = document;
+            this.mutation = mutation;
+            this.content = content;
+        }
+    }
+}
@@ -0,0 +1,179 @@
+/*
+ * Copyright (C) 2020 Grakn Labs
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ */
+
+package grakn.core.graph.diskstorage.local;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * N-grams of the string values held by the LocalIndex, and of the literals the values matching a regular expression
+ * must contain.
+ *
+ * The n-grams are case folded, so that the n-grams of a literal are n-grams of every value containing it,
+ * whether the literal is matched case sensitively or not.
+ */
+final class NGrams {
+
+    static final int LENGTH = 3;
+
+    private static final String CLASS_ESCAPES = "dDsSwWbBhHvVRXAzZG";
+
+    private NGrams() {}
+
+    static Set<String> of(String value) {
+        Set<String> grams = new HashSet<>();
+        String folded = fold(value);
+        for (int i = 0; i + LENGTH <= folded.length(); i++) {
+            grams.add(folded.substring(i, i + LENGTH));
+        }
+        return grams;
+    }
+
+    /**
+     * Finds the literals every value matching the regular expression contains. Only the literals outside of groups
+     * are collected, and none if the expression has alternatives, as they are not necessarily part of a match.
+     *
+     * @return literals long enough to have n-grams, empty if the expression has none or is not understood
+     */
+    static List<String> requiredLiterals(String regex) {
+        List<String> literals = new ArrayList<>();
+        StringBuilder literal = new StringBuilder();
+        int depth = 0;
+        for (int i = 0; i < regex.length(); i++) {
+            char c = regex.charAt(i);
+            switch (c) {
+                case '\\':
+                    if (i + 1 == regex.length()) return Collections.emptyList();
+                    char escaped = regex.charAt(++i);
+                    if (escaped == 'Q') {
+                        int end = regex.indexOf("\\E", i + 1);
+                        String quoted = end < 0 ? regex.substring(i + 1) : regex.substring(i + 1, end);
+                        if (depth == 0) literal.append(quoted);
+                        i = end < 0 ? regex.length() : end + 1;
+                    } else if (CLASS_ESCAPES.indexOf(escaped) >= 0) {
+                        endLiteral(literal, literals);
+                    } else if (Character.isLetterOrDigit(escaped)) {
+                        // control characters, code points, properties and back references
+                        return Collections.emptyList();
+                    } else if (depth == 0) {
+                        literal.append(escaped);
+                    }
+                    break;
+                case '[':
+                    endLiteral(literal, literals);
+                    i = endOfClass(regex, i);
+                    if (i < 0) return Collections.emptyList();
+                    break;
+                case '(':
+                    endLiteral(literal, literals);
+                    if (regex.startsWith("(?", i) && hasCommentsFlag(regex, i + 2)) return Collections.emptyList();
+                    depth++;
+                    break;
+                case ')':
+                    endLiteral(literal, literals);
+                    depth--;
+                    break;
+                case '|':
+                    return Collections.emptyList();
+                case '?':
+                case '*':
+                    // the quantified character is optional
+                    removeLastCharacter(literal);
+                    endLiteral(literal, literals);
+                    break;
+                case '{':
+                    int end = regex.indexOf('}', i);
+                    if (end < 0) return Collections.emptyList();
+                    if (regex.startsWith("0", i + 1)) removeLastCharacter(literal);
+                    endLiteral(literal, literals);
+                    i = end;
+                    break;
+                case '+':
+                case '.':
+                case '^':
+                case '$':
+                    endLiteral(literal, literals);
+                    break;
+                default:
+                    if (depth == 0) literal.append(c);
+            }
+        }
+        endLiteral(literal, literals);
+        return literals;
+    }
+
+    /**
+     * Folds the case of each character like case insensitive comparisons of characters do.
+     */
+    private static String fold(String value) {
+        char[] folded = new char[value.length()];
+        for (int i = 0; i < value.length(); i++) {
+            folded[i] = Character.toLowerCase(Character.toUpperCase(value.charAt(i)));
+        }
+        return new String(folded);
+    }
+
+    /**
+     * Removes the last character of the literal, both chars of it if it is a surrogate pair.
+     */
+    private static void removeLastCharacter(StringBuilder literal) {
+        if (literal.length() > 0) literal.setLength(literal.offsetByCodePoints(literal.length(), -1));
+    }
+
+    private static void endLiteral(StringBuilder literal, List<String> literals) {
+        if (literal.length() >= LENGTH) literals.add(literal.toString());
+        literal.setLength(0);
+    }
+
+    /**
+     * @return index of the bracket closing the character class opened at the start index, -1 if it is not closed
+     */
+    private static int endOfClass(String regex, int start) {
+        int depth = 0;
+        for (int i = start; i < regex.length(); i++) {
+            char c = regex.charAt(i);
+            if (c == '\\') {
+                i++;
+            } else if (c == '[') {
+                depth++;
+                // a bracket opening the class or following its negation is part of the class
+                if (regex.startsWith("]", i + 1)) i++;
+                else if (regex.startsWith("^]", i + 1)) i += 2;
+            } else if (c == ']' && --depth == 0) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @return true if the inline flags starting at the index enable comments, which make whitespace insignificant
+     */
+    private static boolean hasCommentsFlag(String regex, int start) {
+        for (int i = start; i < regex.length(); i++) {
+            char c = regex.charAt(i);
+            if (c == ':' || c == ')') return false;
+            if (c == 'x') return true;
+        }
+        return false;
+    }
+}
@@ -0,0 +1,272 @@
+/*
+ * Copyright (C) 2020 Grakn Labs
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package grakn.core.graph.diskstorage.local;
+
+import com.google.common.collect.AbstractIterator;
+import com.google.common.collect.Maps;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable file of a SortedStore, holding entries in the order of their keys.
+ *
+ * The entries are written in blocks of about BLOCK_SIZE bytes, followed by the index of the blocks and a footer locating
+ * the index. Only the index is held in memory and the blocks are read when they are looked up, so that the memory
+ * held by a run is proportional to the number of its blocks rather than to the number of its entries.
+ * Tombstones are kept in the run, hiding the entries of the same keys in older runs.
+ */
+class SortedRun implements Closeable {
+
+    static final String TEMPORARY_SUFFIX = ".tmp";
+
+    private static final int BLOCK_SIZE = 16 * 1024;
+    private static final int MAGIC = 0x4c52554e;
+    private static final int FOOTER_SIZE = Long.BYTES + Integer.BYTES;
+    private static final int TOMBSTONE_LENGTH = -1;
+
+    private final Path file;
+    private final FileChannel channel;
+    private final long size;
+    private final byte[][] firstKeys;
+    private final long[] offsets;
+    private final int[] lengths;
+
+    private SortedRun(Path file, FileChannel channel, long size, byte[][] firstKeys, long[] offsets, int[] lengths) {
+        this.file = file;
+        this.channel = channel;
+        this.size = size;
+        this.firstKeys = firstKeys;
+        this.offsets = offsets;
+        this.lengths = lengths;
+    }
+
+    /**
+     * Writes the entries, given in the order of their keys, to a temporary file moved to the run file once it is
+     * written out, so that a run file is never left incomplete. The directory is synced after the move, so that the
+     * run file is durable once it is returned.
+     */
+    static SortedRun write(Path file, Iterator<Map.Entry<byte[], byte[]>> entries) throws IOException {
+        Path temporary = file.resolveSibling(file.getFileName() + TEMPORARY_SUFFIX);
+        List<byte[]> firstKeys = new ArrayList<>();
+        List<Long> offsets = new ArrayList<>();
+        List<Integer> lengths = new ArrayList<>();
+        try (FileChannel out = FileChannel.open(temporary, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteArrayOutputStream block = new ByteArrayOutputStream(2 * BLOCK_SIZE);
+            DataOutputStream blockData = new DataOutputStream(block);
+            long position = 0;
+            while (entries.hasNext()) {
+                Map.Entry<byte[], byte[]> entry = entries.next();
+                if (block.size() == 0) firstKeys.add(entry.getKey());
+                blockData.writeInt(entry.getKey().length);
+                blockData.write(entry.getKey());
+                if (entry.getValue() == SortedStore.TOMBSTONE) {
+                    blockData.writeInt(TOMBSTONE_LENGTH);
+                } else {
+                    blockData.writeInt(entry.getValue().length);
+                    blockData.write(entry.getValue());
+                }
+                if (block.size() >= BLOCK_SIZE || !entries.hasNext()) {
+                    offsets.add(position);
+                    lengths.add(block.size());
+                    position += writeFully(out, block.toByteArray());
+                    block.reset();
+                }
+            }
+
+            ByteArrayOutputStream index = new ByteArrayOutputStream();
+            DataOutputStream indexData = new DataOutputStream(index);
+            indexData.writeInt(firstKeys.size());
+            for (int i = 0; i < firstKeys.size(); i++) {
+                indexData.writeInt(firstKeys.get(i).length);
+                indexData.write(firstKeys.get(i));
+                indexData.writeLong(offsets.get(i));
+                indexData.writeInt(lengths.get(i));
+            }
+            indexData.writeLong(position);
+            indexData.writeInt(MAGIC);
+            writeFully(out, index.toByteArray());
+            out.force(true);
+        }
+        Files.move(temporary, file, StandardCopyOption.ATOMIC_MOVE);
+        syncDirectory(file.getParent());
+        return open(file);
+    }
+
+    static SortedRun open(Path file) throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+        try {
+            long size = channel.size();
+            if (size < FOOTER_SIZE) throw new IOException("Incomplete run " + file);
+            ByteBuffer footer = read(channel, size - FOOTER_SIZE, FOOTER_SIZE);
+            long indexOffset = footer.getLong();
+            if (footer.getInt() != MAGIC || indexOffset < 0 || indexOffset > size - FOOTER_SIZE) {
+                throw new IOException("Corrupt run " + file);
+            }
+            ByteBuffer index = read(channel, indexOffset, (int) (size - FOOTER_SIZE - indexOffset));
+            int blocks = index.getInt();
+            byte[][] firstKeys = new byte[blocks][];
+            long[] offsets = new long[blocks];
+            int[] lengths = new int[blocks];
+            for (int i = 0; i < blocks; i++) {
+                firstKeys[i] = new byte[index.getInt()];
+                index.get(firstKeys[i]);
+                offsets[i] = index.getLong();
+                lengths[i] = index.getInt();
+            }
+            return new SortedRun(file, channel, size, firstKeys, offsets, lengths);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    Path file() {
+        return file;
+    }
+
+    long size() {
+        return size;
+    }
+
+    /**
+     * @return value of the key, SortedStore.TOMBSTONE if it was removed, null if the run does not hold the key
+     */
+    byte[] get(byte[] key) throws IOException {
+        int block = floorBlock(key);
+        if (block < 0) return null;
+        ByteBuffer entries = readBlock(block);
+        while (entries.hasRemaining()) {
+            byte[] entryKey = readKey(entries);
+            int order = SortedStore.KEY_ORDER.compare(entryKey, key);
+            if (order > 0) return null;
+            byte[] value = readValue(entries);
+            if (order == 0) return value;
+        }
+        return null;
+    }
+
+    /**
+     * @return entries from the given key on, tombstones included, or all entries if the key is null
+     */
+    Iterator<Map.Entry<byte[], byte[]>> iterator(byte[] from) {
+        int firstBlock = from == null ? 0 : Math.max(floorBlock(from), 0);
+        if (firstBlock >= firstKeys.length) return Collections.emptyIterator();
+        return new AbstractIterator<Map.Entry<byte[], byte[]>>() {
+            private int block = firstBlock;
+            private ByteBuffer entries = null;
+
+            @Override
+            protected Map.Entry<byte[], byte[]> computeNext() {
+                try {
+                    while (true) {
+                        if (entries == null || !entries.hasRemaining()) {
+                            if (entries != null) block++;
+                            if (block >= firstKeys.length) return endOfData();
+                            entries = readBlock(block);
+                        }
+                        byte[] key = readKey(entries);
+                        byte[] value = readValue(entries);
+                        if (from == null || SortedStore.KEY_ORDER.compare(key, from) >= 0) return Maps.immutableEntry(key, value);
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+        };
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    /**
+     * @return the last block starting at or before the key, -1 if the key comes before all blocks
+     */
+    private int floorBlock(byte[] key) {
+        int low = 0;
+        int high = firstKeys.length - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            if (SortedStore.KEY_ORDER.compare(firstKeys[middle], key) <= 0) {
+                low = middle + 1;
+            } else {
+                high = middle - 1;
+            }
+        }
+        return high;
+    }
+
+    private ByteBuffer readBlock(int block) throws IOException {
+        return read(channel, offsets[block], lengths[block]);
+    }
+
+    private static byte[] readKey(ByteBuffer entries) {
+        byte[] key = new byte[entries.getInt()];
+        entries.get(key);
+        return key;
+    }
+
+    private static byte[] readValue(ByteBuffer entries) {
+        int length = entries.getInt();
+        if (length == TOMBSTONE_LENGTH) return SortedStore.TOMBSTONE;
+        byte[] value = new byte[length];
+        entries.get(value);
+        return value;
+    }
+
+    private static ByteBuffer read(FileChannel channel, long position, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) throw new EOFException();
+        }
+        buffer.flip();
+        return buffer;
+    }
+
+    private static void syncDirectory(Path directory) throws IOException {
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        }
+    }
+
+    static int writeFully(FileChannel channel, byte[] bytes) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        return bytes.length;
+    }
+}
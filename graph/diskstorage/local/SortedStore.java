@@ -0,0 +1,517 @@
+/*
+ * Copyright (C) 2020 Grakn Labs
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package grakn.core.graph.diskstorage.local;
+
+import com.google.common.collect.AbstractIterator;
+import com.google.common.collect.Iterators;
+import com.google.common.collect.PeekingIterator;
+import com.google.common.primitives.UnsignedBytes;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.BiConsumer;
+import java.util.zip.CRC32;
+
+/**
+ * Sorted map of byte keys to byte values kept in a directory as a log-structured merge tree.
+ *
+ * Updates are staged in a Batch, written out to the log of the store, then applied to an in-memory table, so that
+ * no update is read before it is durable. Once the table holds more than its limit of bytes it is written out to a new SortedRun and the log is truncated, and the newest runs are merged
+ * while they are not smaller than the next older one, so that a store holds a number of runs logarithmic in its size.
+ * Reads merge the table and the runs, the newest entry of a key hiding the older ones. When the store is opened,
+ * only the log is replayed into the table: the memory held by the store is bounded by the size of the table and of
+ * the block indexes of its runs, whatever the number of its entries.
+ *
+ * Updates are applied by a single thread at a time, reads may run concurrently with them.
+ */
+class SortedStore implements Closeable {
+
+    /**
+     * Value of a removed key, told apart from the other values by its identity.
+     */
+    static final byte[] TOMBSTONE = new byte[0];
+    static final Comparator<byte[]> KEY_ORDER = UnsignedBytes.lexicographicalComparator();
+
+    private static final long MEMTABLE_LIMIT = 4L << 20;
+    // number of entries read at a time by the iterators, which do not hold the lock between reads
+    private static final int PAGE_SIZE = 256;
+    // estimated memory held by an entry of the table, besides its key and value
+    private static final int ENTRY_OVERHEAD = 64;
+    private static final String LOG_FILE = "log";
+    private static final String RUN_SUFFIX = ".run";
+    private static final byte PUT = 1;
+    private static final byte REMOVE = 2;
+
+    private final Path directory;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final FileChannel log;
+    private final long memtableLimit;
+
+    private volatile ConcurrentSkipListMap<byte[], byte[]> memtable = new ConcurrentSkipListMap<>(KEY_ORDER);
+    private long memtableBytes = 0;
+    // the runs from the newest to the oldest
+    private volatile List<Run> runs;
+    private long nextSequence;
+
+    SortedStore(Path directory) throws IOException {
+        this(directory, MEMTABLE_LIMIT);
+    }
+
+    SortedStore(Path directory, long memtableLimit) throws IOException {
+        this.directory = directory;
+        this.memtableLimit = memtableLimit;
+        Files.createDirectories(directory);
+        runs = openRuns();
+        nextSequence = runs.isEmpty() ? 0 : runs.get(0).newest + 1;
+        log = FileChannel.open(directory.resolve(LOG_FILE), StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        replay();
+        if (memtableBytes >= memtableLimit) flush();
+    }
+
+    /**
+     * @return new batch of updates, reading the keys it updates as updated
+     */
+    Batch batch() {
+        return new Batch();
+    }
+
+    /**
+     * Writes the updates of the batch out to the log. The updates are read from the store once the batch is applied.
+     */
+    void log(Batch batch) throws IOException {
+        if (batch.records.size() == 0) return;
+        SortedRun.writeFully(log, batch.records.toByteArray());
+        log.force(false);
+    }
+
+    /**
+     * Applies the updates of a logged batch to the table, then writes the table out to a run if it grew over its limit.
+     */
+    void apply(Batch batch) throws IOException {
+        batch.updates.forEach(this::apply);
+        if (memtableBytes >= memtableLimit) flush();
+    }
+
+    /**
+     * @return value of the key, null if the store does not hold the key
+     */
+    byte[] get(byte[] key) throws IOException {
+        lock.readLock().lock();
+        try {
+            byte[] value = memtable.get(key);
+            for (Iterator<Run> older = runs.iterator(); value == null && older.hasNext(); ) {
+                value = older.next().run.get(key);
+            }
+            return value == TOMBSTONE ? null : value;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Visits the entries in the order of their keys, from the first key inclusive to the last key exclusive.
+     */
+    void scan(byte[] from, byte[] to, BiConsumer<byte[], byte[]> visitor) throws IOException {
+        try {
+            iterator(from, to).forEachRemaining(entry -> visitor.accept(entry.getKey(), entry.getValue()));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * @return entries in the order of their keys, from the first key inclusive to the last key exclusive, read
+     * PAGE_SIZE at a time as they are iterated, failing with an UncheckedIOException if they cannot be read
+     */
+    Iterator<Map.Entry<byte[], byte[]>> iterator(byte[] from, byte[] to) {
+        return new AbstractIterator<Map.Entry<byte[], byte[]>>() {
+            private byte[] next = from;
+            private Iterator<Map.Entry<byte[], byte[]>> page = Collections.emptyIterator();
+
+            @Override
+            protected Map.Entry<byte[], byte[]> computeNext() {
+                if (!page.hasNext() && next != null) {
+                    List<Map.Entry<byte[], byte[]>> entries = page(next, to);
+                    if (entries.size() < PAGE_SIZE) {
+                        next = null;
+                    } else {
+                        // the smallest key following the last key read
+                        byte[] last = entries.get(entries.size() - 1).getKey();
+                        next = Arrays.copyOf(last, last.length + 1);
+                    }
+                    page = entries.iterator();
+                }
+                return page.hasNext() ? page.next() : endOfData();
+            }
+        };
+    }
+
+    @Override
+    public void close() throws IOException {
+        lock.writeLock().lock();
+        try {
+            for (Run run : runs) {
+                run.run.close();
+            }
+            log.close();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Closes the store and removes its directory.
+     */
+    void delete() throws IOException {
+        close();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory)) {
+            for (Path file : files) {
+                Files.delete(file);
+            }
+        }
+        Files.delete(directory);
+    }
+
+    /**
+     * @return up to PAGE_SIZE entries from the first key inclusive to the last key exclusive
+     */
+    private List<Map.Entry<byte[], byte[]>> page(byte[] from, byte[] to) {
+        lock.readLock().lock();
+        try {
+            List<Iterator<Map.Entry<byte[], byte[]>>> sources = new ArrayList<>();
+            sources.add(memtable.subMap(from, to).entrySet().iterator());
+            for (Run run : runs) {
+                sources.add(run.run.iterator(from));
+            }
+            Iterator<Map.Entry<byte[], byte[]>> entries = merge(sources, false);
+            List<Map.Entry<byte[], byte[]>> page = new ArrayList<>(PAGE_SIZE);
+            while (page.size() < PAGE_SIZE && entries.hasNext()) {
+                Map.Entry<byte[], byte[]> entry = entries.next();
+                if (KEY_ORDER.compare(entry.getKey(), to) >= 0) break;
+                page.add(entry);
+            }
+            return page;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void apply(byte[] key, byte[] value) {
+        byte[] previous = memtable.put(key, value);
+        memtableBytes += previous == null ? key.length + value.length + ENTRY_OVERHEAD : value.length - previous.length;
+    }
+
+    private static void append(ByteArrayOutputStream records, CRC32 checksum, byte operation, byte[] key, byte[] value) {
+        ByteArrayOutputStream record = new ByteArrayOutputStream(key.length + (value != null ? value.length : 0) + 16);
+        try {
+            DataOutputStream recordData = new DataOutputStream(record);
+            recordData.writeByte(operation);
+            recordData.writeInt(key.length);
+            recordData.write(key);
+            if (value != null) {
+                recordData.writeInt(value.length);
+                recordData.write(value);
+            }
+            checksum.reset();
+            checksum.update(record.toByteArray(), 0, record.size());
+            DataOutputStream recordsData = new DataOutputStream(records);
+            recordsData.writeInt(record.size());
+            recordsData.writeInt((int) checksum.getValue());
+            record.writeTo(recordsData);
+        } catch (IOException e) {
+            // in-memory streams do not fail
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Applies the records of the log to the table, truncating the log after the last complete record
+     * so that a record left incomplete by a crash while it was written is discarded.
+     */
+    private void replay() throws IOException {
+        // the log is read at once, as its size is bounded by the limit of the table
+        ByteBuffer records = ByteBuffer.allocate((int) log.size());
+        while (records.hasRemaining()) {
+            if (log.read(records, records.position()) < 0) break;
+        }
+        records.flip();
+        CRC32 checksum = new CRC32();
+        int valid = 0;
+        try {
+            while (records.remaining() >= 2 * Integer.BYTES) {
+                int length = records.getInt();
+                int expected = records.getInt();
+                if (length < 0 || length > records.remaining()) break;
+                checksum.reset();
+                checksum.update(records.array(), records.position(), length);
+                if ((int) checksum.getValue() != expected) break;
+
+                byte operation = records.get();
+                byte[] key = new byte[records.getInt()];
+                records.get(key);
+                if (operation == PUT) {
+                    byte[] value = new byte[records.getInt()];
+                    records.get(value);
+                    apply(key, value);
+                } else {
+                    apply(key, TOMBSTONE);
+                }
+                valid = records.position();
+            }
+        } catch (BufferUnderflowException | NegativeArraySizeException e) {
+            // a corrupt record ends the log
+        }
+        log.truncate(valid);
+        log.position(valid);
+    }
+
+    /**
+     * Writes the table out to a new run, then merges the newest runs.
+     */
+    private void flush() throws IOException {
+        long sequence = nextSequence++;
+        Run flushed = new Run(SortedRun.write(directory.resolve(runName(sequence, sequence)), memtable.entrySet().iterator()), sequence, sequence);
+        lock.writeLock().lock();
+        try {
+            List<Run> newRuns = new ArrayList<>();
+            newRuns.add(flushed);
+            newRuns.addAll(runs);
+            runs = newRuns;
+            memtable = new ConcurrentSkipListMap<>(KEY_ORDER);
+            memtableBytes = 0;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.truncate(0);
+        log.force(true);
+
+        while (runs.size() > 1 && runs.get(0).run.size() >= runs.get(1).run.size()) {
+            mergeNewest();
+        }
+    }
+
+    /**
+     * Merges the two newest runs into one, dropping the tombstones if no older run holds the keys they remove.
+     */
+    private void mergeNewest() throws IOException {
+        Run newer = runs.get(0);
+        Run older = runs.get(1);
+        boolean oldest = runs.size() == 2;
+        Iterator<Map.Entry<byte[], byte[]>> entries = merge(Arrays.asList(newer.run.iterator(null), older.run.iterator(null)), !oldest);
+        Run merged;
+        try {
+            merged = new Run(SortedRun.write(directory.resolve(runName(newer.newest, older.oldest)), entries), newer.newest, older.oldest);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        lock.writeLock().lock();
+        try {
+            List<Run> newRuns = new ArrayList<>();
+            newRuns.add(merged);
+            newRuns.addAll(runs.subList(2, runs.size()));
+            runs = newRuns;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        for (Run run : Arrays.asList(newer, older)) {
+            run.run.close();
+            Files.delete(run.run.file());
+        }
+    }
+
+    /**
+     * Opens the runs of the directory, removing the temporary files and the runs left behind by a merge interrupted
+     * after the merged run was written: these are covered by the sequences of the merged run.
+     */
+    private List<Run> openRuns() throws IOException {
+        List<Path> found = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory)) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                if (name.endsWith(SortedRun.TEMPORARY_SUFFIX)) {
+                    Files.delete(file);
+                } else if (name.endsWith(RUN_SUFFIX)) {
+                    found.add(file);
+                }
+            }
+        }
+        found.sort(Comparator.<Path>comparingLong(file -> sequences(file)[0]).reversed()
+                .thenComparingLong(file -> sequences(file)[1]));
+
+        List<Run> opened = new ArrayList<>();
+        for (Path file : found) {
+            long[] sequences = sequences(file);
+            if (!opened.isEmpty() && sequences[0] >= opened.get(opened.size() - 1).oldest) {
+                Files.delete(file);
+            } else {
+                opened.add(new Run(SortedRun.open(file), sequences[0], sequences[1]));
+            }
+        }
+        return opened;
+    }
+
+    private static String runName(long newest, long oldest) {
+        return String.format("%016x-%016x%s", newest, oldest, RUN_SUFFIX);
+    }
+
+    /**
+     * @return the newest and the oldest sequences of the run file
+     */
+    private static long[] sequences(Path file) {
+        String name = file.getFileName().toString();
+        String[] sequences = name.substring(0, name.length() - RUN_SUFFIX.length()).split("-");
+        return new long[]{Long.parseLong(sequences[0], 16), Long.parseLong(sequences[1], 16)};
+    }
+
+    /**
+     * Merges iterators over entries in the order of their keys, given from the newest to the oldest:
+     * of the entries of the same key only the newest is kept, and dropped if it is a tombstone unless tombstones are kept.
+     */
+    private static Iterator<Map.Entry<byte[], byte[]>> merge(List<Iterator<Map.Entry<byte[], byte[]>>> sources, boolean tombstones) {
+        PriorityQueue<Source> queue = new PriorityQueue<>();
+        for (int age = 0; age < sources.size(); age++) {
+            if (sources.get(age).hasNext()) queue.add(new Source(age, Iterators.peekingIterator(sources.get(age))));
+        }
+        return new AbstractIterator<Map.Entry<byte[], byte[]>>() {
+            @Override
+            protected Map.Entry<byte[], byte[]> computeNext() {
+                while (!queue.isEmpty()) {
+                    Source newest = queue.poll();
+                    Map.Entry<byte[], byte[]> entry = newest.entries.next();
+                    if (newest.entries.hasNext()) queue.add(newest);
+                    while (!queue.isEmpty() && KEY_ORDER.compare(queue.peek().entries.peek().getKey(), entry.getKey()) == 0) {
+                        Source older = queue.poll();
+                        older.entries.next();
+                        if (older.entries.hasNext()) queue.add(older);
+                    }
+                    if (tombstones || entry.getValue() != TOMBSTONE) return entry;
+                }
+                return endOfData();
+            }
+        };
+    }
+
+    /**
+     * Updates staged to be written out to the log then applied to the store together. The keys read through the batch
+     * are read as updated by it, the keys read through the store are not until the batch is applied.
+     *
+     * A batch is updated by a single thread.
+     */
+    class Batch {
+        private final ByteArrayOutputStream records = new ByteArrayOutputStream();
+        private final CRC32 checksum = new CRC32();
+        private final TreeMap<byte[], byte[]> updates = new TreeMap<>(KEY_ORDER);
+
+        private Batch() {
+        }
+
+        /**
+         * Sets the value of the key.
+         */
+        void put(byte[] key, byte[] value) {
+            append(records, checksum, PUT, key, value);
+            updates.put(key, value);
+        }
+
+        /**
+         * Removes the key.
+         */
+        void remove(byte[] key) {
+            append(records, checksum, REMOVE, key, null);
+            updates.put(key, TOMBSTONE);
+        }
+
+        /**
+         * @return value of the key as updated by the batch, null if it does not hold the key
+         */
+        byte[] get(byte[] key) throws IOException {
+            byte[] value = updates.get(key);
+            if (value == null) return SortedStore.this.get(key);
+            return value == TOMBSTONE ? null : value;
+        }
+
+        /**
+         * Visits the entries as updated by the batch, from the first key inclusive to the last key exclusive.
+         */
+        void scan(byte[] from, byte[] to, BiConsumer<byte[], byte[]> visitor) throws IOException {
+            try {
+                merge(Arrays.asList(updates.subMap(from, to).entrySet().iterator(), iterator(from, to)), false)
+                        .forEachRemaining(entry -> visitor.accept(entry.getKey(), entry.getValue()));
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+        }
+    }
+
+    /**
+     * Run of the store, holding the entries flushed from the table between its oldest and newest sequences.
+     */
+    private static class Run {
+        final SortedRun run;
+        final long newest;
+        final long oldest;
+
+        Run(SortedRun run, long newest, long oldest) {
+            this.run = run;
+            this.newest = newest;
+            this.oldest = oldest;
+        }
+    }
+
+    /**
+     * Entries of a merged iterator, ordered by their next key then by their age.
+     */
+    private static class Source implements Comparable<Source> {
+        final int age;
+        final PeekingIterator<Map.Entry<byte[], byte[]>> entries;
+
+        Source(int age, PeekingIterator<Map.Entry<byte[], byte[]>> entries) {
+            this.age = age;
+            this.entries = entries;
+        }
+
+        @Override
+        public int compareTo(Source other) {
+            int order = KEY_ORDER.compare(entries.peek().getKey(), other.entries.peek().getKey());
+            return order != 0 ? order : Integer.compare(age, other.age);
+        }
+    }
+}
@@ -104,7 +104,8 @@ public interface QueryProfiler {
                 if (r instanceof Collection) resultSize += ((Collection) r).size();
                 else resultSize++;
             }
-        } else {
+        } else if (profiler != QueryProfiler.NO_OP) {
+            // computing the size may force a lazily retrieved result to be fully fetched, so only do it when profiling
             resultSize = result.size();
         }
         sub.setResultSize(resultSize);
@@ -0,0 +1,160 @@
+/*
+ * Copyright (C) 2020 Grakn Labs
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package grakn.core.graph.diskstorage.local;
+
+import grakn.core.graph.core.JanusGraphElement;
+import grakn.core.graph.core.attribute.Cmp;
+import grakn.core.graph.core.attribute.Text;
+import grakn.core.graph.diskstorage.indexing.IndexEntry;
+import grakn.core.graph.graphdb.query.JanusGraphPredicate;
+import grakn.core.graph.graphdb.query.condition.And;
+import grakn.core.graph.graphdb.query.condition.Condition;
+import grakn.core.graph.graphdb.query.condition.Not;
+import grakn.core.graph.graphdb.query.condition.Or;
+import grakn.core.graph.graphdb.query.condition.PredicateCondition;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+
+public class LocalIndexStoreTest {
+
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    private Path directory;
+    private LocalIndexStore store;
+
+    @Before
+    public void setUp() throws IOException {
+        directory = folder.getRoot().toPath();
+        store = new LocalIndexStore(directory);
+        SortedStore.Batch batch = store.batch();
+        for (int i = 0; i < 10; i++) {
+            List<IndexEntry> content = new ArrayList<>();
+            content.add(new IndexEntry("age", i));
+            if (i < 3) content.add(new IndexEntry("name", Arrays.asList("alice", "alicia", "bob").get(i)));
+            store.restore(batch, "d" + i, content);
+        }
+        store.log(batch);
+        store.apply(batch);
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        store.close();
+    }
+
+    @Test
+    public void comparisonsAreAnsweredFromTheOrderedValues() {
+        assertEquals(set("d7", "d8", "d9"), query(literal("age", Cmp.GREATER_THAN, 6)));
+        assertEquals(set("d6", "d7", "d8", "d9"), query(literal("age", Cmp.GREATER_THAN_EQUAL, 6L)));
+        assertEquals(set("d0", "d1"), query(literal("age", Cmp.LESS_THAN, 1.5)));
+        assertEquals(set("d0", "d1", "d2"), query(literal("age", Cmp.LESS_THAN_EQUAL, 2)));
+        assertEquals(set("d4"), query(literal("age", Cmp.EQUAL, 4.0)));
+        assertEquals(9, query(literal("age", Cmp.NOT_EQUAL, 4)).size());
+    }
+
+    @Test
+    public void nullConditionsMatchTheDocumentsMissingOrHoldingTheField() {
+        assertEquals(set("d0", "d1", "d2"), query(literal("name", Cmp.NOT_EQUAL, null)));
+        assertEquals(set("d3", "d4", "d5", "d6", "d7", "d8", "d9"), query(literal("name", Cmp.EQUAL, null)));
+    }
+
+    @Test
+    public void regularExpressionsAreMatchedWithOrWithoutLiterals() {
+        assertEquals(set("d0", "d1"), query(literal("name", Text.REGEX, "alic.*")));
+        assertEquals(set("d1"), query(literal("name", Text.REGEX, ".*cia")));
+        assertEquals(set("d2"), query(literal("name", Text.REGEX, "b.b")));
+        assertEquals(set(), query(literal("name", Text.REGEX, "alice.+")));
+    }
+
+    @Test
+    public void conjunctionsDisjunctionsAndNegationsAreCombined() {
+        Condition<JanusGraphElement> young = literal("age", Cmp.LESS_THAN, 2);
+        Condition<JanusGraphElement> old = literal("age", Cmp.GREATER_THAN, 7);
+        Condition<JanusGraphElement> named = literal("name", Text.REGEX, "ali.*");
+
+        assertEquals(set("d0", "d1"), query(new And<>(young, named)));
+        assertEquals(set("d0", "d1", "d8", "d9"), query(new Or<>(young, named, old)));
+        assertEquals(set("d2", "d3", "d4", "d5", "d6", "d7"), query(new Not<>(new Or<>(young, old))));
+        assertEquals(set("d2"), query(new And<>(new Not<>(young), literal("name", Cmp.NOT_EQUAL, null))));
+        assertEquals(10, query(new And<>()).size());
+    }
+
+    @Test
+    public void whenStagedUpdatesAreLoggedButNotApplied_theyAreNotReadUntilApplied() throws IOException {
+        SortedStore.Batch batch = store.batch();
+        store.restore(batch, "d0", new ArrayList<>());
+        store.restore(batch, "d10", Arrays.asList(new IndexEntry("age", 10), new IndexEntry("name", "carol")));
+        store.log(batch);
+        assertEquals(set("d0", "d1"), query(literal("name", Text.REGEX, "ali.*")));
+        assertEquals(set(), query(literal("age", Cmp.GREATER_THAN, 9)));
+
+        store.apply(batch);
+        assertEquals(set("d1"), query(literal("name", Text.REGEX, "ali.*")));
+        assertEquals(set("d10"), query(literal("age", Cmp.GREATER_THAN, 9)));
+    }
+
+    @Test
+    public void whenStoreIsReopened_loggedUpdatesAreQueried() throws IOException {
+        SortedStore.Batch batch = store.batch();
+        store.restore(batch, "d3", Arrays.asList(new IndexEntry("age", 30), new IndexEntry("name", "dave")));
+        store.log(batch);
+        store.close();
+
+        store = new LocalIndexStore(directory);
+        assertEquals(set("d3"), query(literal("age", Cmp.GREATER_THAN, 9)));
+        assertEquals(set("d3"), query(literal("name", Text.REGEX, "dav.")));
+        assertEquals(set(), query(literal("age", Cmp.EQUAL, 3)));
+    }
+
+    private static Condition<JanusGraphElement> literal(String field, JanusGraphPredicate predicate, Object value) {
+        return PredicateCondition.of(field, predicate, value);
+    }
+
+    /**
+     * @return the documents matching the condition, each of which is matched once
+     */
+    private Set<String> query(Condition<JanusGraphElement> condition) {
+        Set<String> documents = new HashSet<>();
+        int matches = 0;
+        for (Iterator<String> matching = store.query(condition); matching.hasNext(); matches++) {
+            documents.add(matching.next());
+        }
+        assertEquals(documents.size(), matches);
+        return documents;
+    }
+
+    private static Set<String> set(String... documents) {
+        return new HashSet<>(Arrays.asList(documents));
+    }
+}
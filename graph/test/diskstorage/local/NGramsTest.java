@@ -0,0 +1,117 @@
+/*
+ * Copyright (C) 2020 Grakn Labs
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package grakn.core.graph.diskstorage.local;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.regex.Pattern;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class NGramsTest {
+
+    @Test
+    public void whenPatternHasAlternatives_noLiteralIsRequired() {
+        assertNeverPruned("abc|xyz", "abc", "xyz");
+        assertNeverPruned("(foo|bar)baz", "foobaz", "barbaz");
+        assertNeverPruned("prefix(one|two)", "prefixone", "prefixtwo");
+        assertEquals(Collections.emptyList(), NGrams.requiredLiterals("abc|xyz"));
+    }
+
+    @Test
+    public void whenCharacterIsOptional_itIsNotPartOfTheLiterals() {
+        assertNeverPruned("colou?r", "color", "colour");
+        assertNeverPruned("abcd*ef", "abcef", "abcdef", "abcddddef");
+        assertNeverPruned("abcx{0,2}def", "abcdef", "abcxxdef");
+        assertNeverPruned("abcd?+efg", "abcefg", "abcdefg");
+        assertNeverPruned("ab(cd)?efg", "abefg", "abcdefg");
+        assertNeverPruned("abc+?def", "abcdef", "abcccdef");
+        assertEquals(Collections.singletonList("colo"), NGrams.requiredLiterals("colou?r"));
+        assertEquals(Arrays.asList("abc", "def"), NGrams.requiredLiterals("abcx{0,2}def"));
+    }
+
+    @Test
+    public void whenOptionalCharacterIsASurrogatePair_itIsRemovedWhole() {
+        String emoji = new String(Character.toChars(0x1F600));
+        assertNeverPruned("ab" + emoji + "?cd", "abcd", "ab" + emoji + "cd");
+        assertNeverPruned("ab" + emoji + "{0,1}cd", "abcd", "ab" + emoji + "cd");
+    }
+
+    @Test
+    public void characterClassesEndTheLiterals() {
+        assertNeverPruned("[abc]def[^x]ghi", "adefyghi", "cdefzghi");
+        assertNeverPruned("[]x]abcd", "]abcd", "xabcd");
+        assertNeverPruned("[^]x]abcd", "yabcd");
+        assertNeverPruned("[a-z&&[^b]]cat", "acat", "zcat");
+        assertNeverPruned("abc[\\]d]efg", "abc]efg", "abcdefg");
+        assertNeverPruned("abc\\d+xyz\\s*uvw", "abc12xyzuvw", "abc1xyz  uvw");
+        assertEquals(Arrays.asList("def", "ghi"), NGrams.requiredLiterals("[abc]def[^x]ghi"));
+    }
+
+    @Test
+    public void escapedCharactersArePartOfTheLiterals() {
+        assertNeverPruned("a\\.b\\.c", "a.b.c");
+        assertNeverPruned("\\Qa+b*c\\E", "a+b*c");
+        assertNeverPruned("\\Qabc\\E?def", "abdef", "abcdef");
+        assertNeverPruned("x\\(y\\)z", "x(y)z");
+        assertNeverPruned("\\x41bc", "Abc");
+        assertNeverPruned("\\u0041bcd", "Abcd");
+        assertNeverPruned("(a)bc\\1", "abca");
+        assertEquals(Collections.singletonList("a.b.c"), NGrams.requiredLiterals("a\\.b\\.c"));
+        assertEquals(Collections.singletonList("a+b*c"), NGrams.requiredLiterals("\\Qa+b*c\\E"));
+    }
+
+    @Test
+    public void whenPatternIsMatchedCaseInsensitively_valuesOfAnyCaseAreNotPruned() {
+        assertNeverPruned("(?i)HELLO", "hello", "HeLLo");
+        assertNeverPruned("(?i:WORLD)wide", "worldwide");
+    }
+
+    @Test
+    public void whenWhitespaceIsInsignificant_noLiteralIsRequired() {
+        assertNeverPruned("(?x)a b c", "abc");
+        assertEquals(Collections.emptyList(), NGrams.requiredLiterals("(?x)a b c"));
+    }
+
+    @Test
+    public void whenLiteralsAreShorterThanTheGrams_noneIsRequired() {
+        assertNeverPruned("ab", "ab");
+        assertNeverPruned("a.c", "abc");
+        assertNeverPruned("ab.cd.ef", "abXcdYef");
+        assertNeverPruned("x?yz", "yz", "xyz");
+        assertNeverPruned("", "");
+        assertEquals(Collections.emptyList(), NGrams.requiredLiterals("ab.cd.ef"));
+    }
+
+    /**
+     * Asserts the values match the regular expression and hold all n-grams of its required literals,
+     * so that they are not pruned from the candidates of the expression.
+     */
+    private static void assertNeverPruned(String regex, String... matching) {
+        for (String value : matching) {
+            assertTrue(value + " does not match " + regex, Pattern.compile(regex).matcher(value).matches());
+            for (String literal : NGrams.requiredLiterals(regex)) {
+                assertTrue(value + " is pruned by the literal " + literal + " of " + regex, NGrams.of(value).containsAll(NGrams.of(literal)));
+            }
+        }
+    }
+}
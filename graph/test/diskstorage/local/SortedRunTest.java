@@ -0,0 +1,138 @@
+/*
+ * Copyright (C) 2020 Grakn Labs
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package grakn.core.graph.diskstorage.local;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+public class SortedRunTest {
+
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void whenRunSpansManyBlocks_everyKeyIsFound() throws IOException {
+        Path file = folder.getRoot().toPath().resolve("keys.run");
+        try (SortedRun run = SortedRun.write(file, entries(0, 10_000).iterator())) {
+            for (int i = 0; i < 10_000; i += 7) {
+                assertArrayEquals(value(i), run.get(key(i)));
+            }
+            assertNull(run.get(bytes("key")));
+            assertNull(run.get(bytes("key00100a")));
+            assertNull(run.get(bytes("zzz")));
+        }
+    }
+
+    @Test
+    public void whenIteratingFromAKey_entriesFollowInKeyOrder() throws IOException {
+        Path file = folder.getRoot().toPath().resolve("keys.run");
+        try (SortedRun run = SortedRun.write(file, entries(0, 10_000).iterator())) {
+            Iterator<Map.Entry<byte[], byte[]>> entries = run.iterator(key(4321));
+            for (int i = 4321; i < 10_000; i++) {
+                assertArrayEquals(key(i), entries.next().getKey());
+            }
+            assertFalse(entries.hasNext());
+            assertFalse(run.iterator(bytes("zzz")).hasNext());
+
+            int count = 0;
+            for (Iterator<Map.Entry<byte[], byte[]>> all = run.iterator(null); all.hasNext(); all.next()) count++;
+            assertEquals(10_000, count);
+        }
+    }
+
+    @Test
+    public void tombstonesAreKeptInTheRun() throws IOException {
+        Path file = folder.getRoot().toPath().resolve("tombstones.run");
+        List<Map.Entry<byte[], byte[]>> entries = new ArrayList<>();
+        entries.add(new AbstractMap.SimpleEntry<>(bytes("a"), bytes("1")));
+        entries.add(new AbstractMap.SimpleEntry<>(bytes("b"), SortedStore.TOMBSTONE));
+        entries.add(new AbstractMap.SimpleEntry<>(bytes("c"), bytes("3")));
+        try (SortedRun run = SortedRun.write(file, entries.iterator())) {
+            assertSame(SortedStore.TOMBSTONE, run.get(bytes("b")));
+            Iterator<Map.Entry<byte[], byte[]>> read = run.iterator(bytes("b"));
+            assertSame(SortedStore.TOMBSTONE, read.next().getValue());
+            assertArrayEquals(bytes("3"), read.next().getValue());
+        }
+    }
+
+    @Test
+    public void whenRunIsWritten_noTemporaryFileIsLeft() throws IOException {
+        Path file = folder.getRoot().toPath().resolve("keys.run");
+        SortedRun.write(file, entries(0, 100).iterator()).close();
+        try (Stream<Path> files = Files.list(folder.getRoot().toPath())) {
+            assertEquals(1, files.count());
+        }
+    }
+
+    @Test
+    public void whenRunIsTruncated_itIsNotOpened() throws IOException {
+        Path file = folder.getRoot().toPath().resolve("keys.run");
+        SortedRun.write(file, entries(0, 1000).iterator()).close();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.truncate(channel.size() - 3);
+        }
+        try {
+            SortedRun.open(file).close();
+            fail();
+        } catch (IOException e) {
+            // expected
+        }
+    }
+
+    private static List<Map.Entry<byte[], byte[]>> entries(int from, int to) {
+        List<Map.Entry<byte[], byte[]>> entries = new ArrayList<>();
+        for (int i = from; i < to; i++) {
+            entries.add(new AbstractMap.SimpleEntry<>(key(i), value(i)));
+        }
+        return entries;
+    }
+
+    private static byte[] key(int i) {
+        return bytes(String.format("key%05d", i));
+    }
+
+    private static byte[] value(int i) {
+        return bytes("value of key " + i);
+    }
+
+    private static byte[] bytes(String string) {
+        return string.getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,277 @@
+/*
+ * Copyright (C) 2020 Grakn Labs
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package grakn.core.graph.diskstorage.local;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+
+public class SortedStoreTest {
+
+    private static final byte[] FIRST = new byte[0];
+    private static final byte[] LAST = {(byte) 0xFF};
+
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void whenStoreIsReopened_loggedUpdatesAreReplayed() throws IOException {
+        Path directory = folder.getRoot().toPath();
+        try (SortedStore store = new SortedStore(directory)) {
+            write(store, "a", "1");
+            write(store, "b", "2");
+            remove(store, "a");
+        }
+        try (SortedStore store = new SortedStore(directory)) {
+            assertNull(store.get(bytes("a")));
+            assertArrayEquals(bytes("2"), store.get(bytes("b")));
+        }
+    }
+
+    @Test
+    public void whenBatchIsLoggedButNotApplied_itsUpdatesAreOnlyReadThroughTheBatch() throws IOException {
+        Path directory = folder.getRoot().toPath();
+        try (SortedStore store = new SortedStore(directory)) {
+            write(store, "a", "1");
+            SortedStore.Batch batch = store.batch();
+            batch.put(bytes("b"), bytes("2"));
+            batch.remove(bytes("a"));
+            store.log(batch);
+
+            assertNull(batch.get(bytes("a")));
+            assertArrayEquals(bytes("2"), batch.get(bytes("b")));
+            assertArrayEquals(bytes("1"), store.get(bytes("a")));
+            assertNull(store.get(bytes("b")));
+
+            store.apply(batch);
+            assertNull(store.get(bytes("a")));
+            assertArrayEquals(bytes("2"), store.get(bytes("b")));
+        }
+    }
+
+    @Test
+    public void whenLogEndsWithATruncatedRecord_theRecordsBeforeItAreReplayed() throws IOException {
+        Path directory = folder.getRoot().toPath();
+        try (SortedStore store = new SortedStore(directory)) {
+            write(store, "a", "1");
+            write(store, "b", "2");
+        }
+        try (FileChannel log = FileChannel.open(directory.resolve("log"), StandardOpenOption.WRITE)) {
+            log.truncate(log.size() - 1);
+        }
+        try (SortedStore store = new SortedStore(directory)) {
+            assertArrayEquals(bytes("1"), store.get(bytes("a")));
+            assertNull(store.get(bytes("b")));
+            write(store, "c", "3");
+        }
+        // the updates logged after the truncated record are not lost behind it
+        try (SortedStore store = new SortedStore(directory)) {
+            assertArrayEquals(bytes("1"), store.get(bytes("a")));
+            assertArrayEquals(bytes("3"), store.get(bytes("c")));
+        }
+    }
+
+    @Test
+    public void whenLogRecordIsCorrupt_replayStopsBeforeIt() throws IOException {
+        Path directory = folder.getRoot().toPath();
+        try (SortedStore store = new SortedStore(directory)) {
+            write(store, "a", "1");
+            write(store, "b", "2");
+            write(store, "c", "3");
+        }
+        try (FileChannel log = FileChannel.open(directory.resolve("log"), StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            // the last byte of the second record is the value of b
+            long position = 2 * (log.size() / 3) - 1;
+            ByteBuffer corrupt = ByteBuffer.wrap(bytes("9"));
+            log.write(corrupt, position);
+        }
+        try (SortedStore store = new SortedStore(directory)) {
+            assertArrayEquals(bytes("1"), store.get(bytes("a")));
+            assertNull(store.get(bytes("b")));
+            assertNull(store.get(bytes("c")));
+        }
+    }
+
+    @Test
+    public void tombstonesHideTheEntriesOfOlderRuns() throws IOException {
+        Path directory = folder.getRoot().toPath();
+        // every applied batch is flushed to a run
+        try (SortedStore store = new SortedStore(directory, 1)) {
+            SortedStore.Batch batch = store.batch();
+            for (int i = 0; i < 100; i++) {
+                batch.put(bytes("key" + i), bytes("value" + i));
+            }
+            store.log(batch);
+            store.apply(batch);
+            remove(store, "key42");
+            // the smaller newer run is not merged with the older one
+            assertEquals(2, runs(directory).size());
+
+            assertNull(store.get(bytes("key42")));
+            assertEquals(99, scan(store).size());
+            assertFalse(scan(store).containsKey("key42"));
+        }
+        try (SortedStore store = new SortedStore(directory, 1)) {
+            assertNull(store.get(bytes("key42")));
+            assertArrayEquals(bytes("value41"), store.get(bytes("key41")));
+        }
+    }
+
+    @Test
+    public void whenRunsAreMerged_storeHoldsTheNewestValueOfEveryKey() throws IOException {
+        Path directory = folder.getRoot().toPath();
+        TreeMap<String, String> expected = new TreeMap<>();
+        Random random = new Random(0);
+        try (SortedStore store = new SortedStore(directory, 512)) {
+            for (int i = 0; i < 5000; i++) {
+                String key = String.format("key%03d", random.nextInt(300));
+                if (random.nextInt(4) == 0) {
+                    remove(store, key);
+                    expected.remove(key);
+                } else {
+                    String value = "value" + i;
+                    write(store, key, value);
+                    expected.put(key, value);
+                }
+            }
+            assertEquals(expected, scan(store));
+        }
+        try (SortedStore store = new SortedStore(directory, 512)) {
+            assertEquals(expected, scan(store));
+            for (int i = 0; i < 300; i++) {
+                String key = String.format("key%03d", i);
+                byte[] value = store.get(bytes(key));
+                assertEquals(expected.get(key), value == null ? null : new String(value, StandardCharsets.UTF_8));
+            }
+        }
+    }
+
+    @Test
+    public void whenScanningMoreEntriesThanAPage_allAreVisitedOnce() throws IOException {
+        try (SortedStore store = new SortedStore(folder.getRoot().toPath())) {
+            SortedStore.Batch batch = store.batch();
+            for (int i = 0; i < 1000; i++) {
+                batch.put(bytes(String.format("key%04d", i)), bytes("value"));
+            }
+            store.log(batch);
+            store.apply(batch);
+
+            List<String> keys = new ArrayList<>();
+            store.scan(bytes("key0100"), bytes("key0900"), (key, value) -> keys.add(new String(key, StandardCharsets.UTF_8)));
+            assertEquals(800, keys.size());
+            assertEquals("key0100", keys.get(0));
+            assertEquals("key0899", keys.get(799));
+        }
+    }
+
+    @Test
+    public void whenRunWasPartiallyWritten_itIsDiscardedOnOpen() throws IOException {
+        Path directory = folder.getRoot().toPath();
+        try (SortedStore store = new SortedStore(directory, 1)) {
+            write(store, "a", "1");
+        }
+        Path partial = directory.resolve(String.format("%016x-%016x.run", 7, 7) + SortedRun.TEMPORARY_SUFFIX);
+        Files.write(partial, bytes("incomplete"));
+
+        try (SortedStore store = new SortedStore(directory, 1)) {
+            assertFalse(Files.exists(partial));
+            assertArrayEquals(bytes("1"), store.get(bytes("a")));
+            write(store, "b", "2");
+            assertArrayEquals(bytes("2"), store.get(bytes("b")));
+        }
+    }
+
+    @Test
+    public void whenMergeWasInterrupted_theMergedRunsAreRemovedOnOpen() throws IOException {
+        Path directory = folder.getRoot().toPath();
+        Path backup = folder.newFolder().toPath();
+        try (SortedStore store = new SortedStore(directory, 1)) {
+            write(store, "a", "1");
+            Path first = runs(directory).get(0);
+            Files.copy(first, backup.resolve(first.getFileName()));
+            // the run of the same size is merged with the first one
+            write(store, "b", "2");
+            assertEquals(1, runs(directory).size());
+        }
+        // as if the merge was interrupted before the merged runs were deleted
+        Path restored;
+        try (Stream<Path> files = Files.list(backup)) {
+            Path first = files.findFirst().get();
+            restored = directory.resolve(first.getFileName());
+            Files.copy(first, restored, StandardCopyOption.REPLACE_EXISTING);
+        }
+
+        try (SortedStore store = new SortedStore(directory, 1)) {
+            assertFalse(Files.exists(restored));
+            assertArrayEquals(bytes("1"), store.get(bytes("a")));
+            assertArrayEquals(bytes("2"), store.get(bytes("b")));
+        }
+    }
+
+    private static void write(SortedStore store, String key, String value) throws IOException {
+        SortedStore.Batch batch = store.batch();
+        batch.put(bytes(key), bytes(value));
+        store.log(batch);
+        store.apply(batch);
+    }
+
+    private static void remove(SortedStore store, String key) throws IOException {
+        SortedStore.Batch batch = store.batch();
+        batch.remove(bytes(key));
+        store.log(batch);
+        store.apply(batch);
+    }
+
+    private static Map<String, String> scan(SortedStore store) throws IOException {
+        Map<String, String> entries = new TreeMap<>();
+        store.scan(FIRST, LAST, (key, value) -> entries.put(new String(key, StandardCharsets.UTF_8), new String(value, StandardCharsets.UTF_8)));
+        return entries;
+    }
+
+    private static List<Path> runs(Path directory) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> file.getFileName().toString().endsWith(".run")).collect(Collectors.toList());
+        }
+    }
+
+    private static byte[] bytes(String string) {
+        return string.getBytes(StandardCharsets.UTF_8);
+    }
+}
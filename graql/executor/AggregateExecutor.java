@@ -18,21 +18,37 @@
 
 package grakn.core.graql.executor;
 
+import grakn.core.concept.answer.AnswerGroup;
 import grakn.core.concept.answer.ConceptMap;
 import grakn.core.concept.answer.Numeric;
+import grakn.core.graql.executor.util.TDigest;
+import grakn.core.kb.concept.api.Concept;
+import grakn.core.kb.concept.api.ConceptId;
 import graql.lang.Graql;
 import graql.lang.statement.Variable;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.PriorityQueue;
 import java.util.stream.Stream;
 
 import static java.lang.Math.sqrt;
 
+/**
+ * Computes aggregates over answer streams in a single pass.
+ * Each aggregate method is implemented as an Accumulator which consumes answers one at a time and only retains
+ * the state needed for its result, so neither aggregates nor group aggregates hold on to the answers themselves.
+ */
 public class AggregateExecutor {
 
+    // number of values up to which the median is computed exactly, before switching to an approximate t-digest
+    private static final int EXACT_MEDIAN_LIMIT = 100_000;
+    private static final double MEDIAN_DIGEST_COMPRESSION = 200;
+
     private static Number getValue(ConceptMap answer, Variable var) {
         Object value = answer.get(var).asAttribute().value();
 
@@ -41,84 +57,187 @@ public class AggregateExecutor {
     }
 
     public static List<Numeric> aggregate(Stream<ConceptMap> answers, Graql.Token.Aggregate.Method method, Variable var) {
+        Accumulator accumulator = accumulator(method, var);
+        answers.forEach(accumulator::accept);
+        return accumulator.result();
+    }
+
+    /**
+     * Groups answers by the concept bound to the group variable, aggregating each group as its answers arrive.
+     * Groups are keyed on the ConceptId of their owner and are returned in order of first appearance.
+     */
+    public static List<AnswerGroup<Numeric>> aggregate(Stream<ConceptMap> answers, Variable groupVar,
+                                                       Graql.Token.Aggregate.Method method, Variable var) {
+        Map<ConceptId, GroupAccumulator> groups = new LinkedHashMap<>();
+        answers.forEach(answer -> {
+            Concept owner = answer.get(groupVar);
+            groups.computeIfAbsent(owner.id(), id -> new GroupAccumulator(owner, accumulator(method, var))).accumulator.accept(answer);
+        });
+
+        List<AnswerGroup<Numeric>> answerGroups = new ArrayList<>(groups.size());
+        groups.values().forEach(group -> answerGroups.add(new AnswerGroup<>(group.owner, group.accumulator.result())));
+        return answerGroups;
+    }
+
+    static Accumulator accumulator(Graql.Token.Aggregate.Method method, Variable var) {
         switch (method) {
             case COUNT:
-                return count(answers);
+                return new CountAccumulator();
             case MAX:
-                return max(answers, var);
+                return new ExtremumAccumulator(var, false);
             case MEAN:
-                return mean(answers, var);
+                return new MeanAccumulator(var);
             case MEDIAN:
-                return median(answers, var);
+                return new MedianAccumulator(var);
             case MIN:
-                return min(answers, var);
+                return new ExtremumAccumulator(var, true);
+            case STD:
+                return new StdAccumulator(var);
             case SUM:
-                return sum(answers, var);
+                return new SumAccumulator(var);
             default:
                 throw new IllegalArgumentException("Invalid Aggregate method");
         }
     }
 
-    static List<Numeric> count(Stream<ConceptMap> answers) {
-        return Collections.singletonList(new Numeric(answers.count()));
+    /**
+     * Incrementally computes an aggregate over the answers passed to it
+     */
+    interface Accumulator {
+        void accept(ConceptMap answer);
+
+        List<Numeric> result();
     }
 
-    static List<Numeric> max(Stream<ConceptMap> answers, Variable var) {
-        PrimitiveNumberComparator comparator = new PrimitiveNumberComparator();
-        Number number = answers.map(answer -> getValue(answer, var)).max(comparator).orElse(null);
+    private static class GroupAccumulator {
+        private final Concept owner;
+        private final Accumulator accumulator;
 
-        if (number == null) return Collections.emptyList();
-        else return Collections.singletonList( new Numeric(number));
+        GroupAccumulator(Concept owner, Accumulator accumulator) {
+            this.owner = owner;
+            this.accumulator = accumulator;
+        }
     }
 
-    static List<Numeric> mean(Stream<ConceptMap> answers, Variable var) {
-        double mean = answers
-                .mapToDouble(answer -> getValue(answer, var).doubleValue())
-                .average()
-                .orElse(Double.NaN);
+    private static class CountAccumulator implements Accumulator {
+        private long count = 0;
 
-        if (Double.isNaN(mean)) {
-            return Collections.emptyList();
-        } else {
-            return Collections.singletonList(new Numeric(mean));
+        @Override
+        public void accept(ConceptMap answer) {
+            count++;
+        }
+
+        @Override
+        public List<Numeric> result() {
+            return Collections.singletonList(new Numeric(count));
         }
     }
 
-    static List<Numeric> median(Stream<ConceptMap> answers, Variable var) {
-        MedianFinder medianFinder = new MedianFinder();
-        answers.map(a -> getValue(a, var)).forEach(medianFinder::addNum);
+    private static class ExtremumAccumulator implements Accumulator {
+        private final PrimitiveNumberComparator comparator = new PrimitiveNumberComparator();
+        private final Variable var;
+        private final boolean min;
+        private Number extremum = null;
+
+        ExtremumAccumulator(Variable var, boolean min) {
+            this.var = var;
+            this.min = min;
+        }
 
-        Number median = medianFinder.findMedian();
+        @Override
+        public void accept(ConceptMap answer) {
+            Number number = getValue(answer, var);
+            if (extremum == null) {
+                extremum = number;
+            } else {
+                int comparison = comparator.compare(number, extremum);
+                if (min ? comparison < 0 : comparison > 0) extremum = number;
+            }
+        }
 
-        if (median == null) return Collections.emptyList();
-        else return Collections.singletonList(new Numeric(median));
+        @Override
+        public List<Numeric> result() {
+            if (extremum == null) return Collections.emptyList();
+            else return Collections.singletonList(new Numeric(extremum));
+        }
     }
 
-    static List<Numeric> min(Stream<ConceptMap> answers, Variable var) {
-        PrimitiveNumberComparator comparator = new PrimitiveNumberComparator();
-        Number number = answers
-                .map(answer -> getValue(answer, var))
-                .min(comparator)
-                .orElse(null);
+    private static class MeanAccumulator implements Accumulator {
+        private final Variable var;
+        private long count = 0;
+        private double sum = 0d;
+
+        MeanAccumulator(Variable var) {
+            this.var = var;
+        }
 
-        if (number == null) return Collections.emptyList();
-        else return Collections.singletonList(new Numeric(number));
+        @Override
+        public void accept(ConceptMap answer) {
+            sum += getValue(answer, var).doubleValue();
+            count++;
+        }
+
+        @Override
+        public List<Numeric> result() {
+            if (count == 0) return Collections.emptyList();
+            else return Collections.singletonList(new Numeric(sum / count));
+        }
     }
 
-    static List<Numeric> std(Stream<ConceptMap> answers, Variable var) {
-        Stream<Double> numStream = answers.map(result -> result.get(var)
-                .<Number>asAttribute().value()
-                .doubleValue());
+    /**
+     * Computes the median exactly up to EXACT_MEDIAN_LIMIT values, after which the values seen so far are moved
+     * into a t-digest and the median is estimated, keeping the memory used bounded.
+     */
+    private static class MedianAccumulator implements Accumulator {
+        private final Variable var;
+        private MedianFinder medianFinder = new MedianFinder();
+        private TDigest digest = null;
+
+        MedianAccumulator(Variable var) {
+            this.var = var;
+        }
+
+        @Override
+        public void accept(ConceptMap answer) {
+            Number number = getValue(answer, var);
+            if (digest != null) {
+                digest.add(number.doubleValue());
+            } else {
+                medianFinder.addNum(number);
+                if (medianFinder.size() > EXACT_MEDIAN_LIMIT) {
+                    digest = new TDigest(MEDIAN_DIGEST_COMPRESSION);
+                    medianFinder.drainTo(digest);
+                    medianFinder = null;
+                }
+            }
+        }
 
-        Iterable<Double> data = numStream::iterator;
+        @Override
+        public List<Numeric> result() {
+            Number median = digest != null ? digest.quantile(0.5) : medianFinder.findMedian();
 
-        // Online algorithm to calculate unbiased sample standard deviation
-        // https://en.wikipedia.org/wiki/Algorithms_for_calculating_variance#Online_algorithm
-        long n = 0;
-        double mean = 0d;
-        double M2 = 0d;
+            if (median == null) return Collections.emptyList();
+            else return Collections.singletonList(new Numeric(median));
+        }
+    }
 
-        for (double x : data) {
+    /**
+     * Online algorithm to calculate unbiased sample standard deviation
+     * https://en.wikipedia.org/wiki/Algorithms_for_calculating_variance#Online_algorithm
+     */
+    private static class StdAccumulator implements Accumulator {
+        private final Variable var;
+        private long n = 0;
+        private double mean = 0d;
+        private double M2 = 0d;
+
+        StdAccumulator(Variable var) {
+            this.var = var;
+        }
+
+        @Override
+        public void accept(ConceptMap answer) {
+            double x = getValue(answer, var).doubleValue();
             n += 1;
             double delta = x - mean;
             mean += delta / (double) n;
@@ -126,21 +245,32 @@ public class AggregateExecutor {
             M2 += delta*delta2;
         }
 
-        if (n < 2) {
-            return Collections.emptyList();
-        } else {
-            return Collections.singletonList(new Numeric(sqrt(M2 / (double) (n - 1))));
+        @Override
+        public List<Numeric> result() {
+            if (n < 2) return Collections.emptyList();
+            else return Collections.singletonList(new Numeric(sqrt(M2 / (double) (n - 1))));
         }
     }
 
-    static List<Numeric> sum(Stream<ConceptMap> answers, Variable var) {
+    private static class SumAccumulator implements Accumulator {
+        private final Variable var;
         // initial value is set to null so that we can return null if there is no Answers to consume
-        Number number = answers
-                .map(answer -> getValue(answer, var))
-                .reduce(null, AggregateExecutor::addNumbers);
+        private Number sum = null;
 
-        if (number == null) return Collections.emptyList();
-        else return Collections.singletonList(new Numeric(number));
+        SumAccumulator(Variable var) {
+            this.var = var;
+        }
+
+        @Override
+        public void accept(ConceptMap answer) {
+            sum = addNumbers(sum, getValue(answer, var));
+        }
+
+        @Override
+        public List<Numeric> result() {
+            if (sum == null) return Collections.emptyList();
+            else return Collections.singletonList(new Numeric(sum));
+        }
     }
 
     private static Number addNumbers(Number x, Number y) {
@@ -178,6 +308,17 @@ public class AggregateExecutor {
             }
         }
 
+        int size() {
+            return maxHeap.size() + minHeap.size();
+        }
+
+        void drainTo(TDigest digest) {
+            maxHeap.forEach(num -> digest.add(num.doubleValue()));
+            minHeap.forEach(num -> digest.add(num.doubleValue()));
+            maxHeap.clear();
+            minHeap.clear();
+        }
+
         // Returns the median of current data stream
         Number findMedian() {
             if (maxHeap.isEmpty() && minHeap.isEmpty()) {
@@ -35,6 +35,7 @@ public class ExecutorFactoryImpl implements ExecutorFactory {
     private KeyspaceStatistics keyspaceStatistics;
     private TraversalPlanFactory traversalPlanFactory;
     private TraversalExecutor traversalExecutor;
+    private TraversalExecutor storedFactsExecutor;
     private ReasonerQueryFactory reasonerQueryFactory;
 
     public ExecutorFactoryImpl(ConceptManager conceptManager, HadoopGraph hadoopGraph, KeyspaceStatistics keyspaceStatistics, TraversalPlanFactory traversalPlanFactory, TraversalExecutor traversalExecutor) {
@@ -52,7 +53,24 @@ public class ExecutorFactoryImpl implements ExecutorFactory {
 
     @Override
     public QueryExecutor transactional(boolean infer) {
-        return new QueryExecutorImpl(conceptManager, reasonerQueryFactory, infer);
+        return new QueryExecutorImpl(conceptManager, reasonerQueryFactory, traversalExecutor, null, infer);
+    }
+
+    @Override
+    public QueryExecutor storedFacts() {
+        return new QueryExecutorImpl(conceptManager, reasonerQueryFactory, storedFactsExecutor(), null, false);
+    }
+
+    @Override
+    public QueryExecutor materialisedConclusions() {
+        return new QueryExecutorImpl(conceptManager, reasonerQueryFactory, traversalExecutor, storedFactsExecutor(), true);
+    }
+
+    private TraversalExecutor storedFactsExecutor() {
+        if (storedFactsExecutor == null) {
+            storedFactsExecutor = new TraversalExecutorImpl(traversalPlanFactory, conceptManager, true);
+        }
+        return storedFactsExecutor;
     }
 
     public void setReasonerQueryFactory(ReasonerQueryFactory reasonerQueryFactory) {
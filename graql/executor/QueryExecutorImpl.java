@@ -20,19 +20,24 @@ package grakn.core.graql.executor;
 
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Sets;
-import grakn.core.concept.answer.Answer;
+import com.google.common.hash.Hasher;
 import grakn.core.concept.answer.AnswerGroup;
 import grakn.core.concept.answer.ConceptMap;
 import grakn.core.concept.answer.Numeric;
 import grakn.core.concept.answer.Void;
 import grakn.core.graql.executor.property.PropertyExecutorFactoryImpl;
+import grakn.core.graql.executor.util.DistinctFilter;
 import grakn.core.graql.executor.util.LazyMergingStream;
+import grakn.core.graql.executor.util.TopKSortedStream;
+import grakn.core.graql.reasoner.explanation.MaterialisedExplanation;
 import grakn.core.graql.reasoner.query.ReasonerQueryFactory;
+import grakn.core.graql.reasoner.query.ResolvableQuery;
 import grakn.core.kb.concept.api.Concept;
 import grakn.core.kb.concept.api.GraknConceptException;
 import grakn.core.kb.concept.manager.ConceptManager;
 import grakn.core.kb.graql.exception.GraqlSemanticException;
 import grakn.core.kb.graql.executor.QueryExecutor;
+import grakn.core.kb.graql.executor.TraversalExecutor;
 import grakn.core.kb.graql.executor.WriteExecutor;
 import grakn.core.kb.graql.executor.property.PropertyExecutor;
 import grakn.core.kb.graql.executor.property.PropertyExecutorFactory;
@@ -56,6 +61,7 @@ import graql.lang.statement.Variable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import javax.annotation.Nullable;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
@@ -63,13 +69,11 @@ import java.util.Comparator;
 import java.util.HashSet;
 import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Objects;
 import java.util.Set;
-import java.util.function.Function;
-import java.util.stream.Collector;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
-import static java.util.stream.Collectors.collectingAndThen;
 import static java.util.stream.Collectors.groupingBy;
 import static java.util.stream.Collectors.toList;
 
@@ -81,13 +85,20 @@ public class QueryExecutorImpl implements QueryExecutor {
     private ConceptManager conceptManager;
     private final boolean infer;
     private ReasonerQueryFactory reasonerQueryFactory;
+    // executes the traversals of the queries answered without resolving rules
+    private final TraversalExecutor traversalExecutor;
+    // if not null, the rule conclusions are persisted and the answers missing from the stored facts are the inferred ones
+    private final TraversalExecutor storedFactsExecutor;
     private final PropertyExecutorFactory propertyExecutorFactory;
     private static final Logger LOG = LoggerFactory.getLogger(QueryExecutorImpl.class);
 
-    QueryExecutorImpl(ConceptManager conceptManager, ReasonerQueryFactory reasonerQueryFactory, boolean infer) {
+    QueryExecutorImpl(ConceptManager conceptManager, ReasonerQueryFactory reasonerQueryFactory,
+                      TraversalExecutor traversalExecutor, @Nullable TraversalExecutor storedFactsExecutor, boolean infer) {
         this.conceptManager = conceptManager;
         this.infer = infer;
         this.reasonerQueryFactory = reasonerQueryFactory;
+        this.traversalExecutor = traversalExecutor;
+        this.storedFactsExecutor = storedFactsExecutor;
         propertyExecutorFactory = new PropertyExecutorFactoryImpl();
     }
 
@@ -103,8 +114,7 @@ public class QueryExecutorImpl implements QueryExecutor {
             Stream<Conjunction<Pattern>> conjunctions = matchClause.getPatterns().getNegationDNF().getPatterns().stream();
             Stream<Stream<ConceptMap>> answerStreams = conjunctions
                     .map(p -> reasonerQueryFactory.resolvable(p))
-                    // we return an answer with the substituted IDs in the pattern
-                    .map(q -> q.resolve(infer).map(ans -> ans.withPattern(q.withSubstitution(ans).getPattern())));
+                    .map(this::answers);
 
             LazyMergingStream<ConceptMap> mergedStreams = new LazyMergingStream<>(answerStreams);
             return mergedStreams.flatStream();
@@ -117,6 +127,25 @@ public class QueryExecutorImpl implements QueryExecutor {
         return answerStream;
     }
 
+    /**
+     * @return answers to the conjunctive query, with the substituted IDs in the pattern
+     */
+    private Stream<ConceptMap> answers(ResolvableQuery query) {
+        if (infer && (storedFactsExecutor == null || !query.isPositive())) {
+            return query.resolve(true).map(ans -> ans.withPattern(query.withSubstitution(ans).getPattern()));
+        }
+        // with the rule conclusions persisted, the answers are found by traversals, and the inferred ones are marked
+        // as explainable, so that their explanations can be reconstructed on request
+        boolean explainable = infer && query.isRuleResolvable();
+        return traversalExecutor.traverse(query.getPattern()).map(ans -> {
+            Conjunction<Pattern> pattern = query.withSubstitution(ans).getPattern();
+            if (explainable && !storedFactsExecutor.traverse(pattern).findAny().isPresent()) {
+                ans = ans.explain(new MaterialisedExplanation());
+            }
+            return ans.withPattern(pattern);
+        });
+    }
+
     //TODO this should go into MatchClause
     private void validateClause(MatchClause matchClause) {
 
@@ -195,6 +224,10 @@ public class QueryExecutorImpl implements QueryExecutor {
         }
 
 
+        // the dependencies between the writers do not depend on the answer being written, so they are worked out
+        // once per query rather than once per match answer
+        WriteExecutorImpl writePlan = WriteExecutorImpl.create(conceptManager, executors.build());
+
         Stream<ConceptMap> answerStream;
         if (query.match() != null) {
             MatchClause match = query.match();
@@ -205,12 +238,13 @@ public class QueryExecutorImpl implements QueryExecutor {
             LinkedHashSet<Variable> projectedVars = new LinkedHashSet<>(matchVars);
             projectedVars.retainAll(insertVars);
 
+            // written eagerly, so that the inserts are visible to the queries that follow in the transaction
             Stream<ConceptMap> answers = get(match.get(projectedVars));
             answerStream = answers
-                    .flatMap(answer -> WriteExecutorImpl.create(conceptManager, executors.build()).write(answer))
+                    .flatMap(answer -> writePlan.copy().write(answer))
                     .collect(toList()).stream();
         } else {
-            answerStream = WriteExecutorImpl.create(conceptManager, executors.build()).write();
+            answerStream = writePlan.write();
         }
 
         return answerStream;
@@ -272,58 +306,53 @@ public class QueryExecutorImpl implements QueryExecutor {
     @Override
     public Stream<ConceptMap> get(GraqlGet query) {
         //NB: we need distinct as projection can produce duplicates
-        Stream<ConceptMap> answers = match(query.match()).map(ans -> ans.project(query.vars())).distinct();
+        Set<Variable> vars = query.vars();
+        List<Variable> encodedVars = new ArrayList<>(vars);
+        DistinctFilter<ConceptMap> distinct = new DistinctFilter<>((answer, hasher) -> encode(encodedVars, answer, hasher));
+
+        Stream<ConceptMap> answers;
+        if (infer || query.match().getPatterns().getNegationDNF().getPatterns().size() > 1) {
+            answers = match(query.match()).map(ans -> ans.project(vars)).filter(distinct);
+        } else {
+            // without inference, the answers of a single conjunction come from one traversal, which has already
+            // removed duplicates, so only answers that lose variables to the projection can become duplicates
+            answers = match(query.match()).map(ans -> {
+                if (vars.containsAll(ans.vars())) return ans;
+                ConceptMap projected = ans.project(vars);
+                return distinct.test(projected) ? projected : null;
+            }).filter(Objects::nonNull);
+        }
 
         answers = filter(query, answers);
 
         return answers;
     }
 
+    private static void encode(List<Variable> vars, ConceptMap answer, Hasher hasher) {
+        for (Variable var : vars) {
+            Concept concept = answer.map().get(var);
+            String id = concept == null ? "" : concept.id().getValue();
+            hasher.putInt(id.length()).putUnencodedChars(id);
+        }
+    }
+
     @Override
     public Stream<Numeric> aggregate(GraqlGet.Aggregate query) {
         Stream<ConceptMap> answers = get(query.query());
-        switch (query.method()) {
-            case COUNT:
-                return AggregateExecutor.count(answers).stream();
-            case MAX:
-                return AggregateExecutor.max(answers, query.var()).stream();
-            case MEAN:
-                return AggregateExecutor.mean(answers, query.var()).stream();
-            case MEDIAN:
-                return AggregateExecutor.median(answers, query.var()).stream();
-            case MIN:
-                return AggregateExecutor.min(answers, query.var()).stream();
-            case STD:
-                return AggregateExecutor.std(answers, query.var()).stream();
-            case SUM:
-                return AggregateExecutor.sum(answers, query.var()).stream();
-            default:
-                throw new IllegalArgumentException("Invalid Aggregate query method / variables");
-        }
+        return AggregateExecutor.aggregate(answers, query.method(), query.var()).stream();
     }
 
     @Override
     public Stream<AnswerGroup<ConceptMap>> get(GraqlGet.Group query) {
-        return get(get(query.query()), query.var(), answers -> answers.collect(Collectors.toList())).stream();
+        List<AnswerGroup<ConceptMap>> answerGroups = new ArrayList<>();
+        get(query.query()).collect(groupingBy(answer -> answer.get(query.var())))
+                .forEach((key, values) -> answerGroups.add(new AnswerGroup<>(key, values)));
+        return answerGroups.stream();
     }
 
     @Override
     public Stream<AnswerGroup<Numeric>> get(GraqlGet.Group.Aggregate query) {
-        return get(get(query.group().query()), query.group().var(),
-                answers -> AggregateExecutor.aggregate(answers, query.method(), query.var())
-        ).stream();
-    }
-
-    private static <T extends Answer> List<AnswerGroup<T>> get(Stream<ConceptMap> answers, Variable groupVar,
-                                                               Function<Stream<ConceptMap>, List<T>> aggregate) {
-        Collector<ConceptMap, ?, List<T>> groupAggregate =
-                collectingAndThen(toList(), list -> aggregate.apply(list.stream()));
-
-        List<AnswerGroup<T>> answerGroups = new ArrayList<>();
-        answers.collect(groupingBy(answer -> answer.get(groupVar), groupAggregate))
-                .forEach((key, values) -> answerGroups.add(new AnswerGroup<>(key, values)));
-
-        return answerGroups;
+        return AggregateExecutor.aggregate(get(query.group().query()), query.group().var(), query.method(), query.var()).stream();
     }
 
     @SuppressWarnings("unchecked") // All attribute values are comparable value types
@@ -341,7 +370,13 @@ public class QueryExecutorImpl implements QueryExecutor {
                 }
             };
             comparator = (query.sort().get().order() == Graql.Token.Order.DESC) ? comparator.reversed() : comparator;
-            answers = answers.sorted(comparator);
+            if (query.limit().isPresent()) {
+                // only the first offset + limit answers are returned, so there is no need to sort the rest
+                long k = query.offset().orElse(0L) + query.limit().get();
+                answers = new TopKSortedStream<>(answers, comparator, k < 0 ? Long.MAX_VALUE : k).sortedStream();
+            } else {
+                answers = answers.sorted(comparator);
+            }
         }
         if (query.offset().isPresent()) {
             answers = answers.skip(query.offset().get());
@@ -19,7 +19,9 @@
 package grakn.core.graql.executor;
 
 import com.google.common.collect.Sets;
+import com.google.common.hash.Hasher;
 import grakn.core.concept.answer.ConceptMap;
+import grakn.core.graql.executor.util.DistinctFilter;
 import grakn.core.kb.concept.api.Concept;
 import grakn.core.kb.concept.manager.ConceptManager;
 import grakn.core.kb.graql.exception.GraqlSemanticException;
@@ -34,7 +36,9 @@ import org.apache.tinkerpop.gremlin.structure.Edge;
 import org.apache.tinkerpop.gremlin.structure.Element;
 import org.apache.tinkerpop.gremlin.structure.Vertex;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.stream.Stream;
@@ -43,10 +47,17 @@ public class TraversalExecutorImpl implements TraversalExecutor {
 
     private TraversalPlanFactory traversalPlanFactory;
     private ConceptManager conceptManager;
+    // true if the traversals skip the instances and ownerships inferred by rules
+    private final boolean storedFacts;
 
     public TraversalExecutorImpl(TraversalPlanFactory traversalPlanFactory, ConceptManager conceptManager) {
+        this(traversalPlanFactory, conceptManager, false);
+    }
+
+    public TraversalExecutorImpl(TraversalPlanFactory traversalPlanFactory, ConceptManager conceptManager, boolean storedFacts) {
         this.traversalPlanFactory = traversalPlanFactory;
         this.conceptManager = conceptManager;
+        this.storedFacts = storedFacts;
     }
 
     @Override
@@ -60,15 +71,34 @@ public class TraversalExecutorImpl implements TraversalExecutor {
     @Override
     public Stream<ConceptMap> traverse(Conjunction<? extends Pattern> pattern, GraqlTraversal graqlTraversal) {
         Set<Variable> vars = Sets.filter(pattern.variables(), Variable::isReturned);
-        GraphTraversal<Vertex, Map<String, Vertex>> traversal = graqlTraversal.getGraphTraversal(vars);
+        GraphTraversal<Vertex, Map<String, Vertex>> traversal = graqlTraversal.getGraphTraversal(vars, storedFacts);
+
+        // deduplicate on the ids of the vertices, before any concepts are built for them
+        List<Variable> encodedVars = new ArrayList<>(vars);
+        DistinctFilter<Map<String, Vertex>> distinct = new DistinctFilter<>((elements, hasher) -> encode(encodedVars, elements, hasher));
 
         return traversal.toStream()
-                .map(elements -> createAnswer(vars, elements))
-                .distinct()
                 .sequential()
+                .filter(distinct)
+                .map(elements -> createAnswer(vars, elements))
                 .map(ConceptMap::new);
     }
 
+    private static void encode(List<Variable> vars, Map<String, Vertex> elements, Hasher hasher) {
+        for (Variable var : vars) {
+            Vertex element = elements.get(var.symbol());
+            Object id = element == null ? null : element.id();
+            if (id instanceof Long) {
+                hasher.putByte((byte) 0).putLong((Long) id);
+            } else if (id != null) {
+                String idString = id.toString();
+                hasher.putByte((byte) 1).putInt(idString.length()).putUnencodedChars(idString);
+            } else {
+                hasher.putByte((byte) 2);
+            }
+        }
+    }
+
     /**
      * @param vars     set of variables of interest
      * @param elements a map of vertices and edges where the key is the variable name
@@ -100,7 +100,7 @@ public class WriteExecutorImpl implements WriteExecutor {
         this.dependencies = ImmutableMultimap.copyOf(executorDependency);
     }
 
-    static WriteExecutor create(ConceptManager conceptManager, ImmutableSet<Writer> writers) {
+    static WriteExecutorImpl create(ConceptManager conceptManager, ImmutableSet<Writer> writers) {
         /*
             We build several many-to-many relations, indicated by a `Multimap<X, Y>`. These are used to represent
             the dependencies between properties and variables.
@@ -226,6 +226,14 @@ public class WriteExecutorImpl implements WriteExecutor {
         return dependency;
     }
 
+    /**
+     * @return executor with the same writers and dependencies as this one, but none of the concepts written by it,
+     * used to write many answers of the same query without working out the dependencies again
+     */
+    WriteExecutorImpl copy() {
+        return new WriteExecutorImpl(conceptManager, writers, equivalentVars, dependencies);
+    }
+
     public Stream<ConceptMap> write() {
         return write(new ConceptMap());
     }
@@ -0,0 +1,107 @@
+/*
+ * Copyright (C) 2020 Grakn Labs
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ */
+
+package grakn.core.graql.executor.util;
+
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+
+import java.nio.ByteBuffer;
+import java.util.function.BiConsumer;
+import java.util.function.Predicate;
+
+/**
+ * A replacement for `Stream.distinct()` whose memory use does not depend on the size of the elements it filters.
+ * <p>
+ * `Stream.distinct()` keeps every element it has seen in a HashSet, which for answers means retaining every answer
+ * of a query until the stream is closed. Instead, each element is encoded into a Hasher by the given encoder, usually
+ * as the ids of the concepts it contains, and only the 128-bit murmur3 fingerprint of that encoding is kept, as two
+ * primitive longs in an open-addressed table. The fingerprint is wide enough for two distinct elements to be
+ * practically never mistaken for duplicates, even over billions of elements.
+ * <p>
+ * Returns true the first time an element is tested and false for every subsequent equal element, so it can be used
+ * as `stream.filter(new DistinctFilter<>(encoder))`. It is not thread-safe, like the streams it is meant for.
+ */
+public class DistinctFilter<T> implements Predicate<T> {
+    private static final HashFunction FINGERPRINT = Hashing.murmur3_128();
+    private static final int INITIAL_SLOTS = 64;
+    private static final int MAX_SLOTS = 1 << 29;
+
+    private final BiConsumer<T, Hasher> encoder;
+
+    // fingerprint of the element in slot i is stored at table[2i] (high bits) and table[2i + 1] (low bits)
+    // an all zero fingerprint marks an empty slot
+    private long[] table = new long[INITIAL_SLOTS * 2];
+    private int size = 0;
+
+    public DistinctFilter(BiConsumer<T, Hasher> encoder) {
+        this.encoder = encoder;
+    }
+
+    @Override
+    public boolean test(T element) {
+        Hasher hasher = FINGERPRINT.newHasher();
+        encoder.accept(element, hasher);
+        ByteBuffer fingerprint = ByteBuffer.wrap(hasher.hash().asBytes());
+        long high = fingerprint.getLong();
+        long low = fingerprint.getLong();
+        if (high == 0 && low == 0) low = 1;
+        return add(high, low);
+    }
+
+    /**
+     * @return number of distinct elements seen so far
+     */
+    public int size() {
+        return size;
+    }
+
+    private boolean add(long high, long low) {
+        int mask = table.length / 2 - 1;
+        int slot = (int) low & mask;
+        while (table[2 * slot] != 0 || table[2 * slot + 1] != 0) {
+            if (table[2 * slot] == high && table[2 * slot + 1] == low) return false;
+            slot = (slot + 1) & mask;
+        }
+        table[2 * slot] = high;
+        table[2 * slot + 1] = low;
+        size++;
+        if (size > table.length / 8 * 3) grow();
+        return true;
+    }
+
+    private void grow() {
+        int slots = table.length / 2;
+        if (slots >= MAX_SLOTS) throw new IllegalStateException("Too many distinct elements to filter: " + size);
+        long[] oldTable = table;
+        table = new long[slots * 4];
+        int mask = slots * 2 - 1;
+        for (int i = 0; i < oldTable.length; i += 2) {
+            long high = oldTable[i];
+            long low = oldTable[i + 1];
+            if (high == 0 && low == 0) continue;
+            int slot = (int) low & mask;
+            while (table[2 * slot] != 0 || table[2 * slot + 1] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            table[2 * slot] = high;
+            table[2 * slot + 1] = low;
+        }
+    }
+}
@@ -0,0 +1,146 @@
+/*
+ * Copyright (C) 2020 Grakn Labs
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ */
+
+package grakn.core.graql.executor.util;
+
+import java.util.Arrays;
+
+/**
+ * A t-digest (Dunning and Ertl, "Computing Extremely Accurate Quantiles Using t-Digests") summarising a stream of
+ * numbers in a bounded number of weighted centroids, from which quantiles can be estimated.
+ * <p>
+ * Values are buffered and periodically merged into the centroids, which are kept sorted by mean. Centroids near the
+ * tails are kept small while centroids near the median may grow, with a size limit of 4 * n * q * (1 - q) / compression
+ * for a centroid at quantile q. The number of centroids therefore grows as O(compression * log n) for n values,
+ * a few thousand doubles at most, and the estimated median is within about 1 / compression of the true median
+ * in terms of rank.
+ */
+public class TDigest {
+    private final double compression;
+
+    private double[] means;
+    private double[] weights;
+    private int centroids = 0;
+
+    private final double[] buffer;
+    private int buffered = 0;
+
+    private long size = 0;
+    private double min = Double.POSITIVE_INFINITY;
+    private double max = Double.NEGATIVE_INFINITY;
+
+    public TDigest(double compression) {
+        if (compression < 1) throw new IllegalArgumentException("Compression must be at least 1: " + compression);
+        this.compression = compression;
+        int capacity = (int) Math.ceil(2 * compression) + 10;
+        this.means = new double[capacity];
+        this.weights = new double[capacity];
+        this.buffer = new double[capacity * 5];
+    }
+
+    public void add(double value) {
+        if (Double.isNaN(value)) throw new IllegalArgumentException("Cannot add NaN to a digest");
+        buffer[buffered++] = value;
+        size++;
+        min = Math.min(min, value);
+        max = Math.max(max, value);
+        if (buffered == buffer.length) merge();
+    }
+
+    public long size() {
+        return size;
+    }
+
+    /**
+     * @param q quantile to estimate, between 0 and 1
+     * @return estimated value at the given quantile, or NaN if no values were added
+     */
+    public double quantile(double q) {
+        if (q < 0 || q > 1) throw new IllegalArgumentException("Quantile must be between 0 and 1: " + q);
+        merge();
+        if (centroids == 0) return Double.NaN;
+        if (centroids == 1) return means[0];
+
+        // each centroid is taken to be centred on its mean, with the min and max at the ends of the distribution
+        double target = q * size;
+        double centre = weights[0] / 2;
+        if (target < centre) return interpolate(min, means[0], target / centre);
+        for (int i = 0; i < centroids - 1; i++) {
+            double nextCentre = centre + (weights[i] + weights[i + 1]) / 2;
+            if (target < nextCentre) {
+                return interpolate(means[i], means[i + 1], (target - centre) / (nextCentre - centre));
+            }
+            centre = nextCentre;
+        }
+        double lastHalfWeight = weights[centroids - 1] / 2;
+        return interpolate(means[centroids - 1], max, Math.min(1, (target - centre) / lastHalfWeight));
+    }
+
+    private static double interpolate(double from, double to, double fraction) {
+        return from + (to - from) * fraction;
+    }
+
+    private void merge() {
+        if (buffered == 0) return;
+        Arrays.sort(buffer, 0, buffered);
+
+        double[] oldMeans = means;
+        double[] oldWeights = weights;
+        int oldCentroids = centroids;
+        means = new double[oldMeans.length];
+        weights = new double[oldWeights.length];
+        centroids = 0;
+
+        // merge the sorted buffer with the sorted centroids, growing each centroid while its size limit allows
+        double mergedWeight = 0;
+        int i = 0;
+        int j = 0;
+        while (i < buffered || j < oldCentroids) {
+            double mean;
+            double weight;
+            if (j == oldCentroids || (i < buffered && buffer[i] < oldMeans[j])) {
+                mean = buffer[i++];
+                weight = 1;
+            } else {
+                mean = oldMeans[j];
+                weight = oldWeights[j++];
+            }
+
+            if (centroids > 0) {
+                int last = centroids - 1;
+                double proposedWeight = weights[last] + weight;
+                double q = (mergedWeight - weights[last] + proposedWeight / 2) / size;
+                if (proposedWeight <= Math.max(1, 4 * size * q * (1 - q) / compression)) {
+                    means[last] += (mean - means[last]) * weight / proposedWeight;
+                    weights[last] = proposedWeight;
+                    mergedWeight += weight;
+                    continue;
+                }
+            }
+            if (centroids == means.length) {
+                means = Arrays.copyOf(means, centroids * 2);
+                weights = Arrays.copyOf(weights, centroids * 2);
+            }
+            means[centroids] = mean;
+            weights[centroids] = weight;
+            centroids++;
+            mergedWeight += weight;
+        }
+        buffered = 0;
+    }
+}
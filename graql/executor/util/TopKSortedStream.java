@@ -0,0 +1,94 @@
+/*
+ * Copyright (C) 2020 Grakn Labs
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ */
+
+package grakn.core.graql.executor.util;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Spliterator;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Sorts a Stream when only its first k elements are going to be consumed, eg. for a `sort` followed by a `limit`.
+ * <p>
+ * Instead of buffering and sorting the whole Stream as `Stream.sorted()` does, the elements are pushed through a
+ * bounded priority queue holding the k smallest elements seen so far, which takes O(n log k) time and O(k) memory.
+ * Like `Stream.sorted()`, the sort is stable: elements comparing equal are returned in encounter order.
+ * <p>
+ * The input Stream is only consumed once the returned Stream is, and it can only be consumed once!
+ */
+public class TopKSortedStream<D> {
+    private static final int MAX_INITIAL_CAPACITY = 1024;
+
+    private final Stream<D> stream;
+    private final Comparator<? super D> comparator;
+    private final long k;
+
+    public TopKSortedStream(Stream<D> stream, Comparator<? super D> comparator, long k) {
+        if (k < 0) throw new IllegalArgumentException("Number of elements to keep must not be negative: " + k);
+        this.stream = stream;
+        this.comparator = comparator;
+        this.k = k;
+    }
+
+    public Stream<D> sortedStream() {
+        if (k >= Integer.MAX_VALUE) return stream.sorted(comparator);
+        return StreamSupport.stream(() -> topK().spliterator(), Spliterator.ORDERED | Spliterator.SIZED, false);
+    }
+
+    private List<D> topK() {
+        List<D> sorted = new ArrayList<>();
+        if (k == 0) return sorted;
+
+        // the head of the queue is the greatest element kept, which is the first to be evicted
+        Comparator<Ranked<D>> rankedOrder = Comparator.<Ranked<D>, D>comparing(ranked -> ranked.element, comparator)
+                .thenComparingLong(ranked -> ranked.rank);
+        PriorityQueue<Ranked<D>> queue = new PriorityQueue<>((int) Math.min(k, MAX_INITIAL_CAPACITY), rankedOrder.reversed());
+
+        long rank = 0;
+        Iterator<D> iterator = stream.iterator();
+        while (iterator.hasNext()) {
+            Ranked<D> ranked = new Ranked<>(iterator.next(), rank++);
+            if (queue.size() < k) {
+                queue.add(ranked);
+            } else if (rankedOrder.compare(ranked, queue.peek()) < 0) {
+                queue.poll();
+                queue.add(ranked);
+            }
+        }
+
+        List<Ranked<D>> kept = new ArrayList<>(queue);
+        kept.sort(rankedOrder);
+        kept.forEach(ranked -> sorted.add(ranked.element));
+        return sorted;
+    }
+
+    private static class Ranked<D> {
+        private final D element;
+        private final long rank;
+
+        private Ranked(D element, long rank) {
+            this.element = element;
+            this.rank = rank;
+        }
+    }
+}
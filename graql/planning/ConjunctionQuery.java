@@ -21,6 +21,7 @@ package grakn.core.graql.planning;
 import com.google.common.collect.Collections2;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Sets;
+import grakn.core.core.Schema;
 import grakn.core.graql.planning.gremlin.fragment.NeqFragment;
 import grakn.core.graql.planning.gremlin.fragment.ValueFragment;
 import grakn.core.graql.planning.gremlin.sets.EquivalentFragmentSets;
@@ -34,6 +35,7 @@ import graql.lang.statement.Statement;
 import graql.lang.statement.Variable;
 
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
@@ -64,6 +66,15 @@ class ConjunctionQuery {
      * @param patternConjunction a pattern containing no disjunctions to find in the graph
      */
     ConjunctionQuery(Conjunction<Statement> patternConjunction, ConceptManager conceptManager, PropertyExecutorFactory propertyExecutorFactory) {
+        this(patternConjunction, conceptManager, propertyExecutorFactory, Collections.emptySet());
+    }
+
+    /**
+     * @param patternConjunction a pattern containing no disjunctions to find in the graph
+     * @param valueIndexes the value indexes enabled in the keyspace, which the values can be looked up in
+     */
+    ConjunctionQuery(Conjunction<Statement> patternConjunction, ConceptManager conceptManager, PropertyExecutorFactory propertyExecutorFactory,
+                     Set<Schema.ValueIndex> valueIndexes) {
         statements = patternConjunction.getPatterns();
         this.propertyExecutorFactory = propertyExecutorFactory;
 
@@ -99,7 +110,7 @@ class ConjunctionQuery {
                 .collect(toSet());
 
         // Apply final optimisations
-        EquivalentFragmentSets.optimiseFragmentSets(initialEquivalentFragmentSets, conceptManager);
+        EquivalentFragmentSets.optimiseFragmentSets(initialEquivalentFragmentSets, conceptManager, valueIndexes);
 
         this.equivalentFragmentSets = ImmutableSet.copyOf(initialEquivalentFragmentSets);
     }
@@ -24,6 +24,7 @@ import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Iterables;
 import com.google.common.collect.Sets;
 import grakn.core.core.JanusTraversalSourceProvider;
+import grakn.core.core.Schema;
 import grakn.core.kb.concept.api.ConceptId;
 import grakn.core.kb.concept.manager.ConceptManager;
 import grakn.core.kb.graql.planning.gremlin.Fragment;
@@ -31,8 +32,10 @@ import grakn.core.kb.graql.planning.gremlin.GraqlTraversal;
 import graql.lang.statement.Variable;
 import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
 import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversal;
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversalSource;
 import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.__;
 import org.apache.tinkerpop.gremlin.process.traversal.step.map.SelectStep;
+import org.apache.tinkerpop.gremlin.process.traversal.strategy.decoration.SubgraphStrategy;
 import org.apache.tinkerpop.gremlin.structure.Element;
 import org.apache.tinkerpop.gremlin.structure.Vertex;
 
@@ -78,15 +81,22 @@ public class GraqlTraversalImpl implements GraqlTraversal {
     /**
      * Get the {@code GraphTraversal} that this {@code GraqlTraversal} represents.
      */
+    @Override
+    public GraphTraversal<Vertex, Map<String, Vertex>> getGraphTraversal(Set<Variable> vars) {
+        return getGraphTraversal(vars, false);
+    }
+
     @Override
     // Because 'union' accepts an array, we can't use generics
     @SuppressWarnings("unchecked")
-    public GraphTraversal<Vertex, Map<String, Vertex>> getGraphTraversal(Set<Variable> vars) {
+    public GraphTraversal<Vertex, Map<String, Vertex>> getGraphTraversal(Set<Variable> vars, boolean storedFacts) {
+        GraphTraversalSource source = janusTraversalSourceProvider.getTinkerTraversal();
+        if (storedFacts) source = source.withStrategies(storedFactsStrategy());
 
         if (fragments().size() == 1) {
             // If there are no disjunctions, we don't need to union them and get a performance boost
             ImmutableList<? extends Fragment> list = Iterables.getOnlyElement(fragments());
-            return getConjunctionTraversal(janusTraversalSourceProvider.getTinkerTraversal().V(), vars, list);
+            return getConjunctionTraversal(source.V(), vars, list);
         } else {
             Traversal[] traversals = fragments().stream()
                     .map(list -> getConjunctionTraversal(__.V(), vars, list))
@@ -94,12 +104,23 @@ public class GraqlTraversalImpl implements GraqlTraversal {
 
             // This is a sneaky trick - we want to do a union but tinkerpop requires all traversals to start from
             // somewhere, so we start from a single arbitrary vertex.
-            GraphTraversal traversal = janusTraversalSourceProvider.getTinkerTraversal().V().limit(1).union(traversals);
+            GraphTraversal traversal = source.V().limit(1).union(traversals);
 
             return selectVars(traversal, vars);
         }
     }
 
+    /**
+     * @return strategy hiding the vertices and edges inferred by rules, including the rule conclusions persisted
+     * when rules are materialised
+     */
+    private static SubgraphStrategy storedFactsStrategy() {
+        return SubgraphStrategy.build()
+                .vertices(__.not(__.has(Schema.VertexProperty.IS_INFERRED.name(), true)))
+                .edges(__.not(__.has(Schema.EdgeProperty.IS_INFERRED.name(), true)))
+                .create();
+    }
+
     /**
      * @param transform map defining id transform var -> new id
      * @return graql traversal with concept id transformed according to the provided transform
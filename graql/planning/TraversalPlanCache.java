@@ -0,0 +1,297 @@
+/*
+ * Copyright (C) 2020 Grakn Labs
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ */
+package grakn.core.graql.planning;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import grakn.core.graql.planning.gremlin.fragment.LabelFragment;
+import grakn.core.kb.concept.api.Label;
+import grakn.core.kb.graql.planning.gremlin.Fragment;
+import graql.lang.statement.Variable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Keyspace-scoped cache of traversal plans of conjunctions, shared between the transactions of a keyspace.
+ *
+ * Plans are keyed by the shape of the conjunction - the fragments it is planned from, with the variables renamed
+ * in a canonical order and the ids and values abstracted (see Fragment#shapeName). The fragments priced from the values
+ * they compare to are told apart by the selectivity of the values, so that a plan is only reused for values of the same
+ * order of magnitude of matches, as estimated from the value statistics at the time of planning.
+ * A cached plan is the order of the fragments in canonical form, so that it can be applied to the fragments
+ * of any conjunction of the same shape, binding the plan to the variables, ids and values of that conjunction.
+ *
+ * Each entry remembers the logarithm of the instance counts of the types labelled by the conjunction at the time it
+ * was planned. Once any of the counts drifts by more than STATISTICS_DRIFT, the conjunction is planned again.
+ * Committed schema modifications invalidate all entries. As with the reasoner caches, every invalidation bumps
+ * the cache epoch and plans are only recorded if the epoch has not changed since the recording transaction was opened.
+ *
+ * The cache is bounded by the number of plans it holds, least recently used plans are evicted first.
+ */
+public class TraversalPlanCache {
+
+    private static final Logger LOG = LoggerFactory.getLogger(TraversalPlanCache.class);
+
+    /**
+     * Change of the natural logarithm of an instance count, above which the plan is considered stale.
+     */
+    private static final double STATISTICS_DRIFT = Math.log(2);
+
+    private static final Pattern VARIABLE = Pattern.compile("\\$[\\w\\-]+");
+    private static final String CANONICAL_VAR_PREFIX = "$v";
+
+    private final LinkedHashMap<String, Entry> entries;
+    private long epoch = 0;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder stalePlans = new LongAdder();
+    private final LongAdder planningNanos = new LongAdder();
+
+    /**
+     * @param capacity maximum number of plans held by the cache
+     */
+    public TraversalPlanCache(long capacity) {
+        this.entries = new LinkedHashMap<String, Entry>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    /**
+     * @return current epoch of the cache, to be provided when planning
+     */
+    public synchronized long epoch() {
+        return epoch;
+    }
+
+    /**
+     * Invalidate all entries.
+     */
+    public synchronized void invalidateAll() {
+        epoch++;
+        entries.clear();
+    }
+
+    /**
+     * @param fragments      fragments of the conjunction to be planned, including the inferred ones
+     * @param selectivity    order of magnitude of the matches of a fragment priced from the value it compares to
+     * @param logInstanceCount logarithm of the instance count of a type, including its subtypes
+     * @param epoch          cache epoch observed when the planning transaction was opened
+     * @param planner        computation of the plan
+     * @return plan of the conjunction - its fragments in order of execution
+     */
+    public List<Fragment> plan(Iterable<Fragment> fragments, Function<Fragment, OptionalLong> selectivity,
+                               Function<Label, Double> logInstanceCount, long epoch, Supplier<List<Fragment>> planner) {
+        Shape shape = Shape.of(fragments, selectivity);
+        if (shape == null) return timedPlan(planner);
+
+        Entry entry = get(shape.key);
+        if (entry != null) {
+            if (entry.isStale(logInstanceCount)) {
+                stalePlans.increment();
+                LOG.trace("Stale traversal plan: {}", shape.key);
+            } else {
+                List<Fragment> plan = shape.bind(entry.plan);
+                if (plan != null) return plan;
+            }
+        }
+
+        List<Fragment> plan = timedPlan(planner);
+        List<String> canonicalPlan = shape.canonical(plan);
+        if (canonicalPlan != null) {
+            Map<Label, Double> logCounts = new HashMap<>();
+            for (Fragment fragment : fragments) {
+                if (!(fragment instanceof LabelFragment)) continue;
+                ((LabelFragment) fragment).labels().forEach(label -> logCounts.put(label, logInstanceCount.apply(label)));
+            }
+            record(shape.key, new Entry(canonicalPlan, logCounts), epoch);
+        }
+        return plan;
+    }
+
+    private List<Fragment> timedPlan(Supplier<List<Fragment>> planner) {
+        long start = System.nanoTime();
+        List<Fragment> plan = planner.get();
+        planningNanos.add(System.nanoTime() - start);
+        return plan;
+    }
+
+    @Nullable
+    private synchronized Entry get(String key) {
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            misses.increment();
+        } else {
+            hits.increment();
+        }
+        return entry;
+    }
+
+    private synchronized void record(String key, Entry entry, long epoch) {
+        if (epoch == this.epoch) entries.put(key, entry);
+    }
+
+    public synchronized int size() { return entries.size(); }
+
+    public long hits() { return hits.sum(); }
+
+    public long misses() { return misses.sum(); }
+
+    public long stalePlans() { return stalePlans.sum(); }
+
+    /**
+     * @return total time spent computing plans on cache misses, in milliseconds
+     */
+    public long planningMillis() { return planningNanos.sum() / 1_000_000; }
+
+    @Override
+    public String toString() {
+        return "TraversalPlanCache{entries=" + size() + ", hits=" + hits() + ", misses=" + misses() +
+                ", stalePlans=" + stalePlans() + ", planningMillis=" + planningMillis() + "}";
+    }
+
+    /**
+     * Cached plan together with the statistics it was computed with.
+     */
+    private static class Entry {
+        private final List<String> plan;
+        private final Map<Label, Double> logCounts;
+
+        Entry(List<String> plan, Map<Label, Double> logCounts) {
+            this.plan = ImmutableList.copyOf(plan);
+            this.logCounts = ImmutableMap.copyOf(logCounts);
+        }
+
+        boolean isStale(Function<Label, Double> logInstanceCount) {
+            return logCounts.entrySet().stream()
+                    .anyMatch(e -> Math.abs(logInstanceCount.apply(e.getKey()) - e.getValue()) > STATISTICS_DRIFT);
+        }
+    }
+
+    /**
+     * Canonical form of a set of fragments, identifying it up to variable renaming and the constants it matches against.
+     */
+    private static class Shape {
+        private final String key;
+        private final Map<Fragment, String> canonicalFragments;
+        private final Map<String, Fragment> fragments;
+
+        private Shape(String key, Map<Fragment, String> canonicalFragments) {
+            this.key = key;
+            this.canonicalFragments = canonicalFragments;
+            this.fragments = new HashMap<>();
+            canonicalFragments.forEach((fragment, canonical) -> fragments.put(canonical, fragment));
+        }
+
+        /**
+         * @return shape of the fragments, null if some of the fragments can't be told apart by their canonical form
+         * or their canonical form doesn't capture all of their variables
+         */
+        @Nullable
+        static Shape of(Iterable<Fragment> fragments, Function<Fragment, OptionalLong> selectivity) {
+            List<Fragment> sorted = new ArrayList<>();
+            Map<Fragment, String> shapes = new HashMap<>();
+            for (Fragment fragment : fragments) {
+                if (shapes.put(fragment, shape(fragment, selectivity.apply(fragment))) == null) sorted.add(fragment);
+            }
+            sorted.sort(Comparator.comparing((Fragment fragment) -> mask(shapes.get(fragment)))
+                    .thenComparing(shapes::get));
+
+            Map<String, String> canonicalVars = new HashMap<>();
+            Map<Fragment, String> canonicalFragments = new LinkedHashMap<>();
+            for (Fragment fragment : sorted) {
+                canonicalFragments.put(fragment, rename(shapes.get(fragment), canonicalVars));
+            }
+            if (canonicalFragments.values().stream().distinct().count() != canonicalFragments.size()) return null;
+            //the plan must be bound consistently on all variables the fragments use
+            boolean allVarsRenamed = sorted.stream()
+                    .flatMap(fragment -> Stream.concat(fragment.vars().stream(), fragment.dependencies().stream()))
+                    .allMatch(var -> canonicalVars.containsKey(var.symbol()));
+            if (!allVarsRenamed) return null;
+            return new Shape(String.join("; ", canonicalFragments.values()), canonicalFragments);
+        }
+
+        /**
+         * @return the plan in canonical form, null if it contains fragments not belonging to the shape
+         */
+        @Nullable
+        List<String> canonical(List<Fragment> plan) {
+            List<String> canonicalPlan = new ArrayList<>();
+            for (Fragment fragment : plan) {
+                String canonical = canonicalFragments.get(fragment);
+                if (canonical == null) return null;
+                canonicalPlan.add(canonical);
+            }
+            return canonicalPlan;
+        }
+
+        /**
+         * @return the canonical plan bound to the fragments of this shape, null if it can't be bound
+         */
+        @Nullable
+        List<Fragment> bind(List<String> canonicalPlan) {
+            List<Fragment> plan = new ArrayList<>();
+            for (String canonical : canonicalPlan) {
+                Fragment fragment = fragments.get(canonical);
+                if (fragment == null) return null;
+                plan.add(fragment);
+            }
+            return plan;
+        }
+
+        private static String shape(Fragment fragment, OptionalLong selectivity) {
+            Variable end = fragment.end();
+            return fragment.getClass().getSimpleName() + ":" +
+                    fragment.start().symbol() + fragment.shapeName() + (end != null ? end.symbol() : "") +
+                    (selectivity.isPresent() ? "{" + selectivity.getAsLong() + "}" : "");
+        }
+
+        private static String mask(String shape) {
+            return VARIABLE.matcher(shape).replaceAll(Matcher.quoteReplacement("$"));
+        }
+
+        private static String rename(String shape, Map<String, String> canonicalVars) {
+            Matcher matcher = VARIABLE.matcher(shape);
+            StringBuffer renamed = new StringBuffer();
+            while (matcher.find()) {
+                String canonical = canonicalVars.computeIfAbsent(matcher.group(), var -> CANONICAL_VAR_PREFIX + canonicalVars.size());
+                matcher.appendReplacement(renamed, Matcher.quoteReplacement(canonical));
+            }
+            matcher.appendTail(renamed);
+            return renamed.toString();
+        }
+    }
+}
@@ -24,10 +24,14 @@ import com.google.common.collect.Iterators;
 import com.google.common.collect.Sets;
 import grakn.common.util.Pair;
 import grakn.core.core.JanusTraversalSourceProvider;
+import grakn.core.core.Schema;
 import grakn.core.graql.planning.gremlin.fragment.InIsaFragment;
 import grakn.core.graql.planning.gremlin.fragment.InSubFragment;
 import grakn.core.graql.planning.gremlin.fragment.LabelFragment;
+import grakn.core.graql.planning.gremlin.fragment.OutIsaFragment;
+import grakn.core.graql.planning.gremlin.fragment.ValueFragment;
 import grakn.core.kb.concept.api.Label;
+import grakn.core.kb.concept.api.SchemaConcept;
 import grakn.core.kb.concept.api.Type;
 import grakn.core.kb.concept.manager.ConceptManager;
 import grakn.core.kb.graql.executor.property.PropertyExecutorFactory;
@@ -51,7 +55,9 @@ import graql.lang.statement.Variable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import javax.annotation.Nullable;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
@@ -61,6 +67,8 @@ import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.OptionalLong;
 import java.util.Set;
 import java.util.stream.Collectors;
 
@@ -81,15 +89,29 @@ public class TraversalPlanFactoryImpl implements TraversalPlanFactory {
     private PropertyExecutorFactory propertyExecutorFactory;
     private final long shardingThreshold;
     private final KeyspaceStatistics keyspaceStatistics;
+    private final TraversalPlanCache planCache;
+    private final long planCacheEpoch;
+    private Set<Schema.ValueIndex> valueIndexes;
 
     public TraversalPlanFactoryImpl(JanusTraversalSourceProvider janusTraversalSourceProvider, ConceptManager conceptManager,
                                     PropertyExecutorFactory propertyExecutorFactory, long shardingThreshold,
                                     KeyspaceStatistics keyspaceStatistics) {
+        this(janusTraversalSourceProvider, conceptManager, propertyExecutorFactory, shardingThreshold, keyspaceStatistics, null);
+    }
+
+    /**
+     * @param planCache keyspace cache of traversal plans to fetch plans from and record them to, null if not used
+     */
+    public TraversalPlanFactoryImpl(JanusTraversalSourceProvider janusTraversalSourceProvider, ConceptManager conceptManager,
+                                    PropertyExecutorFactory propertyExecutorFactory, long shardingThreshold,
+                                    KeyspaceStatistics keyspaceStatistics, @Nullable TraversalPlanCache planCache) {
         this.janusTraversalSourceProvider = janusTraversalSourceProvider;
         this.conceptManager = conceptManager;
         this.propertyExecutorFactory = propertyExecutorFactory;
         this.shardingThreshold = shardingThreshold;
         this.keyspaceStatistics = keyspaceStatistics;
+        this.planCache = planCache;
+        this.planCacheEpoch = planCache != null ? planCache.epoch() : 0;
     }
 
     /**
@@ -102,13 +124,25 @@ public class TraversalPlanFactoryImpl implements TraversalPlanFactory {
         Collection<Conjunction<Statement>> patterns = pattern.getDisjunctiveNormalForm().getPatterns();
 
         Set<List<? extends Fragment>> fragments = patterns.stream()
-                .map(conjunction -> new ConjunctionQuery(conjunction, conceptManager, propertyExecutorFactory))
+                .map(conjunction -> new ConjunctionQuery(conjunction, conceptManager, propertyExecutorFactory, valueIndexes()))
                 .map(this::planForConjunction)
                 .collect(ImmutableSet.toImmutableSet());
 
         return new GraqlTraversalImpl(janusTraversalSourceProvider, conceptManager, fragments);
     }
 
+    /**
+     * @return the value indexes enabled in the keyspace, looked up once per transaction
+     */
+    private Set<Schema.ValueIndex> valueIndexes() {
+        if (valueIndexes == null) {
+            valueIndexes = Arrays.stream(Schema.ValueIndex.values())
+                    .filter(janusTraversalSourceProvider::isIndexEnabled)
+                    .collect(Collectors.toSet());
+        }
+        return valueIndexes;
+    }
+
     /**
      * Create a plan using Edmonds' algorithm with greedy approach to execute a single conjunction
      *
@@ -116,9 +150,6 @@ public class TraversalPlanFactoryImpl implements TraversalPlanFactory {
      * @return a semi-optimal traversal plan to execute the given conjunction
      */
     private List<Fragment> planForConjunction(ConjunctionQuery query) {
-        // a query plan is an ordered list of fragments
-        List<Fragment> plan = new ArrayList<>();
-
         // flatten all the possible fragments from the conjunction query (these become edges in the query graph)
         Set<Fragment> allFragments = query.getEquivalentFragmentSets().stream()
                 .flatMap(EquivalentFragmentSet::stream).collect(Collectors.toSet());
@@ -127,6 +158,25 @@ public class TraversalPlanFactoryImpl implements TraversalPlanFactory {
         Set<Fragment> inferredFragments = inferRelationTypes(conceptManager, allFragments);
         allFragments.addAll(inferredFragments);
 
+        if (planCache == null) return planForFragments(allFragments);
+        Map<Variable, Set<Label>> attributeTypes = instanceTypeLabels(allFragments);
+        return planCache.plan(allFragments, fragment -> selectivityBucket(fragment, attributeTypes), this::logInstanceCount,
+                planCacheEpoch, () -> planForFragments(allFragments));
+    }
+
+    private OptionalLong selectivityBucket(Fragment fragment, Map<Variable, Set<Label>> attributeTypes) {
+        if (!(fragment instanceof ValueFragment)) return OptionalLong.empty();
+        return ((ValueFragment) fragment).selectivityBucket(conceptManager, keyspaceStatistics, attributeTypes.get(fragment.start()));
+    }
+
+    /**
+     * @param allFragments all fragments of the conjunction, including the inferred ones
+     * @return a semi-optimal traversal plan to execute the conjunction
+     */
+    private List<Fragment> planForFragments(Set<Fragment> allFragments) {
+        // a query plan is an ordered list of fragments
+        List<Fragment> plan = new ArrayList<>();
+
         // convert fragments into nodes - some fragments create virtual middle nodes to ensure the Janus edge is traversed
         ImmutableMap<NodeId, Node> queryGraphNodes = buildNodesWithDependencies(allFragments);
 
@@ -180,8 +230,15 @@ public class TraversalPlanFactoryImpl implements TraversalPlanFactory {
 
     private Arborescence<Node> computeArborescence(Set<Fragment> connectedFragments, ImmutableMap<NodeId, Node> nodes) {
         Map<Node, Double> nodesWithFixedCost = new HashMap<>();
+        Map<Variable, Set<Label>> attributeTypes = instanceTypeLabels(connectedFragments);
 
         connectedFragments.forEach(fragment -> {
+            if (fragment instanceof ValueFragment && attributeTypes.containsKey(fragment.start())) {
+                // price value predicates on attributes of known types from the value statistics of the types,
+                // before the cost of the value predicates used as starting points is fixed
+                ValueFragment valueFragment = (ValueFragment) fragment;
+                valueFragment.setAccurateFragmentCost(valueFragment.estimatedFragmentCost(conceptManager, keyspaceStatistics, attributeTypes.get(fragment.start())));
+            }
             if (fragment.hasFixedFragmentCost()) {
                 NodeId startNodeId = Iterators.getOnlyElement(fragment.getNodes().iterator()).getNodeId();
                 Node startNode = nodes.get(startNodeId);
@@ -196,10 +253,11 @@ public class TraversalPlanFactoryImpl implements TraversalPlanFactory {
         // fragments that represent Janus edges
         Set<Fragment> edgeFragmentSet = new HashSet<>();
 
-        // save the fragments corresponding to edges, and updates some costs if we can via shard count
+        // save the fragments corresponding to edges, and update the costs of edges from the statistics
         for (Fragment fragment : connectedFragments) {
             if (fragment.end() != null) {
                 edgeFragmentSet.add(fragment);
+                fragment.setAccurateFragmentCost(fragment.estimatedFragmentCost(conceptManager, keyspaceStatistics));
                 // update the cost of an `InIsa` Fragment if we have some estimated cost
                 if (fragment instanceof InIsaFragment) {
                     Node type = nodes.get(NodeId.of(NodeId.Type.VAR, fragment.start()));
@@ -216,7 +274,7 @@ public class TraversalPlanFactoryImpl implements TraversalPlanFactory {
         if (!weightedGraph.isEmpty()) {
             // sparse graph for better performance
             SparseWeightedGraph sparseWeightedGraph = SparseWeightedGraph.from(weightedGraph);
-            Set<Node> startingNodes = chooseStartingNodeSet(connectedFragments, nodes, sparseWeightedGraph);
+            Set<Node> startingNodes = chooseStartingNodeSet(connectedFragments, nodes, sparseWeightedGraph, attributeTypes);
 
             // find the minimum spanning tree for each root
             // then get the tree with minimum weight
@@ -243,13 +301,14 @@ public class TraversalPlanFactoryImpl implements TraversalPlanFactory {
         return weightedGraph;
     }
 
-    private Set<Node> chooseStartingNodeSet(Set<Fragment> fragmentSet, Map<NodeId, Node> allNodes, SparseWeightedGraph sparseWeightedGraph) {
+    private Set<Node> chooseStartingNodeSet(Set<Fragment> fragmentSet, Map<NodeId, Node> allNodes, SparseWeightedGraph sparseWeightedGraph,
+                                            Map<Variable, Set<Label>> attributeTypes) {
         Set<Node> highPriorityStartingNodeSet = new HashSet<>();
         Set<Node> lowPriorityStartingNodeSet = new HashSet<>();
 
         fragmentSet.stream()
                 .filter(Fragment::hasFixedFragmentCost)
-                .sorted(Comparator.comparing(fragment -> fragment.estimatedCostAsStartingPoint(conceptManager, keyspaceStatistics)))
+                .sorted(Comparator.comparing(fragment -> estimatedCostAsStartingPoint(fragment, attributeTypes)))
                 .limit(MAX_STARTING_POINTS)
                 .forEach(fragment -> {
                     Node node = allNodes.get(NodeId.of(NodeId.Type.VAR, fragment.start()));
@@ -269,6 +328,35 @@ public class TraversalPlanFactoryImpl implements TraversalPlanFactory {
     }
 
 
+    private double estimatedCostAsStartingPoint(Fragment fragment, Map<Variable, Set<Label>> attributeTypes) {
+        if (fragment instanceof ValueFragment && attributeTypes.containsKey(fragment.start())) {
+            return ((ValueFragment) fragment).estimatedCostAsStartingPoint(conceptManager, keyspaceStatistics, attributeTypes.get(fragment.start()));
+        }
+        return fragment.estimatedCostAsStartingPoint(conceptManager, keyspaceStatistics);
+    }
+
+    /**
+     * @return the labels of the concrete types of the instance variables whose type is given by a label,
+     * including the subtypes of the labelled type
+     */
+    private Map<Variable, Set<Label>> instanceTypeLabels(Set<Fragment> fragments) {
+        Map<Variable, Set<Label>> typeLabels = new HashMap<>();
+        fragments.stream()
+                .filter(LabelFragment.class::isInstance)
+                .forEach(fragment -> typeLabels.put(fragment.start(), ((LabelFragment) fragment).labels()));
+
+        Map<Variable, Set<Label>> instanceTypeLabels = new HashMap<>();
+        fragments.stream()
+                .filter(OutIsaFragment.class::isInstance)
+                .filter(fragment -> typeLabels.containsKey(fragment.end()))
+                .forEach(fragment -> instanceTypeLabels.put(fragment.start(), typeLabels.get(fragment.end()).stream()
+                        .map(label -> conceptManager.<SchemaConcept>getSchemaConcept(label))
+                        .filter(Objects::nonNull)
+                        .flatMap(type -> type.subs().map(SchemaConcept::label))
+                        .collect(Collectors.toSet())));
+        return instanceTypeLabels;
+    }
+
     // add unvisited node fragments to plan
     private static List<Fragment> fragmentsForUnvisitedNodes(Map<NodeId, Node> allNodes, Collection<Node> connectedNodes) {
         List<Fragment> subplan = new LinkedList<>();
@@ -323,6 +411,18 @@ public class TraversalPlanFactoryImpl implements TraversalPlanFactory {
         return fragmentSetMap.values();
     }
 
+    /**
+     * @return log of the number of instances of the type and its subtypes, used to detect stale cached plans
+     */
+    private double logInstanceCount(Label label) {
+        SchemaConcept schemaConcept = conceptManager.getSchemaConcept(label);
+        if (schemaConcept == null) return 0D;
+        long instanceCount = schemaConcept.subs()
+                .mapToLong(sub -> keyspaceStatistics.count(conceptManager, sub.label()))
+                .sum();
+        return Math.log1p(instanceCount);
+    }
+
     private double getLogInstanceCount(Fragment fragment) {
         // set the weight of the node as a starting point based on log(number of this node)
         double logInstanceCount;
@@ -24,6 +24,7 @@ import grakn.core.kb.concept.manager.ConceptManager;
 import grakn.core.kb.graql.planning.spanningtree.graph.InstanceNode;
 import grakn.core.kb.graql.planning.spanningtree.graph.Node;
 import grakn.core.kb.graql.planning.spanningtree.graph.NodeId;
+import grakn.core.kb.keyspace.DegreeKey;
 import graql.lang.property.VarProperty;
 import graql.lang.statement.Variable;
 import org.apache.tinkerpop.gremlin.process.traversal.P;
@@ -33,6 +34,7 @@ import org.apache.tinkerpop.gremlin.structure.Edge;
 import javax.annotation.Nullable;
 import java.util.Collection;
 import java.util.Set;
+import java.util.function.Predicate;
 
 import static grakn.core.graql.planning.gremlin.fragment.Fragments.displayOptionalTypeLabels;
 import static java.util.stream.Collectors.toSet;
@@ -71,6 +73,17 @@ abstract class AbstractRolePlayerFragment extends EdgeFragment {
         return "[" + Schema.EdgeLabel.ROLE_PLAYER.getLabel() + ":" + edge().symbol() + roleString + rels + roles + "]";
     }
 
+    /**
+     * @return predicate matching the kinds of role player edges the fragment traverses
+     */
+    final Predicate<DegreeKey> traversedEdges() {
+        ImmutableSet<Label> roleLabels = roleLabels();
+        ImmutableSet<Label> relationTypeLabels = relationTypeLabels();
+        return key -> key.isRolePlayer()
+                && (roleLabels == null || roleLabels.contains(key.role()))
+                && (relationTypeLabels == null || relationTypeLabels.contains(key.from()));
+    }
+
     @Override
     final ImmutableSet<Variable> otherVars() {
         ImmutableSet.Builder<Variable> builder = ImmutableSet.<Variable>builder().add(edge());
@@ -59,6 +59,11 @@ public class AttributeIndexFragment extends FragmentImpl {
         return "[index:" + attributeIndex() + "]";
     }
 
+    @Override
+    public String shapeName() {
+        return "[index]";
+    }
+
     @Override
     public double internalFragmentCost() {
         return COST_NODE_INDEX;
@@ -28,11 +28,13 @@ import grakn.core.kb.graql.planning.spanningtree.graph.InstanceNode;
 import grakn.core.kb.graql.planning.spanningtree.graph.Node;
 import grakn.core.kb.graql.planning.spanningtree.graph.NodeId;
 import grakn.core.kb.graql.planning.spanningtree.util.Weighted;
+import grakn.core.kb.keyspace.DegreeKey;
 import grakn.core.kb.keyspace.KeyspaceStatistics;
 import graql.lang.property.VarProperty;
 import graql.lang.statement.Variable;
 import org.apache.tinkerpop.gremlin.process.traversal.P;
 import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversal;
+import org.apache.tinkerpop.gremlin.structure.Direction;
 import org.apache.tinkerpop.gremlin.structure.Element;
 import org.apache.tinkerpop.gremlin.structure.Vertex;
 
@@ -40,7 +42,9 @@ import javax.annotation.Nullable;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Map;
+import java.util.OptionalDouble;
 import java.util.Set;
+import java.util.function.Predicate;
 
 /**
  * represents a graph traversal, with one start point and optionally an end point
@@ -84,6 +88,10 @@ public abstract class FragmentImpl implements Fragment {
 
     static final double COST_SAME_AS_PREVIOUS = Math.log1p(1);
 
+    // degrees of skewed edges are estimated between their mean and a fraction of their high percentile
+    private static final double DEGREE_PERCENTILE = 0.9D;
+    private static final double DEGREE_PERCENTILE_WEIGHT = 0.5D;
+
     static final double COST_NODE_INDEX = -Math.log(NUM_INSTANCES_PER_TYPE);
     static final double COST_NODE_INDEX_VALUE = -Math.log(NUM_INSTANCES_PER_TYPE / NUM_RESOURCES_PER_VALUE);
 
@@ -283,6 +291,26 @@ public abstract class FragmentImpl implements Fragment {
         accurateFragmentCost = fragmentCost;
     }
 
+    @Override
+    public double estimatedFragmentCost(ConceptManager conceptManager, KeyspaceStatistics keyspaceStatistics) {
+        return internalFragmentCost();
+    }
+
+    /**
+     * Estimate the cost of following edges from a single instance, using the degree statistics of the edges.
+     * The mean degree underestimates the cost of edges whose degrees are skewed towards a few instances with many
+     * edges, so the estimate is raised to a fraction of the high percentile of the observed degrees.
+     *
+     * @return the estimated cost, or the internal fragment cost if no degrees of the edges were recorded
+     */
+    final double degreeCost(ConceptManager conceptManager, KeyspaceStatistics keyspaceStatistics,
+                            Predicate<DegreeKey> edges, Direction direction) {
+        OptionalDouble meanDegree = keyspaceStatistics.meanDegree(conceptManager, edges, direction);
+        if (!meanDegree.isPresent()) return internalFragmentCost();
+        double percentileDegree = keyspaceStatistics.degreePercentile(edges, direction, DEGREE_PERCENTILE).orElse(0D);
+        return Math.log1p(Math.max(meanDegree.getAsDouble(), DEGREE_PERCENTILE_WEIGHT * percentileDegree));
+    }
+
     /**
      * Estimate the "cost" of a starting point for each type of fixed cost fragment
      * These are cost heuristic proxies using statistics
@@ -327,6 +355,11 @@ public abstract class FragmentImpl implements Fragment {
         return vars;
     }
 
+    @Override
+    public String shapeName() {
+        return name();
+    }
+
     @Override
     public final String toString() {
         String str = start().symbol() + name();
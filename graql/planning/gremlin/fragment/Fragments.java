@@ -151,6 +151,14 @@ public class Fragments {
         return new AttributeIndexFragment(varProperty, start, label, attributeValue.toString());
     }
 
+    public static Fragment rangeIndex(@Nullable VarProperty varProperty, Variable start, ValueOperation<?, ?> predicate) {
+        return new RangeIndexFragment(varProperty, start, predicate);
+    }
+
+    public static Fragment textIndex(@Nullable VarProperty varProperty, Variable start, ValueOperation<?, ?> predicate) {
+        return new TextIndexFragment(varProperty, start, predicate);
+    }
+
 
     /**
      * Default unlimiteid depth sub-edge traversal
@@ -74,6 +74,11 @@ class IdFragment extends FragmentImpl {
         return "[id:" + id().getValue() + "]";
     }
 
+    @Override
+    public String shapeName() {
+        return "[id]";
+    }
+
     @Override
     public double internalFragmentCost() {
         return COST_NODE_INDEX;
@@ -24,10 +24,13 @@ import grakn.core.kb.concept.manager.ConceptManager;
 import grakn.core.kb.graql.planning.spanningtree.graph.InstanceNode;
 import grakn.core.kb.graql.planning.spanningtree.graph.Node;
 import grakn.core.kb.graql.planning.spanningtree.graph.NodeId;
+import grakn.core.kb.keyspace.DegreeKey;
+import grakn.core.kb.keyspace.KeyspaceStatistics;
 import graql.lang.property.VarProperty;
 import graql.lang.statement.Variable;
 import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversal;
 import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.__;
+import org.apache.tinkerpop.gremlin.structure.Direction;
 import org.apache.tinkerpop.gremlin.structure.Edge;
 import org.apache.tinkerpop.gremlin.structure.Element;
 import org.apache.tinkerpop.gremlin.structure.Vertex;
@@ -86,4 +89,10 @@ public class InAttributeFragment extends EdgeFragment {
         // TODO - use COST_OWNERS_PER_ATTRIBUTE;
         return COST_RELATIONS_PER_INSTANCE;
     }
+
+    @Override
+    public double estimatedFragmentCost(ConceptManager conceptManager, KeyspaceStatistics keyspaceStatistics) {
+        // the owned attribute types are not known, so estimate from the ownerships of all of them
+        return degreeCost(conceptManager, keyspaceStatistics, DegreeKey::isOwnership, Direction.IN);
+    }
 }
@@ -22,6 +22,7 @@ import grakn.core.kb.graql.planning.spanningtree.graph.InstanceNode;
 import grakn.core.kb.graql.planning.spanningtree.graph.Node;
 import grakn.core.kb.graql.planning.spanningtree.graph.NodeId;
 import grakn.core.kb.graql.planning.spanningtree.graph.SchemaNode;
+import grakn.core.kb.keyspace.KeyspaceStatistics;
 import graql.lang.property.VarProperty;
 import graql.lang.statement.Variable;
 import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversal;
@@ -33,6 +34,7 @@ import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashSet;
 import java.util.Objects;
+import java.util.OptionalDouble;
 
 import static grakn.core.core.Schema.EdgeLabel.ISA;
 import static grakn.core.core.Schema.EdgeLabel.SHARD;
@@ -73,6 +75,17 @@ public class InIsaFragment extends EdgeFragment {
         return COST_INSTANCES_PER_TYPE;
     }
 
+    /**
+     * The type is not known when planning this fragment alone - if it is, the planner uses the instance count of the
+     * type instead - so estimate from the mean instance count of the types the keyspace statistics already count.
+     */
+    @Override
+    public double estimatedFragmentCost(ConceptManager conceptManager, KeyspaceStatistics keyspaceStatistics) {
+        OptionalDouble instancesPerType = keyspaceStatistics.meanInstanceCount();
+        if (!instancesPerType.isPresent()) return internalFragmentCost();
+        return Math.log1p(instancesPerType.getAsDouble());
+    }
+
     @Override
     protected Node startNode() {
         return new SchemaNode(NodeId.of(NodeId.Type.VAR, start()));
@@ -20,10 +20,12 @@ package grakn.core.graql.planning.gremlin.fragment;
 import com.google.common.collect.ImmutableSet;
 import grakn.core.kb.concept.api.Label;
 import grakn.core.kb.concept.manager.ConceptManager;
+import grakn.core.kb.keyspace.KeyspaceStatistics;
 import graql.lang.property.VarProperty;
 import graql.lang.statement.Variable;
 import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversal;
 import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.__;
+import org.apache.tinkerpop.gremlin.structure.Direction;
 import org.apache.tinkerpop.gremlin.structure.Edge;
 import org.apache.tinkerpop.gremlin.structure.Element;
 import org.apache.tinkerpop.gremlin.structure.Vertex;
@@ -120,6 +122,11 @@ class InRolePlayerFragment extends AbstractRolePlayerFragment {
         return COST_RELATIONS_PER_INSTANCE;
     }
 
+    @Override
+    public double estimatedFragmentCost(ConceptManager conceptManager, KeyspaceStatistics keyspaceStatistics) {
+        return degreeCost(conceptManager, keyspaceStatistics, traversedEdges(), Direction.IN);
+    }
+
     @Override
     public boolean equals(Object o) {
         if (o == this) {
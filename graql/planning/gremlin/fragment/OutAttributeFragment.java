@@ -25,11 +25,13 @@ import grakn.core.kb.concept.manager.ConceptManager;
 import grakn.core.kb.graql.planning.spanningtree.graph.InstanceNode;
 import grakn.core.kb.graql.planning.spanningtree.graph.Node;
 import grakn.core.kb.graql.planning.spanningtree.graph.NodeId;
+import grakn.core.kb.keyspace.KeyspaceStatistics;
 import graql.lang.property.VarProperty;
 import graql.lang.statement.Variable;
 import org.apache.tinkerpop.gremlin.process.traversal.P;
 import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversal;
 import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.__;
+import org.apache.tinkerpop.gremlin.structure.Direction;
 import org.apache.tinkerpop.gremlin.structure.Edge;
 import org.apache.tinkerpop.gremlin.structure.Element;
 import org.apache.tinkerpop.gremlin.structure.Vertex;
@@ -80,11 +82,7 @@ public class OutAttributeFragment extends EdgeFragment {
     private GraphTraversal<Vertex, Vertex> edgeRelationTraversal(ConceptManager conceptManager) {
         GraphTraversal<Vertex, Edge> edgeTraversal = __.outE(Schema.EdgeLabel.ATTRIBUTE.getLabel());
 
-        Set<Label> labelsWithSubtypes = attributeTypeLabels
-                .stream()
-                .flatMap(label -> conceptManager.getSchemaConcept(label).subs())
-                .map(type -> type.label())
-                .collect(toSet());
+        Set<Label> labelsWithSubtypes = labelsWithSubtypes(conceptManager);
 
         // Filter by any provided type labels
         applyLabelsToTraversal(edgeTraversal, ATTRIBUTE_OWNED_LABEL_ID, labelsWithSubtypes, conceptManager);
@@ -92,6 +90,14 @@ public class OutAttributeFragment extends EdgeFragment {
         return edgeTraversal.inV();
     }
 
+    private Set<Label> labelsWithSubtypes(ConceptManager conceptManager) {
+        return attributeTypeLabels
+                .stream()
+                .flatMap(label -> conceptManager.getSchemaConcept(label).subs())
+                .map(type -> type.label())
+                .collect(toSet());
+    }
+
     private void applyLabelsToTraversal(GraphTraversal<?, Edge> traversal, Schema.EdgeProperty property,
                                         Set<Label> typeLabels, ConceptManager conceptManager) {
         Set<Integer> typeIds =
@@ -109,4 +115,11 @@ public class OutAttributeFragment extends EdgeFragment {
         // TODO - use COST_OWNERS_PER_ATTRIBUTE;
         return COST_ROLE_PLAYERS_PER_ROLE;
     }
+
+    @Override
+    public double estimatedFragmentCost(ConceptManager conceptManager, KeyspaceStatistics keyspaceStatistics) {
+        Set<Label> labelsWithSubtypes = labelsWithSubtypes(conceptManager);
+        return degreeCost(conceptManager, keyspaceStatistics,
+                key -> key.isOwnership() && labelsWithSubtypes.contains(key.to()), Direction.OUT);
+    }
 }
@@ -0,0 +1,58 @@
+/*
+ * Copyright (C) 2020 Grakn Labs
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ */
+
+package grakn.core.graql.planning.gremlin.fragment;
+
+import grakn.core.graql.planning.gremlin.value.ValueOperation;
+import grakn.core.kb.concept.manager.ConceptManager;
+import graql.lang.property.VarProperty;
+import graql.lang.statement.Variable;
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversal;
+import org.apache.tinkerpop.gremlin.structure.Element;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+
+import javax.annotation.Nullable;
+import java.util.Collection;
+
+/**
+ * A value comparison answered by the range index of the numeric and date values.
+ * As a starting point, the attributes satisfying the comparison are looked up with a range scan of the index
+ * instead of scanning all attributes. Elsewhere in a traversal the fragment filters the values like a ValueFragment.
+ */
+public class RangeIndexFragment extends ValueIndexFragment {
+
+    RangeIndexFragment(@Nullable VarProperty varProperty, Variable start, ValueOperation<?, ?> operation) {
+        super(varProperty, start, operation);
+    }
+
+    @Override
+    public GraphTraversal<Vertex, ? extends Element> applyTraversalInner(
+            GraphTraversal<Vertex, ? extends Element> traversal, ConceptManager conceptManager, Collection<Variable> vars) {
+        return predicate().applyFilter(traversal);
+    }
+
+    @Override
+    public String name() {
+        return "[range:" + predicate() + "]";
+    }
+
+    @Override
+    public String shapeName() {
+        return "[range:" + predicate().comparator() + "]";
+    }
+}
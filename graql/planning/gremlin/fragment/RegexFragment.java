@@ -55,6 +55,11 @@ class RegexFragment extends FragmentImpl {
         return "[regex:" + StringUtil.valueToString(regex()) + "]";
     }
 
+    @Override
+    public String shapeName() {
+        return "[regex]";
+    }
+
     @Override
     public double internalFragmentCost() {
         return COST_NODE_REGEX;
@@ -0,0 +1,76 @@
+/*
+ * Copyright (C) 2020 Grakn Labs
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ */
+
+package grakn.core.graql.planning.gremlin.fragment;
+
+import grakn.core.core.Schema;
+import grakn.core.graph.core.attribute.Text;
+import grakn.core.graql.planning.gremlin.value.ValueOperation;
+import grakn.core.kb.concept.manager.ConceptManager;
+import graql.lang.Graql;
+import graql.lang.property.VarProperty;
+import graql.lang.statement.Variable;
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversal;
+import org.apache.tinkerpop.gremlin.structure.Element;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+
+import javax.annotation.Nullable;
+import java.util.Collection;
+import java.util.regex.Pattern;
+
+/**
+ * A `contains` or `like` predicate answered by the text index of the string values.
+ * The predicate is looked up in the index as a regular expression, which is only matched against the values
+ * holding the n-grams of its literals. A `like` predicate is the regular expression itself, whereas a `contains`
+ * predicate is looked up as a case insensitive match of the quoted literal and checked exactly after the lookup.
+ */
+public class TextIndexFragment extends ValueIndexFragment {
+
+    TextIndexFragment(@Nullable VarProperty varProperty, Variable start, ValueOperation<?, ?> operation) {
+        super(varProperty, start, operation);
+    }
+
+    @Override
+    public GraphTraversal<Vertex, ? extends Element> applyTraversalInner(
+            GraphTraversal<Vertex, ? extends Element> traversal, ConceptManager conceptManager, Collection<Variable> vars) {
+        GraphTraversal<Vertex, ? extends Element> lookup = traversal.has(Schema.VertexProperty.VALUE_STRING.name(), Text.textRegex(indexedRegex()));
+        return isLike() ? lookup : predicate().applyFilter(lookup);
+    }
+
+    @Override
+    public String name() {
+        return "[text:" + predicate() + "]";
+    }
+
+    @Override
+    public String shapeName() {
+        return "[text:" + predicate().comparator() + "]";
+    }
+
+    private boolean isLike() {
+        return predicate().comparator() == Graql.Token.Comparator.LIKE;
+    }
+
+    /**
+     * @return regular expression matching at least the values satisfying the predicate
+     */
+    private String indexedRegex() {
+        String value = (String) predicate().value();
+        return isLike() ? value : "(?ius).*" + Pattern.quote(value) + ".*";
+    }
+}
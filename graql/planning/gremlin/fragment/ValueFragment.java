@@ -22,7 +22,9 @@ import grakn.core.graql.planning.gremlin.value.ValueOperation;
 import grakn.core.kb.concept.api.AttributeType;
 import grakn.core.kb.concept.api.Label;
 import grakn.core.kb.concept.manager.ConceptManager;
+import grakn.core.kb.keyspace.AttributeValueStatistics;
 import grakn.core.kb.keyspace.KeyspaceStatistics;
+import graql.lang.Graql;
 import graql.lang.property.VarProperty;
 import graql.lang.statement.Variable;
 import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversal;
@@ -30,10 +32,13 @@ import org.apache.tinkerpop.gremlin.structure.Element;
 import org.apache.tinkerpop.gremlin.structure.Vertex;
 
 import javax.annotation.Nullable;
+import java.time.LocalDateTime;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Iterator;
 import java.util.Objects;
+import java.util.OptionalDouble;
+import java.util.OptionalLong;
 import java.util.Set;
 import java.util.stream.Stream;
 
@@ -49,7 +54,7 @@ public class ValueFragment extends FragmentImpl {
     /**
      * Operation between two values
      */
-    private ValueOperation<?, ?> predicate() {
+    ValueOperation<?, ?> predicate() {
         return operation;
     }
 
@@ -64,6 +69,13 @@ public class ValueFragment extends FragmentImpl {
         return "[value:" + predicate() + "]";
     }
 
+    @Override
+    public String shapeName() {
+        // comparisons against variables keep the variable, as it determines the dependencies of the fragment;
+        // the compared values are only told apart by their selectivity, see #selectivityBucket
+        return dependencies().isEmpty() ? "[value:" + predicate().comparator() + "]" : name();
+    }
+
     @Override
     public double internalFragmentCost() {
         if (predicate().isValueEquality()) {
@@ -117,6 +129,114 @@ public class ValueFragment extends FragmentImpl {
         }
     }
 
+    /**
+     * Estimate the cost of the value predicate from the value statistics of the types of the attribute.
+     * A predicate is never estimated to be more selective than a lookup of a value in the index.
+     *
+     * @param attributeTypes labels of the concrete types the attribute may be an instance of
+     * @return estimated cost, or the internal fragment cost if the values of some of the types are not known
+     */
+    public double estimatedFragmentCost(ConceptManager conceptManager, KeyspaceStatistics statistics, Set<Label> attributeTypes) {
+        if (predicate().isValueEquality() || !dependencies().isEmpty()) return internalFragmentCost();
+
+        double matching = 0;
+        long instances = 0;
+        for (Label attributeType : attributeTypes) {
+            long count = statistics.count(conceptManager, attributeType);
+            if (count <= 0) continue;
+            AttributeValueStatistics values = statistics.valueStatistics(conceptManager, attributeType);
+            OptionalDouble selectivity = values != null ? selectivity(values) : OptionalDouble.empty();
+            if (!selectivity.isPresent()) return internalFragmentCost();
+            matching += selectivity.getAsDouble() * count;
+            instances += count;
+        }
+        if (instances == 0) return internalFragmentCost();
+        return Math.max(Math.log(matching / instances), COST_NODE_INDEX_VALUE);
+    }
+
+    /**
+     * Estimate the number of attributes satisfying the predicate from the value statistics of the types of the attribute,
+     * assuming half of the attributes satisfy it if the values of a type are not known.
+     *
+     * @param attributeTypes labels of the concrete types the attribute may be an instance of
+     */
+    double estimatedMatches(ConceptManager conceptManager, KeyspaceStatistics statistics, Set<Label> attributeTypes) {
+        double matching = 0;
+        for (Label attributeType : attributeTypes) {
+            long count = statistics.count(conceptManager, attributeType);
+            if (count <= 0) continue;
+            AttributeValueStatistics values = statistics.valueStatistics(conceptManager, attributeType);
+            OptionalDouble selectivity = values != null ? selectivity(values) : OptionalDouble.empty();
+            matching += count * selectivity.orElse(Math.exp(COST_NODE_UNSPECIFIC_PREDICATE));
+        }
+        return matching;
+    }
+
+    /**
+     * The plans of conjunctions differing only in the values they compare to are shared, though the fragment is priced
+     * from the statistics of the compared value. The order of magnitude of the attributes estimated to satisfy the
+     * predicate, or to own the value for equalities, tells apart the values the conjunction is planned differently for.
+     *
+     * @param attributeTypes labels of the concrete types the attribute may be an instance of, null if not known
+     * @return the order of magnitude, empty if the fragment is not priced from the compared value
+     */
+    public OptionalLong selectivityBucket(ConceptManager conceptManager, KeyspaceStatistics statistics, @Nullable Set<Label> attributeTypes) {
+        if (attributeTypes == null || !dependencies().isEmpty()) return OptionalLong.empty();
+        double estimate = predicate().isValueEquality() ?
+                estimatedCostAsStartingPoint(conceptManager, statistics, attributeTypes) :
+                estimatedMatches(conceptManager, statistics, attributeTypes);
+        return OptionalLong.of((long) Math.floor(Math.log10(1 + estimate)));
+    }
+
+    /**
+     * @return estimated fraction of the attribute instances satisfying the predicate, empty if it can't be estimated
+     */
+    OptionalDouble selectivity(AttributeValueStatistics values) {
+        Graql.Token.Comparator comparator = predicate().comparator();
+        Object value = predicate().value();
+        // attributes are deduplicated, so at most a single instance has the excluded value
+        if (comparator == Graql.Token.Comparator.NEQV) return OptionalDouble.of(1D);
+        if (!(value instanceof Number) && !(value instanceof LocalDateTime)) return values.fractionMatching(predicate()::test);
+
+        switch (comparator) {
+            case LT:
+                return values.fractionBelow(value, false);
+            case LTE:
+                return values.fractionBelow(value, true);
+            case GT:
+                return complement(values.fractionBelow(value, true));
+            case GTE:
+                return complement(values.fractionBelow(value, false));
+            default:
+                return OptionalDouble.empty();
+        }
+    }
+
+    private static OptionalDouble complement(OptionalDouble fraction) {
+        return fraction.isPresent() ? OptionalDouble.of(1D - fraction.getAsDouble()) : fraction;
+    }
+
+    /**
+     * Estimate the number of owners of the attribute with the value, from the most owned values of the types
+     * of the attribute, or from their mean number of owners per attribute if the value is not among them.
+     *
+     * @param attributeTypes labels of the concrete types the attribute may be an instance of
+     */
+    public double estimatedCostAsStartingPoint(ConceptManager conceptManager, KeyspaceStatistics statistics, Set<Label> attributeTypes) {
+        double owners = 0;
+        for (Label attributeType : attributeTypes) {
+            AttributeValueStatistics values = statistics.valueStatistics(conceptManager, attributeType);
+            OptionalLong valueOwners = values != null ? values.owners(predicate().value()) : OptionalLong.empty();
+            if (valueOwners.isPresent()) {
+                owners += valueOwners.getAsLong();
+            } else {
+                long count = statistics.count(conceptManager, attributeType);
+                if (count > 0) owners += (double) statistics.countOwnerships(conceptManager, attributeType) / count;
+            }
+        }
+        return owners;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -0,0 +1,86 @@
+/*
+ * Copyright (C) 2020 Grakn Labs
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ */
+
+package grakn.core.graql.planning.gremlin.fragment;
+
+import grakn.core.graql.planning.gremlin.value.ValueOperation;
+import grakn.core.kb.concept.api.AttributeType;
+import grakn.core.kb.concept.api.Label;
+import grakn.core.kb.concept.manager.ConceptManager;
+import grakn.core.kb.keyspace.KeyspaceStatistics;
+import graql.lang.property.VarProperty;
+import graql.lang.statement.Variable;
+
+import javax.annotation.Nullable;
+import java.util.OptionalLong;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * A value predicate answered by a value index. As a starting point, the attributes satisfying the predicate
+ * are looked up in the index instead of scanning all attributes.
+ */
+abstract class ValueIndexFragment extends ValueFragment {
+
+    ValueIndexFragment(@Nullable VarProperty varProperty, Variable start, ValueOperation<?, ?> operation) {
+        super(varProperty, start, operation);
+    }
+
+    @Override
+    public boolean hasFixedFragmentCost() {
+        return true;
+    }
+
+    /**
+     * Estimate the number of attributes satisfying the predicate, out of the attributes of all types
+     * with values comparable to the compared value.
+     */
+    @Override
+    public double estimatedCostAsStartingPoint(ConceptManager conceptManager, KeyspaceStatistics statistics) {
+        return estimatedMatches(conceptManager, statistics, comparableAttributeTypes(conceptManager));
+    }
+
+    /**
+     * Estimate the number of attributes satisfying the predicate from the value statistics of the types of the attribute.
+     *
+     * @param attributeTypes labels of the concrete types the attribute may be an instance of
+     */
+    @Override
+    public double estimatedCostAsStartingPoint(ConceptManager conceptManager, KeyspaceStatistics statistics, Set<Label> attributeTypes) {
+        return estimatedMatches(conceptManager, statistics, attributeTypes);
+    }
+
+    /**
+     * As a starting point the fragment is priced from the compared value even if the types of the attribute are not
+     * known, from all types with values comparable to the compared value.
+     */
+    @Override
+    public OptionalLong selectivityBucket(ConceptManager conceptManager, KeyspaceStatistics statistics, @Nullable Set<Label> attributeTypes) {
+        return super.selectivityBucket(conceptManager, statistics,
+                attributeTypes != null ? attributeTypes : comparableAttributeTypes(conceptManager));
+    }
+
+    private Set<Label> comparableAttributeTypes(ConceptManager conceptManager) {
+        Set<AttributeType.ValueType<?>> valueTypes = AttributeType.ValueType.of(predicate().value().getClass()).comparableValueTypes();
+        AttributeType<?> metaAttributeType = conceptManager.getMetaAttributeType();
+        return metaAttributeType.subs()
+                .filter(attributeType -> valueTypes.contains(attributeType.valueType()))
+                .map(AttributeType::label)
+                .collect(Collectors.toSet());
+    }
+}
@@ -18,7 +18,9 @@
 package grakn.core.graql.planning.gremlin.sets;
 
 import com.google.common.collect.ImmutableCollection;
+import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
+import grakn.core.core.Schema;
 import grakn.core.graql.planning.gremlin.value.ValueOperation;
 import grakn.core.kb.concept.api.AttributeType;
 import grakn.core.kb.concept.api.ConceptId;
@@ -30,6 +32,7 @@ import graql.lang.statement.Variable;
 
 import javax.annotation.Nullable;
 import java.util.Collection;
+import java.util.Set;
 import java.util.stream.Stream;
 
 /**
@@ -48,6 +51,12 @@ public class EquivalentFragmentSets {
 //            IsaFragmentSet.SKIP_EDGE_INSTANCE_CHECK_OPTIMISATION
     );
 
+    // optimisations looking up values in the value indexes, only applied if the index is enabled in the keyspace
+    private static final ImmutableMap<Schema.ValueIndex, FragmentSetOptimisation> VALUE_INDEX_OPTIMISATIONS = ImmutableMap.of(
+            Schema.ValueIndex.RANGE, RangeIndexFragmentSet.RANGE_INDEX_OPTIMISATION,
+            Schema.ValueIndex.TEXT, TextIndexFragmentSet.TEXT_INDEX_OPTIMISATION
+    );
+
     /**
      * An EquivalentFragmentSet that indicates a variable is a type whose instances play a role.
      *
@@ -178,9 +187,11 @@ public class EquivalentFragmentSets {
      * AttributeIndexFragmentSet.
      * <p>
      * This involves substituting various EquivalentFragmentSet with other EquivalentFragmentSet.
+     *
+     * @param valueIndexes the value indexes enabled in the keyspace
      */
     public static void optimiseFragmentSets(
-            Collection<EquivalentFragmentSet> fragmentSets, ConceptManager conceptManager) {
+            Collection<EquivalentFragmentSet> fragmentSets, ConceptManager conceptManager, Set<Schema.ValueIndex> valueIndexes) {
 
         // Repeatedly apply optimisations until they don't alter the query
         boolean changed = true;
@@ -190,6 +201,9 @@ public class EquivalentFragmentSets {
             for (FragmentSetOptimisation optimisation : OPTIMISATIONS) {
                 changed |= optimisation.apply(fragmentSets, conceptManager);
             }
+            for (Schema.ValueIndex valueIndex : valueIndexes) {
+                changed |= VALUE_INDEX_OPTIMISATIONS.get(valueIndex).apply(fragmentSets, conceptManager);
+            }
         }
     }
 
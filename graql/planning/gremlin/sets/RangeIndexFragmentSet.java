@@ -0,0 +1,109 @@
+/*
+ * Copyright (C) 2020 Grakn Labs
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ */
+
+package grakn.core.graql.planning.gremlin.sets;
+
+import com.google.common.collect.ImmutableSet;
+import grakn.core.graql.planning.gremlin.fragment.Fragments;
+import grakn.core.graql.planning.gremlin.value.ValueOperation;
+import grakn.core.kb.graql.planning.gremlin.EquivalentFragmentSet;
+import grakn.core.kb.graql.planning.gremlin.Fragment;
+import graql.lang.Graql;
+import graql.lang.property.VarProperty;
+import graql.lang.statement.Variable;
+
+import javax.annotation.Nullable;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+
+import static grakn.core.graql.planning.gremlin.sets.EquivalentFragmentSets.fragmentSetOfType;
+
+/**
+ * A query can look up the attributes satisfying a value comparison in the range index when the following criteria are met:
+ * <p>
+ * 1. There is a ValueFragmentSet comparing the values of a Variable to a number or date literal.
+ * 2. The comparison is one of the order comparisons <, <=, > or >=.
+ * 3. The literal converts to the values of all comparable value types without loss, i.e. it is not a fractional number.
+ * <p>
+ * When all these criteria are met, the ValueFragmentSet can be replaced with a RangeIndexFragmentSet, which can be
+ * used as a starting point of the traversal.
+ */
+public class RangeIndexFragmentSet extends EquivalentFragmentSetImpl {
+
+    private static final Set<Graql.Token.Comparator> RANGE_COMPARATORS = EnumSet.of(
+            Graql.Token.Comparator.LT, Graql.Token.Comparator.LTE,
+            Graql.Token.Comparator.GT, Graql.Token.Comparator.GTE);
+
+    private final Variable var;
+    private final ValueOperation<?, ?> operation;
+
+    private RangeIndexFragmentSet(@Nullable VarProperty varProperty, Variable var, ValueOperation<?, ?> operation) {
+        super(varProperty);
+        this.var = var;
+        this.operation = operation;
+    }
+
+    @Override
+    public final Set<Fragment> fragments() {
+        return ImmutableSet.of(Fragments.rangeIndex(varProperty(), var, operation));
+    }
+
+    static final FragmentSetOptimisation RANGE_INDEX_OPTIMISATION = (fragmentSets, conceptManager) -> {
+        Optional<ValueFragmentSet> valueSet = fragmentSetOfType(ValueFragmentSet.class, fragmentSets)
+                .filter(set -> isRangeIndexed(set.operation()))
+                .findFirst();
+        valueSet.ifPresent(set -> optimise(fragmentSets, set));
+        return valueSet.isPresent();
+    };
+
+    private static void optimise(Collection<EquivalentFragmentSet> fragmentSets, ValueFragmentSet valueSet) {
+        fragmentSets.remove(valueSet);
+        fragmentSets.add(new RangeIndexFragmentSet(valueSet.varProperty(), valueSet.var(), valueSet.operation()));
+    }
+
+    private static boolean isRangeIndexed(ValueOperation<?, ?> operation) {
+        if (!RANGE_COMPARATORS.contains(operation.comparator())) return false;
+        Object value = operation.value();
+        if (value instanceof Long || value instanceof Integer || value instanceof LocalDateTime) return true;
+        // fractional numbers can't be converted to the long values looked up in the index
+        return value instanceof Double && (Double) value % 1 == 0;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (o == this) {
+            return true;
+        }
+        if (o instanceof RangeIndexFragmentSet) {
+            RangeIndexFragmentSet that = (RangeIndexFragmentSet) o;
+            return Objects.equals(this.varProperty(), that.varProperty())
+                    && this.var.equals(that.var)
+                    && this.operation.equals(that.operation);
+        }
+        return false;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(varProperty(), var, operation);
+    }
+}
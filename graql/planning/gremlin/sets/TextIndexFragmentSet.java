@@ -0,0 +1,106 @@
+/*
+ * Copyright (C) 2020 Grakn Labs
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ */
+
+package grakn.core.graql.planning.gremlin.sets;
+
+import com.google.common.collect.ImmutableSet;
+import grakn.core.graql.planning.gremlin.fragment.Fragments;
+import grakn.core.graql.planning.gremlin.value.ValueOperation;
+import grakn.core.kb.graql.planning.gremlin.EquivalentFragmentSet;
+import grakn.core.kb.graql.planning.gremlin.Fragment;
+import graql.lang.property.VarProperty;
+import graql.lang.statement.Variable;
+
+import javax.annotation.Nullable;
+import java.util.Collection;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+
+import static grakn.core.graql.planning.gremlin.sets.EquivalentFragmentSets.fragmentSetOfType;
+
+/**
+ * A query can look up the attributes satisfying a string predicate in the text index when the following criteria are met:
+ * <p>
+ * 1. There is a ValueFragmentSet comparing the values of a Variable to a string literal.
+ * 2. The comparison is a `contains` or a `like` comparison.
+ * 3. The regular expression of a `like` comparison is not blank.
+ * <p>
+ * When all these criteria are met, the ValueFragmentSet can be replaced with a TextIndexFragmentSet, which can be
+ * used as a starting point of the traversal.
+ */
+public class TextIndexFragmentSet extends EquivalentFragmentSetImpl {
+
+    private final Variable var;
+    private final ValueOperation<?, ?> operation;
+
+    private TextIndexFragmentSet(@Nullable VarProperty varProperty, Variable var, ValueOperation<?, ?> operation) {
+        super(varProperty);
+        this.var = var;
+        this.operation = operation;
+    }
+
+    @Override
+    public final Set<Fragment> fragments() {
+        return ImmutableSet.of(Fragments.textIndex(varProperty(), var, operation));
+    }
+
+    static final FragmentSetOptimisation TEXT_INDEX_OPTIMISATION = (fragmentSets, conceptManager) -> {
+        Optional<ValueFragmentSet> valueSet = fragmentSetOfType(ValueFragmentSet.class, fragmentSets)
+                .filter(set -> isTextIndexed(set.operation()))
+                .findFirst();
+        valueSet.ifPresent(set -> optimise(fragmentSets, set));
+        return valueSet.isPresent();
+    };
+
+    private static void optimise(Collection<EquivalentFragmentSet> fragmentSets, ValueFragmentSet valueSet) {
+        fragmentSets.remove(valueSet);
+        fragmentSets.add(new TextIndexFragmentSet(valueSet.varProperty(), valueSet.var(), valueSet.operation()));
+    }
+
+    private static boolean isTextIndexed(ValueOperation<?, ?> operation) {
+        if (!(operation.value() instanceof String)) return false;
+        switch (operation.comparator()) {
+            case CONTAINS:
+                return true;
+            case LIKE:
+                return !((String) operation.value()).trim().isEmpty();
+            default:
+                return false;
+        }
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (o == this) {
+            return true;
+        }
+        if (o instanceof TextIndexFragmentSet) {
+            TextIndexFragmentSet that = (TextIndexFragmentSet) o;
+            return Objects.equals(this.varProperty(), that.varProperty())
+                    && this.var.equals(that.var)
+                    && this.operation.equals(that.operation);
+        }
+        return false;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(varProperty(), var, operation);
+    }
+}
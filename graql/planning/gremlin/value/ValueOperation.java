@@ -77,6 +77,18 @@ public abstract class ValueOperation<T, U> {
     protected abstract P<U> predicate();
 
     public <S, E> GraphTraversal<S, E> apply(GraphTraversal<S, E> traversal) {
+        return traversal.union(valueTraversals());
+    }
+
+    /**
+     * Applies the operation as a filter on the value properties. Directly following a graph step, the filter is folded
+     * into graph-centric queries of the value properties, so that it can be answered by the graph indexes.
+     */
+    public <S, E> GraphTraversal<S, E> applyFilter(GraphTraversal<S, E> traversal) {
+        return traversal.or(valueTraversals());
+    }
+
+    private <E> GraphTraversal<?, E>[] valueTraversals() {
         List<GraphTraversal<?, E>> valueTraversals = new ArrayList<>();
         AttributeType.ValueType<?> valueType = AttributeType.ValueType.of(value().getClass());
         for (AttributeType.ValueType<?> comparableValueType : valueType.comparableValueTypes()) {
@@ -84,9 +96,7 @@ public abstract class ValueOperation<T, U> {
             valueTraversals.add(__.has(property.name(), predicate()));
         }
 
-        GraphTraversal<?, E>[] array = (GraphTraversal<?, E>[]) Iterables.toArray(valueTraversals, GraphTraversal.class);
-
-        return traversal.union(array);
+        return (GraphTraversal<?, E>[]) Iterables.toArray(valueTraversals, GraphTraversal.class);
     }
 
     public boolean test(Object otherValue) {
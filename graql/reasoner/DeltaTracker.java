@@ -0,0 +1,117 @@
+/*
+ * Copyright (C) 2020 Grakn Labs
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ */
+
+package grakn.core.graql.reasoner;
+
+import grakn.core.concept.answer.ConceptMap;
+import grakn.core.graql.reasoner.query.ReasonerAtomicQuery;
+import grakn.core.graql.reasoner.query.ReasonerQueryImpl;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Tracks the answers found in consecutive iterations of the fixpoint computation performed by the ResolutionIterator,
+ * allowing for semi-naive evaluation of recursive rules.
+ *
+ * Each answer to a rule-resolvable query of a conjunction is stamped with the iteration it was first found in.
+ * If a rule was applied to the same sub goal in the previous iteration, all its derivations built purely from answers
+ * known before the previous iteration have already been produced. Hence in the current iteration it is sufficient to only
+ * consider derivations using at least one delta answer - an answer first found in the previous or the current iteration.
+ */
+public class DeltaTracker {
+
+    private int iteration = 0;
+    private Set<ReasonerAtomicQuery> previousSubGoals = new HashSet<>();
+    private final Map<ReasonerQueryImpl, Map<ConceptMap, Integer>> answerIterations = new HashMap<>();
+
+    private final List<Long> deltaAnswers = new ArrayList<>(Collections.singletonList(0L));
+    private final List<Long> prunedDerivations = new ArrayList<>(Collections.singletonList(0L));
+
+    /**
+     * Starts a new iteration.
+     * @param expandedSubGoals sub goals visited in the finished iteration, their rule applications can be evaluated semi-naively
+     */
+    public void nextIteration(Set<ReasonerAtomicQuery> expandedSubGoals){
+        iteration++;
+        previousSubGoals = expandedSubGoals;
+        deltaAnswers.add(0L);
+        prunedDerivations.add(0L);
+    }
+
+    /**
+     * @return number of the current iteration, starting from 0
+     */
+    public int iteration(){ return iteration;}
+
+    /**
+     * @param subGoal sub goal a rule is applied to
+     * @return true if the rule applications of the sub goal can be evaluated semi-naively in the current iteration
+     */
+    public boolean isSemiNaive(ReasonerAtomicQuery subGoal){
+        return iteration > 0 && previousSubGoals.contains(subGoal);
+    }
+
+    /**
+     * Stamps the answer with the current iteration if it hasn't been seen before.
+     * @param query query the answer corresponds to
+     * @param answer answer to the query
+     * @return true if the answer was first found in the previous or the current iteration
+     */
+    public boolean isDelta(ReasonerQueryImpl query, ConceptMap answer){
+        int found = answerIterations
+                .computeIfAbsent(query, q -> new HashMap<>())
+                .computeIfAbsent(answer, ans -> {
+                    increment(deltaAnswers, 1);
+                    return iteration;
+                });
+        return found >= iteration - 1;
+    }
+
+    /**
+     * Acknowledges derivations that were skipped as all of their answers were old.
+     * @param count number of skipped derivations
+     */
+    public void ackPrunedDerivations(long count){ increment(prunedDerivations, count);}
+
+    /**
+     * @return number of new answers found in each iteration
+     */
+    public List<Long> deltaAnswers(){ return Collections.unmodifiableList(deltaAnswers);}
+
+    /**
+     * @return number of derivations skipped in each iteration
+     */
+    public List<Long> prunedDerivations(){ return Collections.unmodifiableList(prunedDerivations);}
+
+    private void increment(List<Long> counts, long count){
+        counts.set(iteration, counts.get(iteration) + count);
+    }
+
+    @Override
+    public String toString(){
+        return "iter: " + iteration +
+                " deltaAnswers: " + deltaAnswers.get(iteration) +
+                " prunedDerivations: " + prunedDerivations.get(iteration);
+    }
+}
@@ -18,6 +18,7 @@
 
 package grakn.core.graql.reasoner;
 
+import com.google.common.annotations.VisibleForTesting;
 import grakn.core.concept.answer.ConceptMap;
 import grakn.core.graql.reasoner.cache.MultilevelSemanticCache;
 import grakn.core.graql.reasoner.query.ReasonerAtomicQuery;
@@ -52,16 +53,33 @@ public class ResolutionIterator extends ReasonerQueryIterator {
     private final QueryCache queryCache;
     private final Stack<ResolutionState> states = new Stack<>();
     private final ResolutionTree logTree;
+    private final DeltaTracker deltaTracker;
+    private Set<ReasonerAtomicQuery> iterationSubGoals;
 
     private ConceptMap nextAnswer = null;
 
     private static final Logger LOG = LoggerFactory.getLogger(ResolutionIterator.class);
 
     public ResolutionIterator(ResolvableQuery q, Set<ReasonerAtomicQuery> subGoals, QueryCache queryCache){
+        this(q, subGoals, queryCache, new DeltaTracker());
+    }
+
+    /**
+     * @param deltaTracker tracker recording the fixpoint iterations of the resolution
+     */
+    @VisibleForTesting
+    public ResolutionIterator(ResolvableQuery q, Set<ReasonerAtomicQuery> subGoals, QueryCache queryCache, DeltaTracker deltaTracker){
         this.query = q;
+        this.deltaTracker = deltaTracker;
         this.subGoals = subGoals;
         this.queryCache = queryCache;
+        //independent sub goals of a query resolved from scratch can be resolved in parallel beforehand
+        if (subGoals.isEmpty()) CacheCasting.queryCacheCast(queryCache).resolveSubGoalsInParallel(q);
+
+        //NB: sub goals visited before this iteration started were not expanded within it
+        this.iterationSubGoals = subGoals.isEmpty()? subGoals : new HashSet<>();
         ResolutionState rootState = query.resolutionState(new ConceptMap(), new UnifierImpl(), null, subGoals);
+        if (query.requiresReiteration()) rootState.setDeltaTracker(deltaTracker);
         states.push(rootState);
         this.logTree = new ResolutionTree(rootState);
     }
@@ -131,9 +149,14 @@ public class ResolutionIterator extends ReasonerQueryIterator {
         if (reiterate()) {
             long dAns = answers.size() - oldAns;
             if (dAns != 0 || iter == 0) {
-                LOG.debug("iter: {} answers: {} dAns = {} time = {}", iter, answers.size(), dAns, System.currentTimeMillis() - startTime);
+                LOG.debug("iter: {} answers: {} dAns = {} time = {} {}", iter, answers.size(), dAns, System.currentTimeMillis() - startTime, deltaTracker);
                 iter++;
-                states.push(query.resolutionState(new ConceptMap(), new UnifierImpl(), null, new HashSet<>()));
+                //NB: the tracker allows to only join the answers derived in the previous iteration
+                deltaTracker.nextIteration(iterationSubGoals);
+                iterationSubGoals = new HashSet<>();
+                ResolutionState rootState = query.resolutionState(new ConceptMap(), new UnifierImpl(), null, iterationSubGoals);
+                rootState.setDeltaTracker(deltaTracker);
+                states.push(rootState);
 
                 oldAns = answers.size();
                 startTime = System.currentTimeMillis();
@@ -150,6 +173,7 @@ public class ResolutionIterator extends ReasonerQueryIterator {
         MultilevelSemanticCache queryCache = CacheCasting.queryCacheCast(this.queryCache);
         subGoals.forEach(queryCache::ackCompleteness);
         queryCache.propagateAnswers();
+        queryCache.shareAnswers(subGoals);
 
         if (LOG.isDebugEnabled()) logTree.outputToFile();
         resultsFinalised = true;
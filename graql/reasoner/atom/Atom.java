@@ -32,6 +32,7 @@ import grakn.core.graql.reasoner.atom.predicate.Predicate;
 import grakn.core.graql.reasoner.atom.predicate.VariablePredicate;
 import grakn.core.graql.reasoner.atom.task.validate.AtomValidator;
 import grakn.core.graql.reasoner.atom.task.validate.BasicAtomValidator;
+import grakn.core.graql.reasoner.cache.MultilevelSemanticCache;
 import grakn.core.graql.reasoner.cache.SemanticDifference;
 import grakn.core.graql.reasoner.rule.InferenceRule;
 import grakn.core.graql.reasoner.unifier.MultiUnifierImpl;
@@ -243,10 +244,11 @@ public abstract class Atom extends AtomicBase {
     public Stream<InferenceRule> getApplicableRules() {
         if (applicableRules == null) {
             RuleCache ruleCache = ctx.ruleCache();
+            MultilevelSemanticCache queryCache = CacheCasting.queryCacheCast(ctx.queryCache());
             applicableRules = new HashSet<>();
             getPotentialRules()
                     .map(rule -> CacheCasting.ruleCacheCast(ruleCache).getRule(rule))
-                    .filter(this::isRuleApplicable)
+                    .filter(rule -> queryCache.isRuleApplicable(this, rule.getRule().label(), () -> isRuleApplicable(rule)))
                     .map(r -> r.rewrite(this))
                     .forEach(applicableRules::add);
         }
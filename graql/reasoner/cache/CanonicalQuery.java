@@ -0,0 +1,227 @@
+/*
+ * Copyright (C) 2020 Grakn Labs
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ */
+package grakn.core.graql.reasoner.cache;
+
+import com.google.common.collect.ImmutableList;
+import grakn.core.graql.reasoner.atom.Atom;
+import grakn.core.graql.reasoner.atom.binary.AttributeAtom;
+import grakn.core.graql.reasoner.atom.binary.OntologicalAtom;
+import grakn.core.graql.reasoner.atom.binary.RelationAtom;
+import grakn.core.graql.reasoner.atom.predicate.IdPredicate;
+import grakn.core.graql.reasoner.atom.predicate.ValuePredicate;
+import grakn.core.graql.reasoner.atom.predicate.VariablePredicate;
+import grakn.core.graql.reasoner.atom.predicate.VariableValuePredicate;
+import grakn.core.graql.reasoner.atom.property.IsAbstractAtom;
+import grakn.core.graql.reasoner.atom.property.RegexAtom;
+import grakn.core.graql.reasoner.atom.property.ValueTypeAtom;
+import grakn.core.graql.reasoner.query.ReasonerQueryImpl;
+import grakn.core.kb.graql.reasoner.atom.Atomic;
+import graql.lang.property.RelationProperty;
+import graql.lang.property.ValueProperty;
+import graql.lang.statement.Statement;
+import graql.lang.statement.Variable;
+
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Transaction-independent representation of a query, identifying the query up to variable renaming and parameters.
+ *
+ * The key of a query is formed from the Atomics of the query, each described by its kind, labels, comparators and
+ * the positions of its variables, with the variables renamed in the order of their first appearance. As with
+ * ReasonerQueryEquivalence#StructuralEquivalence, the key abstracts the parameters of the query: ids of the concepts
+ * the query refers to and the values it compares attributes against. The parameters are kept separately, in the
+ * order of their appearance, for the structures that depend on them.
+ *
+ * Queries with equal keys have equal structure up to a bijective variable renaming. As the ordering of atomics
+ * is not fully determined by their structure, queries equal up to variable renaming may still have different keys.
+ *
+ * Atomics of the query and its variables can be translated to and from their canonical form, so that
+ * variable-dependent structures computed for one query can be reused for any query with the same key.
+ */
+public class CanonicalQuery {
+
+    private static final String CANONICAL_VAR_PREFIX = "$v";
+    private static final String MASKED_VAR = "$";
+
+    private final List<Object> key;
+    private final List<Object> parameters;
+    private final Map<Variable, String> canonicalVariables;
+    private final Map<String, Variable> variables;
+
+    private CanonicalQuery(List<Object> key, List<Object> parameters, Map<Variable, String> canonicalVariables) {
+        this.key = key;
+        this.parameters = parameters;
+        this.canonicalVariables = canonicalVariables;
+        this.variables = canonicalVariables.entrySet().stream()
+                .collect(Collectors.toMap(Map.Entry::getValue, Map.Entry::getKey));
+    }
+
+    /**
+     * @param query to be represented
+     * @return canonical representation of the query, null if the query contains atomics with no canonical form
+     */
+    @Nullable
+    public static CanonicalQuery of(ReasonerQueryImpl query) {
+        Map<Atomic, List<Object>> masked = new HashMap<>();
+        for (Atomic atomic : query.getAtoms()) {
+            List<Object> structure = structure(atomic, var -> MASKED_VAR, new ArrayList<>());
+            if (structure == null) return null;
+            masked.put(atomic, structure);
+        }
+        List<Atomic> atomics = query.getAtoms().stream()
+                .sorted(Comparator.comparing(atomic -> masked.get(atomic).toString()))
+                .collect(Collectors.toList());
+
+        Map<Variable, String> canonicalVariables = new HashMap<>();
+        ImmutableList.Builder<Object> key = ImmutableList.builder();
+        List<Object> parameters = new ArrayList<>();
+        for (Atomic atomic : atomics) {
+            key.add(structure(atomic, var -> canonicalVariables.computeIfAbsent(var, v -> CANONICAL_VAR_PREFIX + canonicalVariables.size()), parameters));
+        }
+        return new CanonicalQuery(key.build(), ImmutableList.copyOf(parameters), canonicalVariables);
+    }
+
+    /**
+     * @return structure of the query with variables in their canonical form and parameters abstracted
+     */
+    public List<Object> key() { return key; }
+
+    /**
+     * @return ids and values the query refers to, in the order of their appearance in the key
+     */
+    public List<Object> parameters() { return parameters; }
+
+    /**
+     * @param atomic atomic of the query
+     * @return structure of the atomic with the variables in their canonical form and parameters abstracted,
+     * null if the atomic has no canonical form or has variables not present in the query
+     */
+    @Nullable
+    public List<Object> canonical(Atomic atomic) {
+        boolean[] foreignVariables = {false};
+        List<Object> structure = structure(atomic, var -> {
+            String canonicalVar = canonicalVariables.get(var);
+            if (canonicalVar == null) foreignVariables[0] = true;
+            return canonicalVar;
+        }, new ArrayList<>());
+        return foreignVariables[0] ? null : structure;
+    }
+
+    /**
+     * @param atomic atomic of the query
+     * @return ids and values the atomic refers to
+     */
+    public List<Object> parameters(Atomic atomic) {
+        List<Object> atomicParameters = new ArrayList<>();
+        structure(atomic, var -> MASKED_VAR, atomicParameters);
+        return atomicParameters;
+    }
+
+    /**
+     * @param var variable of the query
+     * @return canonical name of the variable, null if the variable is not present in the query atomics
+     */
+    @Nullable
+    public String canonicalVariable(Variable var) {
+        return canonicalVariables.get(var);
+    }
+
+    /**
+     * @param canonicalVar canonical name of a variable
+     * @return variable of the query with the given canonical name, null if there is none
+     */
+    @Nullable
+    public Variable variable(String canonicalVar) {
+        return variables.get(canonicalVar);
+    }
+
+    @Override
+    public String toString() { return key + " " + parameters; }
+
+    /**
+     * @param atomic     atomic to be described
+     * @param vars       naming of variables
+     * @param parameters list the parameters of the atomic are appended to
+     * @return structure of the atomic, null if the atomic is of unknown kind
+     */
+    @Nullable
+    private static List<Object> structure(Atomic atomic, Function<Variable, String> vars, List<Object> parameters) {
+        List<Object> structure = new ArrayList<>();
+        structure.add(atomic.getClass().getSimpleName());
+        structure.add(vars.apply(atomic.getVarName()));
+        if (atomic instanceof Atom) {
+            Atom atom = (Atom) atomic;
+            structure.add(String.valueOf(atom.getTypeLabel()));
+            structure.add(atom.isDirect());
+            structure.add(vars.apply(atom.getPredicateVariable()));
+            if (atom instanceof RelationAtom) {
+                for (RelationProperty.RolePlayer rolePlayer : ((RelationAtom) atom).getRelationPlayers()) {
+                    Statement role = rolePlayer.getRole().orElse(null);
+                    if (role == null) structure.add("");
+                    else structure.add(role.getType().orElseGet(() -> vars.apply(role.var())));
+                    structure.add(vars.apply(rolePlayer.getPlayer().var()));
+                }
+            } else if (atom instanceof AttributeAtom) {
+                AttributeAtom attribute = (AttributeAtom) atom;
+                structure.add(vars.apply(attribute.getAttributeVariable()));
+                List<ValueProperty.Operation> operations = attribute.getMultiPredicate().stream()
+                        .map(ValuePredicate::getPredicate)
+                        .sorted(Comparator.comparing((ValueProperty.Operation op) -> op.comparator().toString())
+                                .thenComparing(op -> op.value().toString()))
+                        .collect(Collectors.toList());
+                operations.forEach(op -> structure.add(operation(op, vars, parameters)));
+            } else if (atom instanceof OntologicalAtom) {
+                structure.add(((OntologicalAtom) atom).atomType());
+            }
+        } else if (atomic instanceof IdPredicate) {
+            parameters.add(((IdPredicate) atomic).getPredicate());
+        } else if (atomic instanceof ValuePredicate) {
+            structure.add(operation(((ValuePredicate) atomic).getPredicate(), vars, parameters));
+        } else if (atomic instanceof VariableValuePredicate) {
+            structure.add(operation(((VariableValuePredicate) atomic).operation(), vars, parameters));
+        } else if (atomic instanceof VariablePredicate) {
+            structure.add(vars.apply(((VariablePredicate) atomic).getPredicate()));
+        } else if (atomic instanceof RegexAtom) {
+            structure.add(((RegexAtom) atomic).getRegex());
+        } else if (atomic instanceof ValueTypeAtom) {
+            structure.add(((ValueTypeAtom) atomic).getValueType());
+        } else if (!(atomic instanceof IsAbstractAtom)) {
+            return null;
+        }
+        return structure;
+    }
+
+    /**
+     * @return comparator of the operation with the compared variable, the compared value is appended to the parameters
+     */
+    private static List<Object> operation(ValueProperty.Operation<?> operation, Function<Variable, String> vars, List<Object> parameters) {
+        List<Object> structure = new ArrayList<>();
+        structure.add(operation.comparator());
+        Statement inner = operation.innerStatement();
+        if (inner != null) structure.add(vars.apply(inner.var()));
+        else parameters.add(operation.value());
+        return structure;
+    }
+}
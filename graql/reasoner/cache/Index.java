@@ -19,6 +19,7 @@
 package grakn.core.graql.reasoner.cache;
 
 import com.google.common.collect.ImmutableSet;
+import grakn.core.graql.reasoner.utils.VariableSlots;
 import graql.lang.statement.Variable;
 
 import java.util.HashSet;
@@ -32,13 +33,15 @@ import java.util.Set;
  */
 public class Index{
     final private ImmutableSet<Variable> vars;
+    final private VariableSlots slots;
 
     private Index(Variable var){
-        this.vars = ImmutableSet.of(var);
+        this(ImmutableSet.of(var));
     }
 
     private Index(Set<Variable> vars){
         this.vars = ImmutableSet.copyOf(vars);
+        this.slots = VariableSlots.of(this.vars);
     }
 
     public static Index empty(){
@@ -55,6 +58,8 @@ public class Index{
 
     Set<Variable> vars(){return vars;}
 
+    VariableSlots slots(){return slots;}
+
     @Override
     public String toString(){ return vars.toString(); }
 
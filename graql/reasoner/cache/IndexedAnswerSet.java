@@ -21,20 +21,39 @@ package grakn.core.graql.reasoner.cache;
 import com.google.common.collect.HashMultimap;
 import com.google.common.collect.Multiset;
 import com.google.common.collect.Sets;
+import grakn.common.util.Pair;
 import grakn.core.concept.answer.ConceptMap;
+import grakn.core.graql.reasoner.utils.AnswerTuple;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.stream.Stream;
 
 /**
  * Query answer set indexed with partial substitutions (partial answers).
+ *
+ * Alongside the index, the distinct answers are kept in a set and in insertion order, so that size, membership
+ * and iteration don't need to collect the index values, and so that consumers can fetch only the answers added
+ * since they last looked (see Cursor).
+ * The index keys are kept as AnswerTuples to avoid materialising a ConceptMap per indexed answer.
  */
 public class IndexedAnswerSet implements AnswerSet{
 
-    private final HashMultimap<ConceptMap, ConceptMap> indexedAnswers = HashMultimap.create();
+    private final HashMultimap<AnswerTuple, ConceptMap> indexedAnswers = HashMultimap.create();
+    private final Set<ConceptMap> answers = new HashSet<>();
+    private final List<ConceptMap> answerLog = new ArrayList<>();
+    //removals invalidate positions in the answer log
+    private int removals = 0;
+
+    //positions up to which answers of parent sets were propagated to this set, by parent set and inferred flag
+    private final Map<Pair<IndexedAnswerSet, Boolean>, Cursor> propagationCursors = new HashMap<>();
 
     //indices are really var sets
     private final Index index;
@@ -58,26 +77,33 @@ public class IndexedAnswerSet implements AnswerSet{
     }
 
     @Override
-    public int size() { return getAll().size();}
+    public int size() { return answers.size();}
 
     @Override
-    public boolean contains(Object o) { return getAll().contains(o); }
+    public boolean contains(Object o) { return answers.contains(o); }
 
     @Override
-    public Object[] toArray() { return getAll().toArray(); }
+    public Object[] toArray() { return answerLog.toArray(); }
 
     @Override
-    public <T> T[] toArray(T[] ts) { return getAll().toArray(ts); }
+    public <T> T[] toArray(T[] ts) { return answerLog.toArray(ts); }
 
     @Override
     public boolean remove(Object o) {
-        return indexedAnswers.asMap().entrySet().stream()
-                .filter(e -> e.getValue().contains(o))
-                .allMatch(e -> e.getValue().remove(o));
+        if (!answers.remove(o)) return false;
+        ConceptMap answer = (ConceptMap) o;
+        //answers added with a specific index may be indexed under a tuple other than their projection
+        if (!indexedAnswers.remove(index.slots().project(answer), answer)) {
+            indexedAnswers.values().removeIf(answer::equals);
+        }
+        answerLog.remove(answer);
+        removals++;
+        propagationCursors.clear();
+        return true;
     }
 
     @Override
-    public boolean containsAll(Collection<?> collection) { return getAll().containsAll(collection); }
+    public boolean containsAll(Collection<?> collection) { return answers.containsAll(collection); }
 
     @Override
     public boolean addAll(Collection<? extends ConceptMap> collection) { return collection.stream().allMatch(this::add); }
@@ -89,52 +115,104 @@ public class IndexedAnswerSet implements AnswerSet{
     public boolean removeAll(Collection<?> collection) { return collection.stream().allMatch(this::remove); }
 
     @Override
-    public void clear() { indexedAnswers.clear(); }
+    public void clear() {
+        indexedAnswers.clear();
+        answers.clear();
+        answerLog.clear();
+        removals++;
+        propagationCursors.clear();
+    }
 
-    public Multiset<ConceptMap> keys(){ return indexedAnswers.keys();}
+    public Multiset<AnswerTuple> keys(){ return indexedAnswers.keys();}
 
     @Override
     public Set<ConceptMap> get(ConceptMap sub) {
-        Index ind = Index.of(sub.vars());
-        if (ind.equals(index)){
-            return indexedAnswers.get(sub);
+        if (index.vars().equals(sub.vars())){
+            return indexedAnswers.get(index.slots().tuple(sub));
         }
         throw new IllegalStateException("Illegal index: " + sub + " indices: " + index);
     }
 
+    /**
+     * @return unmodifiable view of the answers
+     */
     @Override
     public Set<ConceptMap> getAll() {
-        if (index.equals(Index.empty())) return indexedAnswers.get(new ConceptMap());
-        return new HashSet<>(indexedAnswers.values());
+        return Collections.unmodifiableSet(answers);
     }
 
     @Override
     //add answer to all indices
     public boolean add(ConceptMap answer) {
-        return add(answer, answer.project(index.vars()));
+        return add(answer, index.slots().project(answer));
     }
 
     //add answer with specific index
     public boolean add(ConceptMap answer, ConceptMap answerIndex){
-        Index ind = Index.of(answerIndex.vars());
-        if (ind.equals(index)) {
-            return indexedAnswers.put(answerIndex, answer);
+        if (index.vars().equals(answerIndex.vars())) {
+            return add(answer, index.slots().tuple(answerIndex));
         }
         throw new IllegalStateException("Illegal index: " + answerIndex + " indices: " + index);
     }
 
+    private boolean add(ConceptMap answer, AnswerTuple answerIndex){
+        boolean added = indexedAnswers.put(answerIndex, answer);
+        if (added && answers.add(answer)) answerLog.add(answer);
+        return added;
+    }
+
     @Override
     public Stream<ConceptMap> stream() {
-        return getAll().stream();
+        return answerLog.stream();
     }
 
     @Override
     public Iterator<ConceptMap> iterator() {
-        return getAll().iterator();
+        return Collections.unmodifiableList(answerLog).iterator();
     }
 
     @Override
     public boolean isEmpty() {
-        return indexedAnswers.isEmpty();
+        return answers.isEmpty();
+    }
+
+    /**
+     * @return cursor positioned at the start of this set
+     */
+    public Cursor cursor() {
+        return new Cursor();
+    }
+
+    /**
+     * @param parent set the answers are propagated from
+     * @param inferred true if inferred answers are propagated
+     * @return cursor over the parent answers marking the answers already propagated to this set
+     */
+    Cursor propagationCursor(IndexedAnswerSet parent, boolean inferred) {
+        return propagationCursors.computeIfAbsent(new Pair<>(parent, inferred), key -> parent.cursor());
+    }
+
+    /**
+     * Position in the answers of the set, allowing to fetch only the answers added since the cursor was last advanced.
+     * Removing answers from the set rewinds its cursors to the start.
+     */
+    public class Cursor {
+        private int position = 0;
+        private int removalCount = removals;
+
+        /**
+         * Moves the cursor to the end of the set.
+         * @return answers added since the cursor was last advanced
+         */
+        public List<ConceptMap> advance() {
+            if (removalCount != removals) {
+                position = 0;
+                removalCount = removals;
+            }
+            //NB: we copy so that the set can be modified while the answers are consumed
+            List<ConceptMap> added = new ArrayList<>(answerLog.subList(position, answerLog.size()));
+            position = answerLog.size();
+            return added;
+        }
     }
 }
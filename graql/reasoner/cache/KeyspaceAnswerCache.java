@@ -0,0 +1,227 @@
+/*
+ * Copyright (C) 2020 Grakn Labs
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ */
+
+package grakn.core.graql.reasoner.cache;
+
+import grakn.core.concept.answer.ConceptMap;
+import grakn.core.concept.answer.Explanation;
+import grakn.core.graql.reasoner.explanation.RuleExplanation;
+import grakn.core.kb.concept.api.Concept;
+import grakn.core.kb.concept.api.ConceptId;
+import grakn.core.kb.concept.api.Label;
+import graql.lang.statement.Variable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.Nullable;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Keyspace-scoped cache of complete answer sets of atomic queries, shared between the transactions of a keyspace.
+ *
+ * Entries are recorded by read transactions once the resolution of a query completes and are keyed by the query pattern.
+ * As concepts are bound to the transaction that fetched them, answers are held as concept ids together with the label
+ * of the rule that inferred them, if any. Transactions reading the cache rehydrate them into concepts.
+ *
+ * Each entry remembers the types it depends on - the types of the query atoms and of the answer concepts.
+ * Committing transactions invalidate the entries depending on the types they modified, including the types inferred
+ * from them via rules. Schema modifications invalidate all entries.
+ *
+ * Every invalidation bumps the cache epoch. Entries are only recorded if the epoch has not changed since the recording
+ * transaction was opened, so that answers computed concurrently with a commit never outlive its invalidation.
+ *
+ * The cache is bounded by the total number of answers it holds, least recently used entries are evicted first.
+ */
+public class KeyspaceAnswerCache {
+
+    private static final Logger LOG = LoggerFactory.getLogger(KeyspaceAnswerCache.class);
+
+    private final long capacity;
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long weight = 0;
+    private long epoch = 0;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * @param capacity maximum number of answers held by the cache
+     */
+    public KeyspaceAnswerCache(long capacity) {
+        this.capacity = capacity;
+    }
+
+    /**
+     * @return current epoch of the cache, to be provided when recording entries
+     */
+    public synchronized long epoch() {
+        return epoch;
+    }
+
+    /**
+     * @param key key of the query of interest
+     * @return complete answer set of the query if cached, null otherwise
+     */
+    @Nullable
+    public synchronized Entry get(String key) {
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            misses.increment();
+        } else {
+            hits.increment();
+            LOG.trace("Keyspace answer cache hit: {}", key);
+        }
+        return entry;
+    }
+
+    /**
+     * @param key   key of the query the entry answers
+     * @param entry complete answer set of the query
+     * @param epoch cache epoch observed when the recording transaction was opened
+     * @return true if the entry was recorded, false if the cache was invalidated in the meantime or the entry doesn't fit
+     */
+    public synchronized boolean record(String key, Entry entry, long epoch) {
+        if (epoch != this.epoch || entry.weight() > capacity) return false;
+        Entry previous = entries.put(key, entry);
+        if (previous != null) weight -= previous.weight();
+        weight += entry.weight();
+
+        Iterator<Entry> lruIterator = entries.values().iterator();
+        while (weight > capacity && lruIterator.hasNext()) {
+            weight -= lruIterator.next().weight();
+            lruIterator.remove();
+            evictions.increment();
+        }
+        return true;
+    }
+
+    /**
+     * Invalidate the entries depending on any of the provided types.
+     *
+     * @param types labels of modified types, including the types dependent on them
+     */
+    public synchronized void invalidate(Set<Label> types) {
+        epoch++;
+        Iterator<Entry> iterator = entries.values().iterator();
+        while (iterator.hasNext()) {
+            Entry entry = iterator.next();
+            if (!Collections.disjoint(entry.dependencies(), types)) {
+                weight -= entry.weight();
+                iterator.remove();
+                invalidations.increment();
+            }
+        }
+    }
+
+    /**
+     * Invalidate all entries.
+     */
+    public synchronized void invalidateAll() {
+        epoch++;
+        invalidations.add(entries.size());
+        entries.clear();
+        weight = 0;
+    }
+
+    public synchronized int size() { return entries.size(); }
+
+    public long hits() { return hits.sum(); }
+
+    public long misses() { return misses.sum(); }
+
+    public long invalidations() { return invalidations.sum(); }
+
+    public long evictions() { return evictions.sum(); }
+
+    @Override
+    public String toString() {
+        return "KeyspaceAnswerCache{entries=" + size() + ", hits=" + hits() + ", misses=" + misses() +
+                ", invalidations=" + invalidations() + ", evictions=" + evictions() + "}";
+    }
+
+    /**
+     * Complete answer set of a query together with the types the answers depend on.
+     */
+    public static class Entry {
+        private final List<CachedAnswer> answers;
+        private final Set<Label> dependencies;
+
+        public Entry(List<CachedAnswer> answers, Set<Label> dependencies) {
+            this.answers = Collections.unmodifiableList(answers);
+            this.dependencies = Collections.unmodifiableSet(dependencies);
+        }
+
+        public List<CachedAnswer> answers() { return answers; }
+
+        public Set<Label> dependencies() { return dependencies; }
+
+        //NB: an empty answer set still takes a slot
+        private long weight() { return answers.size() + 1; }
+    }
+
+    /**
+     * Transaction-independent representation of an answer.
+     */
+    public static class CachedAnswer {
+        private final Map<Variable, ConceptId> ids;
+        private final Label rule;
+
+        /**
+         * @param ids  ids of the answer concepts
+         * @param rule label of the rule that inferred the answer, null if the answer was looked up
+         */
+        public CachedAnswer(Map<Variable, ConceptId> ids, @Nullable Label rule) {
+            this.ids = Collections.unmodifiableMap(ids);
+            this.rule = rule;
+        }
+
+        /**
+         * @param answer answer to convert
+         * @return transaction-independent representation of the answer, null if it can't be represented
+         */
+        @Nullable
+        public static CachedAnswer of(ConceptMap answer) {
+            Explanation explanation = answer.explanation();
+            if (!explanation.isLookupExplanation() && !explanation.isRuleExplanation()) return null;
+
+            Map<Variable, ConceptId> ids = new HashMap<>();
+            for (Map.Entry<Variable, Concept> e : answer.map().entrySet()) {
+                Concept concept = e.getValue();
+                //ids of inferred concepts are meaningless outside of the transaction that inferred them
+                if (concept.isThing() && concept.asThing().isInferred()) return null;
+                ids.put(e.getKey(), concept.id());
+            }
+            Label rule = explanation.isRuleExplanation() ? ((RuleExplanation) explanation).getRule().label() : null;
+            return new CachedAnswer(ids, rule);
+        }
+
+        public Map<Variable, ConceptId> ids() { return ids; }
+
+        @Nullable
+        public Label rule() { return rule; }
+    }
+}
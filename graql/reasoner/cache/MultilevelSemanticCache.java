@@ -20,24 +20,54 @@ package grakn.core.graql.reasoner.cache;
 
 import com.google.common.base.Equivalence;
 import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableList;
 import grakn.common.util.Pair;
 import grakn.core.concept.answer.ConceptMap;
+import grakn.core.concept.answer.PatternProvenance;
+import grakn.core.concept.answer.Explanation;
+import grakn.core.graql.reasoner.atom.Atom;
+import grakn.core.graql.reasoner.cache.KeyspaceAnswerCache.CachedAnswer;
+import grakn.core.graql.reasoner.explanation.LookupExplanation;
+import grakn.core.graql.reasoner.explanation.RuleExplanation;
 import grakn.core.graql.reasoner.query.ReasonerAtomicQuery;
+import grakn.core.graql.reasoner.query.ReasonerQueryFactory;
+import grakn.core.graql.reasoner.query.ReasonerQueryImpl;
+import grakn.core.graql.reasoner.query.ResolvableQuery;
 import grakn.core.graql.reasoner.unifier.UnifierType;
+import grakn.core.kb.concept.api.Concept;
+import grakn.core.kb.concept.api.ConceptId;
+import grakn.core.kb.concept.api.Label;
+import grakn.core.kb.concept.api.Rule;
+import grakn.core.kb.concept.api.SchemaConcept;
+import grakn.core.kb.concept.manager.ConceptManager;
 import grakn.core.kb.graql.executor.ExecutorFactory;
 import grakn.core.kb.graql.executor.TraversalExecutor;
 import grakn.core.kb.graql.planning.gremlin.TraversalPlanFactory;
 import grakn.core.kb.graql.reasoner.cache.CacheEntry;
 import grakn.core.kb.graql.reasoner.unifier.MultiUnifier;
 import grakn.core.kb.graql.reasoner.unifier.Unifier;
+import graql.lang.pattern.Conjunction;
+import graql.lang.statement.Statement;
 import graql.lang.statement.Variable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
+import java.util.function.Supplier;
 import java.util.stream.Stream;
 
+import static java.util.stream.Collectors.toCollection;
+import static java.util.stream.Collectors.toList;
+import static java.util.stream.Collectors.toSet;
+
 /**
  *
  * Implementation of SemanticCache using ReasonerQueryEquivalence#StructuralEquivalence
@@ -48,8 +78,60 @@ public class MultilevelSemanticCache extends SemanticCache<Equivalence.Wrapper<R
 
     private static final Logger LOG = LoggerFactory.getLogger(MultilevelSemanticCache.class);
 
+    private final KeyspaceAnswerCache sharedCache;
+    private final ParallelSubGoalResolver parallelResolver;
+    private final ConceptManager conceptManager;
+    private final long sharedCacheEpoch;
+    private final ReasonerMemo reasonerMemo;
+    private final long reasonerMemoEpoch;
+    private final Set<ReasonerAtomicQuery> sharedQueries = new HashSet<>();
+    private boolean sharedCacheDetached = false;
+
     public MultilevelSemanticCache(TraversalPlanFactory traversalPlanFactory, TraversalExecutor traversalExecutor) {
+        this(traversalPlanFactory, traversalExecutor, null, null, null, null);
+    }
+
+    /**
+     * @param sharedCache      keyspace answer cache to fetch complete answer sets from and record them to, null if not used
+     * @param parallelResolver resolver of independent sub goals in worker transactions, null if sub goals are resolved sequentially
+     * @param conceptManager   concept manager used to rehydrate answers of the keyspace answer cache and parallel resolution
+     * @param reasonerMemo     keyspace memo of unifiers, resolution plans and rule applicability, null if not used
+     */
+    public MultilevelSemanticCache(TraversalPlanFactory traversalPlanFactory, TraversalExecutor traversalExecutor,
+                                   @Nullable KeyspaceAnswerCache sharedCache, @Nullable ParallelSubGoalResolver parallelResolver,
+                                   @Nullable ConceptManager conceptManager, @Nullable ReasonerMemo reasonerMemo) {
         super(traversalPlanFactory, traversalExecutor);
+        this.sharedCache = sharedCache;
+        this.parallelResolver = parallelResolver;
+        this.conceptManager = conceptManager;
+        this.sharedCacheEpoch = sharedCache != null ? sharedCache.epoch() : 0;
+        this.reasonerMemo = reasonerMemo;
+        this.reasonerMemoEpoch = reasonerMemo != null ? reasonerMemo.epoch() : 0;
+    }
+
+    /**
+     * @return multi-unifier between the queries, memoised in the keyspace reasoner memo if used
+     */
+    public MultiUnifier multiUnifier(ReasonerAtomicQuery child, ReasonerAtomicQuery parent, UnifierType unifierType,
+                                     Supplier<MultiUnifier> compute) {
+        if (reasonerMemo == null) return compute.get();
+        return reasonerMemo.multiUnifier(child, parent, unifierType, reasonerMemoEpoch, compute);
+    }
+
+    /**
+     * @return atom-level resolution plan of the query, memoised in the keyspace reasoner memo if used
+     */
+    public ImmutableList<Atom> resolutionPlan(ReasonerQueryImpl query, Supplier<ImmutableList<Atom>> compute) {
+        if (reasonerMemo == null) return compute.get();
+        return reasonerMemo.resolutionPlan(query, reasonerMemoEpoch, compute);
+    }
+
+    /**
+     * @return applicability of the rule to the atom, memoised in the keyspace reasoner memo if used
+     */
+    public boolean isRuleApplicable(Atom atom, Label rule, Supplier<Boolean> compute) {
+        if (reasonerMemo == null) return compute.get();
+        return reasonerMemo.isRuleApplicable(atom, rule, reasonerMemoEpoch, compute);
     }
 
     @Override public UnifierType unifierType() { return UnifierType.STRUCTURAL;}
@@ -89,9 +171,9 @@ public class MultilevelSemanticCache extends SemanticCache<Equivalence.Wrapper<R
         Set<Pair<Unifier, SemanticDifference>> parentToChildUnifierDelta = parent.getMultiUnifierWithSemanticDiff(child);
         Set<Variable> childVars = child.getVarNames();
         ConceptMap childPartialSub = child.getRoleSubstitution();
-        Set<ConceptMap> newAnswers = new HashSet<>();
-        
-        parentAnswers.getAll().stream()
+
+        //only the parent answers added since the last propagation to the child need propagating
+        long newAnswers = childAnswers.propagationCursor(parentAnswers, propagateInferred).advance().stream()
                 .filter(parentAns -> propagateInferred || parentAns.explanation().isLookupExplanation())
                 .flatMap(parentAns -> parentToChildUnifierDelta.stream()
                         .map(unifierDelta -> unifierDelta.second().propagateAnswer(parentAns, childPartialSub, childVars, unifierDelta.first()))
@@ -99,11 +181,11 @@ public class MultilevelSemanticCache extends SemanticCache<Equivalence.Wrapper<R
                 .filter(ans -> !ans.isEmpty())
                 .peek(ans -> validateAnswer(ans, child, childVars))
                 .filter(childAnswers::add)
-                .forEach(newAnswers::add);
+                .count();
 
         LOG.trace("Parent {} answers propagated to child {}: {}", parent, child, newAnswers);
 
-        return !newAnswers.isEmpty();
+        return newAnswers > 0;
     }
 
     @Override
@@ -119,11 +201,168 @@ public class MultilevelSemanticCache extends SemanticCache<Equivalence.Wrapper<R
                         .apply(answerIndex)
                         .flatMap(index -> answers.get(index).stream())
                         .flatMap(multiUnifier::apply)
-                .map(ans -> ans.withPattern(query.withSubstitution(ans).getPattern())),
+                .map(ans -> ans.withProvenance(PatternProvenance.of(query.getPattern(), ans.map()))),
                 multiUnifier
         );
     }
 
+    @Override
+    public Pair<Stream<ConceptMap>, MultiUnifier> getAnswerStreamWithUnifier(ReasonerAtomicQuery query) {
+        if (sharedCacheEnabled() && !isComplete(query)) fetchSharedAnswers(query);
+        return super.getAnswerStreamWithUnifier(query);
+    }
+
+    @Override
+    public void clear() {
+        super.clear();
+        sharedQueries.clear();
+    }
+
+    /**
+     * Resolves the rule-resolvable atoms of the query as independent atomic sub goals in parallel worker transactions.
+     * The complete answer sets obtained this way are recorded in this cache, so the subsequent resolution of the query
+     * doesn't apply rules to them.
+     *
+     * @param query query about to be resolved
+     */
+    public void resolveSubGoalsInParallel(ResolvableQuery query) {
+        if (parallelResolver == null || sharedCacheDetached || parallelResolver.isWorkerThread()) return;
+
+        ReasonerQueryFactory queryFactory = query.context().queryFactory();
+        List<ReasonerAtomicQuery> subGoals = query.selectAtoms()
+                .filter(Atom::isRuleResolvable)
+                .map(queryFactory::atomic)
+                .filter(q -> !isComplete(q))
+                .distinct()
+                .collect(toList());
+        //a single sub goal is resolved faster in this transaction
+        if (subGoals.size() < 2) return;
+
+        Map<Conjunction<Statement>, List<CachedAnswer>> answers = parallelResolver.resolve(
+                subGoals.stream().map(ReasonerAtomicQuery::getPattern).collect(toList()));
+        subGoals.forEach(subGoal -> {
+            List<CachedAnswer> subGoalAnswers = answers.get(subGoal.getPattern());
+            if (subGoalAnswers != null) addCompleteAnswers(subGoal, subGoalAnswers);
+        });
+    }
+
+    /**
+     * @return true if any of the cached answers were fetched from the keyspace answer cache or resolved by parallel workers
+     */
+    public boolean containsSharedAnswers() {
+        return !sharedQueries.isEmpty();
+    }
+
+    /**
+     * Stop using the keyspace answer cache and parallel workers and clear this cache so that all answers are resolved locally.
+     * Answers fetched from the keyspace answer cache or parallel workers do not carry the answers they were derived from,
+     * so this is needed before explanations can be reconstructed.
+     */
+    public void detachSharedCache() {
+        sharedCacheDetached = true;
+        clear();
+    }
+
+    /**
+     * Record complete answer sets of the provided queries in the keyspace answer cache.
+     *
+     * @param queries queries whose resolution completed
+     */
+    public void shareAnswers(Set<ReasonerAtomicQuery> queries) {
+        if (!sharedCacheEnabled()) return;
+        queries.stream()
+                .filter(this::isComplete)
+                .filter(q -> !sharedQueries.contains(q))
+                .forEach(this::shareAnswers);
+    }
+
+    private boolean sharedCacheEnabled() {
+        return sharedCache != null && !sharedCacheDetached;
+    }
+
+    /**
+     * @param query of interest
+     * @return key of the query in the keyspace answer cache, null if the query can't be shared
+     */
+    @Nullable
+    private static String sharedKey(ReasonerAtomicQuery query) {
+        if (query.getAtom().getSchemaConcept() == null) return null;
+        return query.getPattern().toString();
+    }
+
+    private void shareAnswers(ReasonerAtomicQuery query) {
+        String key = sharedKey(query);
+        if (key == null) return;
+        //ids of inferred concepts are meaningless outside of this transaction
+        if (query.getSubstitution().concepts().stream().anyMatch(c -> c.isThing() && c.asThing().isInferred())) return;
+
+        Set<Label> dependencies = query.getAtoms(Atom.class)
+                .map(Atom::getSchemaConcept)
+                .filter(Objects::nonNull)
+                .map(SchemaConcept::label)
+                .collect(toCollection(HashSet::new));
+        List<CachedAnswer> answers = new ArrayList<>();
+        for (ConceptMap answer : getAnswerStream(query).collect(toSet())) {
+            CachedAnswer cachedAnswer = CachedAnswer.of(answer);
+            if (cachedAnswer == null) return;
+            answer.concepts().stream()
+                    .filter(Concept::isThing)
+                    .forEach(concept -> dependencies.add(concept.asThing().type().label()));
+            answers.add(cachedAnswer);
+        }
+        boolean recorded = sharedCache.record(key, new KeyspaceAnswerCache.Entry(answers, dependencies), sharedCacheEpoch);
+        LOG.trace("Keyspace answer cache record: {} with {} answers, recorded: {}", query, answers.size(), recorded);
+    }
+
+    private void fetchSharedAnswers(ReasonerAtomicQuery query) {
+        String key = sharedKey(query);
+        if (key == null) return;
+        KeyspaceAnswerCache.Entry entry = sharedCache.get(key);
+        if (entry == null) return;
+        addCompleteAnswers(query, entry.answers());
+    }
+
+    /**
+     * Records the complete answer set of the query obtained outside of this transaction.
+     */
+    private void addCompleteAnswers(ReasonerAtomicQuery query, Collection<CachedAnswer> cachedAnswers) {
+        Set<ConceptMap> answers = new HashSet<>();
+        for (CachedAnswer cachedAnswer : cachedAnswers) {
+            ConceptMap answer = rehydrate(query, cachedAnswer);
+            //concepts were removed in the meantime, the answers are stale
+            if (answer == null) return;
+            answers.add(answer);
+        }
+
+        if (getEntry(query) == null) {
+            addEntry(createEntry(query, answers));
+        } else {
+            answers.forEach(answer -> record(query, answer));
+        }
+        ackCompleteness(query);
+        sharedQueries.add(query);
+    }
+
+    @Nullable
+    private ConceptMap rehydrate(ReasonerAtomicQuery query, CachedAnswer cachedAnswer) {
+        Map<Variable, Concept> concepts = new HashMap<>();
+        for (Map.Entry<Variable, ConceptId> e : cachedAnswer.ids().entrySet()) {
+            Concept concept = conceptManager.getConcept(e.getValue());
+            if (concept == null) return null;
+            concepts.put(e.getKey(), concept);
+        }
+
+        Explanation explanation;
+        if (cachedAnswer.rule() == null) {
+            explanation = new LookupExplanation();
+        } else {
+            Rule rule = conceptManager.getSchemaConcept(cachedAnswer.rule());
+            if (rule == null) return null;
+            explanation = new RuleExplanation(rule);
+        }
+        return ConceptMap.fromProvenance(concepts, explanation, PatternProvenance.of(query.getPattern(), concepts));
+    }
+
     @Override
     public boolean answersQuery(ReasonerAtomicQuery query) {
         CacheEntry<ReasonerAtomicQuery, IndexedAnswerSet> entry = getEntry(query);
@@ -0,0 +1,99 @@
+/*
+ * Copyright (C) 2020 Grakn Labs
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ */
+
+package grakn.core.graql.reasoner.cache;
+
+import grakn.core.graql.reasoner.cache.KeyspaceAnswerCache.CachedAnswer;
+import graql.lang.pattern.Conjunction;
+import graql.lang.statement.Statement;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.Nullable;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * Resolves independent sub goals of a query concurrently on a bounded fork-join pool.
+ *
+ * Transactions are bound to the thread that opened them, so each sub goal is resolved by a worker in its own read
+ * transaction and the answers are returned in their transaction-independent form, to be rehydrated by the transaction
+ * that requested them. Sub goals whose answers contain inferred concepts can't be transferred and are resolved by
+ * the requesting transaction as usual.
+ */
+public class ParallelSubGoalResolver {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ParallelSubGoalResolver.class);
+
+    /**
+     * Resolves a sub goal in a new read transaction of the keyspace.
+     */
+    public interface WorkerResolver {
+        /**
+         * @param pattern pattern of the atomic query to resolve
+         * @return complete answer set of the query, null if the answers can't be represented outside of the worker transaction
+         */
+        @Nullable
+        List<CachedAnswer> resolve(Conjunction<Statement> pattern);
+    }
+
+    private final ForkJoinPool pool;
+    private final WorkerResolver workerResolver;
+
+    public ParallelSubGoalResolver(ForkJoinPool pool, WorkerResolver workerResolver) {
+        this.pool = pool;
+        this.workerResolver = workerResolver;
+    }
+
+    /**
+     * @return true if called from a worker of this resolver, sub goals of worker transactions are not resolved in parallel
+     */
+    public boolean isWorkerThread() {
+        return ForkJoinTask.getPool() == pool;
+    }
+
+    /**
+     * Resolves the provided patterns concurrently and waits for all of them to complete.
+     * @param patterns patterns of atomic queries to resolve
+     * @return map from patterns to their complete answer sets, patterns that couldn't be resolved by the workers are absent
+     */
+    public Map<Conjunction<Statement>, List<CachedAnswer>> resolve(List<Conjunction<Statement>> patterns) {
+        Map<Conjunction<Statement>, ForkJoinTask<List<CachedAnswer>>> tasks = new HashMap<>();
+        patterns.forEach(pattern -> tasks.put(pattern, pool.submit(() -> workerResolver.resolve(pattern))));
+
+        Map<Conjunction<Statement>, List<CachedAnswer>> answers = new HashMap<>();
+        for (Map.Entry<Conjunction<Statement>, ForkJoinTask<List<CachedAnswer>>> task : tasks.entrySet()) {
+            try {
+                List<CachedAnswer> taskAnswers = task.getValue().get();
+                if (taskAnswers != null) answers.put(task.getKey(), taskAnswers);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                tasks.values().forEach(t -> t.cancel(true));
+                return answers;
+            } catch (ExecutionException e) {
+                LOG.debug("Parallel resolution of {} failed, it will be resolved sequentially", task.getKey(), e.getCause());
+            }
+        }
+        LOG.debug("Resolved {} out of {} sub goals in parallel", answers.size(), patterns.size());
+        return answers;
+    }
+}
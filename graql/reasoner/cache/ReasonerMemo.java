@@ -0,0 +1,250 @@
+/*
+ * Copyright (C) 2020 Grakn Labs
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ */
+package grakn.core.graql.reasoner.cache;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSetMultimap;
+import grakn.core.graql.reasoner.atom.Atom;
+import grakn.core.graql.reasoner.query.ReasonerAtomicQuery;
+import grakn.core.graql.reasoner.query.ReasonerQueryImpl;
+import grakn.core.graql.reasoner.unifier.MultiUnifierImpl;
+import grakn.core.graql.reasoner.unifier.UnifierImpl;
+import grakn.core.graql.reasoner.unifier.UnifierType;
+import grakn.core.kb.concept.api.Label;
+import grakn.core.kb.graql.reasoner.unifier.MultiUnifier;
+import grakn.core.kb.graql.reasoner.unifier.Unifier;
+import graql.lang.statement.Variable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.Nullable;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Keyspace-scoped memo of the schema-dependent structures the reasoner computes for queries, shared between
+ * the transactions of a keyspace:
+ * - multi-unifiers between atomic queries,
+ * - atom-level resolution plans,
+ * - applicability of rules to atoms.
+ *
+ * Entries are keyed by the CanonicalQuery keys of the queries involved and hold variables in their canonical form,
+ * so that an entry computed for a query is reused for any query equal to it up to variable renaming.
+ * Resolution plans are keyed with the ids and values of the query abstracted, so that a plan is reused for
+ * all queries differing only in the concepts they refer to. Unifiers and rule applicability depend on the ids
+ * and values, hence their keys also hold the parameters of the queries involved.
+ *
+ * Committed schema modifications invalidate all entries. As with the KeyspaceAnswerCache, every invalidation bumps
+ * the memo epoch and entries are only recorded if the epoch has not changed since the recording transaction was opened.
+ *
+ * Each kind of entry is bounded by the memo capacity, least recently used entries are evicted first.
+ */
+public class ReasonerMemo {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ReasonerMemo.class);
+
+    private final Map<List<Object>, Set<ImmutableSetMultimap<String, String>>> unifiers;
+    private final Map<List<Object>, List<List<Object>>> plans;
+    private final Map<List<Object>, Boolean> ruleApplicability;
+    private long epoch = 0;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * @param capacity maximum number of entries of each kind held by the memo
+     */
+    public ReasonerMemo(long capacity) {
+        this.unifiers = lruMap(capacity);
+        this.plans = lruMap(capacity);
+        this.ruleApplicability = lruMap(capacity);
+    }
+
+    private static <K, V> Map<K, V> lruMap(long capacity) {
+        return new LinkedHashMap<K, V>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    /**
+     * @return current epoch of the memo, to be provided when looking up entries
+     */
+    public synchronized long epoch() {
+        return epoch;
+    }
+
+    /**
+     * Invalidate all entries.
+     */
+    public synchronized void invalidateAll() {
+        epoch++;
+        unifiers.clear();
+        plans.clear();
+        ruleApplicability.clear();
+    }
+
+    /**
+     * @param child       query unified with the parent
+     * @param parent      query the child is unified with
+     * @param unifierType type of unifier
+     * @param epoch       memo epoch observed when the transaction was opened
+     * @param compute     computation of the multi-unifier
+     * @return memoised or computed multi-unifier between the child and the parent
+     */
+    public MultiUnifier multiUnifier(ReasonerAtomicQuery child, ReasonerAtomicQuery parent, UnifierType unifierType,
+                                     long epoch, Supplier<MultiUnifier> compute) {
+        CanonicalQuery canonicalChild = child.canonical();
+        CanonicalQuery canonicalParent = parent.canonical();
+        if (canonicalChild == null || canonicalParent == null) return compute.get();
+        List<Object> key = Arrays.asList(
+                canonicalChild.key(), canonicalChild.parameters(),
+                canonicalParent.key(), canonicalParent.parameters(),
+                unifierType);
+
+        Set<ImmutableSetMultimap<String, String>> memoised = get(unifiers, key);
+        if (memoised != null) {
+            Set<Unifier> unifierSet = new HashSet<>();
+            for (ImmutableSetMultimap<String, String> canonicalUnifier : memoised) {
+                ImmutableSetMultimap.Builder<Variable, Variable> unifier = ImmutableSetMultimap.builder();
+                for (Map.Entry<String, String> e : canonicalUnifier.entries()) {
+                    Variable childVar = canonicalChild.variable(e.getKey());
+                    Variable parentVar = canonicalParent.variable(e.getValue());
+                    if (childVar == null || parentVar == null) return compute.get();
+                    unifier.put(childVar, parentVar);
+                }
+                unifierSet.add(new UnifierImpl(unifier.build()));
+            }
+            return new MultiUnifierImpl(unifierSet);
+        }
+
+        MultiUnifier multiUnifier = compute.get();
+        Set<ImmutableSetMultimap<String, String>> canonicalUnifiers = new HashSet<>();
+        for (Unifier unifier : multiUnifier.unifiers()) {
+            ImmutableSetMultimap.Builder<String, String> canonicalUnifier = ImmutableSetMultimap.builder();
+            for (Map.Entry<Variable, Variable> e : unifier.mappings()) {
+                String childVar = canonicalChild.canonicalVariable(e.getKey());
+                String parentVar = canonicalParent.canonicalVariable(e.getValue());
+                //variables outside of the query patterns can't be translated
+                if (childVar == null || parentVar == null) return multiUnifier;
+                canonicalUnifier.put(childVar, parentVar);
+            }
+            canonicalUnifiers.add(canonicalUnifier.build());
+        }
+        record(unifiers, key, canonicalUnifiers, epoch);
+        return multiUnifier;
+    }
+
+    /**
+     * @param query   query to be planned
+     * @param epoch   memo epoch observed when the transaction was opened
+     * @param compute computation of the plan
+     * @return memoised or computed atom-level resolution plan of the query
+     */
+    public ImmutableList<Atom> resolutionPlan(ReasonerQueryImpl query, long epoch, Supplier<ImmutableList<Atom>> compute) {
+        CanonicalQuery canonicalQuery = query.canonical();
+        if (canonicalQuery == null) return compute.get();
+        List<Object> key = canonicalQuery.key();
+
+        List<List<Object>> memoised = get(plans, key);
+        if (memoised != null) {
+            Map<List<Object>, Atom> atoms = new HashMap<>();
+            query.selectAtoms().forEach(atom -> atoms.put(canonicalQuery.canonical(atom), atom));
+            ImmutableList.Builder<Atom> plan = ImmutableList.builder();
+            for (List<Object> canonicalAtom : memoised) {
+                Atom atom = atoms.get(canonicalAtom);
+                if (atom == null) return compute.get();
+                plan.add(atom);
+            }
+            return plan.build();
+        }
+
+        ImmutableList<Atom> plan = compute.get();
+        ImmutableList.Builder<List<Object>> canonicalPlan = ImmutableList.builder();
+        Set<List<Object>> canonicalAtoms = new HashSet<>();
+        for (Atom atom : plan) {
+            List<Object> canonicalAtom = canonicalQuery.canonical(atom);
+            //atoms indistinguishable in their canonical form can't be told apart when the plan is reused
+            if (canonicalAtom == null || !canonicalAtoms.add(canonicalAtom)) return plan;
+            canonicalPlan.add(canonicalAtom);
+        }
+        record(plans, key, canonicalPlan.build(), epoch);
+        return plan;
+    }
+
+    /**
+     * @param atom    atom of interest
+     * @param rule    label of the rule of interest
+     * @param epoch   memo epoch observed when the transaction was opened
+     * @param compute computation of the applicability
+     * @return memoised or computed applicability of the rule to the atom within its parent query
+     */
+    public boolean isRuleApplicable(Atom atom, Label rule, long epoch, Supplier<Boolean> compute) {
+        if (!(atom.getParentQuery() instanceof ReasonerQueryImpl)) return compute.get();
+        CanonicalQuery canonicalParent = ((ReasonerQueryImpl) atom.getParentQuery()).canonical();
+        if (canonicalParent == null) return compute.get();
+        List<Object> canonicalAtom = canonicalParent.canonical(atom);
+        if (canonicalAtom == null) return compute.get();
+        List<Object> key = Arrays.asList(
+                canonicalParent.key(), canonicalParent.parameters(),
+                canonicalAtom, canonicalParent.parameters(atom),
+                rule);
+
+        Boolean memoised = get(ruleApplicability, key);
+        if (memoised != null) return memoised;
+        boolean applicable = compute.get();
+        record(ruleApplicability, key, applicable, epoch);
+        return applicable;
+    }
+
+    @Nullable
+    private synchronized <V> V get(Map<List<Object>, V> entries, List<Object> key) {
+        V entry = entries.get(key);
+        if (entry == null) {
+            misses.increment();
+        } else {
+            hits.increment();
+            LOG.trace("Reasoner memo hit: {}", key);
+        }
+        return entry;
+    }
+
+    private synchronized <V> void record(Map<List<Object>, V> entries, List<Object> key, V entry, long epoch) {
+        if (epoch == this.epoch) entries.put(key, entry);
+    }
+
+    public synchronized int size() { return unifiers.size() + plans.size() + ruleApplicability.size(); }
+
+    public long hits() { return hits.sum(); }
+
+    public long misses() { return misses.sum(); }
+
+    @Override
+    public String toString() {
+        return "ReasonerMemo{entries=" + size() + ", hits=" + hits() + ", misses=" + misses() + "}";
+    }
+}
@@ -99,7 +99,8 @@ public abstract class SemanticCache<
     }
 
     /**
-     * Propagate ALL answers between entries provided they satisfy the corresponding semantic difference.
+     * Propagate answers between entries provided they satisfy the corresponding semantic difference.
+     * Only the parent answers added since the previous propagation between the entries need to be propagated.
      *
      * @param parentEntry parent entry we want to propagate answers from
      * @param childEntry cache entry we want to propagate answers to
@@ -112,7 +113,7 @@ public abstract class SemanticCache<
 
     abstract CacheEntry<ReasonerAtomicQuery, SE> createEntry(ReasonerAtomicQuery query, Set<ConceptMap> answers);
 
-    private CacheEntry<ReasonerAtomicQuery, SE> addEntry(CacheEntry<ReasonerAtomicQuery, SE> entry){
+    CacheEntry<ReasonerAtomicQuery, SE> addEntry(CacheEntry<ReasonerAtomicQuery, SE> entry){
         CacheEntry<ReasonerAtomicQuery, SE> cacheEntry = putEntry(entry);
         ReasonerAtomicQuery query = cacheEntry.query();
         updateFamily(query);
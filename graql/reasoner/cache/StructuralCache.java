@@ -20,6 +20,7 @@ package grakn.core.graql.reasoner.cache;
 
 import com.google.common.base.Equivalence;
 import grakn.core.concept.answer.ConceptMap;
+import grakn.core.concept.answer.PatternProvenance;
 import grakn.core.graql.reasoner.explanation.LookupExplanation;
 import grakn.core.graql.reasoner.query.ReasonerQueryEquivalence;
 import grakn.core.graql.reasoner.query.ReasonerQueryImpl;
@@ -78,14 +79,14 @@ public class StructuralCache<Q extends ReasonerQueryImpl>{
 
             return traversalExecutor.traverse(transformedQuery.getPattern(), traversal.transform(idTransform))
                     .map(unifier::apply)
-                    .map(a -> new ConceptMap(a.map(), new LookupExplanation(), query.withSubstitution(a).getPattern()));
+                    .map(a -> ConceptMap.fromProvenance(a.map(), new LookupExplanation(), PatternProvenance.of(query.getPattern(), a.map())));
         }
 
         GraqlTraversal traversal = traversalPlanFactory.createTraversal(query.getPattern());
         structCache.put(structQuery, new CacheEntry<>(query, traversal));
 
         return traversalExecutor.traverse(query.getPattern(), traversal)
-                .map(a -> new ConceptMap(a.map(), new LookupExplanation(), query.withSubstitution(a).getPattern()));
+                .map(a -> ConceptMap.fromProvenance(a.map(), new LookupExplanation(), PatternProvenance.of(query.getPattern(), a.map())));
     }
 
     public void clear(){
@@ -21,15 +21,71 @@ package grakn.core.graql.reasoner.explanation;
 import grakn.core.concept.answer.ConceptMap;
 import grakn.core.concept.answer.Explanation;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.function.Supplier;
 
 /**
  * Explanation class for a join explanation - resulting from merging atoms in a conjunction.
+ *
+ * The partial answers of a join explanation can be supplied lazily, in which case they are computed when first requested.
+ * This way the reasoner doesn't build partial answers of answers that are never explained.
  */
 public class JoinExplanation extends Explanation {
 
+    // partial answers computed on first access, null once computed
+    private Supplier<List<ConceptMap>> lazyAnswers;
+    private volatile List<ConceptMap> partialAnswers;
+
     public JoinExplanation(List<ConceptMap> partialAnswers){
         super(partialAnswers);
+        this.partialAnswers = super.getAnswers();
+    }
+
+    public JoinExplanation(Supplier<List<ConceptMap>> partialAnswers){
+        this.lazyAnswers = partialAnswers;
+    }
+
+    /**
+     * @param left left operand of the join
+     * @param right right operand of the join
+     * @return explanation of the join of the two answers, flattening their join explanations when first requested
+     */
+    public static JoinExplanation of(ConceptMap left, ConceptMap right){
+        return new JoinExplanation(() -> {
+            List<ConceptMap> partialAnswers = new ArrayList<>();
+            addPartialAnswers(left, partialAnswers);
+            addPartialAnswers(right, partialAnswers);
+            return partialAnswers;
+        });
+    }
+
+    private static void addPartialAnswers(ConceptMap answer, List<ConceptMap> partialAnswers){
+        if (answer.explanation().isJoinExplanation()) partialAnswers.addAll(answer.explanation().getAnswers());
+        else partialAnswers.add(answer);
+    }
+
+    @Override
+    public List<ConceptMap> getAnswers(){
+        List<ConceptMap> answers = partialAnswers;
+        if (answers != null) return answers;
+        synchronized (this) {
+            if (partialAnswers == null) {
+                partialAnswers = Collections.unmodifiableList(lazyAnswers.get());
+                lazyAnswers = null;
+            }
+            return partialAnswers;
+        }
+    }
+
+    /**
+     * NB: lazily supplied partial answers are assumed to be non-empty, so that checking for emptiness doesn't compute them
+     */
+    @Override
+    public boolean isEmpty(){
+        List<ConceptMap> answers = partialAnswers;
+        return answers != null && answers.isEmpty();
     }
 
     @Override
@@ -0,0 +1,234 @@
+/*
+ * Copyright (C) 2020 Grakn Labs
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package grakn.core.graql.reasoner.plan;
+
+import com.google.common.base.Equivalence;
+import com.google.common.collect.Sets;
+import com.google.common.math.LongMath;
+import grakn.core.graql.reasoner.CacheCasting;
+import grakn.core.graql.reasoner.ReasoningContext;
+import grakn.core.graql.reasoner.atom.Atom;
+import grakn.core.graql.reasoner.atom.predicate.IdPredicate;
+import grakn.core.graql.reasoner.cache.IndexedAnswerSet;
+import grakn.core.graql.reasoner.cache.MultilevelSemanticCache;
+import grakn.core.graql.reasoner.query.ReasonerAtomicQuery;
+import grakn.core.graql.reasoner.query.ReasonerQueryEquivalence;
+import grakn.core.graql.reasoner.query.ReasonerQueryImpl;
+import grakn.core.graql.reasoner.rule.InferenceRule;
+import grakn.core.kb.concept.api.SchemaConcept;
+import grakn.core.kb.graql.reasoner.cache.CacheEntry;
+import graql.lang.statement.Variable;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Cost model used to order the queries of a ResolutionQueryPlan.
+ *
+ * The number of answers to a query is estimated as:
+ * - the number of cached answers, if the query is atomic and complete in the query cache,
+ * - otherwise the number of persisted answers increased by the number of answers the applicable rules can infer.
+ * Persisted answers are bounded by the smallest instance (ownership for attributes) count of the types of the query
+ * atoms, as recorded in the keyspace statistics. The answers a rule can infer (its fan-out) are bounded by the persisted
+ * answers of its body.
+ *
+ * Queries of a plan are resolved as nested loops, so that a query is resolved once per answer of the queries preceding it.
+ * Each variable bound by the preceding queries or by an id predicate reduces the answers of a query by BOUND_VARIABLE_SELECTIVITY.
+ * Cached answers already account for the id predicates of the query, so those are only applied to estimates from the statistics.
+ * Resolving a query additionally costs RULE_RESOLUTION_COST per applicable rule.
+ */
+public class ResolutionCostModel {
+
+    /**
+     * Estimate of quantities that can't be estimated from the statistics.
+     */
+    public static final long UNKNOWN = Long.MAX_VALUE;
+
+    private static final long BOUND_VARIABLE_SELECTIVITY = 10;
+    private static final long RULE_RESOLUTION_COST = 10;
+
+    private final Map<Equivalence.Wrapper<ReasonerQueryImpl>, Long> answerEstimates = new HashMap<>();
+    private final Map<Equivalence.Wrapper<ReasonerQueryImpl>, Long> applicableRules = new HashMap<>();
+
+    /**
+     * @param query of interest
+     * @return estimated number of answers to the query with no variables other than those of its id predicates bound,
+     * UNKNOWN if it can't be estimated
+     */
+    public long answers(ReasonerQueryImpl query){
+        return answerEstimates.computeIfAbsent(ReasonerQueryEquivalence.Equality.wrap(query), key -> estimateAnswers(query));
+    }
+
+    /**
+     * @param query of interest
+     * @param boundVars variables bound when the query is resolved
+     * @return estimated number of answers to the query per binding of the bound variables
+     */
+    public long answersPerBinding(ReasonerQueryImpl query, Set<Variable> boundVars){
+        long answers = answers(query);
+        if (answers == UNKNOWN) return UNKNOWN;
+        Set<Variable> bound = Sets.difference(Sets.intersection(query.getVarNames(), boundVars), idPredicateVariables(query));
+        return applySelectivity(answers, bound.size());
+    }
+
+    /**
+     * @param query of interest
+     * @param boundVars variables bound when the query is resolved
+     * @return estimated cost of resolving the query once per binding of the bound variables
+     */
+    public long costPerBinding(ReasonerQueryImpl query, Set<Variable> boundVars){
+        long answers = answersPerBinding(query, boundVars);
+        if (answers == UNKNOWN) return UNKNOWN;
+        long rules = applicableRules.computeIfAbsent(ReasonerQueryEquivalence.Equality.wrap(query),
+                key -> query.selectAtoms().mapToLong(atom -> atom.getApplicableRules().count()).sum());
+        return LongMath.saturatedAdd(answers, LongMath.saturatedMultiply(rules, RULE_RESOLUTION_COST));
+    }
+
+    /**
+     * @param plan queries in the order of resolution
+     * @return per query estimates of resolving the queries as nested loops
+     */
+    public List<QueryEstimate> estimate(List<ReasonerQueryImpl> plan){
+        Set<Variable> boundVars = new HashSet<>();
+        long bindings = 1;
+        long totalCost = 0;
+        List<QueryEstimate> estimates = new ArrayList<>();
+        for (ReasonerQueryImpl query : plan) {
+            long answers = answersPerBinding(query, boundVars);
+            long cost = costPerBinding(query, boundVars);
+            totalCost = LongMath.saturatedAdd(totalCost, LongMath.saturatedMultiply(bindings, cost));
+            bindings = LongMath.saturatedMultiply(bindings, answers);
+            estimates.add(new QueryEstimate(query, answers, bindings, totalCost));
+            boundVars.addAll(query.getVarNames());
+        }
+        return estimates;
+    }
+
+    private static Set<Variable> idPredicateVariables(ReasonerQueryImpl query){
+        return query.getAtoms(IdPredicate.class).map(IdPredicate::getVarName).collect(Collectors.toSet());
+    }
+
+    private static long applySelectivity(long answers, int boundVariables){
+        for (int i = 0; i < boundVariables && answers > 1; i++) answers /= BOUND_VARIABLE_SELECTIVITY;
+        return Math.max(answers, 1);
+    }
+
+    private static long estimateAnswers(ReasonerQueryImpl query){
+        long cachedAnswers = cachedAnswers(query);
+        if (cachedAnswers != UNKNOWN) return cachedAnswers;
+
+        long storedAnswers = storedAnswers(query.context(), query.selectAtoms());
+        if (storedAnswers == UNKNOWN) return UNKNOWN;
+        long inferredAnswers = query.selectAtoms()
+                .filter(Atom::isRuleResolvable)
+                .flatMap(Atom::getApplicableRules)
+                .distinct()
+                .mapToLong(rule -> ruleFanOut(query.context(), rule))
+                .reduce(0, LongMath::saturatedAdd);
+        return applySelectivity(LongMath.saturatedAdd(storedAnswers, inferredAnswers), idPredicateVariables(query).size());
+    }
+
+    /**
+     * @return number of answers cached for a complete atomic query, UNKNOWN if the query is not complete
+     */
+    private static long cachedAnswers(ReasonerQueryImpl query){
+        if (!(query instanceof ReasonerAtomicQuery)) return UNKNOWN;
+        MultilevelSemanticCache queryCache = CacheCasting.queryCacheCast(query.context().queryCache());
+        ReasonerAtomicQuery atomicQuery = (ReasonerAtomicQuery) query;
+        if (!queryCache.isComplete(atomicQuery)) return UNKNOWN;
+        CacheEntry<ReasonerAtomicQuery, IndexedAnswerSet> entry = queryCache.getEntry(atomicQuery);
+        return entry != null ? entry.cachedElement().size() : UNKNOWN;
+    }
+
+    /**
+     * @return upper bound of the number of answers a rule can infer
+     */
+    private static long ruleFanOut(ReasoningContext ctx, InferenceRule rule){
+        return storedAnswers(ctx, rule.getBody().selectAtoms());
+    }
+
+    /**
+     * @return upper bound of the number of persisted answers to the conjunction of atoms, UNKNOWN if it can't be estimated
+     */
+    private static long storedAnswers(ReasoningContext ctx, Stream<Atom> atoms){
+        return atoms
+                .mapToLong(atom -> {
+                    SchemaConcept schemaConcept = atom.getSchemaConcept();
+                    if (schemaConcept == null || !schemaConcept.isType()) return UNKNOWN;
+                    return schemaConcept.asType().subs()
+                            .mapToLong(type -> atom.isAttributeAtom() ?
+                                    ctx.keyspaceStatistics().countOwnerships(ctx.conceptManager(), type.label()) :
+                                    ctx.keyspaceStatistics().count(ctx.conceptManager(), type.label()))
+                            .reduce(0, LongMath::saturatedAdd);
+                })
+                .min()
+                .orElse(UNKNOWN);
+    }
+
+    /**
+     * Estimates of a query resolved as part of a plan.
+     */
+    public static class QueryEstimate {
+        private final ReasonerQueryImpl query;
+        private final long answersPerBinding;
+        private final long cumulativeAnswers;
+        private final long cumulativeCost;
+
+        QueryEstimate(ReasonerQueryImpl query, long answersPerBinding, long cumulativeAnswers, long cumulativeCost){
+            this.query = query;
+            this.answersPerBinding = answersPerBinding;
+            this.cumulativeAnswers = cumulativeAnswers;
+            this.cumulativeCost = cumulativeCost;
+        }
+
+        public ReasonerQueryImpl query(){ return query;}
+
+        /**
+         * @return estimated answers of the query per binding of the variables of the preceding queries
+         */
+        public long answersPerBinding(){ return answersPerBinding;}
+
+        /**
+         * @return estimated answers of the plan up to and including the query
+         */
+        public long cumulativeAnswers(){ return cumulativeAnswers;}
+
+        /**
+         * @return estimated cost of resolving the plan up to and including the query
+         */
+        public long cumulativeCost(){ return cumulativeCost;}
+
+        @Override
+        public String toString(){
+            return query + (query.isRuleResolvable()? "*" : "") +
+                    " [answers/binding: " + format(answersPerBinding) +
+                    ", answers: " + format(cumulativeAnswers) +
+                    ", cost: " + format(cumulativeCost) + "]";
+        }
+
+        private static String format(long estimate){
+            return estimate == UNKNOWN ? "?" : String.valueOf(estimate);
+        }
+    }
+}
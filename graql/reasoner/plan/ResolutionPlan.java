@@ -20,6 +20,7 @@ package grakn.core.graql.reasoner.plan;
 
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Sets;
+import grakn.core.graql.reasoner.CacheCasting;
 import grakn.core.graql.reasoner.atom.Atom;
 import grakn.core.graql.reasoner.atom.AtomicBase;
 import grakn.core.graql.reasoner.query.ReasonerQueryImpl;
@@ -46,7 +47,8 @@ public final class ResolutionPlan {
 
     public ResolutionPlan(ReasonerQueryImpl q, TraversalPlanFactory traversalPlanFactory){
         this.query = q;
-        this.plan = GraqlTraversalPlanner.plan(query, traversalPlanFactory);
+        this.plan = CacheCasting.queryCacheCast(q.context().queryCache())
+                .resolutionPlan(q, () -> GraqlTraversalPlanner.plan(q, traversalPlanFactory));
         validatePlan();
     }
 
@@ -20,14 +20,25 @@ package grakn.core.graql.reasoner.plan;
 
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
+import grakn.core.concept.answer.ConceptMap;
 import grakn.core.graql.reasoner.atom.Atom;
+import grakn.core.graql.reasoner.atom.predicate.IdPredicate;
+import grakn.core.graql.reasoner.atom.predicate.VariablePredicate;
 import grakn.core.graql.reasoner.query.ReasonerQueryFactory;
 import grakn.core.graql.reasoner.query.ReasonerQueryImpl;
+import graql.lang.statement.Variable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import java.util.ArrayList;
 import java.util.Comparator;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.Stack;
 import java.util.stream.Collectors;
 
@@ -37,18 +48,36 @@ import java.util.stream.Collectors;
  * <p>
  * Class defining the resolution plan for a given ReasonerQueryImpl at a query level.
  * The plan is constructed using the ResolutionPlan working at an atom level.
+ * The queries are then reordered according to the ResolutionCostModel, so that the queries
+ * with the least estimated resolution cost given the variables bound by the preceding queries are resolved first.
  * </p>
  *
  *
  */
 public class ResolutionQueryPlan {
 
+    private static final Logger LOG = LoggerFactory.getLogger(ResolutionQueryPlan.class);
+
+    /**
+     * Minimum estimated number of left answers for which the hash join is considered at all,
+     * below it materialising both sides does not pay off.
+     */
+    private static final long HASH_JOIN_MIN_ANSWERS = 100;
+
+    /**
+     * Estimated cost of re-resolving the right query for a single left answer, relative to the cost of
+     * fetching and indexing a single answer in the hash join.
+     */
+    private static final long NESTED_LOOP_PROBE_COST = 10;
+
     private final ImmutableList<ReasonerQueryImpl> queryPlan;
+    private final ResolutionCostModel costModel = new ResolutionCostModel();
     private ReasonerQueryFactory reasonerQueryFactory;
 
     public ResolutionQueryPlan(ReasonerQueryFactory reasonerQueryFactory, ReasonerQueryImpl query){
         this.reasonerQueryFactory = reasonerQueryFactory;
         this.queryPlan = queryPlan(query);
+        if (LOG.isDebugEnabled()) LOG.debug("Resolution plan for query {}:\n{}", query, explain());
     }
 
     @Override
@@ -60,6 +89,51 @@ public class ResolutionQueryPlan {
 
     public List<ReasonerQueryImpl> queries(){ return queryPlan;}
 
+    /**
+     * @return the queries of the plan in resolution order together with their estimated answers and cumulative cost
+     */
+    public String explain(){
+        return costModel.estimate(queries()).stream()
+                .map(ResolutionCostModel.QueryEstimate::toString)
+                .collect(Collectors.joining("\n"));
+    }
+
+    /**
+     * Decides the join strategy for the two leading queries of a plan.
+     * A nested-loop join re-resolves the right query for every answer of the left one, whereas a hash join
+     * resolves each query once and joins the answers on their shared variables.
+     * The hash join is chosen if the estimated cost of the nested-loop probes exceeds the cost of materialising both sides.
+     * @param left query resolved first
+     * @param right query to be joined with the answers of the left one
+     * @param sub substitution both queries are resolved with
+     * @return true if the queries should be joined with a hash join
+     */
+    public boolean preferHashJoin(ReasonerQueryImpl left, ReasonerQueryImpl right, ConceptMap sub){
+        if (Sets.intersection(left.getVarNames(), right.getVarNames()).isEmpty()) return false;
+        //NB: variable predicates and schema answers are evaluated as part of the substitution join
+        if (left.requiresSchema() || right.requiresSchema()) return false;
+        if (left.getAtoms(VariablePredicate.class).findFirst().isPresent()
+                || right.getAtoms(VariablePredicate.class).findFirst().isPresent()) return false;
+
+        long leftAnswers = estimateAnswers(left, sub);
+        if (leftAnswers < HASH_JOIN_MIN_ANSWERS || leftAnswers == Long.MAX_VALUE) return false;
+        long rightAnswers = estimateAnswers(right, sub);
+        if (rightAnswers == Long.MAX_VALUE) return false;
+        return leftAnswers + rightAnswers < leftAnswers * NESTED_LOOP_PROBE_COST;
+    }
+
+    /**
+     * Estimates the number of answers to the query with the ResolutionCostModel.
+     * Queries with bound variables are assumed to be selective.
+     * @return upper bound of the number of answers, Long.MAX_VALUE if the number can't be estimated
+     */
+    private long estimateAnswers(ReasonerQueryImpl query, ConceptMap sub){
+        boolean bound = !Sets.intersection(sub.vars(), query.getVarNames()).isEmpty()
+                || query.getAtoms(IdPredicate.class).findFirst().isPresent();
+        if (bound) return 1;
+        return costModel.answers(query);
+    }
+
     /**
      * compute the query resolution plan - list of queries ordered by their cost as computed by the graql traversal planner
      * @return list of prioritised queries
@@ -90,23 +164,34 @@ public class ResolutionQueryPlan {
         return refine? refine(queries) : ImmutableList.copyOf(queries);
     }
 
-    private static List<ReasonerQueryImpl> prioritise(QueryCollectionBase queries){
+    /**
+     * Orders the queries by their estimated cost given the bound variables. Ties are broken structurally,
+     * preferring non-resolvable and atomic queries. Boundlessly disconnected queries always come last.
+     * @param queries to be ordered
+     * @param boundVars variables bound by the queries already in the plan
+     * @return queries in order of priority
+     */
+    private List<ReasonerQueryImpl> prioritise(QueryCollectionBase queries, Set<Variable> boundVars){
+        Map<ReasonerQueryImpl, Long> costs = new IdentityHashMap<>();
+        queries.stream().forEach(q -> costs.put(q, costModel.costPerBinding(q, boundVars)));
         return queries.stream()
                 .sorted(Comparator.comparing(q -> !q.isAtomic()))
                 .sorted(Comparator.comparing(ReasonerQueryImpl::isRuleResolvable))
+                .sorted(Comparator.comparingLong(costs::get))
                 .sorted(Comparator.comparing(ReasonerQueryImpl::isBoundlesslyDisconnected))
                 .collect(Collectors.toCollection(LinkedList::new));
     }
 
-    private static ImmutableList<ReasonerQueryImpl> refine(List<ReasonerQueryImpl> qs){
+    private ImmutableList<ReasonerQueryImpl> refine(List<ReasonerQueryImpl> qs){
         return ImmutableList.copyOf(refinePlan(new QueryList(qs)).toCollection());
     }
 
-    private static QueryList refinePlan(QueryList queries){
+    private QueryList refinePlan(QueryList queries){
         QueryList plan = new QueryList();
+        Set<Variable> boundVars = new HashSet<>();
         Stack<ReasonerQueryImpl> queryStack = new Stack<>();
 
-        Lists.reverse(prioritise(queries)).forEach(queryStack::push);
+        Lists.reverse(prioritise(queries, boundVars)).forEach(queryStack::push);
         while(!plan.containsAll(queries)) {
             ReasonerQueryImpl query = queryStack.pop();
 
@@ -114,7 +199,8 @@ public class ResolutionQueryPlan {
 
             if (!candidates.isEmpty() || queries.size() - plan.size() == 1){
                 plan.add(query);
-                Lists.reverse(prioritise(candidates)).forEach(queryStack::push);
+                boundVars.addAll(query.getVarNames());
+                Lists.reverse(prioritise(candidates, boundVars)).forEach(queryStack::push);
             }
         }
 
@@ -24,6 +24,7 @@ import com.google.common.collect.Iterators;
 import com.google.common.collect.Sets;
 import grakn.common.util.Pair;
 import grakn.core.concept.answer.ConceptMap;
+import grakn.core.concept.answer.PatternProvenance;
 import grakn.core.graql.reasoner.state.PartialAtomicState;
 import grakn.core.kb.graql.executor.TraversalExecutor;
 import grakn.core.graql.reasoner.CacheCasting;
@@ -184,11 +185,15 @@ public class ReasonerAtomicQuery extends ReasonerQueryImpl {
     public MultiUnifier getMultiUnifier(ReasonerQuery p, UnifierType unifierType){
         if (p == this) return MultiUnifierImpl.trivial();
         Preconditions.checkArgument(p instanceof ReasonerAtomicQuery);
+        ReasonerAtomicQuery parent = (ReasonerAtomicQuery) p;
+        return CacheCasting.queryCacheCast(context().queryCache())
+                .multiUnifier(this, parent, unifierType, () -> computeMultiUnifier(parent, unifierType));
+    }
 
+    private MultiUnifier computeMultiUnifier(ReasonerAtomicQuery parent, UnifierType unifierType){
         //NB: this is a defensive check and potentially expensive
-        if (unifierType.equivalence() != null && !unifierType.equivalence().equivalent(p, this)) return MultiUnifierImpl.nonExistent();
+        if (unifierType.equivalence() != null && !unifierType.equivalence().equivalent(parent, this)) return MultiUnifierImpl.nonExistent();
 
-        ReasonerAtomicQuery parent = (ReasonerAtomicQuery) p;
         MultiUnifier multiUnifier = this.getAtom().getMultiUnifier(parent.getAtom(), unifierType);
 
         Set<TypeAtom> childTypes = this.getAtom().getTypeConstraints().collect(Collectors.toSet());
@@ -230,7 +235,7 @@ public class ReasonerAtomicQuery extends ReasonerQueryImpl {
         return this.withSubstitution(answer)
                 .getAtom()
                 .materialise()
-                .map(ans -> new ConceptMap(ans.map(), answer.explanation(), this.withSubstitution(ans).getPattern()));
+                .map(ans -> ConceptMap.fromProvenance(ans.map(), answer.explanation(), PatternProvenance.of(getPattern(), ans.map())));
     }
 
     @Override
@@ -27,6 +27,7 @@ import com.google.common.collect.Multimap;
 import com.google.common.collect.Sets;
 import grakn.common.util.Pair;
 import grakn.core.concept.answer.ConceptMap;
+import grakn.core.concept.answer.PatternProvenance;
 import grakn.core.concept.util.ConceptUtils;
 import grakn.core.kb.graql.executor.TraversalExecutor;
 import grakn.core.graql.reasoner.CacheCasting;
@@ -41,6 +42,7 @@ import grakn.core.graql.reasoner.atom.binary.RelationAtom;
 import grakn.core.graql.reasoner.atom.binary.TypeAtom;
 import grakn.core.graql.reasoner.atom.predicate.IdPredicate;
 import grakn.core.graql.reasoner.atom.predicate.VariablePredicate;
+import grakn.core.graql.reasoner.cache.CanonicalQuery;
 import grakn.core.graql.reasoner.cache.Index;
 import grakn.core.graql.reasoner.cache.MultilevelSemanticCache;
 import grakn.core.graql.reasoner.explanation.JoinExplanation;
@@ -102,6 +104,8 @@ public class ReasonerQueryImpl extends ResolvableQuery {
     private ResolutionPlan resolutionPlan = null;
     private Conjunction<Pattern> pattern = null;
     private Set<Variable> varNames = null;
+    private CanonicalQuery canonicalQuery = null;
+    private boolean canonicalised = false;
 
     /**
      * BUILDER constructor should only be used in the ReasonerQueryFactory because it utilises
@@ -430,6 +434,19 @@ public class ReasonerQueryImpl extends ResolvableQuery {
         return type;
     }
 
+    /**
+     * @return representation of this query identifying it up to variable renaming and parameters,
+     * null if the query has no canonical form
+     */
+    @Nullable
+    public CanonicalQuery canonical(){
+        if (!canonicalised){
+            canonicalQuery = CanonicalQuery.of(this);
+            canonicalised = true;
+        }
+        return canonicalQuery;
+    }
+
     /**
      * @return the resolution plan for this query
      */
@@ -617,7 +634,7 @@ public class ReasonerQueryImpl extends ResolvableQuery {
         return this.selectAtoms()
             .map(at -> at.inferTypes(mergedAnswer.project(at.getVarNames())))
             .map(reasonerQueryFactory::atomic)
-            .map(aq -> new ConceptMap(mergedAnswer.project(aq.getVarNames()).map(), new LookupExplanation(), aq.withSubstitution(mergedAnswer).getPattern()))
+            .map(aq -> ConceptMap.fromProvenance(mergedAnswer.project(aq.getVarNames()).map(), new LookupExplanation(), PatternProvenance.of(aq.getPattern(), mergedAnswer.map())))
             .collect(Collectors.toList());
     }
 
@@ -632,7 +649,7 @@ public class ReasonerQueryImpl extends ResolvableQuery {
             if (fruitless) dbIterator = Collections.emptyIterator();
             else {
                 dbIterator = traversalExecutor.traverse(getPattern())
-                        .map(ans -> new ConceptMap(ans.map(), new JoinExplanation(this.splitToPartialAnswers(ans)), this.withSubstitution(ans).getPattern()))
+                        .map(ans -> ConceptMap.fromProvenance(ans.map(), new JoinExplanation(() -> this.splitToPartialAnswers(ans)), PatternProvenance.of(getPattern(), ans.map())))
                         .map(ans -> new AnswerState(ans, parent.getUnifier(), parent))
                         .iterator();
             }
@@ -641,7 +658,7 @@ public class ReasonerQueryImpl extends ResolvableQuery {
             dbIterator = Collections.emptyIterator();
 
             ResolutionQueryPlan queryPlan = new ResolutionQueryPlan(context().queryFactory(), this);
-            subGoalIterator = Iterators.singletonIterator(new JoinState(queryPlan.queries(), new ConceptMap(), parent.getUnifier(), parent, subGoals));
+            subGoalIterator = Iterators.singletonIterator(JoinState.create(queryPlan, queryPlan.queries(), new ConceptMap(), parent.getUnifier(), parent, subGoals));
         }
         return Iterators.concat(dbIterator, subGoalIterator);
     }
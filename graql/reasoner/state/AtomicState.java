@@ -20,6 +20,7 @@ package grakn.core.graql.reasoner.state;
 
 import com.google.common.collect.HashMultimap;
 import grakn.core.concept.answer.ConceptMap;
+import grakn.core.concept.answer.PatternProvenance;
 import grakn.core.graql.reasoner.CacheCasting;
 import grakn.core.graql.reasoner.ReasoningContext;
 import grakn.core.graql.reasoner.atom.Atom;
@@ -136,10 +137,10 @@ public class AtomicState extends AnswerPropagatorState<ReasonerAtomicQuery> {
         );
         if (answer.isEmpty()) return answer;
 
-        return new ConceptMap(
+        return ConceptMap.fromProvenance(
                 AnswerUtil.joinAnswers(answer, query.getSubstitution()).project(query.getVarNames()).map(),
                 new RuleExplanation(Collections.singletonList(baseAnswer), rule.getRule()),
-                query.withSubstitution(baseAnswer).getPattern()
+                PatternProvenance.of(query.getPattern(), baseAnswer.map())
         );
     }
 
@@ -171,9 +172,9 @@ public class AtomicState extends AnswerPropagatorState<ReasonerAtomicQuery> {
         }
         if (answer.isEmpty()) return answer;
 
-        return new ConceptMap(
+        return ConceptMap.fromProvenance(
                 AnswerUtil.joinAnswers(answer, query.getSubstitution()).project(query.getVarNames()).map(),
                 new RuleExplanation(answer.explanation().getAnswers(), rule.getRule()),
-                query.withSubstitution(answer).getPattern());
+                PatternProvenance.of(query.getPattern(), answer.map()));
     }
 }
@@ -0,0 +1,232 @@
+/*
+ * Copyright (C) 2020 Grakn Labs
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ */
+
+package grakn.core.graql.reasoner.state;
+
+import com.google.common.collect.ArrayListMultimap;
+import com.google.common.collect.Iterators;
+import com.google.common.collect.ListMultimap;
+import com.google.common.collect.Sets;
+import grakn.core.concept.answer.ConceptMap;
+import grakn.core.concept.answer.PatternProvenance;
+import grakn.core.graql.reasoner.plan.ResolutionQueryPlan;
+import grakn.core.graql.reasoner.query.ReasonerAtomicQuery;
+import grakn.core.graql.reasoner.query.ReasonerQueryImpl;
+import grakn.core.graql.reasoner.utils.AnswerTuple;
+import grakn.core.graql.reasoner.utils.AnswerUtil;
+import grakn.core.graql.reasoner.utils.VariableSlots;
+import grakn.core.kb.graql.reasoner.unifier.Unifier;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Query state corresponding to a set-at-a-time join of the two leading queries of a decomposed conjunctive query (ReasonerQueryImpl).
+ *
+ * Contrary to the JoinState, the right query is not re-resolved for every answer of the left query.
+ * Both queries are resolved once with the state substitution and their answers are collected - the left answers
+ * are indexed on the variables shared by the two queries, keyed by compact AnswerTuples. Once both sides are complete,
+ * the right answers are probed against the index and the joined answers are propagated further - either directly to
+ * the parent or through a JoinState with the remaining queries.
+ *
+ * The resolution of the left query, the resolution of the right query and the join are produced lazily as consecutive
+ * child states. As the resolution tree is traversed depth first, all answers of a side are collected before the next
+ * phase starts.
+ *
+ * Answers are kept separately depending on whether they are delta answers of the current fixpoint iteration, so that
+ * under semi-naive evaluation pairs of old answers are not joined.
+ */
+public class HashJoinState extends AnswerPropagatorState<ReasonerQueryImpl> {
+
+    private final ResolutionQueryPlan plan;
+    private final ReasonerQueryImpl rightQuery;
+    private final LinkedList<ReasonerQueryImpl> subQueries;
+    private final VariableSlots joinSlots;
+
+    private final boolean deltaUsed;
+    private Boolean pruneOldLeftAnswers = null;
+
+    private final ListMultimap<AnswerTuple, ConceptMap> oldLeftAnswers = ArrayListMultimap.create();
+    private final ListMultimap<AnswerTuple, ConceptMap> deltaLeftAnswers = ArrayListMultimap.create();
+    private final List<ConceptMap> oldRightAnswers = new ArrayList<>();
+    private final List<ConceptMap> deltaRightAnswers = new ArrayList<>();
+    private boolean rightPhase = false;
+
+    public HashJoinState(ResolutionQueryPlan plan,
+                         List<ReasonerQueryImpl> qs,
+                         ConceptMap sub,
+                         Unifier u,
+                         AnswerPropagatorState parent,
+                         Set<ReasonerAtomicQuery> subGoals) {
+        this(plan, qs, sub, u, parent, subGoals, false);
+    }
+
+    /**
+     * @param plan resolution plan the queries come from, deciding the join strategy of the remaining queries
+     */
+    HashJoinState(ResolutionQueryPlan plan,
+                  List<ReasonerQueryImpl> qs,
+                  ConceptMap sub,
+                  Unifier u,
+                  AnswerPropagatorState parent,
+                  Set<ReasonerAtomicQuery> subGoals,
+                  boolean deltaUsed) {
+        super(qs.get(0), sub, u, parent, subGoals);
+        this.plan = plan;
+        this.subQueries = new LinkedList<>(qs);
+        subQueries.removeFirst();
+        this.rightQuery = subQueries.removeFirst();
+        this.joinSlots = VariableSlots.of(Sets.intersection(getQuery().getVarNames(), rightQuery.getVarNames()));
+        this.deltaUsed = deltaUsed;
+    }
+
+    @Override
+    protected Iterator<ResolutionState> generateChildStateIterator() {
+        //NB: this is called from the super constructor, hence all phases need to be initialised lazily
+        return new Iterator<ResolutionState>() {
+            private Iterator<ResolutionState> leftIterator = null;
+            private Iterator<ResolutionState> rightIterator = null;
+            private Iterator<ResolutionState> joinIterator = null;
+
+            @Override
+            public boolean hasNext() {
+                if (leftIterator == null) {
+                    leftIterator = getQuery().expandedStates(getSubstitution(), getUnifier(), HashJoinState.this, getVisitedSubGoals()).iterator();
+                }
+                if (leftIterator.hasNext()) return true;
+                //NB: the right side is pointless to resolve if there are no left answers
+                if (oldLeftAnswers.isEmpty() && deltaLeftAnswers.isEmpty()) return false;
+
+                if (rightIterator == null) {
+                    rightPhase = true;
+                    rightIterator = rightQuery.expandedStates(getSubstitution(), getUnifier(), HashJoinState.this, getVisitedSubGoals()).iterator();
+                }
+                if (rightIterator.hasNext()) return true;
+
+                if (joinIterator == null) joinIterator = joinStates();
+                return joinIterator.hasNext();
+            }
+
+            @Override
+            public ResolutionState next() {
+                if (!hasNext()) throw new NoSuchElementException();
+                if (leftIterator.hasNext()) return leftIterator.next();
+                if (rightIterator.hasNext()) return rightIterator.next();
+                return joinIterator.next();
+            }
+        };
+    }
+
+    private Iterator<ResolutionState> joinStates(){
+        boolean semiNaive = JoinState.isSemiNaive(this) && JoinState.isLastDeltaQuery(rightQuery, subQueries);
+        Iterator<ResolutionState> oldJoins;
+        if (semiNaive) {
+            long pruned = oldRightAnswers.stream().mapToLong(right -> oldLeftAnswers.get(joinSlots.tuple(right)).size()).sum();
+            getDeltaTracker().ackPrunedDerivations(pruned);
+            oldJoins = join(oldRightAnswers.stream(), deltaLeftAnswers, true);
+        } else {
+            oldJoins = Iterators.concat(
+                    join(oldRightAnswers.stream(), deltaLeftAnswers, true),
+                    join(oldRightAnswers.stream(), oldLeftAnswers, false));
+        }
+        return Iterators.concat(
+                join(deltaRightAnswers.stream(), deltaLeftAnswers, true),
+                join(deltaRightAnswers.stream(), oldLeftAnswers, true),
+                oldJoins);
+    }
+
+    /**
+     * @return true if the left query is the last one that can contribute delta answers and the join is evaluated semi-naively
+     */
+    private boolean pruneOldLeftAnswers(){
+        if (pruneOldLeftAnswers == null) {
+            pruneOldLeftAnswers = !rightQuery.isRuleResolvable()
+                    && JoinState.isLastDeltaQuery(getQuery(), subQueries)
+                    && JoinState.isSemiNaive(this);
+        }
+        return pruneOldLeftAnswers;
+    }
+
+    private Iterator<ResolutionState> join(Stream<ConceptMap> rightAnswers, ListMultimap<AnswerTuple, ConceptMap> leftAnswers, boolean delta){
+        return rightAnswers
+                .flatMap(right -> leftAnswers.get(joinSlots.tuple(right)).stream()
+                        .map(left -> merge(left, right)))
+                .filter(answer -> !answer.isEmpty())
+                .map(answer -> joinedAnswerState(answer, delta))
+                .iterator();
+    }
+
+    private ResolutionState joinedAnswerState(ConceptMap answer, boolean delta){
+        //NB: if we know that it is a final answer we pass it directly to the conjunctive query
+        if (subQueries.isEmpty()) return new AnswerState(answer, getUnifier(), getParentState());
+        return JoinState.create(plan, subQueries, answer, getUnifier(), getParentState(), getVisitedSubGoals(), delta);
+    }
+
+    private static ConceptMap merge(ConceptMap base, ConceptMap toMerge){
+        ConceptMap merged = AnswerUtil.joinAnswers(base, toMerge);
+        return ConceptMap.fromProvenance(
+                merged.map(),
+                JoinState.mergeExplanations(base, toMerge),
+                merged.provenance());
+    }
+
+    @Override
+    public String toString(){
+        return super.toString() +  "\n" +
+                getSubstitution() + "\n" +
+                getQuery() + "\n" +
+                rightQuery + "\n" +
+                subQueries.stream().map(ReasonerQueryImpl::toString).collect(Collectors.joining("\n")) + "\n";
+    }
+
+    @Override
+    public ResolutionState propagateAnswer(AnswerState state) {
+        ConceptMap answer = state.getSubstitution();
+        if (!rightPhase) {
+            // we need to pass ID substitutions whenever we set the pattern from raw query
+            ConceptMap toMerge = answer.withProvenance(PatternProvenance.of(getQuery().getPattern(), answer.map()));
+            ConceptMap merged = merge(getSubstitution(), toMerge);
+            if (merged.isEmpty()) return null;
+
+            boolean delta = JoinState.isDelta(this, getQuery(), toMerge) || deltaUsed;
+            if (delta) {
+                deltaLeftAnswers.put(joinSlots.tuple(merged), merged);
+            } else if (pruneOldLeftAnswers()) {
+                getDeltaTracker().ackPrunedDerivations(1);
+            } else {
+                oldLeftAnswers.put(joinSlots.tuple(merged), merged);
+            }
+        } else {
+            ConceptMap toMerge = answer.withProvenance(PatternProvenance.of(rightQuery.getPattern(), answer.map()));
+            if (JoinState.isDelta(this, rightQuery, toMerge)) deltaRightAnswers.add(toMerge);
+            else oldRightAnswers.add(toMerge);
+        }
+        return null;
+    }
+
+    @Override
+    ConceptMap consumeAnswer(AnswerState state) {
+        return state.getSubstitution();
+    }
+}
@@ -20,13 +20,15 @@ package grakn.core.graql.reasoner.state;
 
 import com.google.common.collect.Iterables;
 import grakn.core.concept.answer.ConceptMap;
+import grakn.core.concept.answer.PatternProvenance;
 import grakn.core.concept.answer.Explanation;
+import grakn.core.graql.reasoner.DeltaTracker;
 import grakn.core.graql.reasoner.explanation.JoinExplanation;
+import grakn.core.graql.reasoner.plan.ResolutionQueryPlan;
 import grakn.core.graql.reasoner.query.ReasonerAtomicQuery;
 import grakn.core.graql.reasoner.query.ReasonerQueryImpl;
 import grakn.core.graql.reasoner.utils.AnswerUtil;
 import grakn.core.kb.graql.reasoner.unifier.Unifier;
-import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
@@ -38,16 +40,65 @@ import java.util.stream.Collectors;
  */
 public class JoinState extends AnswerPropagatorState<ReasonerQueryImpl> {
 
+    private final ResolutionQueryPlan plan;
     private final LinkedList<ReasonerQueryImpl> subQueries;
+    private final boolean deltaUsed;
+    private Boolean semiNaive = null;
 
-    public JoinState(List<ReasonerQueryImpl> qs,
+    public JoinState(ResolutionQueryPlan plan,
+                     List<ReasonerQueryImpl> qs,
                      ConceptMap sub,
                      Unifier u,
                      AnswerPropagatorState parent,
                      Set<ReasonerAtomicQuery> subGoals) {
+        this(plan, qs, sub, u, parent, subGoals, false);
+    }
+
+    /**
+     * @param plan resolution plan the queries come from, deciding the join strategy of the remaining queries
+     * @param deltaUsed true if the partial answer contains an answer first found in the previous or current fixpoint iteration
+     */
+    JoinState(ResolutionQueryPlan plan,
+              List<ReasonerQueryImpl> qs,
+              ConceptMap sub,
+              Unifier u,
+              AnswerPropagatorState parent,
+              Set<ReasonerAtomicQuery> subGoals,
+              boolean deltaUsed) {
         super(Iterables.getFirst(qs, null), sub, u, parent, subGoals);
+        this.plan = plan;
         this.subQueries = new LinkedList<>(qs);
         subQueries.removeFirst();
+        this.deltaUsed = deltaUsed;
+    }
+
+    /**
+     * Creates a state joining the provided queries, the join strategy of the two leading queries is decided by the ResolutionQueryPlan.
+     * @param plan resolution plan the queries come from
+     * @param qs queries to join in order
+     * @param sub partial answer the queries are resolved with
+     * @return either a nested-loop JoinState or a HashJoinState
+     */
+    public static AnswerPropagatorState<ReasonerQueryImpl> create(ResolutionQueryPlan plan,
+                                                                  List<ReasonerQueryImpl> qs,
+                                                                  ConceptMap sub,
+                                                                  Unifier u,
+                                                                  AnswerPropagatorState parent,
+                                                                  Set<ReasonerAtomicQuery> subGoals) {
+        return create(plan, qs, sub, u, parent, subGoals, false);
+    }
+
+    static AnswerPropagatorState<ReasonerQueryImpl> create(ResolutionQueryPlan plan,
+                                                           List<ReasonerQueryImpl> qs,
+                                                           ConceptMap sub,
+                                                           Unifier u,
+                                                           AnswerPropagatorState parent,
+                                                           Set<ReasonerAtomicQuery> subGoals,
+                                                           boolean deltaUsed) {
+        boolean hashJoin = qs.size() > 1 && plan.preferHashJoin(qs.get(0), qs.get(1), sub);
+        return hashJoin ?
+                new HashJoinState(plan, qs, sub, u, parent, subGoals, deltaUsed) :
+                new JoinState(plan, qs, sub, u, parent, subGoals, deltaUsed);
     }
 
     @Override
@@ -69,17 +120,63 @@ public class JoinState extends AnswerPropagatorState<ReasonerQueryImpl> {
     public ResolutionState propagateAnswer(AnswerState state) {
         ConceptMap accumulatedAnswer = getSubstitution();
         // we need to pass ID substitutions whenever we set the pattern from raw query
-        ConceptMap toMerge = state.getSubstitution().withPattern(getQuery().withSubstitution(state.getSubstitution()).getPattern());
+        ConceptMap sub = state.getSubstitution();
+        ConceptMap toMerge = sub.withProvenance(PatternProvenance.of(getQuery().getPattern(), sub.map()));
         ConceptMap merged = AnswerUtil.joinAnswers(accumulatedAnswer, toMerge);
-        ConceptMap answer = new ConceptMap(
+        ConceptMap answer = ConceptMap.fromProvenance(
                 merged.map(),
                 mergeExplanations(accumulatedAnswer, toMerge),
-                merged.getPattern());
+                merged.provenance());
 
         if (answer.isEmpty()) return null;
+
+        boolean delta = isDelta(this, getQuery(), toMerge) || deltaUsed;
+        if (!delta && isSemiNaive() && isLastDeltaQuery(getQuery(), subQueries)) {
+            getDeltaTracker().ackPrunedDerivations(1);
+            return null;
+        }
         //NB: if we know that it is a final answer we pass it directly to the conjunctive query
         if (subQueries.isEmpty()) return new AnswerState(answer, getUnifier(), getParentState());
-        return new JoinState(subQueries, answer, getUnifier(), getParentState(), getVisitedSubGoals());
+        return create(plan, subQueries, answer, getUnifier(), getParentState(), getVisitedSubGoals(), delta);
+    }
+
+    private boolean isSemiNaive(){
+        if (semiNaive == null) semiNaive = isSemiNaive(this);
+        return semiNaive;
+    }
+
+    /**
+     * Semi-naive evaluation is possible if the state is part of a rule body and the rule was applied to the same sub goal
+     * in the previous fixpoint iteration.
+     * @param state join state of a conjunctive query
+     * @return true if only derivations using delta answers need to be considered
+     */
+    static boolean isSemiNaive(AnswerPropagatorState<ReasonerQueryImpl> state){
+        DeltaTracker tracker = state.getDeltaTracker();
+        if (tracker == null || tracker.iteration() == 0) return false;
+        AnswerPropagatorState bodyState = state.getParentState();
+        AnswerPropagatorState ruleState = bodyState != null? bodyState.getParentState() : null;
+        if (!(ruleState instanceof RuleState)) return false;
+        AnswerPropagatorState subGoalState = ruleState.getParentState();
+        return subGoalState instanceof AtomicState
+                && tracker.isSemiNaive(((AtomicState) subGoalState).getQuery());
+    }
+
+    /**
+     * Only answers to rule-resolvable queries can change between fixpoint iterations.
+     * @return true if the answer to the query was first found in the previous or the current fixpoint iteration
+     */
+    static boolean isDelta(ResolutionState state, ReasonerQueryImpl query, ConceptMap answer){
+        DeltaTracker tracker = state.getDeltaTracker();
+        if (tracker == null || !query.isRuleResolvable()) return false;
+        return tracker.isDelta(query, answer.project(query.getVarNames()));
+    }
+
+    /**
+     * @return true if the query is the last one in the join order that can contribute delta answers
+     */
+    static boolean isLastDeltaQuery(ReasonerQueryImpl query, List<ReasonerQueryImpl> remainingQueries){
+        return query.isRuleResolvable() && remainingQueries.stream().noneMatch(ReasonerQueryImpl::isRuleResolvable);
     }
 
     @Override
@@ -87,16 +184,11 @@ public class JoinState extends AnswerPropagatorState<ReasonerQueryImpl> {
         return state.getSubstitution();
     }
 
-    private static Explanation mergeExplanations(ConceptMap base, ConceptMap toMerge) {
+    static Explanation mergeExplanations(ConceptMap base, ConceptMap toMerge) {
         if (toMerge.isEmpty()) return base.explanation();
         if (base.isEmpty()) return toMerge.explanation();
-
-        List<ConceptMap> partialAnswers = new ArrayList<>();
-        if (base.explanation().isJoinExplanation()) partialAnswers.addAll(base.explanation().getAnswers());
-        else partialAnswers.add(base);
-        if (toMerge.explanation().isJoinExplanation()) partialAnswers.addAll(toMerge.explanation().getAnswers());
-        else partialAnswers.add(toMerge);
-        return new JoinExplanation(partialAnswers);
+        //NB: the partial answers are only collected if the explanation is requested
+        return JoinExplanation.of(base, toMerge);
     }
 
 }
@@ -19,6 +19,7 @@
 package grakn.core.graql.reasoner.state;
 
 import grakn.core.concept.answer.ConceptMap;
+import grakn.core.graql.reasoner.DeltaTracker;
 
 /**
  *
@@ -35,6 +36,7 @@ public abstract class ResolutionState {
     private final ConceptMap sub;
     private final AnswerPropagatorState parentState;
     private final long creationTime;
+    private DeltaTracker deltaTracker = null;
 
     ResolutionState(ConceptMap sub, AnswerPropagatorState parent){
         this.sub = sub;
@@ -73,4 +75,18 @@ public abstract class ResolutionState {
      * @return parent state of this state
      */
     public AnswerPropagatorState getParentState(){ return parentState;}
+
+    /**
+     * @return tracker of the fixpoint iteration this state is part of, null if the resolution is not iterated
+     */
+    DeltaTracker getDeltaTracker(){
+        //NB: states can be created before the tracker is set on the top state, hence we resolve it lazily
+        if (deltaTracker == null && parentState != null) deltaTracker = parentState.getDeltaTracker();
+        return deltaTracker;
+    }
+
+    /**
+     * @param tracker tracker of the fixpoint iteration this top state is resolved in
+     */
+    public void setDeltaTracker(DeltaTracker tracker){ this.deltaTracker = tracker;}
 }
@@ -73,8 +73,8 @@ class RoleExpansionState extends ResolutionState {
                 }).collect(Collectors.toList());
 
         return Sets.cartesianProduct(entryOptions).stream()
-                .map(mappingList -> new ConceptMap(
-                        mappingList.stream().collect(Collectors.toMap(AbstractMap.SimpleImmutableEntry::getKey, AbstractMap.SimpleImmutableEntry::getValue)), answer.explanation(), answer.getPattern()))
-                .map(ans -> new ConceptMap(ans.map(), answer.explanation(), answer.getPattern()));
+                .map(mappingList -> ConceptMap.fromProvenance(
+                        mappingList.stream().collect(Collectors.toMap(AbstractMap.SimpleImmutableEntry::getKey, AbstractMap.SimpleImmutableEntry::getValue)), answer.explanation(), answer.provenance()))
+                .map(ans -> ConceptMap.fromProvenance(ans.map(), answer.explanation(), answer.provenance()));
     }
 }
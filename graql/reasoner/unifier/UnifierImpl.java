@@ -153,6 +153,6 @@ public class UnifierImpl implements Unifier {
                 }
             }
         }
-        return new ConceptMap(unified, answer.explanation(), answer.getPattern());
+        return ConceptMap.fromProvenance(unified, answer.explanation(), answer.provenance());
     }
 }
@@ -0,0 +1,68 @@
+/*
+ * Copyright (C) 2020 Grakn Labs
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ */
+
+package grakn.core.graql.reasoner.utils;
+
+import grakn.core.kb.concept.api.Concept;
+
+import javax.annotation.Nullable;
+import java.util.Arrays;
+
+/**
+ * Compact representation of a partial answer used internally by the reasoner as a join and index key.
+ * Contrary to a ConceptMap, it holds no map, pattern or explanation - only the concepts in the positions
+ * assigned to the variables by its VariableSlots. The hash code is computed once.
+ */
+public final class AnswerTuple {
+
+    private final VariableSlots slots;
+    private final Concept[] concepts;
+    private final int hashCode;
+
+    AnswerTuple(VariableSlots slots, Concept[] concepts){
+        this.slots = slots;
+        this.concepts = concepts;
+        this.hashCode = Arrays.hashCode(concepts);
+    }
+
+    public VariableSlots slots(){ return slots;}
+
+    /**
+     * @return concept in the slot, null if the tuple is a projection of an answer not containing the slot variable
+     */
+    @Nullable
+    public Concept get(int slot){ return concepts[slot];}
+
+    @Override
+    public String toString(){
+        return slots + Arrays.toString(Arrays.stream(concepts).map(concept -> concept != null ? concept.id() : null).toArray());
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        AnswerTuple that = (AnswerTuple) o;
+        return hashCode == that.hashCode
+                && Arrays.equals(concepts, that.concepts)
+                && slots.equals(that.slots);
+    }
+
+    @Override
+    public int hashCode() { return hashCode;}
+}
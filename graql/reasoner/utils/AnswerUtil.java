@@ -21,17 +21,14 @@ package grakn.core.graql.reasoner.utils;
 import com.google.common.collect.Iterables;
 import com.google.common.collect.Sets;
 import grakn.core.concept.answer.ConceptMap;
+import grakn.core.concept.answer.PatternProvenance;
 import grakn.core.concept.util.ConceptUtils;
 import grakn.core.kb.concept.api.Concept;
 import grakn.core.kb.concept.api.SchemaConcept;
-import graql.lang.Graql;
-import graql.lang.pattern.Pattern;
 import graql.lang.statement.Variable;
 
+import java.util.HashMap;
 import java.util.Map;
-import java.util.Set;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
 public class AnswerUtil {
     /**
@@ -47,16 +44,17 @@ public class AnswerUtil {
         if (toJoin.isEmpty()) return baseAnswer;
         if (baseAnswer.isEmpty()) return toJoin;
 
-        Set<Variable> joinVars = Sets.intersection(baseAnswer.vars(), toJoin.vars());
-        Map<Variable, Concept> entryMap = Stream
-                .concat(baseAnswer.map().entrySet().stream(), toJoin.map().entrySet().stream())
-                .filter(e -> !joinVars.contains(e.getKey()))
-                .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
-        for (Variable var : joinVars) {
-            Concept concept = baseAnswer.get(var);
-            Concept otherConcept = toJoin.get(var);
-            if (concept.equals(otherConcept)) entryMap.put(var, concept);
-            else {
+        //NB: this is on the reasoner hot path, hence we build the map directly instead of collecting entry streams
+        Map<Variable, Concept> baseMap = baseAnswer.map();
+        Map<Variable, Concept> toJoinMap = toJoin.map();
+        Map<Variable, Concept> entryMap = new HashMap<>((baseMap.size() + toJoinMap.size()) * 4 / 3 + 1);
+        entryMap.putAll(baseMap);
+        for (Map.Entry<Variable, Concept> entry : toJoinMap.entrySet()) {
+            Variable var = entry.getKey();
+            Concept otherConcept = entry.getValue();
+            Concept concept = baseMap.get(var);
+            if (concept == null) entryMap.put(var, otherConcept);
+            else if (!concept.equals(otherConcept)) {
                 boolean typeCompatible = concept.isSchemaConcept() && otherConcept.isSchemaConcept()
                         && !ConceptUtils.areDisjointTypes(concept.asSchemaConcept(), otherConcept.asSchemaConcept(), false);
                 if (typeCompatible) {
@@ -71,14 +69,7 @@ public class AnswerUtil {
                 return new ConceptMap();
             }
         }
-        Pattern mergedPattern;
-        if (baseAnswer.getPattern() != null && toJoin.getPattern() != null) {
-            mergedPattern = Graql.and(baseAnswer.getPattern(), toJoin.getPattern());
-        } else if (baseAnswer.getPattern() != null) {
-            mergedPattern = baseAnswer.getPattern();
-        } else {
-            mergedPattern = toJoin.getPattern();
-        }
-        return new ConceptMap(entryMap, baseAnswer.explanation(), mergedPattern);
+        //NB: patterns are only needed for explanations, hence we merge them lazily
+        return ConceptMap.fromProvenance(entryMap, baseAnswer.explanation(), PatternProvenance.join(baseAnswer.provenance(), toJoin.provenance()));
     }
 }
@@ -0,0 +1,96 @@
+/*
+ * Copyright (C) 2020 Grakn Labs
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ */
+
+package grakn.core.graql.reasoner.utils;
+
+import com.google.common.collect.ImmutableSet;
+import grakn.core.concept.answer.ConceptMap;
+import grakn.core.kb.concept.api.Concept;
+import grakn.core.kb.concept.api.GraknConceptException;
+import graql.lang.statement.Variable;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Fixed assignment of a set of variables to positions, used to represent partial answers to the variables as AnswerTuples.
+ * The variables are ordered by name, so that slots of equal variable sets are interchangeable.
+ */
+public class VariableSlots {
+
+    private final ImmutableSet<Variable> vars;
+    private final Variable[] slots;
+
+    private VariableSlots(Set<Variable> vars){
+        this.vars = ImmutableSet.copyOf(vars);
+        this.slots = vars.stream().sorted(Comparator.comparing(Variable::name)).toArray(Variable[]::new);
+    }
+
+    public static VariableSlots of(Set<Variable> vars){
+        return new VariableSlots(vars);
+    }
+
+    public Set<Variable> vars(){ return vars;}
+
+    public int size(){ return slots.length;}
+
+    /**
+     * @param answer answer containing all the slot variables
+     * @return tuple of the concepts the answer maps the slot variables to
+     */
+    public AnswerTuple tuple(ConceptMap answer){
+        Map<Variable, Concept> map = answer.map();
+        Concept[] concepts = new Concept[slots.length];
+        for (int i = 0; i < slots.length; i++) {
+            Concept concept = map.get(slots[i]);
+            if (concept == null) throw GraknConceptException.variableDoesNotExist(slots[i].toString());
+            concepts[i] = concept;
+        }
+        return new AnswerTuple(this, concepts);
+    }
+
+    /**
+     * @param answer answer to project
+     * @return tuple of the concepts the answer maps the slot variables to, with no concept in the slots of the variables
+     * the answer doesn't contain
+     */
+    public AnswerTuple project(ConceptMap answer){
+        Map<Variable, Concept> map = answer.map();
+        Concept[] concepts = new Concept[slots.length];
+        for (int i = 0; i < slots.length; i++) {
+            concepts[i] = map.get(slots[i]);
+        }
+        return new AnswerTuple(this, concepts);
+    }
+
+    @Override
+    public String toString(){ return Arrays.toString(slots);}
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        VariableSlots that = (VariableSlots) o;
+        return vars.equals(that.vars);
+    }
+
+    @Override
+    public int hashCode() { return vars.hashCode();}
+}
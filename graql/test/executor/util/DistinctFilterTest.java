@@ -0,0 +1,76 @@
+/*
+ * Copyright (C) 2020 Grakn Labs
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ */
+
+package grakn.core.graql.executor.util;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class DistinctFilterTest {
+
+    @Test
+    public void whenElementIsSeenAgain_itIsFilteredOut() {
+        DistinctFilter<String> distinct = new DistinctFilter<>((string, hasher) -> hasher.putUnencodedChars(string));
+        assertTrue(distinct.test("a"));
+        assertTrue(distinct.test("b"));
+        assertFalse(distinct.test("a"));
+        assertFalse(distinct.test("b"));
+        assertEquals(2, distinct.size());
+    }
+
+    @Test
+    public void whenFilteringStream_encounterOrderOfFirstOccurrencesIsKept() {
+        List<Integer> distinct = Stream.of(3, 1, 3, 2, 1, 4, 2)
+                .filter(new DistinctFilter<Integer>((number, hasher) -> hasher.putInt(number)))
+                .collect(Collectors.toList());
+        assertEquals(Arrays.asList(3, 1, 2, 4), distinct);
+    }
+
+    @Test
+    public void whenFilteringManyElements_resultMatchesStreamDistinct() {
+        Random random = new Random(0);
+        long[] numbers = LongStream.range(0, 1_000_000).map(i -> random.nextInt(300_000)).toArray();
+
+        List<Long> expected = Arrays.stream(numbers).boxed().distinct().collect(Collectors.toList());
+        DistinctFilter<Long> distinct = new DistinctFilter<>((number, hasher) -> hasher.putLong(number));
+        List<Long> filtered = Arrays.stream(numbers).boxed().filter(distinct).collect(Collectors.toList());
+
+        assertEquals(expected, filtered);
+        assertEquals(expected.size(), distinct.size());
+    }
+
+    @Test
+    public void whenElementsAreEncodedAsTuples_tuplesAreComparedAsAWhole() {
+        DistinctFilter<long[]> distinct = new DistinctFilter<>((tuple, hasher) -> {
+            for (long id : tuple) hasher.putLong(id);
+        });
+        assertTrue(distinct.test(new long[]{1, 2}));
+        assertTrue(distinct.test(new long[]{2, 1}));
+        assertFalse(distinct.test(new long[]{1, 2}));
+    }
+}
@@ -0,0 +1,105 @@
+/*
+ * Copyright (C) 2020 Grakn Labs
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ */
+
+package grakn.core.graql.executor.util;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class TDigestTest {
+
+    @Test
+    public void whenDigestIsEmpty_quantileIsNaN() {
+        TDigest digest = new TDigest(100);
+        assertTrue(Double.isNaN(digest.quantile(0.5)));
+        assertEquals(0, digest.size());
+    }
+
+    @Test
+    public void whenDigestHasOneValue_everyQuantileIsThatValue() {
+        TDigest digest = new TDigest(100);
+        digest.add(42);
+        assertEquals(42, digest.quantile(0), 0);
+        assertEquals(42, digest.quantile(0.5), 0);
+        assertEquals(42, digest.quantile(1), 0);
+    }
+
+    @Test
+    public void extremeQuantilesAreTheMinimumAndMaximum() {
+        TDigest digest = new TDigest(100);
+        for (int i = 0; i < 100_000; i++) digest.add(i);
+        assertEquals(0, digest.quantile(0), 0);
+        assertEquals(99_999, digest.quantile(1), 0);
+    }
+
+    @Test
+    public void whenAddingManyUniformValues_medianIsWithinRankError() {
+        int n = 1_000_000;
+        TDigest digest = new TDigest(200);
+        Random random = new Random(0);
+        double[] values = new double[n];
+        for (int i = 0; i < n; i++) {
+            values[i] = random.nextDouble();
+            digest.add(values[i]);
+        }
+        Arrays.sort(values);
+
+        assertEquals(n, digest.size());
+        assertMedianRankError(values, digest.quantile(0.5), 0.005);
+    }
+
+    @Test
+    public void whenAddingSkewedValues_medianIsWithinRankError() {
+        int n = 500_000;
+        TDigest digest = new TDigest(200);
+        Random random = new Random(1);
+        double[] values = new double[n];
+        for (int i = 0; i < n; i++) {
+            values[i] = Math.exp(random.nextGaussian() * 3);
+            digest.add(values[i]);
+        }
+        Arrays.sort(values);
+
+        assertMedianRankError(values, digest.quantile(0.5), 0.005);
+    }
+
+    @Test
+    public void whenValuesArriveSorted_medianIsWithinRankError() {
+        int n = 300_000;
+        TDigest digest = new TDigest(200);
+        double[] values = new double[n];
+        for (int i = 0; i < n; i++) {
+            values[i] = i;
+            digest.add(i);
+        }
+
+        assertMedianRankError(values, digest.quantile(0.5), 0.005);
+    }
+
+    private static void assertMedianRankError(double[] sortedValues, double estimate, double maxRankError) {
+        int rank = Arrays.binarySearch(sortedValues, estimate);
+        if (rank < 0) rank = -rank - 1;
+        double rankError = Math.abs((double) rank / sortedValues.length - 0.5);
+        assertTrue("median rank error " + rankError + " exceeds " + maxRankError, rankError <= maxRankError);
+    }
+}
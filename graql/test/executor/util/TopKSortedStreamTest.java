@@ -0,0 +1,99 @@
+/*
+ * Copyright (C) 2020 Grakn Labs
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ */
+
+package grakn.core.graql.executor.util;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class TopKSortedStreamTest {
+
+    @Test
+    public void whenKIsSmallerThanStream_theKSmallestElementsAreReturnedInOrder() {
+        List<Integer> numbers = IntStream.range(0, 1000).boxed().collect(Collectors.toList());
+        Collections.shuffle(numbers, new Random(0));
+
+        List<Integer> topK = new TopKSortedStream<>(numbers.stream(), Comparator.<Integer>naturalOrder(), 10)
+                .sortedStream().collect(Collectors.toList());
+
+        assertEquals(IntStream.range(0, 10).boxed().collect(Collectors.toList()), topK);
+    }
+
+    @Test
+    public void whenKIsLargerThanStream_allElementsAreReturnedInOrder() {
+        List<Integer> topK = new TopKSortedStream<>(Stream.of(3, 1, 2), Comparator.<Integer>naturalOrder(), 10)
+                .sortedStream().collect(Collectors.toList());
+
+        assertEquals(Arrays.asList(1, 2, 3), topK);
+    }
+
+    @Test
+    public void whenKIsZero_noElementsAreReturned() {
+        long count = new TopKSortedStream<>(Stream.of(3, 1, 2), Comparator.<Integer>naturalOrder(), 0).sortedStream().count();
+        assertEquals(0, count);
+    }
+
+    @Test
+    public void whenElementsCompareEqual_theyAreReturnedInEncounterOrder() {
+        Comparator<String> byLength = Comparator.comparingInt(String::length);
+        Stream<String> words = Stream.of("ccc", "a1", "b", "a2", "a3", "dd", "a4");
+
+        List<String> topK = new TopKSortedStream<>(words, byLength, 4).sortedStream().collect(Collectors.toList());
+
+        assertEquals(Arrays.asList("b", "a1", "a2", "a3"), topK);
+    }
+
+    @Test
+    public void whenSortingRandomStreams_resultMatchesSortAndLimit() {
+        Random random = new Random(1);
+        for (int run = 0; run < 100; run++) {
+            List<Integer> numbers = new ArrayList<>();
+            int size = random.nextInt(200);
+            for (int i = 0; i < size; i++) numbers.add(random.nextInt(50));
+            int k = random.nextInt(250);
+
+            List<Integer> expected = numbers.stream().sorted(Comparator.reverseOrder()).limit(k).collect(Collectors.toList());
+            List<Integer> topK = new TopKSortedStream<>(numbers.stream(), Comparator.<Integer>reverseOrder(), k)
+                    .sortedStream().collect(Collectors.toList());
+            assertEquals(expected, topK);
+        }
+    }
+
+    @Test
+    public void inputStreamIsConsumedLazily() {
+        List<Integer> consumed = new ArrayList<>();
+        Stream<Integer> sorted = new TopKSortedStream<>(Stream.of(3, 1, 2).peek(consumed::add), Comparator.<Integer>naturalOrder(), 2)
+                .sortedStream();
+        assertTrue(consumed.isEmpty());
+
+        assertEquals(Arrays.asList(1, 2), sorted.collect(Collectors.toList()));
+        assertEquals(3, consumed.size());
+    }
+}
@@ -221,6 +221,15 @@ public interface AttributeType<D> extends Type {
     long ownershipCount();
     void writeOwnershipCount(long count);
 
+    /**
+     * Return the serialised summary of the committed values of this attribute type, used for estimating the
+     * selectivity of value predicates
+     * @return the serialised summary, or {@code null} if no values were recorded
+     */
+    @Nullable
+    String valueHistogram();
+    void writeValueHistogram(String histogram);
+
     //------------------------------------- Other ---------------------------------
     @SuppressWarnings("unchecked")
     @Deprecated
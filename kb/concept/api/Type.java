@@ -169,6 +169,15 @@ public interface Type extends SchemaConcept {
      */
     void writeCount(Long count);
 
+    /**
+     * Retrieve the serialised numbers of edges going out of the instances of this type, per kind of edge,
+     * used for estimating the degrees of instances
+     * @return the serialised numbers, or {@code null} if no edges were recorded
+     */
+    @Nullable
+    String edgeCounts();
+    void writeEdgeCounts(String edgeCounts);
+
 
     void createShard();
 
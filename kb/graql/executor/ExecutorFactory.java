@@ -34,4 +34,16 @@ package grakn.core.kb.graql.executor;
 public interface ExecutorFactory {
     ComputeExecutor compute();
     QueryExecutor transactional(boolean infer);
+
+    /**
+     * @return executor answering queries without reasoning over the stored facts only, hiding the rule conclusions
+     * persisted when rules are materialised
+     */
+    QueryExecutor storedFacts();
+
+    /**
+     * @return executor answering queries with reasoning by reading the persisted rule conclusions, valid when rules
+     * are materialised and all their conclusions are persisted
+     */
+    QueryExecutor materialisedConclusions();
 }
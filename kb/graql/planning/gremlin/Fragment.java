@@ -113,6 +113,12 @@ public interface Fragment {
      */
     String name();
 
+    /**
+     * The name of the fragment with the ids and values it matches against abstracted, so that fragments
+     * differing only in the constants of the query share the same shape name
+     */
+    String shapeName();
+
     /**
      * A starting fragment is a fragment that can start a traversal.
      * If any other fragment is present that refers to the same variable, the starting fragment can be omitted.
@@ -128,6 +134,15 @@ public interface Fragment {
 
     double internalFragmentCost();
 
+    /**
+     * Estimate the cost of the fragment from the degree and instance statistics of the keyspace,
+     * falling back to the internal fragment cost when the statistics know nothing about the traversed edges
+     *
+     * @param conceptManager
+     * @param keyspaceStatistics
+     */
+    double estimatedFragmentCost(ConceptManager conceptManager, KeyspaceStatistics keyspaceStatistics);
+
     /**
      * Estimate the "cost" of a starting point for each type of fixed cost fragment
      * These are cost heuristic proxies using statistics
@@ -43,6 +43,12 @@ public interface GraqlTraversal {
      */
     GraphTraversal<Vertex, Map<String, Vertex>> getGraphTraversal(Set<Variable> vars);
 
+    /**
+     * Get the {@code GraphTraversal} that this {@code GraqlTraversal} represents.
+     * @param storedFacts true if the traversal is to skip the instances and ownerships inferred by rules
+     */
+    GraphTraversal<Vertex, Map<String, Vertex>> getGraphTraversal(Set<Variable> vars, boolean storedFacts);
+
     /**
      * @param transform map defining id transform var -> new id
      * @return graql traversal with concept id transformed according to the provided transform
@@ -20,8 +20,6 @@
 package grakn.core.kb.keyspace;
 
 import com.google.common.annotations.VisibleForTesting;
-import com.google.common.cache.Cache;
-import grakn.core.kb.concept.api.ConceptId;
 
 import java.util.Set;
 
@@ -41,7 +39,7 @@ import java.util.Set;
  */
 public interface AttributeManager {
 
-    Cache<String, ConceptId> attributesCommitted();
+    CommittedAttributeIndex attributesCommitted();
     void ackAttributeInsert(String index, String txId);
     void ackAttributeDelete(String index, String txId);
     void ackCommit(Set<String> indices, String txId);
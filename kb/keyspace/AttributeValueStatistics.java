@@ -0,0 +1,54 @@
+/*
+ * Copyright (C) 2020 Grakn Labs
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ */
+
+package grakn.core.kb.keyspace;
+
+import java.util.OptionalDouble;
+import java.util.OptionalLong;
+import java.util.function.Predicate;
+
+/**
+ * Summary of the values of the instances of an attribute type, used to estimate the selectivity of value predicates:
+ * - an equi-depth histogram of numeric and date values,
+ * - a sample of string values,
+ * - the most owned values together with their approximate number of owners.
+ */
+public interface AttributeValueStatistics {
+
+    /**
+     * @param value     numeric or date value to compare against
+     * @param inclusive true if the values equal to the given one count as well
+     * @return estimated fraction of the attribute instances with a value below the given one,
+     * empty if the attribute type has no numeric values recorded
+     */
+    OptionalDouble fractionBelow(Object value, boolean inclusive);
+
+    /**
+     * @param predicate test applied to the sampled values
+     * @return estimated fraction of the attribute instances whose value satisfies the predicate,
+     * empty if the attribute type has no string values recorded
+     */
+    OptionalDouble fractionMatching(Predicate<Object> predicate);
+
+    /**
+     * @param value value of the attribute
+     * @return approximate number of owners of the attribute with the given value,
+     * empty if the value is not among the most owned ones
+     */
+    OptionalLong owners(Object value);
+}
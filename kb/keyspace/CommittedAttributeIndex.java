@@ -0,0 +1,55 @@
+/*
+ * Copyright (C) 2020 Grakn Labs
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ */
+
+package grakn.core.kb.keyspace;
+
+import grakn.core.kb.concept.api.ConceptId;
+
+import javax.annotation.Nullable;
+
+/**
+ * Session-wide index mapping attribute indices to the ids of the attribute vertices committed with them.
+ * It is consulted when inserting and committing attributes, so that an attribute committed by one transaction
+ * is reused, or merged into, by other transactions inserting an attribute with the same index.
+ *
+ * The index is bounded: when it is full, entries are evicted and lookups for them fall back to the graph index.
+ * Hit, miss and eviction counts are tracked so that the capacity can be tuned to the working set of a keyspace.
+ */
+public interface CommittedAttributeIndex {
+
+    /**
+     * @param index attribute index
+     * @return id of the committed attribute with the given index, null if none is known
+     */
+    @Nullable
+    ConceptId getIfPresent(String index);
+
+    void put(String index, ConceptId attributeId);
+
+    void invalidate(String index);
+
+    long size();
+
+    long capacity();
+
+    long hitCount();
+
+    long missCount();
+
+    long evictionCount();
+}
@@ -0,0 +1,100 @@
+/*
+ * Copyright (C) 2020 Grakn Labs
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ */
+
+package grakn.core.kb.keyspace;
+
+import grakn.core.kb.concept.api.Label;
+
+import javax.annotation.Nullable;
+import java.util.Objects;
+
+/**
+ * Identifies a kind of instance edge the keyspace statistics record degrees of:
+ * - role player edges, from relations of a relation type to the players of a role of a given type,
+ * - ownership edges, from owners of a given type to the attributes of an attribute type.
+ *
+ * Edges are directed from the relation or owner (OUT) to the role player or attribute (IN).
+ */
+public final class DegreeKey {
+
+    private final Label from;
+    @Nullable private final Label role;
+    private final Label to;
+
+    private DegreeKey(Label from, @Nullable Label role, Label to) {
+        this.from = from;
+        this.role = role;
+        this.to = to;
+    }
+
+    public static DegreeKey rolePlayer(Label relationType, Label role, Label playerType) {
+        return new DegreeKey(relationType, Objects.requireNonNull(role), playerType);
+    }
+
+    public static DegreeKey ownership(Label ownerType, Label attributeType) {
+        return new DegreeKey(ownerType, null, attributeType);
+    }
+
+    public boolean isRolePlayer() {
+        return role != null;
+    }
+
+    public boolean isOwnership() {
+        return role == null;
+    }
+
+    /**
+     * @return the type of the relation or of the owner the edges go out of
+     */
+    public Label from() {
+        return from;
+    }
+
+    /**
+     * @return the role played, null for ownership edges
+     */
+    @Nullable
+    public Label role() {
+        return role;
+    }
+
+    /**
+     * @return the type of the role player or of the attribute the edges go into
+     */
+    public Label to() {
+        return to;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        DegreeKey that = (DegreeKey) o;
+        return from.equals(that.from) && Objects.equals(role, that.role) && to.equals(that.to);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(from, role, to);
+    }
+
+    @Override
+    public String toString() {
+        return role != null ? from + "-[" + role + "]->" + to : from + "-[has]->" + to;
+    }
+}
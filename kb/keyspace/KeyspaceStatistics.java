@@ -20,6 +20,11 @@ package grakn.core.kb.keyspace;
 
 import grakn.core.kb.concept.api.Label;
 import grakn.core.kb.concept.manager.ConceptManager;
+import org.apache.tinkerpop.gremlin.structure.Direction;
+
+import javax.annotation.Nullable;
+import java.util.OptionalDouble;
+import java.util.function.Predicate;
 
 /**
  * Store a shared map of statistics attached to each type
@@ -27,5 +32,42 @@ import grakn.core.kb.concept.manager.ConceptManager;
 public interface KeyspaceStatistics {
     long count(ConceptManager conceptManager, Label label);
     long countOwnerships(ConceptManager conceptManager, Label attributeOwned);
+
+    /**
+     * Mean instance count of the concrete types whose instances were committed while the keyspace is open, read from
+     * the counts already held without enumerating the schema.
+     *
+     * @return the mean instance count, empty if no instances of concrete types were committed
+     */
+    OptionalDouble meanInstanceCount();
+
+    /**
+     * Mean degree of the instances the edges are traversed from, over all instances of the types of that end of the edges,
+     * including the instances with no such edges.
+     *
+     * @param edges     the kinds of edges of interest
+     * @param direction OUT for degrees of relations and owners, IN for degrees of role players and attributes
+     * @return the mean degree, empty if no edges of interest were recorded
+     */
+    OptionalDouble meanDegree(ConceptManager conceptManager, Predicate<DegreeKey> edges, Direction direction);
+
+    /**
+     * High percentile of the current degree of the instances the edges are traversed from, over the instances that
+     * gained such edges while the keyspace is open, so that hubs show up however many commits they were built over.
+     *
+     * @param edges      the kinds of edges of interest
+     * @param direction  OUT for degrees of relations and owners, IN for degrees of role players and attributes
+     * @param percentile fraction of the observed degrees not exceeding the returned one, between 0 and 1
+     * @return the degree percentile, empty if no degrees of interest were observed
+     */
+    OptionalDouble degreePercentile(Predicate<DegreeKey> edges, Direction direction, double percentile);
+
+    /**
+     * @param attributeType label of a concrete attribute type
+     * @return summary of the values of the instances of the attribute type, null if none were recorded
+     */
+    @Nullable
+    AttributeValueStatistics valueStatistics(ConceptManager conceptManager, Label attributeType);
+
     void commit(ConceptManager conceptManager, StatisticsDelta statisticsDelta);
 }
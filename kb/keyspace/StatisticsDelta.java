@@ -18,11 +18,17 @@
 
 package grakn.core.kb.keyspace;
 
+import grakn.core.kb.concept.api.Attribute;
 import grakn.core.kb.concept.api.AttributeType;
+import grakn.core.kb.concept.api.Casting;
+import grakn.core.kb.concept.api.ConceptId;
 import grakn.core.kb.concept.api.Label;
+import grakn.core.kb.concept.api.Thing;
 import grakn.core.kb.concept.api.Type;
+import org.apache.tinkerpop.gremlin.structure.Direction;
 
 import java.util.HashMap;
+import java.util.List;
 
 public interface StatisticsDelta {
     long delta(Label label);
@@ -34,6 +40,27 @@ public interface StatisticsDelta {
     void decrement(Type type);
     void decrementOwnership(AttributeType<?> attribute);
 
+    /**
+     * Records an ownership edge, counting the ownership of the attribute type and the degrees of both ends
+     */
+    void incrementOwnership(Thing owner, Attribute<?> attribute);
+
+    void decrementOwnership(Thing owner, Attribute<?> attribute);
+
+    /**
+     * Records the degrees of both ends of a role player edge
+     */
+    void incrementRolePlayer(Casting casting);
+
+    void decrementRolePlayer(Casting casting);
+
+    /**
+     * Records the value of a created attribute, to be sampled into the value statistics of its type
+     */
+    void valueCreated(Label attributeType, Object value);
+
+    void valueDeleted(Label attributeType, Object value);
+
     /**
      * Special case decrement for attribute deduplication
      * @param label
@@ -43,4 +70,33 @@ public interface StatisticsDelta {
     HashMap<Label, Long> instanceDeltas();
 
     HashMap<Label, Long> ownershipDeltas();
+
+    /**
+     * @return per kind of edge, the net change of the number of edges
+     */
+    HashMap<DegreeKey, Long> edgeDeltas();
+
+    /**
+     * @param direction OUT for the degrees of relations and owners, IN for the degrees of role players and attributes
+     * @return per kind of edge, the net change of the degree of the instances touched by the transaction, bounded
+     * to a sample of the instances of large transactions
+     */
+    HashMap<DegreeKey, HashMap<ConceptId, Long>> degreeDeltas(Direction direction);
+
+    /**
+     * @return per attribute type, a uniform sample of the values created by the transaction, bounded in size
+     */
+    HashMap<Label, List<Object>> createdValues();
+
+    /**
+     * @return per attribute type, the number of created values the sample was drawn from
+     */
+    HashMap<Label, Long> createdValueCounts();
+
+    HashMap<Label, List<Object>> deletedValues();
+
+    /**
+     * @return per attribute type, the net change of the number of owners of each attribute value
+     */
+    HashMap<Label, HashMap<Object, Long>> ownedValueDeltas();
 }
@@ -340,6 +340,11 @@ public interface Transaction extends AutoCloseable {
      */
     void commit() throws InvalidKBException;
 
+    /**
+     * @return net number of instances created by this transaction, less the attributes merged into committed ones on commit
+     */
+    long createdInstances();
+
     Stream<ConceptMap> stream(MatchClause matchClause);
 
     Stream<ConceptMap> stream(MatchClause matchClause, boolean infer);
@@ -359,7 +364,8 @@ public interface Transaction extends AutoCloseable {
      */
     enum Type {
         READ(0),  //Read only transaction where mutations to the graph are prohibited
-        WRITE(1); //Write transaction where the graph can be mutated
+        WRITE(1), //Write transaction where the graph can be mutated
+        BATCH(2); //Write transaction for bulk loading data, mutations are flushed to storage in batches and schema mutations are prohibited
 
         private final int type;
 
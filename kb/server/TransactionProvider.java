@@ -24,8 +24,9 @@ package grakn.core.kb.server;
  */
 public interface TransactionProvider {
     /**
-     * Prepare a generic transaction in a session that hasn't been opened or has a transaction type set
+     * Prepare a transaction in a session that hasn't been opened yet
+     * @param type type of the transaction to prepare, so that the underlying storage transaction can be configured for it
      * @return
      */
-    Transaction newTransaction(Session session);
+    Transaction newTransaction(Session session, Transaction.Type type);
 }
\ No newline at end of file
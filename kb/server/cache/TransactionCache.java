@@ -75,6 +75,8 @@ public class TransactionCache {
     private final Set<Thing> inferredConceptsToPersist = new HashSet<>();
     private final Set<Pair<Thing, Attribute<?>>> inferredOwnerships = new HashSet<>();
     private final Set<Pair<Thing, Attribute<?>>> inferredOwnershipsToPersist = new HashSet<>();
+    // Types of stored (non-inferred) facts deleted in this transaction, conclusions depending on them may need retracting
+    private final Set<Label> retractedTypes = new HashSet<>();
 
     private Map<Label, Long> newShards = new HashMap<>();
 
@@ -97,6 +99,13 @@ public class TransactionCache {
         }
     }
 
+    /**
+     * @return true if schema concepts were added or removed since this cache was refreshed from the keyspace schema cache
+     */
+    public boolean isSchemaLabelCacheModified() {
+        return !keyspaceSchemaCache.cacheMatches(labelCache);
+    }
+
     /**
      * Refreshes the transaction schema cache by reading the keyspace schema cache into this transaction cache.
      * This method performs this operation whilst making a deep clone of the cached concepts to ensure transactions
@@ -295,6 +304,19 @@ public class TransactionCache {
         }
     }
 
+    /**
+     * Records the deletion of a stored fact of the given type.
+     *
+     * @param label label of the type of the deleted instance, ownership or role player
+     */
+    public void retractedType(Label label) {
+        retractedTypes.add(label);
+    }
+
+    public Set<Label> getRetractedTypes() {
+        return retractedTypes;
+    }
+
     /**
      * @return cached things that are inferred
      */
@@ -394,12 +416,10 @@ public class TransactionCache {
         return schemaConceptCache;
     }
 
-    @VisibleForTesting
     public Set<Thing> getInferredInstances() {
         return inferredConcepts;
     }
 
-    @VisibleForTesting
     public Set<Pair<Thing, Attribute<?>>> getInferredOwnerships() {
         return inferredOwnerships;
     }
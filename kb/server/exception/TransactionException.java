@@ -74,6 +74,13 @@ public class TransactionException extends GraknException {
         return create(ErrorMessage.TRANSACTION_READ_ONLY.getMessage(tx.keyspace()));
     }
 
+    /**
+     * Thrown when attempting to define or undefine schema in a batch transaction
+     */
+    public static TransactionException transactionBatchSchemaMutation(Transaction tx) {
+        return create(ErrorMessage.TRANSACTION_BATCH_SCHEMA_MUTATION.getMessage(tx.keyspace()));
+    }
+
     /**
      * Thrown when attempting to use the graph when the transaction is closed
      */
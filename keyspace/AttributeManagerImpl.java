@@ -19,29 +19,26 @@
 
 package grakn.core.keyspace;
 
-import com.google.common.cache.Cache;
-import com.google.common.cache.CacheBuilder;
-import grakn.core.kb.concept.api.ConceptId;
 import grakn.core.kb.keyspace.AttributeManager;
+import grakn.core.kb.keyspace.CommittedAttributeIndex;
 
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.TimeUnit;
 
 public class AttributeManagerImpl implements AttributeManager {
-    private final static int TIMEOUT_MINUTES_ATTRIBUTES_CACHE = 2;
-    private final static int ATTRIBUTES_CACHE_MAX_SIZE = 10000;
+    private final static long DEFAULT_ATTRIBUTES_CACHE_CAPACITY = 1000000;
 
-    private final Cache<String, ConceptId> attributesCommitted;
+    private final CommittedAttributeIndex attributesCommitted;
     //we track txs that insert an attribute with given index
     private final ConcurrentHashMap<String, Set<String>> attributesEphemeral;
     private final Set<String> lockCandidates;
 
     public AttributeManagerImpl(){
-        this.attributesCommitted = CacheBuilder.newBuilder()
-                .expireAfterAccess(TIMEOUT_MINUTES_ATTRIBUTES_CACHE, TimeUnit.MINUTES)
-                .maximumSize(ATTRIBUTES_CACHE_MAX_SIZE)
-                .build();
+        this(DEFAULT_ATTRIBUTES_CACHE_CAPACITY);
+    }
+
+    public AttributeManagerImpl(long attributesCacheCapacity){
+        this.attributesCommitted = new CommittedAttributeIndexImpl(attributesCacheCapacity);
 
         this.attributesEphemeral = new ConcurrentHashMap<>();
         this.lockCandidates = ConcurrentHashMap.newKeySet();
@@ -53,7 +50,7 @@ public class AttributeManagerImpl implements AttributeManager {
     }
 
     @Override
-    public Cache<String, ConceptId> attributesCommitted() {
+    public CommittedAttributeIndex attributesCommitted() {
         return attributesCommitted;
     }
 
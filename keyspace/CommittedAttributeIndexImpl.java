@@ -0,0 +1,280 @@
+/*
+ * Copyright (C) 2020 Grakn Labs
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ */
+
+package grakn.core.keyspace;
+
+import com.google.common.base.Preconditions;
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hashing;
+import grakn.core.core.Schema;
+import grakn.core.kb.concept.api.ConceptId;
+import grakn.core.kb.keyspace.CommittedAttributeIndex;
+
+import javax.annotation.Nullable;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Compact, bounded implementation of CommittedAttributeIndex.
+ *
+ * Rather than keeping attribute index strings and ConceptId objects on the heap, every entry is stored as three
+ * primitive longs and a boolean in open-addressed arrays: the 128-bit murmur3 fingerprint of the attribute index,
+ * the id of the attribute vertex and the CLOCK reference bit. The fingerprint is wide enough for false matches to be
+ * practically impossible even with hundreds of millions of entries. Each slot takes 25 bytes, and since the tables
+ * are kept between 3/8 and 3/4 full, an entry costs between roughly 34 and 67 bytes of heap.
+ *
+ * Entries are spread over independently locked segments, which grow on demand. Once the index holds as many entries
+ * as its capacity, every insertion evicts an entry from the segment it goes to, following the CLOCK policy: entries
+ * looked up since the clock hand last passed over them are given a second chance. Under concurrent insertions the
+ * size may briefly exceed the capacity by at most the number of inserting threads.
+ */
+public class CommittedAttributeIndexImpl implements CommittedAttributeIndex {
+    private static final int SEGMENT_BITS = 4;
+    private static final int SEGMENTS = 1 << SEGMENT_BITS;
+    private static final HashFunction FINGERPRINT = Hashing.murmur3_128();
+
+    private final long capacity;
+    private final Segment[] segments;
+    private final AtomicLong size = new AtomicLong();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public CommittedAttributeIndexImpl(long capacity) {
+        Preconditions.checkArgument(capacity > 0, "Capacity of committed attribute index must be positive");
+        Preconditions.checkArgument(capacity <= (long) SEGMENTS * Segment.MAX_SIZE, "Capacity of committed attribute index is too large");
+        this.capacity = capacity;
+        this.segments = new Segment[SEGMENTS];
+        for (int i = 0; i < SEGMENTS; i++) {
+            segments[i] = new Segment();
+        }
+    }
+
+    @Nullable
+    @Override
+    public ConceptId getIfPresent(String index) {
+        ByteBuffer fingerprint = fingerprint(index);
+        long high = fingerprint.getLong();
+        long low = fingerprint.getLong();
+        long vertexId = segment(high).get(high, low);
+        if (vertexId == Segment.EMPTY) {
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return Schema.conceptIdFromVertexId(vertexId);
+    }
+
+    @Override
+    public void put(String index, ConceptId attributeId) {
+        ByteBuffer fingerprint = fingerprint(index);
+        long high = fingerprint.getLong();
+        long low = fingerprint.getLong();
+        long vertexId = Long.parseLong(Schema.elementId(attributeId));
+        int sizeDelta = segment(high).put(high, low, vertexId, size.get() >= capacity);
+        if (sizeDelta == 0) evictions.increment();
+        size.addAndGet(sizeDelta);
+    }
+
+    @Override
+    public void invalidate(String index) {
+        ByteBuffer fingerprint = fingerprint(index);
+        long high = fingerprint.getLong();
+        long low = fingerprint.getLong();
+        if (segment(high).remove(high, low)) size.decrementAndGet();
+    }
+
+    @Override
+    public long size() {
+        return size.get();
+    }
+
+    @Override
+    public long capacity() {
+        return capacity;
+    }
+
+    @Override
+    public long hitCount() {
+        return hits.sum();
+    }
+
+    @Override
+    public long missCount() {
+        return misses.sum();
+    }
+
+    @Override
+    public long evictionCount() {
+        return evictions.sum();
+    }
+
+    @Override
+    public String toString() {
+        return "CommittedAttributeIndex{size=" + size() + ", capacity=" + capacity +
+                ", hits=" + hitCount() + ", misses=" + missCount() + ", evictions=" + evictionCount() + "}";
+    }
+
+    private static ByteBuffer fingerprint(String index) {
+        return ByteBuffer.wrap(FINGERPRINT.hashString(index, StandardCharsets.UTF_8).asBytes());
+    }
+
+    private Segment segment(long fingerprintHigh) {
+        return segments[(int) (fingerprintHigh >>> (Long.SIZE - SEGMENT_BITS))];
+    }
+
+    /**
+     * Open-addressed hash table with linear probing. Removals shift the following entries back, so no tombstones
+     * are needed. The table never gets more than 3/4 full, so a probe always ends at an empty slot.
+     */
+    private static class Segment {
+        // JanusGraph vertex ids are always positive, so 0 marks an empty slot
+        private static final long EMPTY = 0L;
+        private static final int INITIAL_TABLE_SIZE = 16;
+        private static final int MAX_SIZE = 3 << 28;
+
+        private long[] fingerprintsHigh;
+        private long[] fingerprintsLow;
+        private long[] vertexIds;
+        private boolean[] referenced;
+        private int size = 0;
+        private int clockHand = 0;
+
+        Segment() {
+            allocate(INITIAL_TABLE_SIZE);
+        }
+
+        synchronized long get(long high, long low) {
+            int slot = find(high, low);
+            if (slot < 0) return EMPTY;
+            referenced[slot] = true;
+            return vertexIds[slot];
+        }
+
+        /**
+         * @param evict whether an entry should be evicted to make room for a new one
+         * @return change in the number of entries held by this segment
+         */
+        synchronized int put(long high, long low, long vertexId, boolean evict) {
+            int slot = find(high, low);
+            if (slot >= 0) {
+                vertexIds[slot] = vertexId;
+                referenced[slot] = true;
+                return 0;
+            }
+            int sizeDelta = 1;
+            if (evict && size > 0) {
+                evict();
+                sizeDelta = 0;
+            } else if ((size + 1) * 4L > vertexIds.length * 3L) {
+                Preconditions.checkState(size < MAX_SIZE, "Segment of committed attribute index is full");
+                resize(vertexIds.length * 2);
+            }
+            referenced[insert(high, low, vertexId)] = false;
+            return sizeDelta;
+        }
+
+        /**
+         * @return true if an entry was removed
+         */
+        synchronized boolean remove(long high, long low) {
+            int slot = find(high, low);
+            if (slot < 0) return false;
+            delete(slot);
+            return true;
+        }
+
+        private int find(long high, long low) {
+            int mask = vertexIds.length - 1;
+            for (int slot = (int) low & mask; vertexIds[slot] != EMPTY; slot = (slot + 1) & mask) {
+                if (fingerprintsLow[slot] == low && fingerprintsHigh[slot] == high) return slot;
+            }
+            return -1;
+        }
+
+        private int insert(long high, long low, long vertexId) {
+            int mask = vertexIds.length - 1;
+            int slot = (int) low & mask;
+            while (vertexIds[slot] != EMPTY) slot = (slot + 1) & mask;
+            fingerprintsHigh[slot] = high;
+            fingerprintsLow[slot] = low;
+            vertexIds[slot] = vertexId;
+            size++;
+            return slot;
+        }
+
+        private void delete(int slot) {
+            int mask = vertexIds.length - 1;
+            int hole = slot;
+            for (int next = (hole + 1) & mask; vertexIds[next] != EMPTY; next = (next + 1) & mask) {
+                int home = (int) fingerprintsLow[next] & mask;
+                // the entry can fill the hole only if the hole lies between its home slot and its current slot
+                if (((next - home) & mask) >= ((next - hole) & mask)) {
+                    fingerprintsHigh[hole] = fingerprintsHigh[next];
+                    fingerprintsLow[hole] = fingerprintsLow[next];
+                    vertexIds[hole] = vertexIds[next];
+                    referenced[hole] = referenced[next];
+                    hole = next;
+                }
+            }
+            vertexIds[hole] = EMPTY;
+            referenced[hole] = false;
+            size--;
+        }
+
+        private void evict() {
+            int mask = vertexIds.length - 1;
+            while (true) {
+                int slot = clockHand;
+                clockHand = (clockHand + 1) & mask;
+                if (vertexIds[slot] == EMPTY) continue;
+                if (referenced[slot]) {
+                    referenced[slot] = false;
+                } else {
+                    delete(slot);
+                    return;
+                }
+            }
+        }
+
+        private void resize(int tableSize) {
+            long[] oldHigh = fingerprintsHigh;
+            long[] oldLow = fingerprintsLow;
+            long[] oldIds = vertexIds;
+            boolean[] oldReferenced = referenced;
+            allocate(tableSize);
+            for (int slot = 0; slot < oldIds.length; slot++) {
+                if (oldIds[slot] != EMPTY) {
+                    referenced[insert(oldHigh[slot], oldLow[slot], oldIds[slot])] = oldReferenced[slot];
+                }
+            }
+        }
+
+        private void allocate(int tableSize) {
+            fingerprintsHigh = new long[tableSize];
+            fingerprintsLow = new long[tableSize];
+            vertexIds = new long[tableSize];
+            referenced = new boolean[tableSize];
+            size = 0;
+            clockHand = 0;
+        }
+    }
+}
@@ -0,0 +1,117 @@
+/*
+ * Copyright (C) 2020 Grakn Labs
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ */
+
+package grakn.core.keyspace;
+
+import grakn.core.kb.concept.api.ConceptId;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.OptionalDouble;
+
+/**
+ * Histogram of the current degrees of the instances at one end of a kind of instance edge. Degrees are bucketed by
+ * their binary logarithm, so that the histogram is of constant size while still telling apart instances with a couple
+ * of edges from the ones with thousands.
+ *
+ * Only a sample of the instances is tracked, chosen by the hash of their ids: an instance is sampled at a given level
+ * if that many top bits of its hash are zero, all instances are sampled at level 0. The current degree of the tracked
+ * instances is kept to move them between the buckets as their edges are added and removed, so that an instance gaining
+ * an edge per commit is counted once, with its whole degree. Once more than MAX_TRACKED_INSTANCES are tracked,
+ * the sampling level is raised and the instances no longer sampled are removed from the histogram. As the sample only
+ * depends on the ids, an instance that left the sample is never counted again. Instances are counted from the edges
+ * gained while the keyspace is open.
+ */
+class DegreeHistogram {
+
+    private static final int BUCKETS = Long.SIZE;
+    static final int MAX_TRACKED_INSTANCES = 10_000;
+
+    private int samplingLevel = 0;
+    private final long[] buckets = new long[BUCKETS];
+    private final Map<ConceptId, Long> degrees = new HashMap<>();
+
+    private static boolean isSampled(ConceptId instance, int level) {
+        if (level == 0) return true;
+        int hash = instance.getValue().hashCode() * 0x9E3779B9;
+        return (hash >>> (Integer.SIZE - level)) == 0;
+    }
+
+    /**
+     * @param degreeDeltas net change of the degree of the instances touched by a commit
+     */
+    synchronized void record(Map<ConceptId, Long> degreeDeltas) {
+        degreeDeltas.forEach((instance, delta) -> {
+            if (!isSampled(instance, samplingLevel)) return;
+            long before = degrees.getOrDefault(instance, 0L);
+            long after = Math.max(before + delta, 0);
+            if (before > 0) buckets[bucket(before)]--;
+            if (after > 0) {
+                buckets[bucket(after)]++;
+                degrees.put(instance, after);
+            } else {
+                degrees.remove(instance);
+            }
+        });
+        while (degrees.size() > MAX_TRACKED_INSTANCES && samplingLevel < Integer.SIZE - 1) raiseSamplingLevel();
+    }
+
+    /**
+     * Adds the observations of this histogram to the given bucket counts
+     */
+    synchronized void addTo(long[] counts) {
+        for (int i = 0; i < BUCKETS; i++) counts[i] += buckets[i];
+    }
+
+    static long[] emptyCounts() {
+        return new long[BUCKETS];
+    }
+
+    /**
+     * @return the upper bound of the bucket holding the given percentile of the observations, empty if there are none
+     */
+    static OptionalDouble percentile(long[] counts, double percentile) {
+        long total = 0;
+        for (long count : counts) total += count;
+        if (total == 0) return OptionalDouble.empty();
+
+        long rank = (long) Math.ceil(percentile * total);
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts[i];
+            if (seen >= rank && counts[i] > 0) return OptionalDouble.of(Math.pow(2, i + 1) - 1);
+        }
+        return OptionalDouble.empty();
+    }
+
+    /**
+     * Halves the sample, removing the instances no longer sampled from the histogram
+     */
+    private void raiseSamplingLevel() {
+        samplingLevel++;
+        degrees.entrySet().removeIf(entry -> {
+            if (isSampled(entry.getKey(), samplingLevel)) return false;
+            buckets[bucket(entry.getValue())]--;
+            return true;
+        });
+    }
+
+    private static int bucket(long degree) {
+        return BUCKETS - 1 - Long.numberOfLeadingZeros(degree);
+    }
+}
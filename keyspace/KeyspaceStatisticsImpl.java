@@ -18,18 +18,29 @@
 
 package grakn.core.keyspace;
 
+import grakn.core.core.Schema;
 import grakn.core.kb.concept.api.AttributeType;
 import grakn.core.kb.concept.api.Concept;
+import grakn.core.kb.concept.api.ConceptId;
 import grakn.core.kb.concept.api.Label;
 import grakn.core.kb.concept.api.Type;
 import grakn.core.kb.concept.manager.ConceptManager;
+import grakn.core.kb.keyspace.AttributeValueStatistics;
+import grakn.core.kb.keyspace.DegreeKey;
 import grakn.core.kb.keyspace.KeyspaceStatistics;
 import grakn.core.kb.keyspace.StatisticsDelta;
+import org.apache.tinkerpop.gremlin.structure.Direction;
 
+import javax.annotation.Nullable;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalDouble;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
 
 
 /**
@@ -44,15 +55,35 @@ import java.util.concurrent.ConcurrentHashMap;
  * We also store the total count of all concepts the same was as any other schema concept, but on the meta
  * concept types. Note that this is different from the other instance counts as it DOES include counts of all subtypes. The
  * other counts on user-defined schema concepts are for for that concrete type only
+ * <p>
+ * Numbers of role player and ownership edges are persisted per kind of edge on the type vertex the edges go out of,
+ * the same way as the instance counts, so that mean degrees are computed from persisted totals on both sides.
+ * Histograms of the degrees of instances are kept in memory only, accumulated per instance from the commits made
+ * while the keyspace is open. Until some are recorded, the planner does not raise its estimates for skewed degrees.
+ * <p>
+ * Values of attribute types are sampled into a ValueHistogram per attribute type on commit, which is persisted
+ * as a property of the attribute type vertex in the same way as the counts, though only once the changes since
+ * it was last written amount to a fraction of its values.
  */
 public class KeyspaceStatisticsImpl implements KeyspaceStatistics {
 
     private ConcurrentHashMap<Label, Long> instanceCountsCache;
+    private Set<Label> committedTypes;
     private ConcurrentHashMap<Label, Long> ownershipCountsCache;
+    private ConcurrentHashMap<Label, Map<DegreeKey, Long>> edgeCountsCache;
+    private volatile boolean edgeCountsLoaded = false;
+    private ConcurrentHashMap<DegreeKey, DegreeHistogram> outDegrees;
+    private ConcurrentHashMap<DegreeKey, DegreeHistogram> inDegrees;
+    private ConcurrentHashMap<Label, ValueHistogram> valueHistogramsCache;
 
     public KeyspaceStatisticsImpl() {
         instanceCountsCache = new ConcurrentHashMap<>();
+        committedTypes = ConcurrentHashMap.newKeySet();
         ownershipCountsCache = new ConcurrentHashMap<>();
+        edgeCountsCache = new ConcurrentHashMap<>();
+        outDegrees = new ConcurrentHashMap<>();
+        inDegrees = new ConcurrentHashMap<>();
+        valueHistogramsCache = new ConcurrentHashMap<>();
     }
 
     @Override
@@ -69,6 +100,16 @@ public class KeyspaceStatisticsImpl implements KeyspaceStatistics {
         return ownershipCountsCache.get(owner);
     }
 
+    @Override
+    public OptionalDouble meanInstanceCount() {
+        long instances = 0;
+        for (Label type : committedTypes) {
+            instances += Math.max(instanceCountsCache.getOrDefault(type, 0L), 0);
+        }
+        if (instances == 0) return OptionalDouble.empty();
+        return OptionalDouble.of((double) instances / committedTypes.size());
+    }
+
     @Override
     public void commit(ConceptManager conceptManager, StatisticsDelta statisticsDelta) {
         HashMap<Label, Long> deltaMap = statisticsDelta.instanceDeltas();
@@ -81,6 +122,7 @@ public class KeyspaceStatisticsImpl implements KeyspaceStatistics {
                     Label label = entry.getKey();
                     Long delta = entry.getValue();
                     instanceLabelsToPersist.add(label);
+                    if (!Schema.MetaSchema.isMetaLabel(label)) committedTypes.add(label);
                     // atomic update
                     instanceCountsCache.compute(label, (k, prior) ->
                             prior == null ?
@@ -106,6 +148,136 @@ public class KeyspaceStatisticsImpl implements KeyspaceStatistics {
 
         persist(conceptManager, instanceLabelsToPersist, ownershipLabelsToPersist);
 
+        Map<Label, Map<DegreeKey, Long>> edgeDeltas = new HashMap<>();
+        statisticsDelta.edgeDeltas().entrySet().stream()
+                .filter(e -> e.getValue() != 0)
+                .forEach(e -> edgeDeltas.computeIfAbsent(e.getKey().from(), l -> new HashMap<>()).put(e.getKey(), e.getValue()));
+        edgeDeltas.forEach((label, deltas) ->
+                // merge and write under `.compute()` for an atomic and locking vertex write
+                edgeCountsCache.compute(label, (lab, counts) -> {
+                    Concept schemaConcept = conceptManager.getSchemaConcept(lab);
+                    if (schemaConcept == null || !schemaConcept.isType()) return counts;
+                    Type type = schemaConcept.asType();
+                    Map<DegreeKey, Long> merged = counts != null ? counts : deserialiseEdgeCounts(lab, type.edgeCounts());
+                    deltas.forEach((key, delta) -> merged.merge(key, delta, (prior, d) -> Math.max(prior + d, 0)));
+                    type.writeEdgeCounts(serialiseEdgeCounts(merged));
+                    return merged;
+                }));
+
+        recordDegrees(outDegrees, statisticsDelta.degreeDeltas(Direction.OUT));
+        recordDegrees(inDegrees, statisticsDelta.degreeDeltas(Direction.IN));
+
+        Set<Label> valueLabels = new HashSet<>(statisticsDelta.createdValues().keySet());
+        valueLabels.addAll(statisticsDelta.deletedValues().keySet());
+        valueLabels.addAll(statisticsDelta.ownedValueDeltas().keySet());
+        for (Label label : valueLabels) {
+            List<Object> created = statisticsDelta.createdValues().getOrDefault(label, Collections.emptyList());
+            long createdCount = statisticsDelta.createdValueCounts().getOrDefault(label, 0L);
+            List<Object> deleted = statisticsDelta.deletedValues().getOrDefault(label, Collections.emptyList());
+            Map<Object, Long> ownerDeltas = statisticsDelta.ownedValueDeltas().getOrDefault(label, new HashMap<>());
+            // merge and write under `.compute()` for an atomic and locking vertex write
+            valueHistogramsCache.compute(label, (lab, histogram) -> {
+                AttributeType<?> attributeType = conceptManager.getAttributeType(lab.toString());
+                if (attributeType == null) return null;
+                ValueHistogram merged = histogram != null ? histogram : ValueHistogram.deserialise(attributeType.valueHistogram());
+                merged.addSample(created, createdCount);
+                merged.removeValues(deleted);
+                merged.addOwners(ownerDeltas);
+                // only written once the changes since the last write are a meaningful fraction of the values
+                if (merged.requiresPersisting()) {
+                    attributeType.writeValueHistogram(merged.serialise());
+                    merged.markPersisted();
+                }
+                return merged;
+            });
+        }
+    }
+
+    @Override
+    @Nullable
+    public AttributeValueStatistics valueStatistics(ConceptManager conceptManager, Label attributeType) {
+        ValueHistogram histogram = valueHistogramsCache.computeIfAbsent(attributeType, label -> {
+            AttributeType<?> type = conceptManager.getAttributeType(label.toString());
+            return type != null ? ValueHistogram.deserialise(type.valueHistogram()) : null;
+        });
+        return histogram != null && !histogram.isEmpty() ? histogram : null;
+    }
+
+    private static void recordDegrees(ConcurrentHashMap<DegreeKey, DegreeHistogram> degrees,
+                                      HashMap<DegreeKey, HashMap<ConceptId, Long>> degreeDeltas) {
+        degreeDeltas.forEach((key, instanceDeltas) ->
+                degrees.computeIfAbsent(key, k -> new DegreeHistogram()).record(instanceDeltas));
+    }
+
+    @Override
+    public OptionalDouble meanDegree(ConceptManager conceptManager, Predicate<DegreeKey> edges, Direction direction) {
+        loadEdgeCounts(conceptManager);
+        long edgeCount = 0;
+        Set<Label> types = new HashSet<>();
+        for (Map<DegreeKey, Long> counts : edgeCountsCache.values()) {
+            for (Map.Entry<DegreeKey, Long> entry : counts.entrySet()) {
+                DegreeKey key = entry.getKey();
+                if (!edges.test(key)) continue;
+                edgeCount += entry.getValue();
+                types.add(direction == Direction.OUT ? key.from() : key.to());
+            }
+        }
+        if (types.isEmpty()) return OptionalDouble.empty();
+
+        long instanceCount = types.stream().mapToLong(type -> Math.max(count(conceptManager, type), 0)).sum();
+        if (instanceCount == 0) return OptionalDouble.empty();
+        return OptionalDouble.of((double) edgeCount / instanceCount);
+    }
+
+    @Override
+    public OptionalDouble degreePercentile(Predicate<DegreeKey> edges, Direction direction, double percentile) {
+        long[] counts = DegreeHistogram.emptyCounts();
+        degrees(direction).forEach((key, histogram) -> {
+            if (edges.test(key)) histogram.addTo(counts);
+        });
+        return DegreeHistogram.percentile(counts, percentile);
+    }
+
+    /**
+     * Effectively a cache miss for all types at once - the edge counts of all types are needed to select the edges
+     * of interest, so they are retrieved from the janus vertices of all types the first time they are needed
+     */
+    private void loadEdgeCounts(ConceptManager conceptManager) {
+        if (edgeCountsLoaded) return;
+        synchronized (this) {
+            if (edgeCountsLoaded) return;
+            conceptManager.getMetaConcept().subs().forEach(type ->
+                    edgeCountsCache.computeIfAbsent(type.label(), label -> deserialiseEdgeCounts(label, type.edgeCounts())));
+            edgeCountsLoaded = true;
+        }
+    }
+
+    /**
+     * Edge counts of a type are serialised as `role,to,count` entries separated by `;`, the role is empty for ownerships
+     */
+    private static String serialiseEdgeCounts(Map<DegreeKey, Long> counts) {
+        StringBuilder serialised = new StringBuilder();
+        counts.forEach((key, count) -> {
+            if (serialised.length() > 0) serialised.append(';');
+            serialised.append(key.isRolePlayer() ? key.role() : "").append(',').append(key.to()).append(',').append(count);
+        });
+        return serialised.toString();
+    }
+
+    private static Map<DegreeKey, Long> deserialiseEdgeCounts(Label from, @Nullable String serialised) {
+        Map<DegreeKey, Long> counts = new ConcurrentHashMap<>();
+        if (serialised == null || serialised.isEmpty()) return counts;
+        for (String entry : serialised.split(";")) {
+            String[] fields = entry.split(",");
+            Label to = Label.of(fields[1]);
+            DegreeKey key = fields[0].isEmpty() ? DegreeKey.ownership(from, to) : DegreeKey.rolePlayer(from, Label.of(fields[0]), to);
+            counts.put(key, Long.parseLong(fields[2]));
+        }
+        return counts;
+    }
+
+    private ConcurrentHashMap<DegreeKey, DegreeHistogram> degrees(Direction direction) {
+        return direction == Direction.OUT ? outDegrees : inDegrees;
     }
 
     private void persist(ConceptManager conceptManager, Set<Label> labelsToPersist, Set<Label> ownershipLabelsToPersist) {
@@ -19,15 +19,24 @@
 package grakn.core.keyspace;
 
 import grakn.core.core.Schema;
+import grakn.core.kb.concept.api.Attribute;
 import grakn.core.kb.concept.api.AttributeType;
+import grakn.core.kb.concept.api.Casting;
+import grakn.core.kb.concept.api.ConceptId;
 import grakn.core.kb.concept.api.EntityType;
 import grakn.core.kb.concept.api.GraknConceptException;
 import grakn.core.kb.concept.api.Label;
 import grakn.core.kb.concept.api.RelationType;
+import grakn.core.kb.concept.api.Thing;
 import grakn.core.kb.concept.api.Type;
+import grakn.core.kb.keyspace.DegreeKey;
 import grakn.core.kb.keyspace.StatisticsDelta;
+import org.apache.tinkerpop.gremlin.structure.Direction;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
+import java.util.Random;
 
 /**
  * A transaction-bound tracker of created and deleted types. A simple implementation that increments and decrements
@@ -39,6 +48,17 @@ public class StatisticsDeltaImpl implements StatisticsDelta {
 
     private HashMap<Label, Long> instanceDeltas;
     private HashMap<Label, Long> ownershipDeltas;
+    private HashMap<DegreeKey, Long> edgeDeltas;
+    // degrees of at most DegreeHistogram.MAX_TRACKED_INSTANCES instances are kept per kind of edge,
+    // edges of any further instances are only summed up in the edge deltas
+    private HashMap<DegreeKey, HashMap<ConceptId, Long>> outDegreeDeltas;
+    private HashMap<DegreeKey, HashMap<ConceptId, Long>> inDegreeDeltas;
+    // created values are reservoir sampled, as the value statistics only keep a sample of them
+    private HashMap<Label, List<Object>> createdValues;
+    private HashMap<Label, Long> createdValueCounts;
+    private final Random random = new Random();
+    private HashMap<Label, List<Object>> deletedValues;
+    private HashMap<Label, HashMap<Object, Long>> ownedValueDeltas;
 
     // keep these outside of the hashmap to avoid a large number of hash() method calls
     private long thingCount = 0;
@@ -49,6 +69,13 @@ public class StatisticsDeltaImpl implements StatisticsDelta {
     public StatisticsDeltaImpl() {
         instanceDeltas = new HashMap<>();
         ownershipDeltas = new HashMap<>();
+        edgeDeltas = new HashMap<>();
+        outDegreeDeltas = new HashMap<>();
+        inDegreeDeltas = new HashMap<>();
+        createdValues = new HashMap<>();
+        createdValueCounts = new HashMap<>();
+        deletedValues = new HashMap<>();
+        ownedValueDeltas = new HashMap<>();
     }
 
     @Override
@@ -109,6 +136,71 @@ public class StatisticsDeltaImpl implements StatisticsDelta {
         ownershipDeltas.put(label, currentCount - 1);
     }
 
+    @Override
+    public void incrementOwnership(Thing owner, Attribute<?> attribute) {
+        incrementOwnership(attribute.type());
+        DegreeKey key = DegreeKey.ownership(owner.type().label(), attribute.type().label());
+        updateDegrees(key, owner.id(), attribute.id(), 1);
+        updateOwnedValue(attribute, 1);
+    }
+
+    @Override
+    public void decrementOwnership(Thing owner, Attribute<?> attribute) {
+        decrementOwnership(attribute.type());
+        DegreeKey key = DegreeKey.ownership(owner.type().label(), attribute.type().label());
+        updateDegrees(key, owner.id(), attribute.id(), -1);
+        updateOwnedValue(attribute, -1);
+    }
+
+    @Override
+    public void incrementRolePlayer(Casting casting) {
+        updateDegrees(rolePlayerKey(casting), casting.getRelation().id(), casting.getRolePlayer().id(), 1);
+    }
+
+    @Override
+    public void decrementRolePlayer(Casting casting) {
+        updateDegrees(rolePlayerKey(casting), casting.getRelation().id(), casting.getRolePlayer().id(), -1);
+    }
+
+    private static DegreeKey rolePlayerKey(Casting casting) {
+        return DegreeKey.rolePlayer(casting.getRelationType().label(), casting.getRole().label(), casting.getRolePlayer().type().label());
+    }
+
+    private void updateDegrees(DegreeKey key, ConceptId from, ConceptId to, long delta) {
+        edgeDeltas.merge(key, delta, Long::sum);
+        updateDegree(outDegreeDeltas.computeIfAbsent(key, k -> new HashMap<>()), from, delta);
+        updateDegree(inDegreeDeltas.computeIfAbsent(key, k -> new HashMap<>()), to, delta);
+    }
+
+    private static void updateDegree(HashMap<ConceptId, Long> degreeDeltas, ConceptId instance, long delta) {
+        if (degreeDeltas.size() < DegreeHistogram.MAX_TRACKED_INSTANCES || degreeDeltas.containsKey(instance)) {
+            degreeDeltas.merge(instance, delta, Long::sum);
+        }
+    }
+
+    private void updateOwnedValue(Attribute<?> attribute, long delta) {
+        ownedValueDeltas.computeIfAbsent(attribute.type().label(), k -> new HashMap<>()).merge(attribute.value(), delta, Long::sum);
+    }
+
+    @Override
+    public void valueCreated(Label attributeType, Object value) {
+        Object sampled = ValueHistogram.sampled(value);
+        if (sampled == null) return;
+        long seen = createdValueCounts.merge(attributeType, 1L, Long::sum);
+        List<Object> sample = createdValues.computeIfAbsent(attributeType, k -> new ArrayList<>());
+        if (sample.size() < ValueHistogram.SAMPLE_SIZE) {
+            sample.add(sampled);
+        } else {
+            long index = (long) (random.nextDouble() * seen);
+            if (index < ValueHistogram.SAMPLE_SIZE) sample.set((int) index, sampled);
+        }
+    }
+
+    @Override
+    public void valueDeleted(Label attributeType, Object value) {
+        deletedValues.computeIfAbsent(attributeType, k -> new ArrayList<>()).add(value);
+    }
+
     /**
      * Special case decrement for attribute deduplication
      * @param label
@@ -143,4 +235,34 @@ public class StatisticsDeltaImpl implements StatisticsDelta {
     public HashMap<Label, Long> ownershipDeltas() {
         return ownershipDeltas;
     }
+
+    @Override
+    public HashMap<DegreeKey, Long> edgeDeltas() {
+        return edgeDeltas;
+    }
+
+    @Override
+    public HashMap<DegreeKey, HashMap<ConceptId, Long>> degreeDeltas(Direction direction) {
+        return direction == Direction.OUT ? outDegreeDeltas : inDegreeDeltas;
+    }
+
+    @Override
+    public HashMap<Label, List<Object>> createdValues() {
+        return createdValues;
+    }
+
+    @Override
+    public HashMap<Label, Long> createdValueCounts() {
+        return createdValueCounts;
+    }
+
+    @Override
+    public HashMap<Label, List<Object>> deletedValues() {
+        return deletedValues;
+    }
+
+    @Override
+    public HashMap<Label, HashMap<Object, Long>> ownedValueDeltas() {
+        return ownedValueDeltas;
+    }
 }
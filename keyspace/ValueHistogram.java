@@ -0,0 +1,263 @@
+/*
+ * Copyright (C) 2020 Grakn Labs
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ */
+
+package grakn.core.keyspace;
+
+import grakn.core.kb.keyspace.AttributeValueStatistics;
+
+import javax.annotation.Nullable;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalDouble;
+import java.util.OptionalLong;
+import java.util.Random;
+import java.util.function.Predicate;
+
+/**
+ * Summary of the values of an attribute type, sampled incrementally from the values committed to the keyspace.
+ *
+ * Values are kept in a reservoir sample of bounded size, so that every committed value has the same chance of being
+ * sampled. Numeric and date values are summarised as an equi-depth histogram built from the sample, string values
+ * are matched against the sample directly. The number of owners of the most owned values is tracked with a
+ * space-saving sketch: a bounded map of counters, in which an untracked value replaces the least owned one.
+ *
+ * Deleted values are removed from the sample if they were sampled, but do not change the number of values seen.
+ *
+ * Changes are counted since the histogram was last persisted, so that it is only written again once the changes
+ * amount to a fixed fraction of the values seen.
+ */
+class ValueHistogram implements AttributeValueStatistics {
+
+    static final int SAMPLE_SIZE = 256;
+    private static final int BUCKETS = 32;
+    private static final int TOP_VALUES = 32;
+    private static final int MAX_SAMPLED_STRING_LENGTH = 256;
+    private static final String SEPARATOR = "\t";
+    // the histogram is persisted again once the changes since it was last persisted amount to this fraction of its values
+    private static final double PERSISTED_CHANGE_FRACTION = 0.1;
+
+    private final Random random = new Random();
+    private long seen = 0;
+    private final List<Object> sample = new ArrayList<>();
+    private final Map<String, Long> topOwned = new HashMap<>();
+    // boundaries of the equi-depth buckets of the numeric values, null until computed from the current sample
+    private double[] boundaries = null;
+    private long unpersistedChanges = 0;
+
+    /**
+     * Merges a uniform sample of further values into the sample of the histogram, drawing each merged value from
+     * either sample in proportion to the number of values it was drawn from
+     *
+     * @param values     uniform sample of the values, each as returned by sampled()
+     * @param seenValues number of values the sample was drawn from
+     */
+    synchronized void addSample(List<Object> values, long seenValues) {
+        if (seenValues <= 0) return;
+        List<Object> own = new ArrayList<>(sample);
+        List<Object> other = new ArrayList<>(values);
+        Collections.shuffle(own, random);
+        Collections.shuffle(other, random);
+
+        long total = seen + seenValues;
+        sample.clear();
+        int ownIndex = 0;
+        int otherIndex = 0;
+        while (sample.size() < SAMPLE_SIZE && (ownIndex < own.size() || otherIndex < other.size())) {
+            boolean fromOwn = otherIndex == other.size()
+                    || (ownIndex < own.size() && random.nextDouble() * total < seen);
+            sample.add(fromOwn ? own.get(ownIndex++) : other.get(otherIndex++));
+        }
+        seen = total;
+        unpersistedChanges += seenValues;
+        boundaries = null;
+    }
+
+    synchronized void removeValues(Collection<Object> values) {
+        for (Object value : values) {
+            Object sampled = sampled(value);
+            if (sampled != null) sample.remove(sampled);
+        }
+        unpersistedChanges += values.size();
+        boundaries = null;
+    }
+
+    synchronized void addOwners(Map<Object, Long> ownerDeltas) {
+        ownerDeltas.forEach((value, delta) -> {
+            if (delta == 0) return;
+            unpersistedChanges += Math.abs(delta);
+            String key = key(value);
+            Long owners = topOwned.get(key);
+            if (owners != null) {
+                if (owners + delta > 0) topOwned.put(key, owners + delta);
+                else topOwned.remove(key);
+            } else if (delta > 0) {
+                if (topOwned.size() < TOP_VALUES) {
+                    topOwned.put(key, delta);
+                } else {
+                    Map.Entry<String, Long> leastOwned = topOwned.entrySet().stream()
+                            .min(Map.Entry.comparingByValue()).get();
+                    topOwned.remove(leastOwned.getKey());
+                    topOwned.put(key, leastOwned.getValue() + delta);
+                }
+            }
+        });
+    }
+
+    /**
+     * @return true if the histogram changed enough since it was last persisted to be written again
+     */
+    synchronized boolean requiresPersisting() {
+        return unpersistedChanges > 0 && unpersistedChanges >= PERSISTED_CHANGE_FRACTION * seen;
+    }
+
+    synchronized void markPersisted() {
+        unpersistedChanges = 0;
+    }
+
+    synchronized boolean isEmpty() {
+        return sample.isEmpty() && topOwned.isEmpty();
+    }
+
+    @Override
+    public synchronized OptionalDouble fractionBelow(Object value, boolean inclusive) {
+        Double number = toNumber(value);
+        double[] buckets = boundaries();
+        if (number == null || buckets == null) return OptionalDouble.empty();
+
+        double x = number;
+        if (x < buckets[0] || (!inclusive && x == buckets[0])) return OptionalDouble.of(0D);
+        if (x > buckets[BUCKETS] || (inclusive && x == buckets[BUCKETS])) return OptionalDouble.of(1D);
+
+        // the first boundary above the value, or not below it if the value itself is excluded
+        int upper = 1;
+        while (upper < BUCKETS && (inclusive ? buckets[upper] <= x : buckets[upper] < x)) upper++;
+        double width = buckets[upper] - buckets[upper - 1];
+        double withinBucket = width > 0 ? (x - buckets[upper - 1]) / width : 0D;
+        return OptionalDouble.of((upper - 1 + withinBucket) / BUCKETS);
+    }
+
+    @Override
+    public synchronized OptionalDouble fractionMatching(Predicate<Object> predicate) {
+        long strings = sample.stream().filter(String.class::isInstance).count();
+        if (strings == 0) return OptionalDouble.empty();
+        long matching = sample.stream().filter(String.class::isInstance).filter(predicate).count();
+        return OptionalDouble.of((double) matching / strings);
+    }
+
+    @Override
+    public synchronized OptionalLong owners(Object value) {
+        Long owners = topOwned.get(key(value));
+        return owners != null ? OptionalLong.of(owners) : OptionalLong.empty();
+    }
+
+    @Nullable
+    private double[] boundaries() {
+        if (boundaries != null) return boundaries;
+        double[] numbers = sample.stream().filter(Double.class::isInstance).mapToDouble(Double.class::cast).sorted().toArray();
+        if (numbers.length == 0) return null;
+        boundaries = new double[BUCKETS + 1];
+        for (int i = 0; i <= BUCKETS; i++) {
+            boundaries[i] = numbers[(int) ((long) i * (numbers.length - 1) / BUCKETS)];
+        }
+        return boundaries;
+    }
+
+    /**
+     * @return the value as kept in the sample: numeric and date values as doubles, short strings as they are,
+     * null if the value is not sampled
+     */
+    @Nullable
+    static Object sampled(Object value) {
+        Double number = toNumber(value);
+        if (number != null) return number;
+        if (value instanceof String && ((String) value).length() <= MAX_SAMPLED_STRING_LENGTH) return value;
+        return null;
+    }
+
+    @Nullable
+    private static Double toNumber(Object value) {
+        if (value instanceof Number) return ((Number) value).doubleValue();
+        if (value instanceof LocalDateTime) {
+            return (double) ((LocalDateTime) value).atZone(ZoneId.of("Z")).toInstant().toEpochMilli();
+        }
+        return null;
+    }
+
+    private static String key(Object value) {
+        Double number = toNumber(value);
+        return number != null ? number.toString() : value.toString();
+    }
+
+    /**
+     * Serialises the histogram as lines of tab separated fields: the number of values seen, followed by the sampled
+     * values and the most owned values with their owner counts. Strings are Base64 encoded.
+     */
+    synchronized String serialise() {
+        StringBuilder builder = new StringBuilder().append(seen);
+        for (Object value : sample) {
+            builder.append('\n');
+            if (value instanceof Double) builder.append('n').append(SEPARATOR).append(value);
+            else builder.append('s').append(SEPARATOR).append(encode((String) value));
+        }
+        topOwned.forEach((key, owners) -> builder.append('\n')
+                .append('o').append(SEPARATOR).append(owners).append(SEPARATOR).append(encode(key)));
+        return builder.toString();
+    }
+
+    static ValueHistogram deserialise(@Nullable String serialised) {
+        ValueHistogram histogram = new ValueHistogram();
+        if (serialised == null || serialised.isEmpty()) return histogram;
+
+        String[] lines = serialised.split("\n");
+        histogram.seen = Long.parseLong(lines[0]);
+        for (String line : Arrays.asList(lines).subList(1, lines.length)) {
+            String[] fields = line.split(SEPARATOR, -1);
+            switch (fields[0]) {
+                case "n":
+                    histogram.sample.add(Double.parseDouble(fields[1]));
+                    break;
+                case "s":
+                    histogram.sample.add(decode(fields[1]));
+                    break;
+                case "o":
+                    histogram.topOwned.put(decode(fields[2]), Long.parseLong(fields[1]));
+                    break;
+                default:
+                    break;
+            }
+        }
+        return histogram;
+    }
+
+    private static String encode(String value) {
+        return Base64.getEncoder().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String decode(String encoded) {
+        return new String(Base64.getDecoder().decode(encoded), StandardCharsets.UTF_8);
+    }
+}
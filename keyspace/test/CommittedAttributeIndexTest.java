@@ -0,0 +1,94 @@
+/*
+ * Copyright (C) 2020 Grakn Labs
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ */
+
+package grakn.core.keyspace;
+
+import grakn.core.kb.concept.api.ConceptId;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class CommittedAttributeIndexTest {
+
+    @Test
+    public void whenPuttingAttribute_itCanBeRetrieved() {
+        CommittedAttributeIndexImpl index = new CommittedAttributeIndexImpl(100);
+        index.put("ATTRIBUTE-name-Alice", ConceptId.of("V4096"));
+
+        assertEquals(ConceptId.of("V4096"), index.getIfPresent("ATTRIBUTE-name-Alice"));
+        assertNull(index.getIfPresent("ATTRIBUTE-name-Bob"));
+        assertEquals(1, index.hitCount());
+        assertEquals(1, index.missCount());
+    }
+
+    @Test
+    public void whenInvalidatingAttribute_itIsNoLongerRetrieved() {
+        CommittedAttributeIndexImpl index = new CommittedAttributeIndexImpl(100);
+        index.put("ATTRIBUTE-name-Alice", ConceptId.of("V4096"));
+        index.invalidate("ATTRIBUTE-name-Alice");
+
+        assertNull(index.getIfPresent("ATTRIBUTE-name-Alice"));
+        assertEquals(0, index.size());
+    }
+
+    @Test
+    public void whenPuttingManyAttributes_allAreRetrievedAfterTheTablesGrow() {
+        int attributes = 100000;
+        CommittedAttributeIndexImpl index = new CommittedAttributeIndexImpl(attributes);
+        for (int i = 1; i <= attributes; i++) {
+            index.put("ATTRIBUTE-age-" + i, ConceptId.of("V" + i));
+        }
+        for (int i = 1; i <= attributes; i += 2) {
+            index.invalidate("ATTRIBUTE-age-" + i);
+        }
+
+        assertEquals(attributes / 2, index.size());
+        for (int i = 1; i <= attributes; i++) {
+            if (i % 2 == 0) assertEquals(ConceptId.of("V" + i), index.getIfPresent("ATTRIBUTE-age-" + i));
+            else assertNull(index.getIfPresent("ATTRIBUTE-age-" + i));
+        }
+        assertEquals(0, index.evictionCount());
+    }
+
+    @Test
+    public void whenCapacityIsExceeded_entriesAreEvicted() {
+        int capacity = 1000;
+        CommittedAttributeIndexImpl index = new CommittedAttributeIndexImpl(capacity);
+        for (int i = 1; i <= capacity * 10; i++) {
+            index.put("ATTRIBUTE-age-" + i, ConceptId.of("V" + i));
+        }
+
+        assertTrue(index.size() <= capacity);
+        assertEquals(capacity * 10 - index.size(), index.evictionCount());
+    }
+
+    @Test
+    public void whenCapacityIsExceeded_recentlyReadEntriesAreKept() {
+        int capacity = 1000;
+        CommittedAttributeIndexImpl index = new CommittedAttributeIndexImpl(capacity);
+        index.put("ATTRIBUTE-name-Alice", ConceptId.of("V1"));
+        for (int i = 2; i <= capacity * 10; i++) {
+            index.getIfPresent("ATTRIBUTE-name-Alice");
+            index.put("ATTRIBUTE-age-" + i, ConceptId.of("V" + i));
+        }
+
+        assertEquals(ConceptId.of("V1"), index.getIfPresent("ATTRIBUTE-name-Alice"));
+    }
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright (C) 2020 Grakn Labs
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ */
+
+package grakn.core.keyspace;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class ValueHistogramTest {
+
+    @Test
+    public void whenFewerValuesThanTheSampleSizeAreSeen_allAreSampled() {
+        ValueHistogram histogram = new ValueHistogram();
+        histogram.addSample(numbers(0, 50), 50);
+        histogram.addSample(numbers(50, 50), 50);
+
+        assertEquals(0.5, histogram.fractionBelow(50L, false).getAsDouble(), 0.05);
+        assertEquals(0.0, histogram.fractionBelow(0L, false).getAsDouble(), 0.001);
+        assertEquals(1.0, histogram.fractionBelow(99L, true).getAsDouble(), 0.001);
+    }
+
+    @Test
+    public void whenMergingSamplesOfManyValues_valuesAreSampledInProportionToTheValuesSeen() {
+        ValueHistogram histogram = new ValueHistogram();
+        histogram.addSample(numbers(0, ValueHistogram.SAMPLE_SIZE), 30000);
+        histogram.addSample(numbers(1000000, ValueHistogram.SAMPLE_SIZE), 10000);
+
+        // three quarters of the values seen are below the second sample
+        assertEquals(0.75, histogram.fractionBelow(1000000L, false).getAsDouble(), 0.1);
+        histogram.addSample(numbers(2000000, ValueHistogram.SAMPLE_SIZE), 40000);
+        assertEquals(0.5, histogram.fractionBelow(2000000L, false).getAsDouble(), 0.1);
+    }
+
+    @Test
+    public void histogramRequiresPersistingOnlyOnceChangesAmountToAFractionOfTheValues() {
+        ValueHistogram histogram = new ValueHistogram();
+        histogram.addSample(numbers(0, 100), 100);
+        assertTrue(histogram.requiresPersisting());
+        histogram.markPersisted();
+        assertFalse(histogram.requiresPersisting());
+
+        histogram.addSample(numbers(100, 5), 5);
+        assertFalse(histogram.requiresPersisting());
+        histogram.addSample(numbers(105, 10), 10);
+        assertTrue(histogram.requiresPersisting());
+    }
+
+    @Test
+    public void whenDeserialisingPersistedHistogram_noChangesArePending() {
+        ValueHistogram histogram = new ValueHistogram();
+        histogram.addSample(numbers(0, 100), 100);
+        ValueHistogram deserialised = ValueHistogram.deserialise(histogram.serialise());
+
+        assertFalse(deserialised.requiresPersisting());
+        assertEquals(0.5, deserialised.fractionBelow(50L, false).getAsDouble(), 0.05);
+    }
+
+    private static List<Object> numbers(long from, int count) {
+        List<Object> numbers = new ArrayList<>();
+        for (long i = from; i < from + count; i++) {
+            numbers.add(ValueHistogram.sampled(i));
+        }
+        return numbers;
+    }
+}
@@ -17,6 +17,7 @@
  */
 package grakn.core.server;
 
+import grakn.core.server.session.SessionFactory;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -29,10 +30,12 @@ public class Server implements AutoCloseable {
     private static final Logger LOG = LoggerFactory.getLogger(Server.class);
 
     private final io.grpc.Server serverRPC;
+    private final SessionFactory sessionFactory;
 
-    public Server(io.grpc.Server serverRPC) {
+    public Server(io.grpc.Server serverRPC, SessionFactory sessionFactory) {
         // Lock provider
         this.serverRPC = serverRPC;
+        this.sessionFactory = sessionFactory;
     }
 
     public void start() throws IOException {
@@ -52,6 +55,8 @@ public class Server implements AutoCloseable {
         } catch (InterruptedException e) {
             LOG.error("Exception while closing Server:", e);
             Thread.currentThread().interrupt();
+        } finally {
+            sessionFactory.close();
         }
     }
 }
@@ -102,7 +102,7 @@ public class ServerFactory {
         // create gRPC server
         io.grpc.Server serverRPC = createServerRPC(config, sessionFactory, keyspaceManager);
 
-        return createServer(serverRPC);
+        return createServer(serverRPC, sessionFactory);
     }
 
     /**
@@ -111,8 +111,8 @@ public class ServerFactory {
      * @return a Server instance
      */
 
-    public static Server createServer(io.grpc.Server rpcServer) {
-        Server server = new Server(rpcServer);
+    public static Server createServer(io.grpc.Server rpcServer, SessionFactory sessionFactory) {
+        Server server = new Server(rpcServer, sessionFactory);
 
         Runtime.getRuntime().addShutdownHook(new Thread(server::close, "grakn-server-shutdown"));
 
@@ -0,0 +1,86 @@
+/*
+ * Copyright (C) 2020 Grakn Labs
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ */
+
+package grakn.core.server.session;
+
+import com.google.common.base.Preconditions;
+import grakn.core.kb.server.Session;
+import grakn.core.kb.server.Transaction;
+import graql.lang.query.GraqlInsert;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Loads a stream of insert queries into a keyspace using BATCH transactions.
+ *
+ * Instead of paying for a commit per query, the queries are grouped into batches of a configurable size, each of
+ * which is executed in a single BATCH transaction without inference. Validation and the persistence of keyspace
+ * statistics therefore only happen once per batch, when the batch is committed, and the storage mutations of a batch
+ * are flushed in chunks rather than held in memory until the end of the commit.
+ *
+ * Throughput is logged after every batch.
+ */
+public class BulkLoader {
+    private final static Logger LOG = LoggerFactory.getLogger(BulkLoader.class);
+
+    private final Session session;
+    private final int batchSize;
+
+    /**
+     * @param session   session to the keyspace to load into
+     * @param batchSize number of insert queries committed together in a single transaction
+     */
+    public BulkLoader(Session session, int batchSize) {
+        Preconditions.checkArgument(batchSize > 0, "Batch size must be positive");
+        this.session = session;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Executes and commits all provided insert queries. If a batch fails to commit, the exception is propagated and
+     * the batches committed before it remain persisted.
+     *
+     * @param queries insert queries to load
+     * @return number of instances inserted by the executed queries, not counting the attributes that already existed
+     */
+    public long load(Stream<GraqlInsert> queries) {
+        Iterator<GraqlInsert> iterator = queries.iterator();
+        long start = System.currentTimeMillis();
+        long loadedQueries = 0;
+        long loadedInstances = 0;
+        while (iterator.hasNext()) {
+            int batchQueries = 0;
+            try (Transaction tx = session.transaction(Transaction.Type.BATCH)) {
+                while (iterator.hasNext() && batchQueries < batchSize) {
+                    tx.stream(iterator.next(), false).forEach(answer -> {});
+                    batchQueries++;
+                }
+                tx.commit();
+                loadedInstances += tx.createdInstances();
+            }
+            loadedQueries += batchQueries;
+            long elapsed = Math.max(System.currentTimeMillis() - start, 1);
+            LOG.info("Bulk load into keyspace [{}]: {} queries, {} instances committed, throughput: {} instances/s",
+                    session.keyspace(), loadedQueries, loadedInstances, loadedInstances * 1000 / elapsed);
+        }
+        return loadedInstances;
+    }
+}
@@ -40,6 +40,9 @@ import org.apache.tinkerpop.gremlin.structure.Vertex;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Optional;
 import java.util.ResourceBundle;
 import java.util.Set;
 import java.util.concurrent.atomic.AtomicBoolean;
@@ -55,6 +58,7 @@ final public class JanusGraphFactory {
     private final static Logger LOG = LoggerFactory.getLogger(JanusGraphFactory.class);
     private static final AtomicBoolean strategiesApplied = new AtomicBoolean(false);
     private static final String CQL_BACKEND = "cql";
+    private static final String LOCAL_INDEX_BACKEND = "local";
 
     private Config config;
 
@@ -64,7 +68,10 @@ final public class JanusGraphFactory {
 
     public StandardJanusGraph openGraph(String keyspace) {
         StandardJanusGraph janusGraph = configureGraph(keyspace, config);
-        buildJanusIndexes(janusGraph);
+        Set<Schema.ValueIndex> valueIndexes = stream(Schema.ValueIndex.values())
+                .filter(valueIndex -> valueIndexDirectory(config, valueIndex, keyspace).isPresent())
+                .collect(Collectors.toSet());
+        buildJanusIndexes(janusGraph, valueIndexes);
         if (!strategiesApplied.getAndSet(true)) {
             TraversalStrategies strategies = TraversalStrategies.GlobalCache.getStrategies(StandardJanusGraphTx.class);
             strategies = strategies.clone().addStrategies(new JanusPreviousPropertyStepStrategy());
@@ -96,12 +103,28 @@ final public class JanusGraphFactory {
             builder.set(key.toString(), value);
         });
 
+        for (Schema.ValueIndex valueIndex : Schema.ValueIndex.values()) {
+            valueIndexDirectory(config, valueIndex, keyspace).ifPresent(directory -> builder
+                    .set("index." + valueIndex.getBackend() + ".backend", LOCAL_INDEX_BACKEND)
+                    .set("index." + valueIndex.getBackend() + ".directory", directory.toString()));
+        }
+
         LOG.debug("Opening graph {}", keyspace);
         return builder.open();
     }
 
 
-    private static void buildJanusIndexes(JanusGraph graph) {
+    /**
+     * @return directory of the value index of the keyspace, empty if the value index is disabled
+     */
+    private static Optional<Path> valueIndexDirectory(Config config, Schema.ValueIndex valueIndex, String keyspace) {
+        ConfigKey<String> directoryKey = valueIndex == Schema.ValueIndex.RANGE ?
+                ConfigKey.RANGE_INDEX_DIRECTORY : ConfigKey.TEXT_INDEX_DIRECTORY;
+        String directory = config.properties().getProperty(directoryKey.name(), "");
+        return directory.isEmpty() ? Optional.empty() : Optional.of(Paths.get(directory, keyspace));
+    }
+
+    private static void buildJanusIndexes(JanusGraph graph, Set<Schema.ValueIndex> valueIndexes) {
         JanusGraphManagement management = graph.openManagement();
 
         makeVertexLabels(management);
@@ -110,6 +133,7 @@ final public class JanusGraphFactory {
 
         makeIndicesVertexCentric(management);
         makeIndicesComposite(management);
+        valueIndexes.forEach(valueIndex -> makeIndexValue(management, valueIndex));
 
         management.commit();
     }
@@ -199,5 +223,18 @@ final public class JanusGraphFactory {
             }
         }
     }
-}
 
+    /**
+     * Builds the mixed index over the values of the value index, kept by its embedded index backend: the numeric and
+     * date values in order, so that value comparisons are answered by range scans, and the string values by their
+     * n-grams, so that `contains` and `like` predicates only verify the values sharing the n-grams of their literals.
+     * The index is only enabled if it is built together with the property keys, i.e. when the keyspace is created.
+     */
+    private static void makeIndexValue(JanusGraphManagement management, Schema.ValueIndex valueIndex) {
+        if (management.getGraphIndex(valueIndex.getName()) != null) return;
+
+        JanusGraphManagement.IndexBuilder indexBuilder = management.buildIndex(valueIndex.getName(), Vertex.class);
+        stream(valueIndex.getProperties()).forEach(property -> indexBuilder.addKey(management.getPropertyKey(property.name())));
+        indexBuilder.buildMixedIndex(valueIndex.getBackend());
+    }
+}
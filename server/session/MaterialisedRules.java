@@ -0,0 +1,389 @@
+/*
+ * Copyright (C) 2020 Grakn Labs
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package grakn.core.server.session;
+
+import com.google.common.collect.Iterables;
+import com.google.common.collect.SetMultimap;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import grakn.common.util.Pair;
+import grakn.core.concept.impl.ConceptVertex;
+import grakn.core.core.Schema;
+import grakn.core.graql.reasoner.rule.RuleUtils;
+import grakn.core.kb.concept.api.Attribute;
+import grakn.core.kb.concept.api.Concept;
+import grakn.core.kb.concept.api.ConceptId;
+import grakn.core.kb.concept.api.Label;
+import grakn.core.kb.concept.api.Rule;
+import grakn.core.kb.concept.api.SchemaConcept;
+import grakn.core.kb.concept.api.Thing;
+import grakn.core.kb.concept.api.Type;
+import grakn.core.kb.concept.structure.VertexElement;
+import grakn.core.kb.server.Session;
+import grakn.core.kb.server.Transaction;
+import grakn.core.kb.server.cache.TransactionCache;
+import graql.lang.Graql;
+import graql.lang.pattern.Conjunction;
+import graql.lang.pattern.Pattern;
+import graql.lang.statement.Statement;
+import graql.lang.statement.Variable;
+import org.apache.tinkerpop.gremlin.structure.Direction;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Keyspace-scoped maintenance of materialised rule conclusions.
+ *
+ * In materialised rules mode the conclusions of the keyspace rules are persisted, marked with the IS_MATERIALISED
+ * vertex or edge property. They stay marked as inferred, so that queries without inference and the keyspace statistics
+ * do not see them. Once all conclusions are persisted, read transactions answer queries with inference enabled by
+ * plain traversals instead of resolving rules, resolving rules only to explain the answers.
+ *
+ * The conclusions are maintained incrementally after every commit touching the facts the rules depend on,
+ * using delete-rederive restricted to the commit:
+ * - the materialised facts of the types depending on the retracted types are over-deleted,
+ * - the rules are resolved again from the facts inserted by the commit and the facts the over-deleted conclusions
+ * were attached to only, until no new conclusions are derived.
+ * Rules added by a commit are resolved over the whole keyspace. Recomputing the conclusions of all rules is an opt-in,
+ * for the first maintenance after the keyspace is opened and for maintenance following schema modifications,
+ * needed when materialising the rules of a keyspace already holding data. It also follows failed maintenance.
+ *
+ * Maintenance runs off the commit path, in a write transaction of its own opened by a single background thread per
+ * keyspace once the maintained data is committed, so that it sees the committed state of the keyspace and maintenance
+ * of concurrent commits is serialised without holding up the committers. While maintenance is pending, read
+ * transactions fall back to resolving rules. Pending maintenance is completed before the keyspace is closed.
+ */
+public class MaterialisedRules {
+
+    private static final Logger LOG = LoggerFactory.getLogger(MaterialisedRules.class);
+
+    private final ExecutorService maintenanceExecutor = Executors.newSingleThreadExecutor(
+            new ThreadFactoryBuilder().setNameFormat("materialised-rules-maintenance-%d").setDaemon(true).build());
+    // held by the maintenance thread while it maintains the conclusions
+    private final ReentrantLock maintenanceLock = new ReentrantLock();
+    // commits whose conclusions have not been maintained yet
+    private final AtomicInteger pendingCommits = new AtomicInteger();
+    // true if the conclusions of all rules are to be recomputed after schema modifications and when opening the keyspace
+    private final boolean recompute;
+    // true if the conclusions of all rules are persisted
+    private volatile boolean complete;
+
+    MaterialisedRules(boolean recompute) {
+        this.recompute = recompute;
+        this.complete = !recompute;
+    }
+
+    /**
+     * @return true if all rule conclusions are persisted and up to date with the committed data
+     */
+    public boolean isComplete() {
+        return complete && pendingCommits.get() == 0;
+    }
+
+    /**
+     * @return true if the calling thread is maintaining the conclusions, in which case its commits need no maintenance
+     */
+    boolean isMaintenanceThread() {
+        return maintenanceLock.isHeldByCurrentThread();
+    }
+
+    /**
+     * Signals that a transaction is about to commit data the conclusions may depend on.
+     * Has to be followed by either #maintain or #commitFailed.
+     */
+    void commitStarted() {
+        pendingCommits.incrementAndGet();
+    }
+
+    void commitFailed() {
+        pendingCommits.decrementAndGet();
+    }
+
+    /**
+     * Schedules bringing the persisted conclusions up to date with a commit. As the commit has already succeeded,
+     * maintenance failures are not propagated - the conclusions are recomputed by the next maintenance instead.
+     *
+     * @param session        session of the committed transaction, used to open the maintenance transaction
+     * @param modifiedTypes  labels of the types of the instances, ownerships and role players modified by the commit
+     * @param insertedFacts  ids of the stored instances created or given new ownerships or role players by the commit
+     * @param retractedTypes labels of the types of the stored facts deleted by the commit
+     * @param modifiedRules  labels of the rules added by the commit
+     * @param schemaModified true if the commit modified the schema
+     */
+    void maintain(Session session, Set<Label> modifiedTypes, Set<ConceptId> insertedFacts, Set<Label> retractedTypes,
+                  Set<Label> modifiedRules, boolean schemaModified) {
+        try {
+            maintenanceExecutor.execute(() -> maintainNow(session, modifiedTypes, insertedFacts, retractedTypes, modifiedRules, schemaModified));
+        } catch (RejectedExecutionException e) {
+            LOG.warn("Skipped maintenance of materialised rule conclusions of closed keyspace {}", session.keyspace());
+            complete = false;
+            pendingCommits.decrementAndGet();
+        }
+    }
+
+    /**
+     * Waits for the maintenance of the commits made so far to complete.
+     */
+    void awaitMaintenance() {
+        try {
+            maintenanceExecutor.submit(() -> {}).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException | RejectedExecutionException e) {
+            // the keyspace was closed, so there is no maintenance to wait for
+        }
+    }
+
+    /**
+     * Completes pending maintenance and stops the maintenance thread, invoked when the keyspace is closed.
+     */
+    void close() {
+        maintenanceExecutor.shutdown();
+        try {
+            maintenanceExecutor.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Stops the maintenance thread without completing pending maintenance, invoked when the keyspace is deleted.
+     */
+    void abort() {
+        maintenanceExecutor.shutdownNow();
+    }
+
+    private void maintainNow(Session session, Set<Label> modifiedTypes, Set<ConceptId> insertedFacts, Set<Label> retractedTypes,
+                             Set<Label> modifiedRules, boolean schemaModified) {
+        maintenanceLock.lock();
+        try (TransactionImpl tx = (TransactionImpl) session.transaction(Transaction.Type.WRITE)) {
+            boolean recomputeAll = !complete || (recompute && schemaModified);
+            complete = false;
+            if (recomputeAll) {
+                retract(tx, Collections.singleton(tx.getMetaConcept()));
+                rules(tx).forEach(rule -> derive(tx, rule));
+            } else {
+                Set<ConceptId> seeds = new HashSet<>(insertedFacts);
+                Set<Label> seedTypes = new HashSet<>(modifiedTypes);
+                Set<Label> retracted = new HashSet<>(retractedTypes);
+                // facts matching negated rule bodies retract the conclusions of the rule
+                rules(tx)
+                        .filter(rule -> rule.whenNegativeTypes().anyMatch(type -> matchesAny(type, modifiedTypes)))
+                        .forEach(rule -> rule.thenTypes().forEach(type -> retracted.add(type.label())));
+                if (!retracted.isEmpty()) {
+                    seeds.addAll(retract(tx, dependentTypes(tx, retracted)));
+                    seeds.forEach(seed -> {
+                        Thing thing = tx.getConcept(seed);
+                        if (thing != null) seedTypes.add(thing.type().label());
+                    });
+                }
+                rules(tx)
+                        .filter(rule -> modifiedRules.contains(rule.label()))
+                        .forEach(rule -> derive(tx, rule));
+                deriveFrom(tx, seeds, seedTypes);
+            }
+            persistConclusions(tx);
+            tx.commit();
+            complete = true;
+        } catch (RuntimeException e) {
+            LOG.warn("Failed to maintain materialised rule conclusions of keyspace {}, they will be recomputed", session.keyspace(), e);
+        } finally {
+            pendingCommits.decrementAndGet();
+            maintenanceLock.unlock();
+        }
+    }
+
+    private static Stream<Rule> rules(TransactionImpl tx) {
+        return tx.getMetaRule().subs()
+                .filter(rule -> !Schema.MetaSchema.isMetaLabel(rule.label()));
+    }
+
+    /**
+     * @return true if the instances of the type may be of one of the given types
+     */
+    private static boolean matchesAny(Type type, Set<Label> labels) {
+        return type.subs().anyMatch(sub -> labels.contains(sub.label()));
+    }
+
+    /**
+     * @return the types of the given labels together with the types that can be inferred from them via rules
+     */
+    private static Set<Type> dependentTypes(TransactionImpl tx, Set<Label> labels) {
+        return labels.stream()
+                .map(label -> tx.<SchemaConcept>getSchemaConcept(label))
+                .filter(Objects::nonNull)
+                .filter(Concept::isType)
+                .flatMap(type -> RuleUtils.getDependentTypes(type.asType()).stream())
+                .collect(Collectors.toSet());
+    }
+
+    /**
+     * Resolves the head of the rule over the whole keyspace, materialising its conclusions in the transaction.
+     */
+    private static void derive(TransactionImpl tx, Rule rule) {
+        long conclusions = tx.stream(Graql.match(rule.then()).get(), true).count();
+        LOG.debug("Rule {} derived with {} answers", rule.label(), conclusions);
+    }
+
+    /**
+     * Resolves the rules whose bodies match the types of the seed facts with a variable of the body bound to a seed fact,
+     * materialising their conclusions in the transaction. The conclusions newly derived are the seeds of the next round,
+     * until no new conclusions are derived.
+     *
+     * @param seeds     ids of the facts the conclusions are derived from
+     * @param seedTypes labels of the types of the seed facts, and of the ownerships and role players they were given
+     */
+    private static void deriveFrom(TransactionImpl tx, Set<ConceptId> seeds, Set<Label> seedTypes) {
+        TransactionCache transactionCache = tx.transactionCache;
+        Set<Thing> derived = new HashSet<>();
+        Set<Pair<Thing, Attribute<?>>> derivedOwnerships = new HashSet<>();
+        while (!seeds.isEmpty()) {
+            Set<ConceptId> roundSeeds = seeds;
+            Set<Label> roundSeedTypes = seedTypes;
+            List<Rule> rules = rules(tx)
+                    .filter(rule -> rule.whenPositiveTypes().anyMatch(type -> matchesAny(type, roundSeedTypes)))
+                    .collect(Collectors.toList());
+            List<Thing> seedFacts = roundSeeds.stream()
+                    .map(seed -> tx.<Thing>getConcept(seed))
+                    .filter(Objects::nonNull)
+                    .collect(Collectors.toList());
+            rules.forEach(rule -> deriveFrom(tx, rule, seedFacts));
+
+            seeds = new HashSet<>();
+            seedTypes = new HashSet<>();
+            for (Thing thing : transactionCache.getInferredInstances()) {
+                if (derived.add(thing)) {
+                    seeds.add(thing.id());
+                    seedTypes.add(thing.type().label());
+                }
+            }
+            for (Pair<Thing, Attribute<?>> ownership : transactionCache.getInferredOwnerships()) {
+                if (derivedOwnerships.add(ownership)) {
+                    seeds.add(ownership.first().id());
+                    seedTypes.add(ownership.first().type().label());
+                    seedTypes.add(ownership.second().type().label());
+                }
+            }
+        }
+    }
+
+    /**
+     * Resolves the rule in a single query, binding the variables of its body to the seed facts of the types they admit.
+     */
+    private static void deriveFrom(TransactionImpl tx, Rule rule, List<Thing> seeds) {
+        Conjunction<Pattern> body = Iterables.getOnlyElement(rule.when().getNegationDNF().getPatterns());
+        Conjunction<Statement> positiveBody = Graql.and(
+                body.getPatterns().stream()
+                        .filter(p -> !p.isNegation())
+                        .flatMap(p -> p.statements().stream())
+                        .collect(Collectors.toSet())
+        );
+        SetMultimap<Variable, Type> varTypes = tx.reasonerQueryFactory.create(positiveBody).getVarTypeMap();
+        List<Statement> bindings = new ArrayList<>();
+        rule.when().statements().stream()
+                .map(Statement::var)
+                .filter(Variable::isReturned)
+                .distinct()
+                .forEach(var -> {
+                    Set<Type> types = varTypes.get(var);
+                    seeds.stream()
+                            .filter(seed -> types.isEmpty() || seed.type().sups().anyMatch(types::contains))
+                            .forEach(seed -> bindings.add(Graql.var(var.name()).id(seed.id().getValue())));
+                });
+        if (bindings.isEmpty()) return;
+
+        long conclusions = tx.stream(Graql.match(rule.when(), Graql.or(bindings), rule.then()).get(), true).count();
+        LOG.debug("Rule {} rederived from {} facts with {} answers", rule.label(), seeds.size(), conclusions);
+    }
+
+    /**
+     * Deletes the materialised instances and ownerships of the given types and their subtypes.
+     * Materialised instances still used by stored facts are kept.
+     *
+     * @return ids of the remaining facts the deleted conclusions were attached to, conclusions of which may need rederiving
+     */
+    private static Set<ConceptId> retract(TransactionImpl tx, Set<? extends Type> types) {
+        Set<Thing> conclusions = new HashSet<>();
+        Set<Pair<Thing, Attribute<?>>> ownerships = new HashSet<>();
+        types.stream().flatMap(Type::instances).forEach(thing -> {
+            VertexElement vertex = ConceptVertex.from(thing).vertex();
+            if (vertex.propertyBoolean(Schema.VertexProperty.IS_MATERIALISED)) conclusions.add(thing);
+            vertex.getEdgesOfType(Direction.BOTH, Schema.EdgeLabel.ATTRIBUTE)
+                    .filter(edge -> edge.propertyBoolean(Schema.EdgeProperty.IS_MATERIALISED))
+                    .forEach(edge -> ownerships.add(new Pair<>(
+                            tx.conceptManager.<Thing>buildConcept(edge.source()),
+                            tx.conceptManager.<Attribute<?>>buildConcept(edge.target()))));
+        });
+
+        Set<Thing> attached = new HashSet<>();
+        ownerships.forEach(ownership -> {
+            attached.add(ownership.first());
+            attached.add(ownership.second());
+            ownership.first().unhas(ownership.second());
+        });
+        Set<Thing> unused = conclusions.stream()
+                .filter(thing -> thing.relations().allMatch(conclusions::contains))
+                .filter(thing -> !thing.isAttribute() || thing.asAttribute().owners().allMatch(conclusions::contains))
+                .collect(Collectors.toSet());
+        unused.stream()
+                .filter(Concept::isRelation)
+                .flatMap(relation -> relation.asRelation().rolePlayers())
+                .forEach(attached::add);
+        unused.stream().filter(thing -> !thing.isDeleted()).forEach(Concept::delete);
+        LOG.debug("Retracted {} materialised instances and {} materialised ownerships", unused.size(), ownerships.size());
+        return attached.stream()
+                .filter(thing -> !thing.isDeleted())
+                .map(Concept::id)
+                .collect(Collectors.toSet());
+    }
+
+    /**
+     * Marks all facts inferred by the transaction as materialised, so that they are persisted on commit.
+     * They remain marked as inferred.
+     */
+    private static void persistConclusions(TransactionImpl tx) {
+        TransactionCache transactionCache = tx.transactionCache;
+        for (Thing thing : new HashSet<>(transactionCache.getInferredInstances())) {
+            if (thing.isDeleted()) continue;
+            ConceptVertex.from(thing).vertex().property(Schema.VertexProperty.IS_MATERIALISED, true);
+            transactionCache.inferredInstanceToPersist(thing);
+        }
+        for (Pair<Thing, Attribute<?>> ownership : new HashSet<>(transactionCache.getInferredOwnerships())) {
+            VertexElement attributeVertex = ConceptVertex.from(ownership.second()).vertex();
+            ConceptVertex.from(ownership.first()).vertex().getEdgesOfType(Direction.OUT, Schema.EdgeLabel.ATTRIBUTE)
+                    .filter(edge -> edge.target().equals(attributeVertex))
+                    .forEach(edge -> edge.property(Schema.EdgeProperty.IS_MATERIALISED, true));
+            transactionCache.inferredOwnershipToPersist(ownership.first(), ownership.second());
+        }
+    }
+}
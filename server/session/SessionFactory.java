@@ -20,6 +20,9 @@ package grakn.core.server.session;
 import grakn.core.common.config.Config;
 import grakn.core.common.config.ConfigKey;
 import grakn.core.graph.graphdb.database.StandardJanusGraph;
+import grakn.core.graql.planning.TraversalPlanCache;
+import grakn.core.graql.reasoner.cache.KeyspaceAnswerCache;
+import grakn.core.graql.reasoner.cache.ReasonerMemo;
 import grakn.core.kb.keyspace.AttributeManager;
 import grakn.core.kb.keyspace.KeyspaceSchemaCache;
 import grakn.core.kb.keyspace.KeyspaceStatistics;
@@ -33,10 +36,13 @@ import grakn.core.keyspace.ShardManagerImpl;
 import grakn.core.server.util.LockManager;
 import org.apache.tinkerpop.gremlin.hadoop.structure.HadoopGraph;
 
+import javax.annotation.Nullable;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReadWriteLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
@@ -48,6 +54,10 @@ import java.util.concurrent.locks.ReentrantReadWriteLock;
  */
 public class SessionFactory {
 
+    // Number of stripes backing the per-keyspace commit locks, higher values reduce false sharing between
+    // transactions committing unrelated attribute indices or type shards
+    private static final int COMMIT_LOCK_STRIPES = 1024;
+
     // Keep visibility to protected as this is used by KGMS
     protected final JanusGraphFactory janusGraphFactory;
     // Keep visibility to protected as this is used by KGMS
@@ -57,6 +67,8 @@ public class SessionFactory {
     protected final LockManager lockManager;
 
     private final Map<Keyspace, SharedKeyspaceData> sharedKeyspaceDataMap;
+    // Bounded pool shared by all keyspaces for resolving reasoner sub goals in parallel, null if disabled
+    private final ForkJoinPool reasonerPool;
 
     public SessionFactory(LockManager lockManager, JanusGraphFactory janusGraphFactory, HadoopGraphFactory hadoopGraphFactory, Config config) {
         this.janusGraphFactory = janusGraphFactory;
@@ -64,6 +76,8 @@ public class SessionFactory {
         this.lockManager = lockManager;
         this.config = config;
         this.sharedKeyspaceDataMap = new HashMap<>();
+        int reasonerParallelism = config.getProperty(ConfigKey.REASONER_PARALLELISM);
+        this.reasonerPool = reasonerParallelism > 0 ? new ForkJoinPool(reasonerParallelism) : null;
     }
 
     /**
@@ -80,7 +94,11 @@ public class SessionFactory {
         KeyspaceStatistics keyspaceStatistics;
         AttributeManager attributeManager;
         ShardManager shardManager;
-        ReadWriteLock graphLock;
+        LockManager commitLockManager;
+        KeyspaceAnswerCache answerCache;
+        ReasonerMemo reasonerMemo;
+        TraversalPlanCache planCache;
+        MaterialisedRules materialisedRules;
         HadoopGraph hadoopGraph;
 
         Lock lock = lockManager.getLock(keyspace.name());
@@ -95,7 +113,11 @@ public class SessionFactory {
                 keyspaceStatistics = cacheContainer.keyspaceStatistics();
                 attributeManager = cacheContainer.attributeManager();
                 shardManager = cacheContainer.shardManager();
-                graphLock = cacheContainer.graphLock();
+                commitLockManager = cacheContainer.commitLockManager();
+                answerCache = cacheContainer.answerCache();
+                reasonerMemo = cacheContainer.reasonerMemo();
+                planCache = cacheContainer.planCache();
+                materialisedRules = cacheContainer.materialisedRules();
                 hadoopGraph = cacheContainer.hadoopGraph();
 
             } else { // If keyspace reference not cached, put keyspace in keyspace manager, open new graph and instantiate new keyspace cache
@@ -103,15 +125,22 @@ public class SessionFactory {
                 hadoopGraph = hadoopGraphFactory.getGraph(keyspace);
                 cache = new KeyspaceSchemaCache();
                 keyspaceStatistics = new KeyspaceStatisticsImpl();
-                attributeManager = new AttributeManagerImpl();
+                attributeManager = new AttributeManagerImpl(config.getProperty(ConfigKey.ATTRIBUTE_CACHE_CAPACITY));
                 shardManager = new ShardManagerImpl();
-                graphLock = new ReentrantReadWriteLock();
-                cacheContainer = new SharedKeyspaceData(cache, graph, keyspaceStatistics, attributeManager, shardManager, graphLock, hadoopGraph);
+                commitLockManager = new LockManager(COMMIT_LOCK_STRIPES);
+                long answerCacheCapacity = config.getProperty(ConfigKey.REASONER_ANSWER_CACHE_CAPACITY);
+                answerCache = answerCacheCapacity > 0 ? new KeyspaceAnswerCache(answerCacheCapacity) : null;
+                long reasonerMemoCapacity = config.getProperty(ConfigKey.REASONER_MEMO_CAPACITY);
+                reasonerMemo = reasonerMemoCapacity > 0 ? new ReasonerMemo(reasonerMemoCapacity) : null;
+                long planCacheCapacity = config.getProperty(ConfigKey.TRAVERSAL_PLAN_CACHE_CAPACITY);
+                planCache = planCacheCapacity > 0 ? new TraversalPlanCache(planCacheCapacity) : null;
+                materialisedRules = materialisesRules(keyspace) ? new MaterialisedRules(config.getProperty(ConfigKey.MATERIALISED_RULES_RECOMPUTE)) : null;
+                cacheContainer = new SharedKeyspaceData(cache, graph, keyspaceStatistics, attributeManager, shardManager, commitLockManager, answerCache, reasonerMemo, planCache, materialisedRules, hadoopGraph);
                 sharedKeyspaceDataMap.put(keyspace, cacheContainer);
             }
 
             long typeShardThreshold = config.getProperty(ConfigKey.TYPE_SHARD_THRESHOLD);
-            TransactionProvider transactionProvider = new TransactionProviderImpl(graph, hadoopGraph, cache, keyspaceStatistics, attributeManager, graphLock, typeShardThreshold);
+            TransactionProvider transactionProvider = new TransactionProviderImpl(graph, hadoopGraph, cache, keyspaceStatistics, attributeManager, commitLockManager, answerCache, reasonerMemo, planCache, materialisedRules, reasonerPool, typeShardThreshold);
             Session session = new SessionImpl(keyspace, transactionProvider, cache, graph, keyspaceStatistics, attributeManager, shardManager);
             session.setOnClose(this::onSessionClose);
             cacheContainer.addSessionReference(session);
@@ -121,6 +150,15 @@ public class SessionFactory {
         }
     }
 
+    /**
+     * @return true if the keyspace is configured to persist and maintain the conclusions of its rules
+     */
+    private boolean materialisesRules(Keyspace keyspace) {
+        return Arrays.stream(config.getProperty(ConfigKey.MATERIALISED_RULES_KEYSPACES).split(","))
+                .map(String::trim)
+                .anyMatch(keyspace.name()::equals);
+    }
+
     /**
      * Invoked when user deletes a keyspace.
      * Remove keyspace reference from internal cache, closes graph associated to it and
@@ -134,6 +172,7 @@ public class SessionFactory {
         try {
             if (sharedKeyspaceDataMap.containsKey(keyspace)) {
                 SharedKeyspaceData container = sharedKeyspaceDataMap.remove(keyspace);
+                if (container.materialisedRules() != null) container.materialisedRules().abort();
                 container.graph().close();
                 container.hadoopGraph().close();
                 container.invalidateSessions();
@@ -161,6 +200,8 @@ public class SessionFactory {
                 // If there are no more sessions associated to current keyspace,
                 // close graph and remove reference from cache.
                 if (cacheContainer.referenceCount() == 0) {
+                    // pending maintenance of the rule conclusions still needs the graph
+                    if (cacheContainer.materialisedRules() != null) cacheContainer.materialisedRules().close();
                     cacheContainer.graph().close();
                     cacheContainer.hadoopGraph().close();
                     sharedKeyspaceDataMap.remove(session.keyspace());
@@ -171,6 +212,13 @@ public class SessionFactory {
         }
     }
 
+    /**
+     * Stops the reasoner worker threads shared by all keyspaces, invoked when the server is closed.
+     */
+    public void close() {
+        if (reasonerPool != null) reasonerPool.shutdown();
+    }
+
     /**
      * Helper class used to hold in memory a reference to a graph together with its schema cache
      * and a reference to all sessions open to the graph.
@@ -194,11 +242,31 @@ public class SessionFactory {
 
         private final ShardManager shardManager;
 
+        // Striped locks keyed on attribute indices and type labels, used to serialise only those commits
+        // that touch the same attribute indices or shard the same types
+        private final LockManager commitLockManager;
+
+        // Keyspace-wide lock kept for callers that still take it, commits no longer acquire it
         private final ReadWriteLock graphLock;
 
+        // Complete reasoner answer sets shared between read transactions, null if disabled
+        private final KeyspaceAnswerCache answerCache;
+
+        // Schema-dependent reasoner structures shared between read transactions, null if disabled
+        private final ReasonerMemo reasonerMemo;
+
+        // Traversal plans shared between transactions, null if disabled
+        private final TraversalPlanCache planCache;
+
+        // Maintenance of persisted rule conclusions, null if rules of the keyspace are not materialised
+        private final MaterialisedRules materialisedRules;
+
         // Keep visibility to public as this is used by KGMS
         public SharedKeyspaceData(KeyspaceSchemaCache keyspaceSchemaCache, StandardJanusGraph graph, KeyspaceStatistics keyspaceStatistics,
-                                  AttributeManager attributeManager, ShardManager shardManager, ReadWriteLock graphLock, HadoopGraph hadoopGraph) {
+                                  AttributeManager attributeManager, ShardManager shardManager, LockManager commitLockManager,
+                                  @Nullable KeyspaceAnswerCache answerCache, @Nullable ReasonerMemo reasonerMemo,
+                                  @Nullable TraversalPlanCache planCache, @Nullable MaterialisedRules materialisedRules,
+                                  HadoopGraph hadoopGraph) {
             this.keyspaceSchemaCache = keyspaceSchemaCache;
             this.graph = graph;
             this.hadoopGraph = hadoopGraph;
@@ -206,10 +274,24 @@ public class SessionFactory {
             this.keyspaceStatistics = keyspaceStatistics;
             this.attributeManager = attributeManager;
             this.shardManager = shardManager;
-            this.graphLock = graphLock;
+            this.commitLockManager = commitLockManager;
+            this.graphLock = new ReentrantReadWriteLock();
+            this.answerCache = answerCache;
+            this.reasonerMemo = reasonerMemo;
+            this.planCache = planCache;
+            this.materialisedRules = materialisedRules;
+        }
+
+        // Keep visibility to public as this is used by KGMS
+        public LockManager commitLockManager() {
+            return commitLockManager;
         }
 
+        /**
+         * @deprecated commits are serialised by the striped locks of {@link #commitLockManager()} instead
+         */
         // Keep visibility to public as this is used by KGMS
+        @Deprecated
         public ReadWriteLock graphLock() {
             return graphLock;
         }
@@ -255,6 +337,18 @@ public class SessionFactory {
 
         public ShardManager shardManager(){ return shardManager;}
 
+        @Nullable
+        public KeyspaceAnswerCache answerCache(){ return answerCache;}
+
+        @Nullable
+        public ReasonerMemo reasonerMemo(){ return reasonerMemo;}
+
+        @Nullable
+        public TraversalPlanCache planCache(){ return planCache;}
+
+        @Nullable
+        public MaterialisedRules materialisedRules(){ return materialisedRules;}
+
         // Keep visibility to public as this is used by KGMS
         public HadoopGraph hadoopGraph() {
             return hadoopGraph;
@@ -104,7 +104,7 @@ public class SessionImpl implements Session {
         // If transaction is already open in current thread throw exception
         if (localTx != null && localTx.isOpen()) throw TransactionException.transactionOpen(localTx);
 
-        Transaction tx = transactionProvider.newTransaction(this);
+        Transaction tx = transactionProvider.newTransaction(this, type);
 
         tx.open(type);
         localOLTPTransactionContainer.set(tx);
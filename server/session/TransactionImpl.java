@@ -38,12 +38,18 @@ import grakn.core.concept.util.ConceptUtils;
 import grakn.core.core.AttributeSerialiser;
 import grakn.core.core.JanusTraversalSourceProvider;
 import grakn.core.core.Schema;
+import grakn.core.graph.core.JanusGraphEdge;
 import grakn.core.graph.core.JanusGraphTransaction;
+import grakn.core.graph.core.JanusGraphVertex;
+import grakn.core.graql.planning.TraversalPlanCache;
+import grakn.core.graql.reasoner.cache.KeyspaceAnswerCache;
 import grakn.core.graql.reasoner.cache.MultilevelSemanticCache;
+import grakn.core.graql.reasoner.cache.ReasonerMemo;
 import grakn.core.graql.reasoner.explanation.JoinExplanation;
 import grakn.core.graql.reasoner.query.ReasonerAtomicQuery;
 import grakn.core.graql.reasoner.query.ReasonerQueryFactory;
 import grakn.core.graql.reasoner.query.ResolvableQuery;
+import grakn.core.graql.reasoner.rule.RuleUtils;
 import grakn.core.kb.concept.api.Attribute;
 import grakn.core.kb.concept.api.AttributeType;
 import grakn.core.kb.concept.api.Concept;
@@ -72,6 +78,7 @@ import grakn.core.kb.server.exception.TransactionException;
 import grakn.core.kb.server.keyspace.Keyspace;
 import grakn.core.keyspace.StatisticsDeltaImpl;
 import grakn.core.server.Validator;
+import grakn.core.server.util.LockManager;
 import graql.lang.Graql;
 import graql.lang.pattern.Pattern;
 import graql.lang.query.GraqlCompute;
@@ -82,11 +89,7 @@ import graql.lang.query.GraqlInsert;
 import graql.lang.query.GraqlQuery;
 import graql.lang.query.GraqlUndefine;
 import graql.lang.query.MatchClause;
-import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversal;
-import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversalSource;
-import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.__;
 import org.apache.tinkerpop.gremlin.structure.Direction;
-import org.apache.tinkerpop.gremlin.structure.Edge;
 import org.apache.tinkerpop.gremlin.structure.Property;
 import org.apache.tinkerpop.gremlin.structure.Vertex;
 import org.apache.tinkerpop.gremlin.structure.VertexProperty;
@@ -94,14 +97,19 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import javax.annotation.CheckReturnValue;
+import javax.annotation.Nullable;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
 import java.util.Set;
 import java.util.Stack;
-import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.Lock;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -135,18 +143,37 @@ public class TransactionImpl implements Transaction {
 
     protected final JanusTraversalSourceProvider janusTraversalSourceProvider;
     protected final ReasonerQueryFactory reasonerQueryFactory;
-    private final ReadWriteLock graphLock;
+    private final LockManager commitLockManager;
+    // Complete reasoner answer sets shared between read transactions of the keyspace, null if disabled
+    private final KeyspaceAnswerCache answerCache;
+    // Schema-dependent reasoner structures shared between read transactions of the keyspace, null if disabled
+    private final ReasonerMemo reasonerMemo;
+    // Traversal plans shared between transactions of the keyspace, null if disabled
+    private final TraversalPlanCache planCache;
+    // Maintenance of the persisted rule conclusions of the keyspace, null if rules are not materialised
+    private final MaterialisedRules materialisedRules;
+    // true if this transaction reads the persisted rule conclusions instead of resolving rules
+    private final boolean readsMaterialisedConclusions;
+    private boolean schemaQueriesExecuted = false;
 
     public TransactionImpl(Session session, JanusGraphTransaction janusTransaction, ConceptManager conceptManager,
                            JanusTraversalSourceProvider janusTraversalSourceProvider, TransactionCache transactionCache,
                            MultilevelSemanticCache queryCache, RuleCache ruleCache,
                            StatisticsDeltaImpl statisticsDelta, ExecutorFactory executorFactory,
                             ReasonerQueryFactory reasonerQueryFactory,
-                           ReadWriteLock graphLock, long typeShardThreshold) {
+                           LockManager commitLockManager, @Nullable KeyspaceAnswerCache answerCache,
+                           @Nullable ReasonerMemo reasonerMemo, @Nullable TraversalPlanCache planCache,
+                           @Nullable MaterialisedRules materialisedRules, boolean readsMaterialisedConclusions,
+                           long typeShardThreshold) {
         createdInCurrentThread.set(true);
 
         this.session = session;
-        this.graphLock = graphLock;
+        this.commitLockManager = commitLockManager;
+        this.answerCache = answerCache;
+        this.reasonerMemo = reasonerMemo;
+        this.planCache = planCache;
+        this.materialisedRules = materialisedRules;
+        this.readsMaterialisedConclusions = readsMaterialisedConclusions;
 
         this.janusTransaction = janusTransaction;
         this.janusTraversalSourceProvider = janusTraversalSourceProvider;
@@ -178,7 +205,9 @@ public class TransactionImpl implements Transaction {
      * - use a lock if there is a tx that deletes attributes
      * - use a lock if there is a tx that mutates key implicit relations
      * - otherwise do not lock
-     * @return true if graph lock need to be acquired for commit
+     * The locks taken are fine-grained, see commitLockKeys(), so only transactions touching the same
+     * attribute indices or sharding the same types are serialised.
+     * @return true if commit locks need to be acquired for commit
      */
     @VisibleForTesting
     public boolean commitLockRequired(){
@@ -209,9 +238,29 @@ public class TransactionImpl implements Transaction {
         return lockRequired;
     }
 
+    /**
+     * Computes the names of the commit locks this transaction needs to hold to commit safely:
+     * - indices of attributes inserted, so that concurrent inserts of the same attribute are merged
+     * - indices of attributes deleted, so that the removal from attributesCommitted is seen by inserts of the same attribute
+     * - indices of key attributes attached to owners, so that key uniqueness is validated against committed data
+     * - labels of types that get a new shard, so that a type is not sharded twice
+     * @return names of commit locks to acquire
+     */
+    @VisibleForTesting
+    public Set<String> commitLockKeys() {
+        Set<String> lockKeys = new HashSet<>();
+        transactionCache.getNewAttributes().keySet().forEach(labelIndexPair -> lockKeys.add(labelIndexPair.second()));
+        lockKeys.addAll(transactionCache.getRemovedAttributes());
+        lockKeys.addAll(transactionCache.getModifiedKeyIndices());
+        // attribute indices are prefixed with the ATTRIBUTE base type so they never clash with shard lock names
+        transactionCache.getNewShards().keySet().forEach(label -> lockKeys.add(Schema.VertexProperty.TYPE_SHARD_CHECKPOINT.name() + "-" + label));
+        return lockKeys;
+    }
+
     private void commitInternal() throws InvalidKBException {
         boolean lockRequired = commitLockRequired();
-        if (lockRequired) graphLock.writeLock().lock();
+        List<Lock> commitLocks = lockRequired ? commitLockManager.getLocks(commitLockKeys()) : Collections.emptyList();
+        commitLocks.forEach(Lock::lock);
         try {
             createNewTypeShardsWhenThresholdReached();
             transactionCache.getRemovedAttributes().forEach(index -> session.attributeManager().attributesCommitted().invalidate(index));
@@ -220,7 +269,7 @@ public class TransactionImpl implements Transaction {
             ackCommit(deduplicatedIndices);
 
         } finally {
-            if (lockRequired) graphLock.writeLock().unlock();
+            Lists.reverse(commitLocks).forEach(Lock::unlock);
         }
     }
 
@@ -251,6 +300,7 @@ public class TransactionImpl implements Transaction {
     // we serialise the commit by locking and merge attributes that are duplicates.
     private Set<String> mergeAttributes() {
         Set<String> deduplicatesIndices = new HashSet<>();
+        Map<ConceptId, ConceptId> duplicateToTarget = new HashMap<>();
         transactionCache.getNewAttributes().forEach(((labelIndexPair, conceptId) -> {
             // If the same index is contained in attributesCommitted, it means
             // another concurrent transaction inserted the same attribute, time to merge!
@@ -261,11 +311,15 @@ public class TransactionImpl implements Transaction {
             Label label = labelIndexPair.first();
             ConceptId targetId = session.attributeManager().attributesCommitted().getIfPresent(index);
             if (targetId != null) {
-                merge(conceptId, targetId);
+                duplicateToTarget.put(conceptId, targetId);
                 deduplicatesIndices.add(index);
                 uncomittedStatisticsDelta.decrementAttribute(label);
             }
         }));
+        if (!duplicateToTarget.isEmpty()) {
+            long movedEdges = merge(duplicateToTarget);
+            LOG.debug(janusTransaction.toString() + " merged " + duplicateToTarget.size() + " attributes, moved " + movedEdges + " edges");
+        }
         return deduplicatesIndices;
     }
 
@@ -302,48 +356,56 @@ public class TransactionImpl implements Transaction {
         });
     }
 
-    private void merge(ConceptId duplicateId, ConceptId targetId) {
-        GraphTraversalSource tinkerTraversal = janusTraversalSourceProvider.getTinkerTraversal();
-        Vertex duplicate = tinkerTraversal.V(Schema.elementId(duplicateId)).next();
-        Vertex mergeTargetV = tinkerTraversal.V(Schema.elementId(targetId)).next();
-
-        duplicate.vertices(Direction.IN).forEachRemaining(connectedVertex -> {
-            // merge attribute edge connecting 'duplicate' and 'connectedVertex' to 'mergeTargetV', if exists
-            GraphTraversal<Vertex, Edge> attributeEdge =
-                    tinkerTraversal.V(duplicate).inE(Schema.EdgeLabel.ATTRIBUTE.getLabel()).filter(__.outV().is(connectedVertex));
-            if (attributeEdge.hasNext()) {
-                mergeAttributeEdge(mergeTargetV, connectedVertex, attributeEdge);
-            }
-
-            // merge role-player edge connecting 'duplicate' and 'connectedVertex' to 'mergeTargetV', if exists
-            GraphTraversal<Vertex, Edge> rolePlayerEdge =
-                    tinkerTraversal.V(duplicate).inE(Schema.EdgeLabel.ROLE_PLAYER.getLabel()).filter(__.outV().is(connectedVertex));
-            if (rolePlayerEdge.hasNext()) {
-                mergeRolePlayerEdge(mergeTargetV, rolePlayerEdge);
-            }
-            try {
-                attributeEdge.close();
-                rolePlayerEdge.close();
-            } catch (Exception e) {
-                LOG.warn("Error closing the merging traversals", e);
+    /**
+     * Merges all duplicate attributes into their committed counterparts in a single pass:
+     * - the duplicate and target vertices are retrieved in one batch
+     * - the incoming attribute and role-player edges of all duplicates are read with one multi-vertex adjacency query
+     * - each edge is relinked to the target by recreating it with the same label and properties
+     *
+     * @param duplicateToTarget map from the id of each duplicate attribute to the id of the attribute it is merged into
+     * @return number of edges moved to the merge targets
+     */
+    private long merge(Map<ConceptId, ConceptId> duplicateToTarget) {
+        long[] vertexIds = Stream.concat(duplicateToTarget.keySet().stream(), duplicateToTarget.values().stream())
+                .mapToLong(TransactionImpl::vertexId)
+                .distinct()
+                .toArray();
+        Map<Long, JanusGraphVertex> vertices = new HashMap<>();
+        janusTransaction.getVertices(vertexIds).forEach(vertex -> vertices.put(vertex.longId(), vertex));
+
+        JanusGraphVertex[] duplicates = duplicateToTarget.keySet().stream()
+                .map(duplicateId -> vertex(vertices, duplicateId))
+                .toArray(JanusGraphVertex[]::new);
+        Map<JanusGraphVertex, Iterable<JanusGraphEdge>> incomingEdges = janusTransaction.multiQuery(duplicates)
+                .direction(Direction.IN)
+                .labels(Schema.EdgeLabel.ATTRIBUTE.getLabel(), Schema.EdgeLabel.ROLE_PLAYER.getLabel())
+                .edges();
+
+        long movedEdges = 0;
+        for (Map.Entry<ConceptId, ConceptId> duplicateAndTarget : duplicateToTarget.entrySet()) {
+            JanusGraphVertex duplicate = vertex(vertices, duplicateAndTarget.getKey());
+            JanusGraphVertex mergeTarget = vertex(vertices, duplicateAndTarget.getValue());
+            // copy the edges first as we are about to modify the adjacency list they are read from
+            List<JanusGraphEdge> edges = Lists.newArrayList(incomingEdges.get(duplicate));
+            for (JanusGraphEdge edge : edges) {
+                Object[] properties = propertiesToArray(Lists.newArrayList(edge.properties()));
+                edge.outVertex().addEdge(edge.label(), mergeTarget, properties);
+                edge.remove();
+                movedEdges++;
             }
-        });
-        duplicate.remove();
+            duplicate.remove();
+        }
+        return movedEdges;
     }
 
-    private void mergeRolePlayerEdge(Vertex mergeTargetV, GraphTraversal<Vertex, Edge> rolePlayerEdge) {
-        Edge edge = rolePlayerEdge.next();
-        Vertex relationVertex = edge.outVertex();
-        Object[] properties = propertiesToArray(Lists.newArrayList(edge.properties()));
-        relationVertex.addEdge(Schema.EdgeLabel.ROLE_PLAYER.getLabel(), mergeTargetV, properties);
-        edge.remove();
+    private static long vertexId(ConceptId conceptId) {
+        return Long.parseLong(Schema.elementId(conceptId));
     }
 
-    private void mergeAttributeEdge(Vertex mergeTargetV, Vertex ent, GraphTraversal<Vertex, Edge> attributeEdge) {
-        Edge edge = attributeEdge.next();
-        Object[] properties = propertiesToArray(Lists.newArrayList(edge.properties()));
-        ent.addEdge(Schema.EdgeLabel.ATTRIBUTE.getLabel(), mergeTargetV, properties);
-        edge.remove();
+    private static JanusGraphVertex vertex(Map<Long, JanusGraphVertex> vertices, ConceptId conceptId) {
+        JanusGraphVertex vertex = vertices.get(vertexId(conceptId));
+        if (vertex == null) throw new NoSuchElementException("Attribute to merge not found: " + conceptId);
+        return vertex;
     }
 
     private Object[] propertiesToArray(ArrayList<Property<Object>> propertiesAsKeyValue) {
@@ -375,7 +437,8 @@ public class TransactionImpl implements Transaction {
 
     @Override
     public Stream<ConceptMap> stream(GraqlDefine query) {
-        checkMutationAllowed();
+        checkSchemaMutationAllowed();
+        schemaQueriesExecuted = true;
         return executorFactory.transactional( false).define(query);
     }
 
@@ -388,7 +451,8 @@ public class TransactionImpl implements Transaction {
 
     @Override
     public Stream<ConceptMap> stream(GraqlUndefine query) {
-        checkMutationAllowed();
+        checkSchemaMutationAllowed();
+        schemaQueriesExecuted = true;
         return executorFactory.transactional(false).undefine(query);
     }
 
@@ -465,6 +529,7 @@ public class TransactionImpl implements Transaction {
                                     // mark this edge for persistence
                                     transactionCache.inferredOwnershipToPersist(owner, thing.asAttribute());
                                     edge.property(Schema.EdgeProperty.IS_INFERRED, false);
+                                    edge.property(Schema.EdgeProperty.IS_MATERIALISED, null);
                                 }
                                 if (!visitedThings.contains(owner)) {
                                     thingStack.add(owner);
@@ -475,6 +540,7 @@ public class TransactionImpl implements Transaction {
                 if (thing.isInferred()) {
                     transactionCache.inferredInstanceToPersist(thing);
                     ConceptVertex.from(thing).vertex().property(Schema.VertexProperty.IS_INFERRED, false);
+                    ConceptVertex.from(thing).vertex().property(Schema.VertexProperty.IS_MATERIALISED, null);
                 }
                 visitedThings.add(thing);
             }
@@ -727,6 +793,11 @@ public class TransactionImpl implements Transaction {
         if (Type.READ.equals(type())) throw TransactionException.transactionReadOnly(this);
     }
 
+    private void checkSchemaMutationAllowed() {
+        checkMutationAllowed();
+        if (Type.BATCH.equals(type())) throw TransactionException.transactionBatchSchemaMutation(this);
+    }
+
     /**
      * Make sure graph is open and usable.
      *
@@ -1095,6 +1166,12 @@ public class TransactionImpl implements Transaction {
     public Explanation explanation(Pattern queryPattern) {
         GraqlGet getQuery = Graql.match(queryPattern).get();
         ResolvableQuery q = reasonerQueryFactory.resolvable(Iterables.getOnlyElement(getQuery.match().getPatterns().getNegationDNF().getPatterns()));
+        if (readsMaterialisedConclusions || queryCache.containsSharedAnswers()) {
+            // answers read from the persisted rule conclusions or fetched from the keyspace answer cache do not record
+            // the answers they were derived from, so we resolve the query locally to reconstruct them
+            queryCache.detachSharedCache();
+            q.resolve(new HashSet<>(), true).forEach(answer -> {});
+        }
 
         Explanation explanation;
         if (q.isAtomic()) {
@@ -1155,21 +1232,181 @@ public class TransactionImpl implements Transaction {
         if (!isOpen()) {
             throw TransactionException.transactionClosed(this, null);
         }
+        boolean schemaModified = false;
+        Set<Label> modifiedTypes = Collections.emptySet();
+        Set<ConceptId> insertedFacts = Collections.emptySet();
+        Set<Label> retractedTypes = Collections.emptySet();
+        Set<Label> modifiedRules = Collections.emptySet();
+        boolean maintainConclusions = false;
+        boolean committed = false;
         try {
             checkMutationAllowed();
             removeInferredFacts();
             computeShardCandidates();
+            schemaModified = isSchemaModified();
+            modifiedTypes = modifiedTypes();
+            Set<Label> answerCacheInvalidationTypes = answerCache != null && !schemaModified ?
+                    answerCacheInvalidationTypes(modifiedTypes) : Collections.emptySet();
+
+            maintainConclusions = materialisedRules != null && !materialisedRules.isMaintenanceThread()
+                    && (schemaModified || !modifiedTypes.isEmpty());
+            if (maintainConclusions) {
+                insertedFacts = insertedFacts();
+                retractedTypes = new HashSet<>(transactionCache.getRetractedTypes());
+                modifiedRules = transactionCache.getModifiedRules().stream().map(Rule::label).collect(Collectors.toSet());
+                materialisedRules.commitStarted();
+            }
 
             // lock on the keyspace cache shared between concurrent tx's to the same keyspace
             // force serialized updates, keeping Janus and our KeyspaceCache in sync
             commitInternal();
+            committed = true;
             transactionCache.flushSchemaLabelIdsToCache();
+            invalidateAnswerCache(schemaModified, answerCacheInvalidationTypes);
+            if (schemaModified && reasonerMemo != null) reasonerMemo.invalidateAll();
+            if (schemaModified && planCache != null) planCache.invalidateAll();
         } finally {
             String closeMessage = ErrorMessage.TX_CLOSED_ON_ACTION.getMessage("committed", keyspace());
             closeTransaction(closeMessage);
+            if (maintainConclusions) {
+                // maintenance opens its own transaction, so it can only start once this one is closed
+                if (committed) {
+                    materialisedRules.maintain(session, modifiedTypes, insertedFacts, retractedTypes, modifiedRules, schemaModified);
+                } else {
+                    materialisedRules.commitFailed();
+                }
+            }
         }
     }
 
+    /**
+     * NB: schema modifications made directly through the concept API to existing types are only detected
+     * if they modify roles, relation types or rules
+     * @return true if this transaction modified the schema
+     */
+    private boolean isSchemaModified() {
+        return schemaQueriesExecuted
+                || transactionCache.isSchemaLabelCacheModified()
+                || !transactionCache.getModifiedRules().isEmpty()
+                || !transactionCache.getModifiedRoles().isEmpty()
+                || !transactionCache.getModifiedRelationTypes().isEmpty();
+    }
+
+    /**
+     * @return labels of the types of the instances, ownerships and role players modified by this transaction
+     */
+    private Set<Label> modifiedTypes() {
+        Set<Label> modifiedTypes = new HashSet<>();
+        modifiedTypes.addAll(uncomittedStatisticsDelta.instanceDeltas().keySet());
+        modifiedTypes.addAll(uncomittedStatisticsDelta.ownershipDeltas().keySet());
+        transactionCache.getModifiedThings().forEach(thing -> modifiedTypes.add(thing.type().label()));
+        transactionCache.getModifiedCastings().forEach(casting -> {
+            modifiedTypes.add(casting.getRelationType().label());
+            modifiedTypes.add(casting.getRolePlayer().type().label());
+        });
+        modifiedTypes.addAll(transactionCache.getRetractedTypes());
+        return modifiedTypes;
+    }
+
+    /**
+     * @return ids of the stored instances created or given new ownerships or role players by this transaction
+     */
+    private Set<ConceptId> insertedFacts() {
+        Set<ConceptId> insertedFacts = new HashSet<>();
+        transactionCache.getModifiedThings().stream()
+                .filter(thing -> !thing.isDeleted() && !thing.isInferred())
+                .forEach(thing -> insertedFacts.add(thing.id()));
+        transactionCache.getModifiedCastings().stream()
+                .filter(casting -> !casting.getRelation().isDeleted() && !casting.getRolePlayer().isDeleted())
+                .forEach(casting -> {
+                    insertedFacts.add(casting.getRelation().id());
+                    insertedFacts.add(casting.getRolePlayer().id());
+                });
+        return insertedFacts;
+    }
+
+    /**
+     * @return labels of the types whose answers might be affected by this transaction: types of the modified
+     * instances and the types inferred from them via rules, together with their supertypes
+     */
+    private Set<Label> answerCacheInvalidationTypes(Set<Label> modifiedTypes) {
+        return modifiedTypes.stream()
+                .map(label -> conceptManager.<SchemaConcept>getSchemaConcept(label))
+                .filter(Objects::nonNull)
+                .filter(Concept::isType)
+                .flatMap(type -> RuleUtils.getDependentTypes(type.asType()).stream())
+                .flatMap(grakn.core.kb.concept.api.Type::sups)
+                .map(SchemaConcept::label)
+                .collect(Collectors.toSet());
+    }
+
+    private void invalidateAnswerCache(boolean schemaModified, Set<Label> modifiedTypes) {
+        if (answerCache == null) return;
+        if (schemaModified) {
+            answerCache.invalidateAll();
+        } else if (!modifiedTypes.isEmpty()) {
+            answerCache.invalidate(modifiedTypes);
+        }
+        LOG.debug("Reasoner answers invalidated on commit: {}", answerCache);
+    }
+
+    @Override
+    public long createdInstances() {
+        return uncomittedStatisticsDelta.instanceDeltas().getOrDefault(Schema.MetaSchema.THING.getLabel(), 0L);
+    }
+
+    /**
+     * @return cache of the reasoner answers of this transaction
+     */
+    @VisibleForTesting
+    public MultilevelSemanticCache queryCache() {
+        return queryCache;
+    }
+
+    /**
+     * @return factory of the reasoner queries of this transaction
+     */
+    @VisibleForTesting
+    public ReasonerQueryFactory reasonerQueryFactory() {
+        return reasonerQueryFactory;
+    }
+
+    /**
+     * @return keyspace-scoped cache of reasoner answers, null if disabled
+     */
+    @VisibleForTesting
+    @Nullable
+    public KeyspaceAnswerCache answerCache() {
+        return answerCache;
+    }
+
+    /**
+     * @return keyspace-scoped memo of reasoner unifiers, plans and rule applicability, null if disabled
+     */
+    @VisibleForTesting
+    @Nullable
+    public ReasonerMemo reasonerMemo() {
+        return reasonerMemo;
+    }
+
+    /**
+     * @return keyspace-scoped cache of traversal plans, null if disabled
+     */
+    @VisibleForTesting
+    @Nullable
+    public TraversalPlanCache planCache() {
+        return planCache;
+    }
+
+    /**
+     * @return maintenance of the persisted rule conclusions of the keyspace, null if rules are not materialised
+     */
+    @VisibleForTesting
+    @Nullable
+    public MaterialisedRules materialisedRules() {
+        return materialisedRules;
+    }
+
     private void closeTransaction(String closedReason) {
         this.closedReason = closedReason;
         this.isTxOpen = false;
@@ -1267,11 +1504,14 @@ public class TransactionImpl implements Transaction {
 
     // shortcut helpers
     private QueryExecutor executor() {
-        return executorFactory.transactional( true);
+        return executor(true);
     }
 
     private QueryExecutor executor(boolean infer) {
-        return executorFactory.transactional( infer);
+        // the persisted rule conclusions are not seen without inference
+        if (materialisedRules == null) return executorFactory.transactional(infer);
+        if (!infer) return executorFactory.storedFacts();
+        return readsMaterialisedConclusions ? executorFactory.materialisedConclusions() : executorFactory.transactional(true);
     }
 
     // ----------- Exposed low level methods that should not be exposed here TODO refactor
@@ -18,6 +18,7 @@
 
 package grakn.core.server.session;
 
+import grakn.core.concept.answer.ConceptMap;
 import grakn.core.concept.manager.ConceptListenerImpl;
 import grakn.core.concept.manager.ConceptManagerImpl;
 import grakn.core.concept.manager.ConceptNotificationChannelImpl;
@@ -28,9 +29,14 @@ import grakn.core.graph.graphdb.database.StandardJanusGraph;
 import grakn.core.graql.executor.ExecutorFactoryImpl;
 import grakn.core.graql.executor.TraversalExecutorImpl;
 import grakn.core.graql.executor.property.PropertyExecutorFactoryImpl;
+import grakn.core.graql.planning.TraversalPlanCache;
 import grakn.core.graql.planning.TraversalPlanFactoryImpl;
 import grakn.core.graql.reasoner.atom.PropertyAtomicFactory;
+import grakn.core.graql.reasoner.cache.KeyspaceAnswerCache;
+import grakn.core.graql.reasoner.cache.KeyspaceAnswerCache.CachedAnswer;
 import grakn.core.graql.reasoner.cache.MultilevelSemanticCache;
+import grakn.core.graql.reasoner.cache.ParallelSubGoalResolver;
+import grakn.core.graql.reasoner.cache.ReasonerMemo;
 import grakn.core.graql.reasoner.cache.RuleCacheImpl;
 import grakn.core.graql.reasoner.query.ReasonerQueryFactory;
 import grakn.core.kb.concept.manager.ConceptManager;
@@ -46,9 +52,17 @@ import grakn.core.kb.server.Transaction;
 import grakn.core.kb.server.TransactionProvider;
 import grakn.core.kb.server.cache.TransactionCache;
 import grakn.core.keyspace.StatisticsDeltaImpl;
+import grakn.core.server.util.LockManager;
+import graql.lang.Graql;
+import graql.lang.pattern.Conjunction;
+import graql.lang.statement.Statement;
 import org.apache.tinkerpop.gremlin.hadoop.structure.HadoopGraph;
 
-import java.util.concurrent.locks.ReadWriteLock;
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
 
 /**
  * A component performing inversion of control, removing the creation of Transactions from the SessionImpl
@@ -59,18 +73,31 @@ public class TransactionProviderImpl implements TransactionProvider {
     private final KeyspaceSchemaCache keyspaceSchemaCache;
     private final KeyspaceStatistics keyspaceStatistics;
     private final AttributeManager attributeManager;
-    private ReadWriteLock graphLock;
+    private final LockManager commitLockManager;
+    private final KeyspaceAnswerCache answerCache;
+    private final ReasonerMemo reasonerMemo;
+    private final TraversalPlanCache planCache;
+    private final MaterialisedRules materialisedRules;
+    private final ForkJoinPool reasonerPool;
     private final long typeShardThreshold;
 
     public TransactionProviderImpl(StandardJanusGraph graph, HadoopGraph hadoopGraph,
                                    KeyspaceSchemaCache keyspaceSchemaCache, KeyspaceStatistics keyspaceStatistics,
-                                   AttributeManager attributeManager, ReadWriteLock graphLock, long typeShardThreshold) {
+                                   AttributeManager attributeManager, LockManager commitLockManager,
+                                   @Nullable KeyspaceAnswerCache answerCache, @Nullable ReasonerMemo reasonerMemo,
+                                   @Nullable TraversalPlanCache planCache, @Nullable MaterialisedRules materialisedRules,
+                                   @Nullable ForkJoinPool reasonerPool, long typeShardThreshold) {
         this.graph = graph;
         this.hadoopGraph = hadoopGraph;
         this.keyspaceSchemaCache = keyspaceSchemaCache;
         this.keyspaceStatistics = keyspaceStatistics;
         this.attributeManager = attributeManager;
-        this.graphLock = graphLock;
+        this.commitLockManager = commitLockManager;
+        this.answerCache = answerCache;
+        this.reasonerMemo = reasonerMemo;
+        this.planCache = planCache;
+        this.materialisedRules = materialisedRules;
+        this.reasonerPool = reasonerPool;
         this.typeShardThreshold = typeShardThreshold;
     }
 
@@ -78,7 +105,7 @@ public class TransactionProviderImpl implements TransactionProvider {
     TODO - this is the centralised circular hairball dependency mess
      */
     @Override
-    public Transaction newTransaction(Session session) {
+    public Transaction newTransaction(Session session, Transaction.Type type) {
 
         // Data structures
         ConceptNotificationChannel conceptNotificationChannel = new ConceptNotificationChannelImpl();
@@ -86,21 +113,32 @@ public class TransactionProviderImpl implements TransactionProvider {
         StatisticsDeltaImpl statisticsDelta = new StatisticsDeltaImpl();
 
         // Janus elements
-        JanusGraphTransaction janusGraphTransaction = graph.newThreadBoundTransaction();
+        JanusGraphTransaction janusGraphTransaction = Transaction.Type.BATCH.equals(type) ?
+                graph.buildTransaction().threadBound().enableBatchLoading().start() :
+                graph.newThreadBoundTransaction();
         JanusTraversalSourceProvider janusTraversalSourceProvider = new JanusTraversalSourceProvider(janusGraphTransaction);
         ElementFactory elementFactory = new ElementFactory(janusGraphTransaction, janusTraversalSourceProvider);
 
         // Grakn elements
         PropertyExecutorFactory propertyExecutorFactory = new PropertyExecutorFactoryImpl();
         ConceptManager conceptManager = new ConceptManagerImpl(elementFactory, transactionCache, conceptNotificationChannel, attributeManager);
-        TraversalPlanFactory traversalPlanFactory = new TraversalPlanFactoryImpl(janusTraversalSourceProvider, conceptManager, propertyExecutorFactory, typeShardThreshold, keyspaceStatistics);
+        TraversalPlanFactory traversalPlanFactory = new TraversalPlanFactoryImpl(janusTraversalSourceProvider, conceptManager, propertyExecutorFactory, typeShardThreshold, keyspaceStatistics, planCache);
         TraversalExecutor traversalExecutor = new TraversalExecutorImpl(traversalPlanFactory, conceptManager);
         ExecutorFactoryImpl executorFactory = new ExecutorFactoryImpl(conceptManager, hadoopGraph, keyspaceStatistics, traversalPlanFactory, traversalExecutor);
         RuleCacheImpl ruleCache = new RuleCacheImpl(conceptManager, keyspaceStatistics);
-        MultilevelSemanticCache queryCache = new MultilevelSemanticCache(traversalPlanFactory, traversalExecutor);
+        // read transactions opened once all rule conclusions are persisted read them instead of resolving rules,
+        // the reasoner only reconstructs the explanations of the conclusions, so it has to derive them from the stored facts
+        boolean readsMaterialisedConclusions = Transaction.Type.READ.equals(type) && materialisedRules != null && materialisedRules.isComplete();
+        TraversalExecutor reasonerTraversalExecutor = readsMaterialisedConclusions ?
+                new TraversalExecutorImpl(traversalPlanFactory, conceptManager, true) :
+                traversalExecutor;
+        // only read transactions see the committed state the keyspace answer cache, reasoner memo and parallel workers are consistent with
+        MultilevelSemanticCache queryCache = Transaction.Type.READ.equals(type) ?
+                new MultilevelSemanticCache(traversalPlanFactory, reasonerTraversalExecutor, answerCache, parallelResolver(session), conceptManager, reasonerMemo) :
+                new MultilevelSemanticCache(traversalPlanFactory, reasonerTraversalExecutor);
 
         PropertyAtomicFactory propertyAtomicFactory = new PropertyAtomicFactory(conceptManager, ruleCache, queryCache, keyspaceStatistics);
-        ReasonerQueryFactory reasonerQueryFactory = new ReasonerQueryFactory(conceptManager, queryCache, ruleCache, keyspaceStatistics, executorFactory, propertyAtomicFactory, traversalPlanFactory, traversalExecutor);
+        ReasonerQueryFactory reasonerQueryFactory = new ReasonerQueryFactory(conceptManager, queryCache, ruleCache, keyspaceStatistics, executorFactory, propertyAtomicFactory, traversalPlanFactory, reasonerTraversalExecutor);
         executorFactory.setReasonerQueryFactory(reasonerQueryFactory);
         propertyAtomicFactory.setReasonerQueryFactory(reasonerQueryFactory);
         ruleCache.setReasonerQueryFactory(reasonerQueryFactory);
@@ -109,7 +147,8 @@ public class TransactionProviderImpl implements TransactionProvider {
                 session, janusGraphTransaction, conceptManager,
                 janusTraversalSourceProvider, transactionCache, queryCache, ruleCache, statisticsDelta,
                 executorFactory, reasonerQueryFactory,
-                graphLock, typeShardThreshold
+                commitLockManager, answerCache, reasonerMemo, planCache, materialisedRules, readsMaterialisedConclusions,
+                typeShardThreshold
         );
 
         ConceptListenerImpl conceptListener = new ConceptListenerImpl(transactionCache, queryCache, ruleCache, statisticsDelta, attributeManager, janusGraphTransaction.toString());
@@ -117,4 +156,28 @@ public class TransactionProviderImpl implements TransactionProvider {
 
         return tx;
     }
+
+    @Nullable
+    private ParallelSubGoalResolver parallelResolver(Session session) {
+        if (reasonerPool == null) return null;
+        return new ParallelSubGoalResolver(reasonerPool, pattern -> resolveInWorkerTransaction(session, pattern));
+    }
+
+    /**
+     * Resolves the atomic query in a new read transaction opened by the calling worker thread.
+     * @return answers to the query, null if any of them contains concepts inferred by the worker transaction
+     */
+    @Nullable
+    private static List<CachedAnswer> resolveInWorkerTransaction(Session session, Conjunction<Statement> pattern) {
+        try (Transaction tx = session.transaction(Transaction.Type.READ)) {
+            List<CachedAnswer> answers = new ArrayList<>();
+            Iterator<ConceptMap> answerIterator = tx.stream(Graql.match(pattern), true).iterator();
+            while (answerIterator.hasNext()) {
+                CachedAnswer answer = CachedAnswer.of(answerIterator.next());
+                if (answer == null) return null;
+                answers.add(answer);
+            }
+            return answers;
+        }
+    }
 }
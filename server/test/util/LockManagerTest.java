@@ -21,6 +21,8 @@ import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.ExpectedException;
 
+import java.util.Arrays;
+import java.util.List;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 
@@ -49,4 +51,24 @@ public class LockManagerTest {
 
         assertEquals(lock1, lock2);
     }
-}
\ No newline at end of file
+
+    @Test
+    public void whenGettingMultipleLocks_LocksAreReturnedInConsistentOrder() {
+        LockManager l = new LockManager(16);
+
+        List<Lock> locks1 = l.getLocks(Arrays.asList("a", "b", "c", "d"));
+        List<Lock> locks2 = l.getLocks(Arrays.asList("d", "c", "b", "a"));
+
+        assertEquals(locks1, locks2);
+    }
+
+    @Test
+    public void whenGettingMultipleLocks_LocksAreTheSameAsSingleLocks() {
+        LockManager l = new LockManager();
+
+        List<Lock> locks = l.getLocks(Arrays.asList(LOCK_NAME));
+
+        assertEquals(1, locks.size());
+        assertEquals(l.getLock(LOCK_NAME), locks.get(0));
+    }
+}
@@ -17,8 +17,10 @@
 
 package grakn.core.server.util;
 
+import com.google.common.collect.Lists;
 import com.google.common.util.concurrent.Striped;
 
+import java.util.List;
 import java.util.concurrent.locks.Lock;
 
 /**
@@ -26,9 +28,31 @@ import java.util.concurrent.locks.Lock;
  */
 public class LockManager {
 
-    private Striped<Lock> locks = Striped.lazyWeakLock(128);
+    private static final int DEFAULT_STRIPES = 128;
+
+    private final Striped<Lock> locks;
+
+    public LockManager() {
+        this(DEFAULT_STRIPES);
+    }
+
+    public LockManager(int stripes) {
+        this.locks = Striped.lazyWeakLock(stripes);
+    }
 
     public Lock getLock(String lockToObtain) {
         return locks.get(lockToObtain);
     }
+
+    /**
+     * Retrieves the locks for multiple names at once. The locks are returned in a globally consistent order,
+     * so acquiring them in list order and releasing them in reverse order cannot deadlock with another caller
+     * doing the same. The list may contain the same lock more than once if names share a stripe.
+     *
+     * @param locksToObtain names of the locks to retrieve
+     * @return locks corresponding to the provided names, in acquisition order
+     */
+    public List<Lock> getLocks(Iterable<String> locksToObtain) {
+        return Lists.newArrayList(locks.bulkGet(locksToObtain));
+    }
 }
@@ -0,0 +1,170 @@
+/*
+ * Copyright (C) 2020 Grakn Labs
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ */
+package grakn.core.graql.planning;
+
+import grakn.core.common.config.Config;
+import grakn.core.common.config.ConfigKey;
+import grakn.core.graql.planning.gremlin.fragment.RangeIndexFragment;
+import grakn.core.kb.graql.planning.gremlin.TraversalPlanFactory;
+import grakn.core.kb.server.Session;
+import grakn.core.kb.server.Transaction;
+import grakn.core.test.rule.GraknTestStorage;
+import grakn.core.test.rule.SessionUtil;
+import grakn.core.test.rule.TestTransactionProvider;
+import graql.lang.Graql;
+import graql.lang.pattern.Pattern;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.ClassRule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+@SuppressWarnings("CheckReturnValue")
+public class RangeIndexIT {
+
+    @ClassRule
+    public static final GraknTestStorage storage = new GraknTestStorage();
+
+    @ClassRule
+    public static final TemporaryFolder indexFolder = new TemporaryFolder();
+
+    private static Session session;
+    private static Session unindexedSession;
+
+    @BeforeClass
+    public static void newSession() throws IOException {
+        Config mockServerConfig = storage.createCompatibleServerConfig();
+        mockServerConfig.setConfigProperty(ConfigKey.RANGE_INDEX_DIRECTORY, indexFolder.newFolder().getAbsolutePath());
+        session = SessionUtil.serverlessSessionWithNewKeyspace(mockServerConfig);
+        unindexedSession = SessionUtil.serverlessSessionWithNewKeyspace(storage.createCompatibleServerConfig());
+        for (Session s : new Session[]{session, unindexedSession}) {
+            try (Transaction tx = s.transaction(Transaction.Type.WRITE)) {
+                tx.execute(Graql.parse("define " +
+                        "person sub entity, has age, has weight, has birth-date;" +
+                        "age sub attribute, value long;" +
+                        "weight sub attribute, value double;" +
+                        "birth-date sub attribute, value datetime;").asDefine());
+                tx.commit();
+            }
+            try (Transaction tx = s.transaction(Transaction.Type.WRITE)) {
+                for (int i = 1; i <= 100; i++) {
+                    tx.execute(Graql.parse("insert $x isa person, has age " + i + ", has weight " + i + ".5" +
+                            ", has birth-date 2000-01-" + String.format("%02d", i % 28 + 1) + ";").asInsert());
+                }
+                tx.commit();
+            }
+        }
+    }
+
+    @AfterClass
+    public static void closeSession() {
+        session.close();
+        unindexedSession.close();
+    }
+
+    @Test
+    public void whenComparingLongAttributes_answersMatchTheComparison() {
+        try (Transaction tx = session.transaction(Transaction.Type.READ)) {
+            assertEquals(10, tx.execute(Graql.parse("match $x isa age; $x > 90; get;").asGet()).size());
+            assertEquals(11, tx.execute(Graql.parse("match $x isa age; $x >= 90; get;").asGet()).size());
+            assertEquals(9, tx.execute(Graql.parse("match $x isa age; $x < 10; get;").asGet()).size());
+            assertEquals(5, tx.execute(Graql.parse("match $x isa age; $x > 40; $x <= 45; get;").asGet()).size());
+            assertEquals(99, tx.execute(Graql.parse("match $x isa age; $x != 50; get;").asGet()).size());
+        }
+    }
+
+    @Test
+    public void whenComparingAttributesWithNumbersOfOtherValueType_answersMatchTheComparison() {
+        try (Transaction tx = session.transaction(Transaction.Type.READ)) {
+            assertEquals(10, tx.execute(Graql.parse("match $x isa weight; $x > 90; get;").asGet()).size());
+            assertEquals(10, tx.execute(Graql.parse("match $x isa age; $x > 90.5; get;").asGet()).size());
+        }
+    }
+
+    @Test
+    public void whenComparingDateAttributes_answersMatchTheComparison() {
+        try (Transaction tx = session.transaction(Transaction.Type.READ)) {
+            assertEquals(5, tx.execute(Graql.parse("match $x isa birth-date; $x > 2000-01-23; get;").asGet()).size());
+            assertEquals(2, tx.execute(Graql.parse("match $x isa birth-date; $x < 2000-01-03; get;").asGet()).size());
+        }
+    }
+
+    @Test
+    public void whenAttributesAreDeleted_theyAreNoLongerMatched() {
+        try (Transaction tx = session.transaction(Transaction.Type.WRITE)) {
+            tx.execute(Graql.parse("insert $x 1000 isa age;").asInsert());
+            tx.commit();
+        }
+        try (Transaction tx = session.transaction(Transaction.Type.READ)) {
+            assertEquals(1, tx.execute(Graql.parse("match $x isa age; $x > 500; get;").asGet()).size());
+        }
+        try (Transaction tx = session.transaction(Transaction.Type.WRITE)) {
+            tx.execute(Graql.parse("match $x 1000 isa age; delete $x isa age;").asDelete());
+            tx.commit();
+        }
+        try (Transaction tx = session.transaction(Transaction.Type.READ)) {
+            assertTrue(tx.execute(Graql.parse("match $x isa age; $x > 500; get;").asGet()).isEmpty());
+        }
+    }
+
+    @Test
+    public void whenComparingAttributesOfAType_planStartsFromTheRangeIndex() {
+        try (Transaction tx = session.transaction(Transaction.Type.READ)) {
+            TraversalPlanFactory traversalPlanFactory = ((TestTransactionProvider.TestTransaction) tx).traversalPlanFactory();
+            Pattern pattern = Graql.parsePattern("$x isa age; $x > 90;");
+            assertTrue(traversalPlanFactory.createTraversal(pattern).fragments().stream()
+                    .anyMatch(fragments -> fragments.get(0) instanceof RangeIndexFragment));
+        }
+    }
+
+    @Test
+    public void whenComparingToVariables_rangeIndexIsNotUsed() {
+        try (Transaction tx = session.transaction(Transaction.Type.READ)) {
+            TraversalPlanFactory traversalPlanFactory = ((TestTransactionProvider.TestTransaction) tx).traversalPlanFactory();
+            Pattern pattern = Graql.parsePattern("$x isa age; $y isa age; $x > $y;");
+            assertFalse(traversalPlanFactory.createTraversal(pattern).fragments().stream()
+                    .flatMap(fragments -> fragments.stream())
+                    .anyMatch(fragment -> fragment instanceof RangeIndexFragment));
+        }
+    }
+
+    @Test
+    public void whenRangeIndexIsDisabled_answersMatchTheComparison() {
+        try (Transaction tx = unindexedSession.transaction(Transaction.Type.READ)) {
+            assertEquals(10, tx.execute(Graql.parse("match $x isa age; $x > 90; get;").asGet()).size());
+            assertEquals(5, tx.execute(Graql.parse("match $x isa birth-date; $x > 2000-01-23; get;").asGet()).size());
+        }
+    }
+
+    @Test
+    public void whenRangeIndexIsDisabled_rangeIndexIsNotUsed() {
+        try (Transaction tx = unindexedSession.transaction(Transaction.Type.READ)) {
+            TraversalPlanFactory traversalPlanFactory = ((TestTransactionProvider.TestTransaction) tx).traversalPlanFactory();
+            Pattern pattern = Graql.parsePattern("$x isa age; $x > 90;");
+            assertFalse(traversalPlanFactory.createTraversal(pattern).fragments().stream()
+                    .flatMap(fragments -> fragments.stream())
+                    .anyMatch(fragment -> fragment instanceof RangeIndexFragment));
+        }
+    }
+}
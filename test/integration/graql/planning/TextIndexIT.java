@@ -0,0 +1,150 @@
+/*
+ * Copyright (C) 2020 Grakn Labs
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ */
+package grakn.core.graql.planning;
+
+import grakn.core.common.config.Config;
+import grakn.core.common.config.ConfigKey;
+import grakn.core.graql.planning.gremlin.fragment.TextIndexFragment;
+import grakn.core.kb.graql.planning.gremlin.TraversalPlanFactory;
+import grakn.core.kb.server.Session;
+import grakn.core.kb.server.Transaction;
+import grakn.core.test.rule.GraknTestStorage;
+import grakn.core.test.rule.SessionUtil;
+import grakn.core.test.rule.TestTransactionProvider;
+import graql.lang.Graql;
+import graql.lang.pattern.Pattern;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.ClassRule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+@SuppressWarnings("CheckReturnValue")
+public class TextIndexIT {
+
+    @ClassRule
+    public static final GraknTestStorage storage = new GraknTestStorage();
+
+    @ClassRule
+    public static final TemporaryFolder indexFolder = new TemporaryFolder();
+
+    private static Session session;
+    private static Session unindexedSession;
+
+    @BeforeClass
+    public static void newSession() throws IOException {
+        Config mockServerConfig = storage.createCompatibleServerConfig();
+        mockServerConfig.setConfigProperty(ConfigKey.TEXT_INDEX_DIRECTORY, indexFolder.newFolder().getAbsolutePath());
+        session = SessionUtil.serverlessSessionWithNewKeyspace(mockServerConfig);
+        unindexedSession = SessionUtil.serverlessSessionWithNewKeyspace(storage.createCompatibleServerConfig());
+        for (Session s : new Session[]{session, unindexedSession}) {
+            try (Transaction tx = s.transaction(Transaction.Type.WRITE)) {
+                tx.execute(Graql.parse("define " +
+                        "person sub entity, has name;" +
+                        "name sub attribute, value string;").asDefine());
+                tx.commit();
+            }
+            try (Transaction tx = s.transaction(Transaction.Type.WRITE)) {
+                tx.execute(Graql.parse("insert " +
+                        "$a isa person, has name \"Alice Smith\";" +
+                        "$b isa person, has name \"Bob Smithson\";" +
+                        "$c isa person, has name \"Carol\tJones\";" +
+                        "$d isa person, has name \"ALICE JONES\";" +
+                        "$e isa person, has name \"al\";").asInsert());
+                tx.commit();
+            }
+        }
+    }
+
+    @AfterClass
+    public static void closeSession() {
+        session.close();
+        unindexedSession.close();
+    }
+
+    @Test
+    public void whenMatchingContains_answersMatchCaseInsensitively() {
+        for (Session s : new Session[]{session, unindexedSession}) {
+            try (Transaction tx = s.transaction(Transaction.Type.READ)) {
+                assertEquals(2, tx.execute(Graql.parse("match $x isa name; $x contains \"smith\"; get;").asGet()).size());
+                assertEquals(2, tx.execute(Graql.parse("match $x isa name; $x contains \"alice\"; get;").asGet()).size());
+                assertEquals(1, tx.execute(Graql.parse("match $x isa name; $x contains \"l\tj\"; get;").asGet()).size());
+                assertEquals(3, tx.execute(Graql.parse("match $x isa name; $x contains \"al\"; get;").asGet()).size());
+                assertTrue(tx.execute(Graql.parse("match $x isa name; $x contains \"smythe\"; get;").asGet()).isEmpty());
+            }
+        }
+    }
+
+    @Test
+    public void whenMatchingLike_answersMatchTheRegex() {
+        for (Session s : new Session[]{session, unindexedSession}) {
+            try (Transaction tx = s.transaction(Transaction.Type.READ)) {
+                assertEquals(1, tx.execute(Graql.parse("match $x isa name; $x like \"Alice.*\"; get;").asGet()).size());
+                assertEquals(2, tx.execute(Graql.parse("match $x isa name; $x like \".*Smith(son)?\"; get;").asGet()).size());
+                assertEquals(2, tx.execute(Graql.parse("match $x isa name; $x like \"(?i)alice.*\"; get;").asGet()).size());
+                assertEquals(2, tx.execute(Graql.parse("match $x isa name; $x like \"(Alice|Bob) Smith.*\"; get;").asGet()).size());
+                assertEquals(1, tx.execute(Graql.parse("match $x isa name; $x like \"[a-z]+\"; get;").asGet()).size());
+            }
+        }
+    }
+
+    @Test
+    public void whenAttributesAreDeleted_theyAreNoLongerMatched() {
+        try (Transaction tx = session.transaction(Transaction.Type.WRITE)) {
+            tx.execute(Graql.parse("insert $x \"Dave Quentin\" isa name;").asInsert());
+            tx.commit();
+        }
+        try (Transaction tx = session.transaction(Transaction.Type.READ)) {
+            assertEquals(1, tx.execute(Graql.parse("match $x isa name; $x contains \"quentin\"; get;").asGet()).size());
+        }
+        try (Transaction tx = session.transaction(Transaction.Type.WRITE)) {
+            tx.execute(Graql.parse("match $x \"Dave Quentin\" isa name; delete $x isa name;").asDelete());
+            tx.commit();
+        }
+        try (Transaction tx = session.transaction(Transaction.Type.READ)) {
+            assertTrue(tx.execute(Graql.parse("match $x isa name; $x contains \"quentin\"; get;").asGet()).isEmpty());
+        }
+    }
+
+    @Test
+    public void whenTextIndexIsEnabled_planStartsFromTheTextIndex() {
+        try (Transaction tx = session.transaction(Transaction.Type.READ)) {
+            TraversalPlanFactory traversalPlanFactory = ((TestTransactionProvider.TestTransaction) tx).traversalPlanFactory();
+            Pattern pattern = Graql.parsePattern("$x isa name; $x contains \"smith\";");
+            assertTrue(traversalPlanFactory.createTraversal(pattern).fragments().stream()
+                    .anyMatch(fragments -> fragments.get(0) instanceof TextIndexFragment));
+        }
+    }
+
+    @Test
+    public void whenTextIndexIsDisabled_textIndexIsNotUsed() {
+        try (Transaction tx = unindexedSession.transaction(Transaction.Type.READ)) {
+            TraversalPlanFactory traversalPlanFactory = ((TestTransactionProvider.TestTransaction) tx).traversalPlanFactory();
+            Pattern pattern = Graql.parsePattern("$x isa name; $x contains \"smith\";");
+            assertFalse(traversalPlanFactory.createTraversal(pattern).fragments().stream()
+                    .flatMap(fragments -> fragments.stream())
+                    .anyMatch(fragment -> fragment instanceof TextIndexFragment));
+        }
+    }
+}
@@ -0,0 +1,143 @@
+/*
+ * Copyright (C) 2020 Grakn Labs
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ */
+package grakn.core.graql.planning;
+
+import grakn.core.common.config.ConfigKey;
+import grakn.core.concept.answer.ConceptMap;
+import grakn.core.kb.server.Session;
+import grakn.core.kb.server.Transaction;
+import grakn.core.server.session.TransactionImpl;
+import grakn.core.test.rule.GraknTestServer;
+import graql.lang.Graql;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.ClassRule;
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+@SuppressWarnings("CheckReturnValue")
+public class TraversalPlanCacheIT {
+
+    @ClassRule
+    public static final GraknTestServer server = new GraknTestServer();
+
+    private Session session;
+
+    @BeforeClass
+    public static void enablePlanCache() {
+        server.serverConfig().setConfigProperty(ConfigKey.TRAVERSAL_PLAN_CACHE_CAPACITY, 10000L);
+    }
+
+    @Before
+    public void setUp() {
+        session = server.sessionWithNewKeyspace();
+        try (Transaction tx = session.transaction(Transaction.Type.WRITE)) {
+            tx.execute(Graql.parse("define " +
+                    "person sub entity, has name, plays friend;" +
+                    "friendship sub relation, relates friend;" +
+                    "name sub attribute, value string;").asDefine());
+            tx.commit();
+        }
+        try (Transaction tx = session.transaction(Transaction.Type.WRITE)) {
+            tx.execute(Graql.parse("insert " +
+                    "$x isa person, has name \"Alice\"; $y isa person, has name \"Bob\"; $z isa person, has name \"Carol\";" +
+                    "(friend: $x, friend: $y) isa friendship;").asInsert());
+            tx.commit();
+        }
+    }
+
+    @After
+    public void tearDown() {
+        session.close();
+    }
+
+    @Test
+    public void whenQueryShapeIsRepeatedWithDifferentValuesAndVariables_cachedPlanIsReusedWithNewBindings() {
+        TraversalPlanCache planCache;
+        try (Transaction tx = session.transaction(Transaction.Type.READ)) {
+            planCache = ((TransactionImpl) tx).planCache();
+            List<ConceptMap> answers = tx.execute(Graql.parse(
+                    "match $x isa person, has name \"Alice\"; (friend: $x, friend: $y) isa friendship; get $y;").asGet());
+            assertEquals(1, answers.size());
+        }
+        assertTrue(planCache.size() > 0);
+
+        long hits = planCache.hits();
+        try (Transaction tx = session.transaction(Transaction.Type.READ)) {
+            List<ConceptMap> answers = tx.execute(Graql.parse(
+                    "match $a isa person, has name \"Bob\"; (friend: $a, friend: $b) isa friendship; $b has name $n; get $n;").asGet());
+            assertEquals(1, answers.size());
+            assertEquals("Alice", answers.get(0).get("n").asAttribute().value());
+
+            assertTrue(tx.execute(Graql.parse(
+                    "match $a isa person, has name \"Carol\"; (friend: $a, friend: $b) isa friendship; get $b;").asGet()).isEmpty());
+        }
+        assertTrue(planCache.hits() > hits);
+    }
+
+    @Test
+    public void whenComparedValuesDifferInSelectivity_cachedPlanIsNotReused() {
+        try (Transaction tx = session.transaction(Transaction.Type.WRITE)) {
+            tx.execute(Graql.parse("define person has age; age sub attribute, value long;").asDefine());
+            tx.commit();
+        }
+        try (Transaction tx = session.transaction(Transaction.Type.WRITE)) {
+            for (int i = 1; i <= 100; i++) {
+                tx.execute(Graql.parse("insert $x isa person, has age " + i + ";").asInsert());
+            }
+            tx.commit();
+        }
+
+        try (Transaction tx = session.transaction(Transaction.Type.READ)) {
+            TraversalPlanCache planCache = ((TransactionImpl) tx).planCache();
+            assertTrue(tx.execute(Graql.parse("match $a isa age; $a > 1000; get;").asGet()).isEmpty());
+            int plans = planCache.size();
+
+            // matching none of the values either, the comparison is planned like the first one
+            long hits = planCache.hits();
+            assertTrue(tx.execute(Graql.parse("match $a isa age; $a > 2000; get;").asGet()).isEmpty());
+            assertEquals(plans, planCache.size());
+            assertTrue(planCache.hits() > hits);
+
+            // matching all values, the comparison is planned again
+            assertEquals(100, tx.execute(Graql.parse("match $a isa age; $a > 0; get;").asGet()).size());
+            assertEquals(plans + 1, planCache.size());
+        }
+    }
+
+    @Test
+    public void whenCommittingSchemaChanges_cachedPlansAreInvalidated() {
+        TraversalPlanCache planCache;
+        try (Transaction tx = session.transaction(Transaction.Type.READ)) {
+            planCache = ((TransactionImpl) tx).planCache();
+            tx.execute(Graql.parse("match $x isa person, has name \"Alice\"; get;").asGet());
+        }
+        assertTrue(planCache.size() > 0);
+
+        try (Transaction tx = session.transaction(Transaction.Type.WRITE)) {
+            tx.execute(Graql.parse("define company sub entity;").asDefine());
+            tx.commit();
+        }
+        assertEquals(0, planCache.size());
+    }
+}
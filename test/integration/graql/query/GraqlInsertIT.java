@@ -725,6 +725,60 @@ public class GraqlInsertIT {
         assertEquals(oldCount.get(0).number().intValue() * 2, newCount.get(0).number().intValue());
     }
 
+    @Test
+    public void whenMatchInsertHasManyAnswers_everyAnswerIsInserted() {
+        int genres = 2500;
+        int oldGenres = tx.execute(Graql.match(var("g").isa("genre")).get().count()).get(0).number().intValue();
+        for (int i = 0; i < genres; i++) {
+            tx.execute(Graql.insert(var("g").isa("genre").has("name", "batched-genre-" + i)));
+        }
+
+        List<ConceptMap> answers = tx.execute(Graql.match(var("g").isa("genre")).insert(var("m").isa("movie")));
+
+        assertEquals(oldGenres + genres, answers.size());
+        assertEquals(oldGenres + genres, answers.stream().map(answer -> answer.get("m")).collect(toSet()).size());
+    }
+
+    @Test
+    public void whenMatchInsertAnswersAreNotConsumed_theyAreInsertedOnCommit() {
+        Session newSession = graknServer.sessionWithNewKeyspace();
+        try (Transaction newTx = newSession.transaction(Transaction.Type.WRITE)) {
+            newTx.execute(Graql.parse("define person sub entity;").asDefine());
+            for (int i = 0; i < 10; i++) {
+                newTx.execute(Graql.parse("insert $x isa person;").asInsert());
+            }
+            newTx.commit();
+        }
+
+        try (Transaction newTx = newSession.transaction(Transaction.Type.WRITE)) {
+            newTx.stream(Graql.parse("match $x isa person; insert $y isa person;").asInsert());
+            newTx.commit();
+        }
+
+        try (Transaction newTx = newSession.transaction(Transaction.Type.READ)) {
+            assertEquals(20, newTx.execute(Graql.parse("match $x isa person; get; count;").asGetAggregate()).get(0).number().intValue());
+        }
+        newSession.close();
+    }
+
+    @Test
+    public void whenMatchInsertIsFollowedByAMatchInTheSameTransaction_theMatchSeesTheInsertedInstances() {
+        Session newSession = graknServer.sessionWithNewKeyspace();
+        try (Transaction newTx = newSession.transaction(Transaction.Type.WRITE)) {
+            newTx.execute(Graql.parse("define person sub entity;").asDefine());
+            for (int i = 0; i < 10; i++) {
+                newTx.execute(Graql.parse("insert $x isa person;").asInsert());
+            }
+            newTx.commit();
+        }
+
+        try (Transaction newTx = newSession.transaction(Transaction.Type.WRITE)) {
+            newTx.stream(Graql.parse("match $x isa person; insert $y isa person;").asInsert());
+            assertEquals(20, newTx.execute(Graql.parse("match $x isa person; get; count;").asGetAggregate()).get(0).number().intValue());
+        }
+        newSession.close();
+    }
+
     private void assertInsert(Statement... vars) {
         // Make sure vars don't exist
         for (Statement var : vars) {
@@ -20,10 +20,12 @@ package grakn.core.graql.reasoner;
 import com.google.common.collect.Iterables;
 import com.google.common.collect.Sets;
 import grakn.core.concept.answer.ConceptMap;
+import grakn.core.graql.reasoner.query.ResolvableQuery;
 import grakn.core.kb.concept.api.Relation;
 import grakn.core.kb.concept.api.Thing;
 import grakn.core.kb.server.Session;
 import grakn.core.kb.server.Transaction;
+import grakn.core.server.session.TransactionImpl;
 import grakn.core.test.rule.GraknTestServer;
 import graql.lang.Graql;
 import graql.lang.query.GraqlGet;
@@ -31,6 +33,7 @@ import graql.lang.statement.Variable;
 import org.junit.ClassRule;
 import org.junit.Test;
 
+import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 import java.util.stream.Collectors;
@@ -555,6 +558,53 @@ public class ReasoningIT {
         }
     }
 
+    @Test //transitive closure with a doubly recursive rule requires multiple fixpoint iterations evaluated semi-naively
+    public void whenComputingDoublyRecursiveTransitiveClosure_allPathsAreFound() {
+        final int chainLength = 20;
+        try (Session session = server.sessionWithNewKeyspace()) {
+            try (Transaction tx = session.transaction(Transaction.Type.WRITE)) {
+                tx.execute(Graql.parse("define " +
+                        "node sub entity, has index, plays from, plays to; " +
+                        "index sub attribute, value long;" +
+                        "path sub relation, relates from, relates to;" +
+                        "transitive-path sub rule, " +
+                        "when { " +
+                        "    (from: $x, to: $y) isa path; " +
+                        "    (from: $y, to: $z) isa path; " +
+                        "}, " +
+                        "then { " +
+                        "    (from: $x, to: $z) isa path; " +
+                        "};").asDefine());
+                tx.execute(Graql.parse("insert $x isa node, has index 0;").asInsert());
+                for (int i = 1; i < chainLength; i++) {
+                    tx.execute(Graql.parse("match $x isa node, has index " + (i - 1) + ";" +
+                            "insert $y isa node, has index " + i + "; (from: $x, to: $y) isa path;").asInsert());
+                }
+                tx.commit();
+            }
+
+            try (Transaction tx = session.transaction(Transaction.Type.READ)) {
+                List<ConceptMap> paths = tx.execute(Graql.parse("match (from: $x, to: $y) isa path; get;").asGet());
+                assertEquals(chainLength * (chainLength - 1) / 2, paths.size());
+
+                List<ConceptMap> pathsFromStart = tx.execute(Graql.parse("match $x isa node, has index 0; (from: $x, to: $y) isa path; get $y;").asGet());
+                assertEquals(chainLength - 1, pathsFromStart.size());
+            }
+
+            try (Transaction tx = session.transaction(Transaction.Type.READ)) {
+                TransactionImpl txImpl = (TransactionImpl) tx;
+                ResolvableQuery query = txImpl.reasonerQueryFactory().resolvable(Iterables.getOnlyElement(
+                        Graql.parsePattern("(from: $x, to: $y) isa path;").getNegationDNF().getPatterns()));
+                DeltaTracker tracker = new DeltaTracker();
+                long paths = new ResolutionIterator(query, new HashSet<>(), txImpl.queryCache(), tracker).hasStream().count();
+                assertEquals(chainLength * (chainLength - 1) / 2, paths);
+
+                long prunedDerivations = tracker.prunedDerivations().stream().mapToLong(Long::longValue).sum();
+                assertTrue(prunedDerivations > 0);
+            }
+        }
+    }
+
     @Test //when rule are defined to append new RPs no new relation instances should be created
     public void whenAppendingRolePlayers_noNewRelationsAreCreated() {
         try (Session session = server.sessionWithNewKeyspace()) {
@@ -0,0 +1,138 @@
+/*
+ * Copyright (C) 2020 Grakn Labs
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ */
+
+package grakn.core.graql.reasoner.benchmark;
+
+import com.google.common.collect.ArrayListMultimap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.ListMultimap;
+import grakn.core.concept.answer.ConceptMap;
+import grakn.core.graql.reasoner.graph.LinearTransitivityMatrixGraph;
+import grakn.core.graql.reasoner.utils.AnswerTuple;
+import grakn.core.graql.reasoner.utils.AnswerUtil;
+import grakn.core.graql.reasoner.utils.VariableSlots;
+import grakn.core.kb.concept.api.Concept;
+import grakn.core.kb.server.Session;
+import grakn.core.kb.server.Transaction;
+import grakn.core.test.rule.GraknTestServer;
+import graql.lang.Graql;
+import graql.lang.statement.Variable;
+import org.junit.ClassRule;
+import org.junit.Test;
+
+import java.lang.management.ManagementFactory;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.ToLongFunction;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Reports throughput and allocation rate of joining reasoner answers keyed by projected ConceptMaps
+ * and by AnswerTuples, using the answers of the linear transitivity matrix fixture.
+ * Timings are only printed - the test checks that both keyings produce the same joins.
+ */
+@SuppressWarnings({"CheckReturnValue", "Duplicates"})
+public class AnswerTupleBenchmarkIT {
+
+    @ClassRule
+    public static final GraknTestServer server = new GraknTestServer();
+
+    private static final int N = 10;
+    private static final int WARMUP_ROUNDS = 5;
+    private static final int MEASURED_ROUNDS = 20;
+
+    private static final Variable X = new Variable("x");
+    private static final Variable Y = new Variable("y");
+    private static final Variable Z = new Variable("z");
+
+    @Test
+    public void hashJoinOfTransitivityAnswers_answerTupleKeysJoinTheSameAnswersAsProjectedKeys() {
+        System.out.println(new Object(){}.getClass().getEnclosingMethod().getName());
+        Session session = server.sessionWithNewKeyspace();
+        new LinearTransitivityMatrixGraph(session).load(N, N);
+
+        try (Transaction tx = session.transaction(Transaction.Type.READ)) {
+            List<ConceptMap> leftAnswers = tx.execute(Graql.parse("match (P-from: $x, P-to: $y) isa P; get;").asGet());
+            // right answers are the left answers shifted by a variable, so that the join computes paths of length 2
+            List<ConceptMap> rightAnswers = leftAnswers.stream()
+                    .map(ans -> {
+                        Map<Variable, Concept> map = new HashMap<>();
+                        map.put(Y, ans.get(X));
+                        map.put(Z, ans.get(Y));
+                        return new ConceptMap(map);
+                    })
+                    .collect(Collectors.toList());
+            Set<Variable> joinVars = ImmutableSet.of(Y);
+            VariableSlots joinSlots = VariableSlots.of(joinVars);
+
+            long projectedJoins = measure("projected keys", leftAnswers.size(), () -> {
+                ListMultimap<Map<Variable, Concept>, ConceptMap> index = ArrayListMultimap.create();
+                leftAnswers.forEach(ans -> index.put(ans.project(joinVars).map(), ans));
+                return join(rightAnswers, right -> index.get(right.project(joinVars).map()));
+            });
+            long tupleJoins = measure("answer tuple keys", leftAnswers.size(), () -> {
+                ListMultimap<AnswerTuple, ConceptMap> index = ArrayListMultimap.create();
+                leftAnswers.forEach(ans -> index.put(joinSlots.tuple(ans), ans));
+                return join(rightAnswers, right -> index.get(joinSlots.tuple(right)));
+            });
+            assertEquals(projectedJoins, tupleJoins);
+        }
+        session.close();
+    }
+
+    private interface Probe {
+        List<ConceptMap> matches(ConceptMap right);
+    }
+
+    private interface Round {
+        long run();
+    }
+
+    private static long join(List<ConceptMap> rightAnswers, Probe probe) {
+        return rightAnswers.stream()
+                .mapToLong(right -> probe.matches(right).stream()
+                        .map(left -> AnswerUtil.joinAnswers(left, right))
+                        .filter(ans -> !ans.isEmpty())
+                        .count())
+                .sum();
+    }
+
+    private static long measure(String name, int answers, Round round) {
+        ToLongFunction<Thread> allocatedBytes = thread ->
+                ((com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean()).getThreadAllocatedBytes(thread.getId());
+        long joins = 0;
+        for (int i = 0; i < WARMUP_ROUNDS; i++) joins = round.run();
+
+        long startBytes = allocatedBytes.applyAsLong(Thread.currentThread());
+        long start = System.nanoTime();
+        for (int i = 0; i < MEASURED_ROUNDS; i++) round.run();
+        long time = Math.max(System.nanoTime() - start, 1);
+        long bytes = allocatedBytes.applyAsLong(Thread.currentThread()) - startBytes;
+
+        long answersProcessed = (long) answers * MEASURED_ROUNDS;
+        System.out.println(name + " answers: " + answers + " joins: " + joins +
+                " throughput (answers/s): " + answersProcessed * 1_000_000_000L / time +
+                " allocation (bytes/answer): " + bytes / Math.max(answersProcessed, 1) +
+                " allocation rate (MB/s): " + bytes * 1000L / time);
+        return joins;
+    }
+}
@@ -0,0 +1,140 @@
+/*
+ * Copyright (C) 2020 Grakn Labs
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ */
+
+package grakn.core.graql.reasoner.cache;
+
+import grakn.core.common.config.ConfigKey;
+import grakn.core.concept.answer.ConceptMap;
+import grakn.core.concept.answer.Explanation;
+import grakn.core.kb.server.Session;
+import grakn.core.kb.server.Transaction;
+import grakn.core.server.session.TransactionImpl;
+import grakn.core.test.rule.GraknTestServer;
+import graql.lang.Graql;
+import graql.lang.query.GraqlGet;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.ClassRule;
+import org.junit.Test;
+
+import java.util.List;
+
+import static grakn.core.util.GraqlTestUtil.loadFromFileAndCommit;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+@SuppressWarnings("CheckReturnValue")
+public class KeyspaceAnswerCacheIT {
+
+    @ClassRule
+    public static final GraknTestServer server = new GraknTestServer();
+
+    private static final String RESOURCE_PATH = "test/integration/graql/reasoner/resources/";
+
+    private static final GraqlGet TAGGED_PEOPLE = Graql.parse("match $x has tag $t; get;").asGet();
+
+    private Session session;
+
+    @BeforeClass
+    public static void enableAnswerCache() {
+        server.serverConfig().setConfigProperty(ConfigKey.REASONER_ANSWER_CACHE_CAPACITY, 10000L);
+    }
+
+    @Before
+    public void setUp() {
+        session = server.sessionWithNewKeyspace();
+        loadFromFileAndCommit(RESOURCE_PATH, "vipTagTest.gql", session);
+    }
+
+    @After
+    public void tearDown() {
+        session.close();
+    }
+
+    @Test
+    public void whenQueryIsRepeatedInNewReadTransaction_answersAreFetchedFromKeyspaceCache() {
+        KeyspaceAnswerCache answerCache;
+        List<ConceptMap> answers;
+        try (Transaction tx = session.transaction(Transaction.Type.READ)) {
+            answerCache = ((TransactionImpl) tx).answerCache();
+            answers = tx.execute(TAGGED_PEOPLE);
+        }
+        assertEquals(1, answers.size());
+        assertTrue(answerCache.size() > 0);
+
+        long hits = answerCache.hits();
+        try (Transaction tx = session.transaction(Transaction.Type.READ)) {
+            List<ConceptMap> cachedAnswers = tx.execute(TAGGED_PEOPLE);
+            assertEquals(1, cachedAnswers.size());
+            assertEquals(answers.get(0).get("x").id(), cachedAnswers.get(0).get("x").id());
+            assertTrue(cachedAnswers.iterator().next().explanation().isRuleExplanation());
+        }
+        assertTrue(answerCache.hits() > hits);
+    }
+
+    @Test
+    public void whenExplainingAnswerFetchedFromKeyspaceCache_explanationIsReconstructed() {
+        try (Transaction tx = session.transaction(Transaction.Type.READ)) {
+            tx.execute(TAGGED_PEOPLE);
+        }
+        try (Transaction tx = session.transaction(Transaction.Type.READ)) {
+            ConceptMap answer = tx.execute(TAGGED_PEOPLE).iterator().next();
+            Explanation explanation = tx.explanation(answer.getPattern());
+            assertTrue(explanation.isRuleExplanation());
+            assertFalse(explanation.getAnswers().isEmpty());
+        }
+    }
+
+    @Test
+    public void whenCommittingWritesToDependentTypes_entriesAreInvalidated() {
+        KeyspaceAnswerCache answerCache;
+        try (Transaction tx = session.transaction(Transaction.Type.READ)) {
+            answerCache = ((TransactionImpl) tx).answerCache();
+            assertEquals(1, tx.execute(TAGGED_PEOPLE).size());
+        }
+
+        long invalidations = answerCache.invalidations();
+        try (Transaction tx = session.transaction(Transaction.Type.WRITE)) {
+            tx.execute(Graql.parse("insert $x isa person, has name \"Alice\";").asInsert());
+            tx.commit();
+        }
+        assertTrue(answerCache.invalidations() > invalidations);
+
+        try (Transaction tx = session.transaction(Transaction.Type.READ)) {
+            assertEquals(2, tx.execute(TAGGED_PEOPLE).size());
+        }
+    }
+
+    @Test
+    public void whenCommittingSchemaChanges_allEntriesAreInvalidated() {
+        KeyspaceAnswerCache answerCache;
+        try (Transaction tx = session.transaction(Transaction.Type.READ)) {
+            answerCache = ((TransactionImpl) tx).answerCache();
+            tx.execute(TAGGED_PEOPLE);
+        }
+        assertTrue(answerCache.size() > 0);
+
+        try (Transaction tx = session.transaction(Transaction.Type.WRITE)) {
+            tx.execute(Graql.parse("define company sub entity;").asDefine());
+            tx.commit();
+        }
+        assertEquals(0, answerCache.size());
+    }
+}
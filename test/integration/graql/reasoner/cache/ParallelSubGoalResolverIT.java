@@ -0,0 +1,170 @@
+/*
+ * Copyright (C) 2020 Grakn Labs
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ */
+package grakn.core.graql.reasoner.cache;
+
+import grakn.core.common.config.ConfigKey;
+import grakn.core.concept.answer.ConceptMap;
+import grakn.core.concept.answer.Explanation;
+import grakn.core.kb.concept.api.ConceptId;
+import grakn.core.kb.server.Session;
+import grakn.core.kb.server.Transaction;
+import grakn.core.kb.server.keyspace.Keyspace;
+import grakn.core.server.session.HadoopGraphFactory;
+import grakn.core.server.session.JanusGraphFactory;
+import grakn.core.server.session.SessionFactory;
+import grakn.core.server.session.TransactionImpl;
+import grakn.core.server.util.LockManager;
+import grakn.core.test.rule.GraknTestServer;
+import graql.lang.Graql;
+import graql.lang.query.GraqlGet;
+import graql.lang.statement.Variable;
+import org.junit.After;
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.ClassRule;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+@SuppressWarnings("CheckReturnValue")
+public class ParallelSubGoalResolverIT {
+
+    @ClassRule
+    public static final GraknTestServer server = new GraknTestServer();
+
+    // both atoms are inferred by rules and their answers are made of stored concepts only, so they can be resolved by workers
+    private static final GraqlGet TAGGED_AND_RANKED_PEOPLE = Graql.parse("match $x has tag $t; $x has rank $r; get;").asGet();
+
+    private static SessionFactory parallelSessionFactory;
+
+    private Session session;
+    private Session parallelSession;
+
+    @BeforeClass
+    public static void setUpParallelSessionFactory() {
+        server.serverConfig().setConfigProperty(ConfigKey.REASONER_PARALLELISM, 2);
+        parallelSessionFactory = new SessionFactory(new LockManager(), new JanusGraphFactory(server.serverConfig()),
+                new HadoopGraphFactory(server.serverConfig()), server.serverConfig());
+        server.serverConfig().setConfigProperty(ConfigKey.REASONER_PARALLELISM, 0);
+    }
+
+    @AfterClass
+    public static void closeParallelSessionFactory() {
+        parallelSessionFactory.close();
+    }
+
+    @Before
+    public void setUp() {
+        Keyspace keyspace = server.randomKeyspaceName();
+        session = server.session(keyspace);
+        try (Transaction tx = session.transaction(Transaction.Type.WRITE)) {
+            tx.execute(Graql.parse("define " +
+                    "person sub entity, has name, has tag, has rank;" +
+                    "name sub attribute, value string;" +
+                    "tag sub attribute, value string;" +
+                    "rank sub attribute, value string;" +
+                    "vip-rule sub rule, " +
+                    "when { $x isa person, has name \"Alice\"; $t \"vip\" isa tag; }, " +
+                    "then { $x has tag $t; };" +
+                    "senior-rule sub rule, " +
+                    "when { $x isa person, has name $n; $n contains \"e\"; $r \"senior\" isa rank; }, " +
+                    "then { $x has rank $r; };").asDefine());
+            tx.commit();
+        }
+        try (Transaction tx = session.transaction(Transaction.Type.WRITE)) {
+            tx.execute(Graql.parse("insert $t \"vip\" isa tag; $r \"senior\" isa rank;").asInsert());
+            tx.execute(Graql.parse("insert $x isa person, has name \"Alice\";").asInsert());
+            tx.execute(Graql.parse("insert $x isa person, has name \"Alice\";").asInsert());
+            tx.execute(Graql.parse("insert $x isa person, has name \"Bob\";").asInsert());
+            tx.execute(Graql.parse("insert $x isa person, has name \"Eve\";").asInsert());
+            tx.commit();
+        }
+        parallelSession = parallelSessionFactory.session(keyspace);
+    }
+
+    @After
+    public void tearDown() {
+        parallelSession.close();
+        session.close();
+    }
+
+    @Test
+    public void whenResolvingSubGoalsInParallel_answersMatchSequentialResolution() {
+        Set<Map<Variable, ConceptId>> sequentialAnswers;
+        try (Transaction tx = session.transaction(Transaction.Type.READ)) {
+            sequentialAnswers = ids(tx.execute(TAGGED_AND_RANKED_PEOPLE));
+        }
+        try (Transaction tx = parallelSession.transaction(Transaction.Type.READ)) {
+            Set<Map<Variable, ConceptId>> parallelAnswers = ids(tx.execute(TAGGED_AND_RANKED_PEOPLE));
+            assertTrue(((TransactionImpl) tx).queryCache().containsSharedAnswers());
+            assertEquals(2, parallelAnswers.size());
+            assertEquals(sequentialAnswers, parallelAnswers);
+        }
+    }
+
+    @Test
+    public void whenExplainingAnswersResolvedInParallel_explanationsMatchSequentialResolution() {
+        Map<Map<Variable, ConceptId>, Set<Map<Variable, ConceptId>>> sequentialExplanations;
+        try (Transaction tx = session.transaction(Transaction.Type.READ)) {
+            sequentialExplanations = explanations(tx, tx.execute(TAGGED_AND_RANKED_PEOPLE));
+        }
+        try (Transaction tx = parallelSession.transaction(Transaction.Type.READ)) {
+            List<ConceptMap> answers = tx.execute(TAGGED_AND_RANKED_PEOPLE);
+            assertTrue(((TransactionImpl) tx).queryCache().containsSharedAnswers());
+            Map<Map<Variable, ConceptId>, Set<Map<Variable, ConceptId>>> parallelExplanations = explanations(tx, answers);
+            assertFalse(parallelExplanations.isEmpty());
+            assertEquals(sequentialExplanations, parallelExplanations);
+            for (ConceptMap answer : answers) {
+                tx.explanation(answer.getPattern()).getAnswers()
+                        .forEach(subAnswer -> assertTrue(subAnswer.explanation().isRuleExplanation()));
+            }
+        }
+    }
+
+    /**
+     * @return the answers of the join explanation of each answer, by the ids of the answer
+     */
+    private static Map<Map<Variable, ConceptId>, Set<Map<Variable, ConceptId>>> explanations(Transaction tx, List<ConceptMap> answers) {
+        Map<Map<Variable, ConceptId>, Set<Map<Variable, ConceptId>>> explanations = new HashMap<>();
+        for (ConceptMap answer : answers) {
+            Explanation explanation = tx.explanation(answer.getPattern());
+            explanations.put(ids(answer), ids(explanation.getAnswers()));
+        }
+        return explanations;
+    }
+
+    private static Set<Map<Variable, ConceptId>> ids(List<ConceptMap> answers) {
+        return answers.stream().map(ParallelSubGoalResolverIT::ids).collect(Collectors.toCollection(HashSet::new));
+    }
+
+    private static Map<Variable, ConceptId> ids(ConceptMap answer) {
+        Map<Variable, ConceptId> ids = new HashMap<>();
+        answer.map().forEach((var, concept) -> ids.put(var, concept.id()));
+        return ids;
+    }
+}
@@ -210,6 +210,39 @@ public class QueryCacheIT {
         }
     }
 
+    @Test
+    public void whenParentGainsAnswersAfterPropagation_newAnswersArePropagatedToChild(){
+        try(Transaction tx = genericSchemaSession.transaction(Transaction.Type.READ)) {
+            TestTransactionProvider.TestTransaction testTx = ((TestTransactionProvider.TestTransaction)tx);
+
+            MultilevelSemanticCache cache = new MultilevelSemanticCache(testTx.traversalPlanFactory(), testTx.traversalExecutor());
+
+            ReasonerAtomicQuery parentQuery = testTx.reasonerQueryFactory().atomic(conjunction("(role: $x, role: $y) isa binary;"));
+            tx.execute(parentQuery.getQuery()).stream()
+                    .map(ans -> ans.explain(new LookupExplanation()))
+                    .forEach(ans -> cache.record(parentQuery, ans));
+            cache.ackDBCompleteness(parentQuery);
+
+            //create the child entry with answers propagated from the parent
+            ReasonerAtomicQuery childQuery = testTx.reasonerQueryFactory().atomic(conjunction("{(role: $x, role: $y) isa binary;$x isa baseEntity;};"));
+            cache.getAnswers(childQuery);
+            IndexedAnswerSet childAnswers = cache.getEntry(childQuery).cachedElement();
+            int initialSize = childAnswers.size();
+
+            //record a new parent answer after the propagation
+            Concept concept = tx.getEntityType("baseRoleEntity").instances().iterator().next();
+            ConceptMap mockedAnswer = new ConceptMap(ImmutableMap.of(new Variable("x"), concept, new Variable("y"), concept))
+                    .explain(new LookupExplanation());
+            cache.record(parentQuery, mockedAnswer);
+            assertFalse(childAnswers.contains(mockedAnswer));
+
+            cache.propagateAnswers();
+            assertTrue(childAnswers.contains(mockedAnswer));
+            assertEquals(initialSize + 1, childAnswers.size());
+            assertEquals(childAnswers.size(), childAnswers.getAll().size());
+        }
+    }
+
     @Test
     public void whenGettingAndMatchDoesntExist_prospectiveParentCached_childQueriesAreEquivalent_answersFetchedFromDB(){
         try(Transaction tx = genericSchemaSession.transaction(Transaction.Type.READ)) {
@@ -0,0 +1,131 @@
+/*
+ * Copyright (C) 2020 Grakn Labs
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ */
+package grakn.core.graql.reasoner.cache;
+
+import grakn.core.common.config.ConfigKey;
+import grakn.core.concept.answer.ConceptMap;
+import grakn.core.kb.concept.api.ConceptId;
+import grakn.core.kb.server.Session;
+import grakn.core.kb.server.Transaction;
+import grakn.core.server.session.TransactionImpl;
+import grakn.core.test.rule.GraknTestServer;
+import graql.lang.Graql;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.ClassRule;
+import org.junit.Test;
+
+import java.util.List;
+
+import static grakn.core.util.GraqlTestUtil.loadFromFileAndCommit;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+@SuppressWarnings("CheckReturnValue")
+public class ReasonerMemoIT {
+
+    @ClassRule
+    public static final GraknTestServer server = new GraknTestServer();
+
+    private static final String RESOURCE_PATH = "test/integration/graql/reasoner/resources/";
+
+    private Session session;
+
+    @BeforeClass
+    public static void enableReasonerMemo() {
+        server.serverConfig().setConfigProperty(ConfigKey.REASONER_MEMO_CAPACITY, 10000L);
+    }
+
+    @Before
+    public void setUp() {
+        session = server.sessionWithNewKeyspace();
+        loadFromFileAndCommit(RESOURCE_PATH, "vipTagTest.gql", session);
+    }
+
+    @After
+    public void tearDown() {
+        session.close();
+    }
+
+    @Test
+    public void whenQueryIsRepeatedWithRenamedVariablesInNewReadTransaction_memoisedStructuresAreReused() {
+        ReasonerMemo reasonerMemo;
+        List<ConceptMap> answers;
+        try (Transaction tx = session.transaction(Transaction.Type.READ)) {
+            reasonerMemo = ((TransactionImpl) tx).reasonerMemo();
+            answers = tx.execute(Graql.parse("match (friend: $x, friend: $y) isa friendship; $x has tag $t; get;").asGet());
+        }
+        assertEquals(1, answers.size());
+        assertTrue(reasonerMemo.size() > 0);
+
+        long hits = reasonerMemo.hits();
+        try (Transaction tx = session.transaction(Transaction.Type.READ)) {
+            List<ConceptMap> renamedAnswers = tx.execute(Graql.parse("match (friend: $a, friend: $b) isa friendship; $a has tag $c; get;").asGet());
+            assertEquals(1, renamedAnswers.size());
+            assertEquals(answers.get(0).get("x").id(), renamedAnswers.get(0).get("a").id());
+            assertEquals(answers.get(0).get("y").id(), renamedAnswers.get(0).get("b").id());
+        }
+        assertTrue(reasonerMemo.hits() > hits);
+    }
+
+    @Test
+    public void whenQueryIsRepeatedWithDifferentIds_memoisedPlanIsReused() {
+        ReasonerMemo reasonerMemo;
+        ConceptId alice;
+        ConceptId bob;
+        try (Transaction tx = session.transaction(Transaction.Type.READ)) {
+            reasonerMemo = ((TransactionImpl) tx).reasonerMemo();
+            alice = tx.execute(Graql.parse("match $x has name \"Alice\"; get;").asGet()).get(0).get("x").id();
+            bob = tx.execute(Graql.parse("match $x has name \"Bob\"; get;").asGet()).get(0).get("x").id();
+            List<ConceptMap> answers = tx.execute(Graql.parse("match $x id " + alice + "; (friend: $x, friend: $y) isa friendship; $y has name $n; get;").asGet());
+            assertEquals(1, answers.size());
+        }
+
+        long hits = reasonerMemo.hits();
+        try (Transaction tx = session.transaction(Transaction.Type.READ)) {
+            List<ConceptMap> answers = tx.execute(Graql.parse("match $a id " + bob + "; (friend: $a, friend: $b) isa friendship; $b has name $m; get;").asGet());
+            assertEquals(1, answers.size());
+            assertEquals(alice, answers.get(0).get("b").id());
+        }
+        assertTrue(reasonerMemo.hits() > hits);
+    }
+
+    @Test
+    public void whenCommittingSchemaChanges_memoIsInvalidatedAndNewRulesApply() {
+        ReasonerMemo reasonerMemo;
+        try (Transaction tx = session.transaction(Transaction.Type.READ)) {
+            reasonerMemo = ((TransactionImpl) tx).reasonerMemo();
+            assertEquals(1, tx.execute(Graql.parse("match $x has tag $t; get;").asGet()).size());
+        }
+        assertTrue(reasonerMemo.size() > 0);
+
+        try (Transaction tx = session.transaction(Transaction.Type.WRITE)) {
+            tx.execute(Graql.parse("define " +
+                    "friend-vip-rule sub rule, " +
+                    "when { (friend: $x, friend: $y) isa friendship; $y has tag $t; }, " +
+                    "then { $x has tag $t; };").asDefine());
+            tx.commit();
+        }
+        assertEquals(0, reasonerMemo.size());
+
+        try (Transaction tx = session.transaction(Transaction.Type.READ)) {
+            assertEquals(2, tx.execute(Graql.parse("match $x has tag $t; get;").asGet()).size());
+        }
+    }
+}
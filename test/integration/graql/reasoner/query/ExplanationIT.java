@@ -22,12 +22,16 @@ import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Sets;
 import grakn.core.concept.answer.ConceptMap;
 import grakn.core.concept.answer.Explanation;
+import grakn.core.concept.answer.PatternProvenance;
+import grakn.core.graql.reasoner.explanation.JoinExplanation;
+import grakn.core.graql.reasoner.explanation.LookupExplanation;
 import grakn.core.graql.reasoner.graph.GeoGraph;
 import grakn.core.kb.concept.api.Concept;
 import grakn.core.kb.server.Session;
 import grakn.core.kb.server.Transaction;
 import grakn.core.test.rule.GraknTestServer;
 import graql.lang.Graql;
+import graql.lang.pattern.Conjunction;
 import graql.lang.pattern.Pattern;
 import graql.lang.property.IdProperty;
 import graql.lang.query.GraqlGet;
@@ -39,6 +43,7 @@ import org.junit.ClassRule;
 import org.junit.Ignore;
 import org.junit.Test;
 
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
@@ -51,6 +56,7 @@ import static graql.lang.Graql.var;
 import static junit.framework.TestCase.assertTrue;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
 
 public class ExplanationIT {
 
@@ -194,6 +200,35 @@ public class ExplanationIT {
         }
     }
 
+    @Test
+    public void whenJoiningAnswers_partialAnswersAndPatternsAreOnlyComputedWhenRequested() {
+        try (Transaction tx = geoSession.transaction(Transaction.Type.READ)) {
+            Concept poland = getConcept(tx, "name", "Poland");
+            Concept europe = getConcept(tx, "name", "Europe");
+            Concept warsaw = getConcept(tx, "name", "Warsaw");
+            ConceptMap left = new ConceptMap(ImmutableMap.of(var("x").var(), warsaw, var("y").var(), poland), new LookupExplanation(), null);
+            ConceptMap right = new ConceptMap(ImmutableMap.of(var("y").var(), poland, var("z").var(), europe), new LookupExplanation(), null);
+            ConceptMap other = new ConceptMap(ImmutableMap.of(var("z").var(), europe), new LookupExplanation(), null);
+
+            Conjunction<Pattern> queryPattern = Graql.and(Graql.parsePattern("(geo-entity: $x, entity-location: $y) isa is-located-in;"));
+            ImmutableMap<Variable, Concept> substitution = ImmutableMap.of(var("x").var(), warsaw, var("y").var(), poland, var("z").var(), europe);
+            ConceptMap joined = ConceptMap.fromProvenance(substitution, JoinExplanation.of(left, right), PatternProvenance.of(queryPattern, substitution));
+            ConceptMap projected = joined.project(Sets.newHashSet(var("x").var(), var("y").var()));
+            assertSame(joined.provenance(), projected.provenance());
+            assertFalse(joined.explanation().isEmpty());
+
+            Explanation explanation = JoinExplanation.of(joined, other);
+            assertEquals(Arrays.asList(left, right, other), explanation.getAnswers());
+
+            Pattern expectedPattern = Graql.and(
+                    Graql.parsePattern("(geo-entity: $x, entity-location: $y) isa is-located-in;"),
+                    var("x").id(warsaw.id().getValue()),
+                    var("y").id(poland.id().getValue()));
+            assertEquals(expectedPattern, projected.getPattern());
+            assertEquals(expectedPattern, joined.getPattern());
+        }
+    }
+
     @Test
     public void whenExplainingAGroundQuery_explanationsAreCorrect() {
         try (Transaction tx = geoSession.transaction(Transaction.Type.READ)) {
@@ -0,0 +1,159 @@
+/*
+ * Copyright (C) 2020 Grakn Labs
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ */
+
+package grakn.core.graql.reasoner.query;
+
+import grakn.core.common.config.Config;
+import grakn.core.concept.answer.ConceptMap;
+import grakn.core.graql.reasoner.plan.ResolutionQueryPlan;
+import grakn.core.kb.concept.api.Concept;
+import grakn.core.kb.server.Session;
+import grakn.core.kb.server.Transaction;
+import grakn.core.keyspace.KeyspaceStatisticsImpl;
+import grakn.core.test.rule.GraknTestStorage;
+import grakn.core.test.rule.SessionUtil;
+import grakn.core.test.rule.TestTransactionProvider;
+import graql.lang.Graql;
+import graql.lang.pattern.Conjunction;
+import graql.lang.statement.Statement;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.ClassRule;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Set;
+
+import static graql.lang.Graql.var;
+import static java.util.stream.Collectors.toSet;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class HashJoinIT {
+
+    private static final int COMPANIES = 20;
+    private static final int EMPLOYEES_PER_COMPANY = 10;
+
+    @ClassRule
+    public static final GraknTestStorage storage = new GraknTestStorage();
+
+    private static Session session;
+
+    @BeforeClass
+    public static void loadContext(){
+        Config mockServerConfig = storage.createCompatibleServerConfig();
+        session = SessionUtil.serverlessSessionWithNewKeyspace(mockServerConfig, new KeyspaceStatisticsImpl());
+        try(Transaction tx = session.transaction(Transaction.Type.WRITE)) {
+            tx.execute(Graql.parse("define " +
+                    "person sub entity, plays friend, plays employee, plays colleague;" +
+                    "company sub entity, plays employer;" +
+                    "friendship sub relation, relates friend;" +
+                    "employment sub relation, relates employee, relates employer;" +
+                    "colleagues sub relation, relates colleague;" +
+                    "colleague-rule sub rule," +
+                    "when {" +
+                    "(employee: $x, employer: $c) isa employment;" +
+                    "(employee: $y, employer: $c) isa employment;" +
+                    "}, then {" +
+                    "(colleague: $x, colleague: $y) isa colleagues;" +
+                    "};").asDefine());
+            tx.commit();
+        }
+        try(Transaction tx = session.transaction(Transaction.Type.WRITE)) {
+            Concept previous = null;
+            for (int c = 0; c < COMPANIES; c++) {
+                Concept company = tx.execute(Graql.parse("insert $c isa company;").asInsert()).get(0).get("c");
+                for (int e = 0; e < EMPLOYEES_PER_COMPANY; e++) {
+                    Concept person = tx.execute(Graql.match(var("c").id(company.id().getValue()))
+                            .insert(
+                                    var("p").isa("person"),
+                                    var().rel("employee", "p").rel("employer", "c").isa("employment"))).get(0).get("p");
+                    // chain of friendships between consecutive persons
+                    if (previous != null) {
+                        tx.execute(Graql.match(
+                                var("x").id(previous.id().getValue()),
+                                var("y").id(person.id().getValue()))
+                                .insert(var().rel("friend", "x").rel("friend", "y").isa("friendship")));
+                    }
+                    previous = person;
+                }
+            }
+            tx.commit();
+        }
+    }
+
+    @AfterClass
+    public static void closeSession(){
+        session.close();
+    }
+
+    @Test
+    public void whenLeadingQueryIsUnboundAndLarge_hashJoinIsPreferred(){
+        try(Transaction tx = session.transaction(Transaction.Type.WRITE)) {
+            ReasonerQueryFactory reasonerQueryFactory = ((TestTransactionProvider.TestTransaction) tx).reasonerQueryFactory();
+            ReasonerQueryImpl query = reasonerQueryFactory.create(conjunction(
+                    "{(friend: $x, friend: $y) isa friendship; (colleague: $x, colleague: $y) isa colleagues;};"));
+            ResolutionQueryPlan resolutionPlan = new ResolutionQueryPlan(reasonerQueryFactory, query);
+            List<ReasonerQueryImpl> plan = resolutionPlan.queries();
+            assertEquals(2, plan.size());
+            assertTrue(resolutionPlan.preferHashJoin(plan.get(0), plan.get(1), new ConceptMap()));
+        }
+    }
+
+    @Test
+    public void whenLeadingQueryIsBound_nestedLoopJoinIsPreferred(){
+        try(Transaction tx = session.transaction(Transaction.Type.WRITE)) {
+            ReasonerQueryFactory reasonerQueryFactory = ((TestTransactionProvider.TestTransaction) tx).reasonerQueryFactory();
+            ConceptMap person = tx.execute(Graql.parse("match $x isa person; get; limit 1;").asGet()).get(0);
+            ReasonerQueryImpl query = reasonerQueryFactory.create(conjunction(
+                    "{(friend: $x, friend: $y) isa friendship; (colleague: $x, colleague: $y) isa colleagues;};"));
+            ResolutionQueryPlan resolutionPlan = new ResolutionQueryPlan(reasonerQueryFactory, query);
+            List<ReasonerQueryImpl> plan = resolutionPlan.queries();
+            assertFalse(resolutionPlan.preferHashJoin(plan.get(0), plan.get(1), person));
+        }
+    }
+
+    @Test
+    public void whenJoiningWithHashJoin_answersMatchNestedLoopJoin(){
+        try(Transaction tx = session.transaction(Transaction.Type.WRITE)) {
+            Set<ConceptMap> hashJoinAnswers = tx.stream(Graql.parse(
+                    "match (friend: $x, friend: $y) isa friendship; (colleague: $x, colleague: $y) isa colleagues; get $x, $y;").asGet())
+                    .collect(toSet());
+
+            // friends are colleagues only if consecutive persons work for the same company, each pair is returned in both directions
+            int expected = 2 * COMPANIES * (EMPLOYEES_PER_COMPANY - 1);
+            assertEquals(expected, hashJoinAnswers.size());
+
+            // binding a variable forces the nested-loop join
+            hashJoinAnswers.stream().limit(10).forEach(ans -> {
+                List<ConceptMap> boundAnswers = tx.execute(Graql.parse(
+                        "match (friend: $x, friend: $y) isa friendship; (colleague: $x, colleague: $y) isa colleagues;" +
+                                "$x id " + ans.get("x").id().getValue() + "; get $x, $y;").asGet());
+                assertTrue(boundAnswers.contains(ans));
+            });
+        }
+    }
+
+    private Conjunction<Statement> conjunction(String patternString){
+        Set<Statement> vars = Graql.parsePattern(patternString)
+                .getDisjunctiveNormalForm().getPatterns()
+                .stream().flatMap(p -> p.getPatterns().stream()).collect(toSet());
+        return Graql.and(vars);
+    }
+}
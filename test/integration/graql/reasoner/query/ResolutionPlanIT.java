@@ -25,6 +25,7 @@ import grakn.core.common.config.Config;
 import grakn.core.graql.planning.NodesUtil;
 import grakn.core.graql.reasoner.atom.Atom;
 import grakn.core.graql.reasoner.atom.predicate.IdPredicate;
+import grakn.core.graql.reasoner.plan.ResolutionCostModel;
 import grakn.core.graql.reasoner.plan.ResolutionPlan;
 import grakn.core.graql.reasoner.plan.ResolutionQueryPlan;
 import grakn.core.kb.concept.api.Concept;
@@ -65,6 +66,7 @@ import java.util.Set;
 import static grakn.core.util.GraqlTestUtil.loadFromFileAndCommit;
 import static graql.lang.Graql.var;
 import static java.lang.annotation.ElementType.METHOD;
+import static java.util.stream.Collectors.toList;
 import static java.util.stream.Collectors.toSet;
 import static org.hamcrest.CoreMatchers.anyOf;
 import static org.hamcrest.CoreMatchers.is;
@@ -674,6 +676,72 @@ public class ResolutionPlanIT {
         checkPlanSanity(query);
     }
 
+    @Test
+    public void whenExplainingQueryPlan_queriesAreListedInResolutionOrderWithNonDecreasingCost(){
+        String queryString = "{" +
+                "$f has resource 'value'; $f isa someEntity;" +
+                "($e, $f) isa derivedRelation; $e isa someOtherEntity;" +
+                "($a, $b) isa someRelation; $a isa baseEntity;" +
+                "($b, $c) isa anotherRelation; $b isa someEntity;" +
+                "};";
+        ReasonerQueryImpl query = reasonerQueryFactory.create(conjunction(queryString));
+        ResolutionQueryPlan plan = new ResolutionQueryPlan(reasonerQueryFactory, query);
+        List<ResolutionCostModel.QueryEstimate> estimates = new ResolutionCostModel().estimate(plan.queries());
+
+        assertEquals(plan.queries(), estimates.stream().map(ResolutionCostModel.QueryEstimate::query).collect(toList()));
+        long cost = 0;
+        for (ResolutionCostModel.QueryEstimate estimate : estimates) {
+            assertTrue(estimate.cumulativeCost() >= cost);
+            cost = estimate.cumulativeCost();
+        }
+        String explanation = plan.explain();
+        assertEquals(plan.queries().size(), explanation.split("cost: ").length - 1);
+    }
+
+    /**
+     * The structural heuristic resolves the stored atoms before the rule-resolvable one regardless of their size.
+     * The cost model resolves the inferred relation first, as its single rule can only infer as many answers as the
+     * single training it is derived from, whereas the stored memberships are numerous.
+     */
+    @Test
+    public void whenRuleFanOutIsSmallerThanStoredAnswers_ruleResolvableQueryIsResolvedFirst(){
+        Session session = SessionUtil.serverlessSessionWithNewKeyspace(storage.createCompatibleServerConfig());
+        try (Transaction tx = session.transaction(Transaction.Type.WRITE)) {
+            tx.execute(Graql.parse("define " +
+                    "person sub entity, plays member, plays trainer, plays trainee, plays mentor, plays mentee;" +
+                    "club sub entity, plays group;" +
+                    "membership sub relation, relates member, relates group;" +
+                    "training sub relation, relates trainer, relates trainee;" +
+                    "mentorship sub relation, relates mentor, relates mentee;" +
+                    "mentorship-rule sub rule, " +
+                    "when { (trainer: $x, trainee: $y) isa training; }, " +
+                    "then { (mentor: $x, mentee: $y) isa mentorship; };").asDefine());
+            tx.commit();
+        }
+        try (Transaction tx = session.transaction(Transaction.Type.WRITE)) {
+            for (int i = 0; i < 200; i++) {
+                tx.execute(Graql.parse("insert $x isa person; $c isa club; (member: $x, group: $c) isa membership;").asInsert());
+            }
+            tx.execute(Graql.parse("insert $x isa person; $y isa person; (trainer: $x, trainee: $y) isa training;").asInsert());
+            tx.commit();
+        }
+
+        try (Transaction tx = session.transaction(Transaction.Type.WRITE)) {
+            ReasonerQueryFactory reasonerQueryFactory = ((TestTransactionProvider.TestTransaction) tx).reasonerQueryFactory();
+            ReasonerQueryImpl query = reasonerQueryFactory.create(conjunction("{" +
+                    "(member: $x, group: $c) isa membership; $c isa club;" +
+                    "(mentor: $x, mentee: $y) isa mentorship;" +
+                    "};"));
+            ResolutionQueryPlan plan = new ResolutionQueryPlan(reasonerQueryFactory, query);
+            checkQueryPlanComplete(query, plan);
+
+            assertEquals(2, plan.queries().size());
+            assertTrue(plan.queries().get(0).isRuleResolvable());
+            assertFalse(plan.queries().get(1).isRuleResolvable());
+        }
+        session.close();
+    }
+
     @Test
     public void whenEstimatingInferredCountOfAnInferredRelation_countIsDerivedFromMinimumPremiseCount(){
         Label someRelationLabel = Label.of("someRelation");
@@ -22,11 +22,15 @@ import grakn.client.GraknClient;
 import grakn.core.concept.answer.ConceptMap;
 import grakn.core.kb.concept.api.Attribute;
 import grakn.core.kb.concept.api.AttributeType;
+import grakn.core.kb.concept.api.ConceptId;
 import grakn.core.kb.concept.api.Entity;
 import grakn.core.kb.concept.api.EntityType;
 import grakn.core.kb.concept.api.Label;
 import grakn.core.kb.concept.api.RelationType;
 import grakn.core.kb.concept.api.Role;
+import grakn.core.kb.concept.manager.ConceptManager;
+import grakn.core.kb.keyspace.AttributeValueStatistics;
+import grakn.core.kb.keyspace.DegreeKey;
 import grakn.core.kb.keyspace.KeyspaceStatistics;
 import grakn.core.kb.server.Session;
 import grakn.core.kb.server.Transaction;
@@ -34,6 +38,7 @@ import grakn.core.test.rule.GraknTestServer;
 import grakn.core.test.rule.SessionUtil;
 import grakn.core.test.rule.TestTransactionProvider;
 import graql.lang.Graql;
+import org.apache.tinkerpop.gremlin.structure.Direction;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.ClassRule;
@@ -45,8 +50,11 @@ import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertSame;
 
 public class KeyspaceStatisticsIT {
@@ -181,6 +189,142 @@ public class KeyspaceStatisticsIT {
         assertEquals(0, thingCount);
     }
 
+    @Test
+    public void edgeDegreesUpdatedOnCommit() {
+        Transaction tx = localSession.transaction(Transaction.Type.WRITE);
+        AttributeType<Long> ageType = tx.putAttributeType("age", AttributeType.ValueType.LONG);
+        Role friend = tx.putRole("friend");
+        EntityType personType = tx.putEntityType("person").plays(friend).has(ageType);
+        RelationType friendshipType = tx.putRelationType("friendship").relates(friend);
+        tx.commit();
+
+        tx = localSession.transaction(Transaction.Type.WRITE);
+        ageType = tx.getAttributeType("age");
+        Attribute<Long> age1 = ageType.create(1L);
+        Attribute<Long> age2 = ageType.create(2L);
+        personType = tx.getEntityType("person");
+        Entity person1 = personType.create().has(age1).has(age2);
+        Entity person2 = personType.create().has(age1);
+        friendshipType = tx.getRelationType("friendship");
+        friend = tx.getRole("friend");
+        friendshipType.create().assign(friend, person1).assign(friend, person2);
+        tx.commit();
+
+        KeyspaceStatistics statistics = localSession.keyspaceStatistics();
+        TestTransactionProvider.TestTransaction testTx = (TestTransactionProvider.TestTransaction) localSession.transaction(Transaction.Type.WRITE);
+        ConceptManager conceptManager = testTx.conceptManager();
+        // 2 role players of the single friendship, each person plays in a single friendship
+        assertEquals(2D, statistics.meanDegree(conceptManager, DegreeKey::isRolePlayer, Direction.OUT).getAsDouble(), 0.001);
+        assertEquals(1D, statistics.meanDegree(conceptManager, DegreeKey::isRolePlayer, Direction.IN).getAsDouble(), 0.001);
+        // 3 ownerships of 2 persons and 2 ages
+        assertEquals(1.5D, statistics.meanDegree(conceptManager, DegreeKey::isOwnership, Direction.OUT).getAsDouble(), 0.001);
+        assertEquals(1.5D, statistics.meanDegree(conceptManager, DegreeKey::isOwnership, Direction.IN).getAsDouble(), 0.001);
+        // degree 2 falls into the [2, 4) bucket
+        assertEquals(3D, statistics.degreePercentile(DegreeKey::isRolePlayer, Direction.OUT, 0.9).getAsDouble(), 0.001);
+        testTx.close();
+
+        tx = localSession.transaction(Transaction.Type.WRITE);
+        tx.execute(Graql.parse("match $x isa friendship; delete $x isa friendship;").asDelete());
+        tx.commit();
+
+        testTx = (TestTransactionProvider.TestTransaction) localSession.transaction(Transaction.Type.WRITE);
+        conceptManager = testTx.conceptManager();
+        assertFalse(statistics.meanDegree(conceptManager, DegreeKey::isRolePlayer, Direction.OUT).isPresent());
+        assertEquals(0D, statistics.meanDegree(conceptManager, DegreeKey::isRolePlayer, Direction.IN).getAsDouble(), 0.001);
+        testTx.close();
+    }
+
+    @Test
+    public void edgeCountsArePersistedForMeanDegrees() {
+        Transaction tx = localSession.transaction(Transaction.Type.WRITE);
+        AttributeType<Long> ageType = tx.putAttributeType("age", AttributeType.ValueType.LONG);
+        Role friend = tx.putRole("friend");
+        EntityType personType = tx.putEntityType("person").plays(friend).has(ageType);
+        RelationType friendshipType = tx.putRelationType("friendship").relates(friend);
+        Attribute<Long> age = ageType.create(1L);
+        Entity person1 = personType.create().has(age);
+        Entity person2 = personType.create().has(age);
+        friendshipType.create().assign(friend, person1).assign(friend, person2);
+        tx.commit();
+
+        // statistics of a reopened keyspace are read back from the type vertices
+        KeyspaceStatistics reopenedStatistics = new KeyspaceStatisticsImpl();
+        TestTransactionProvider.TestTransaction testTx = (TestTransactionProvider.TestTransaction) localSession.transaction(Transaction.Type.WRITE);
+        ConceptManager conceptManager = testTx.conceptManager();
+        assertEquals(2D, reopenedStatistics.meanDegree(conceptManager, DegreeKey::isRolePlayer, Direction.OUT).getAsDouble(), 0.001);
+        assertEquals(1D, reopenedStatistics.meanDegree(conceptManager, DegreeKey::isRolePlayer, Direction.IN).getAsDouble(), 0.001);
+        assertEquals(1D, reopenedStatistics.meanDegree(conceptManager, DegreeKey::isOwnership, Direction.OUT).getAsDouble(), 0.001);
+        assertEquals(2D, reopenedStatistics.meanDegree(conceptManager, DegreeKey::isOwnership, Direction.IN).getAsDouble(), 0.001);
+        testTx.close();
+    }
+
+    @Test
+    public void edgeDegreesReflectSkewPerRole() {
+        Transaction tx = localSession.transaction(Transaction.Type.WRITE);
+        Role employer = tx.putRole("employer");
+        Role employee = tx.putRole("employee");
+        EntityType companyType = tx.putEntityType("company").plays(employer);
+        EntityType personType = tx.putEntityType("person").plays(employee);
+        RelationType employmentType = tx.putRelationType("employment").relates(employer).relates(employee);
+        tx.commit();
+
+        tx = localSession.transaction(Transaction.Type.WRITE);
+        employer = tx.getRole("employer");
+        employee = tx.getRole("employee");
+        employmentType = tx.getRelationType("employment");
+        Entity company = tx.getEntityType("company").create();
+        personType = tx.getEntityType("person");
+        for (int i = 0; i < 20; i++) {
+            employmentType.create().assign(employer, company).assign(employee, personType.create());
+        }
+        tx.commit();
+
+        KeyspaceStatistics statistics = localSession.keyspaceStatistics();
+        TestTransactionProvider.TestTransaction testTx = (TestTransactionProvider.TestTransaction) localSession.transaction(Transaction.Type.WRITE);
+        ConceptManager conceptManager = testTx.conceptManager();
+        Predicate<DegreeKey> employers = key -> key.isRolePlayer() && key.role().equals(Label.of("employer"));
+        Predicate<DegreeKey> employees = key -> key.isRolePlayer() && key.role().equals(Label.of("employee"));
+
+        assertEquals(20D, statistics.meanDegree(conceptManager, employers, Direction.IN).getAsDouble(), 0.001);
+        assertEquals(1D, statistics.meanDegree(conceptManager, employees, Direction.IN).getAsDouble(), 0.001);
+        assertEquals(1D, statistics.meanDegree(conceptManager, employers, Direction.OUT).getAsDouble(), 0.001);
+
+        // 20 employees with a single employment and the company with 20 of them, in the [16, 32) bucket
+        Predicate<DegreeKey> allRoles = DegreeKey::isRolePlayer;
+        assertEquals(1D, statistics.degreePercentile(allRoles, Direction.IN, 0.9).getAsDouble(), 0.001);
+        assertEquals(31D, statistics.degreePercentile(allRoles, Direction.IN, 1.0).getAsDouble(), 0.001);
+        testTx.close();
+    }
+
+    @Test
+    public void edgeDegreesOfHubsGrownOverManyCommitsAreCountedWhole() {
+        Transaction tx = localSession.transaction(Transaction.Type.WRITE);
+        Role employer = tx.putRole("employer");
+        Role employee = tx.putRole("employee");
+        EntityType companyType = tx.putEntityType("company").plays(employer);
+        tx.putEntityType("person").plays(employee);
+        tx.putRelationType("employment").relates(employer).relates(employee);
+        ConceptId companyId = companyType.create().id();
+        tx.commit();
+
+        // the company gains a single employee per commit
+        for (int i = 0; i < 40; i++) {
+            tx = localSession.transaction(Transaction.Type.WRITE);
+            Entity company = tx.getConcept(companyId).asEntity();
+            tx.getRelationType("employment").create()
+                    .assign(tx.getRole("employer"), company)
+                    .assign(tx.getRole("employee"), tx.getEntityType("person").create());
+            tx.commit();
+        }
+
+        // 40 employees with a single employment and the company with 40 of them, in the [32, 64) bucket
+        KeyspaceStatistics statistics = localSession.keyspaceStatistics();
+        Predicate<DegreeKey> employers = key -> key.isRolePlayer() && key.role().equals(Label.of("employer"));
+        Predicate<DegreeKey> allRoles = DegreeKey::isRolePlayer;
+        assertEquals(63D, statistics.degreePercentile(employers, Direction.IN, 0.9).getAsDouble(), 0.001);
+        assertEquals(63D, statistics.degreePercentile(allRoles, Direction.IN, 1.0).getAsDouble(), 0.001);
+    }
+
     @Test
     public void keyspaceStatisticsNotUpdatedIfNotCommitted() {
         Transaction tx = localSession.transaction(Transaction.Type.WRITE);
@@ -279,6 +423,67 @@ public class KeyspaceStatisticsIT {
         assertEquals(attributeCount, attributeCountReopened);
     }
 
+    @Test
+    public void attributeValueStatisticsUpdatedOnCommit() {
+        Transaction tx = localSession.transaction(Transaction.Type.WRITE);
+        AttributeType<Long> ageType = tx.putAttributeType("age", AttributeType.ValueType.LONG);
+        AttributeType<String> nameType = tx.putAttributeType("name", AttributeType.ValueType.STRING);
+        tx.putEntityType("person").has(ageType).has(nameType);
+        tx.commit();
+
+        tx = localSession.transaction(Transaction.Type.WRITE);
+        ageType = tx.getAttributeType("age");
+        nameType = tx.getAttributeType("name");
+        EntityType personType = tx.getEntityType("person");
+        for (long i = 0; i < 100; i++) {
+            ageType.create(i);
+            nameType.create((i % 4 == 0 ? "special-" : "plain-") + i);
+        }
+        Attribute<String> popular = nameType.create("popular");
+        for (int i = 0; i < 10; i++) {
+            personType.create().has(popular);
+        }
+        tx.commit();
+
+        TestTransactionProvider.TestTransaction testTx = (TestTransactionProvider.TestTransaction) localSession.transaction(Transaction.Type.WRITE);
+        AttributeValueStatistics ages = localSession.keyspaceStatistics().valueStatistics(testTx.conceptManager(), Label.of("age"));
+        AttributeValueStatistics names = localSession.keyspaceStatistics().valueStatistics(testTx.conceptManager(), Label.of("name"));
+        testTx.close();
+
+        assertNotNull(ages);
+        assertEquals(0.25, ages.fractionBelow(25L, false).getAsDouble(), 0.05);
+        assertEquals(0.0, ages.fractionBelow(-1L, true).getAsDouble(), 0.001);
+        assertEquals(1.0, ages.fractionBelow(100L, false).getAsDouble(), 0.001);
+        assertFalse(ages.fractionMatching(value -> true).isPresent());
+
+        assertNotNull(names);
+        assertEquals(0.25, names.fractionMatching(value -> ((String) value).startsWith("special")).getAsDouble(), 0.05);
+        assertFalse(names.fractionBelow(25L, false).isPresent());
+        assertEquals(10L, names.owners("popular").getAsLong());
+        assertFalse(names.owners("plain-1").isPresent());
+    }
+
+    @Test
+    public void reopeningSessionRetrievesAttributeValueStatistics() {
+        Transaction tx = localSession.transaction(Transaction.Type.WRITE);
+        AttributeType<Long> ageType = tx.putAttributeType("age", AttributeType.ValueType.LONG);
+        for (long i = 0; i < 100; i++) {
+            ageType.create(i);
+        }
+        tx.commit();
+
+        localSession.close();
+        remoteSession.close();
+        localSession = SessionUtil.serverlessSession(server.serverConfig(), remoteSession.keyspace().name());
+
+        TestTransactionProvider.TestTransaction testTx = (TestTransactionProvider.TestTransaction) localSession.transaction(Transaction.Type.WRITE);
+        AttributeValueStatistics ages = localSession.keyspaceStatistics().valueStatistics(testTx.conceptManager(), Label.of("age"));
+        testTx.close();
+
+        assertNotNull(ages);
+        assertEquals(0.5, ages.fractionBelow(50L, false).getAsDouble(), 0.05);
+    }
+
     @Test
     public void nonexistentLabelStatisticsReturnMinusOne() {
         TestTransactionProvider.TestTransaction testTx = (TestTransactionProvider.TestTransaction) localSession.transaction(Transaction.Type.WRITE);
@@ -0,0 +1,88 @@
+/*
+ * Copyright (C) 2020 Grakn Labs
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package grakn.core.server.session;
+
+import grakn.core.kb.server.Session;
+import grakn.core.kb.server.Transaction;
+import grakn.core.kb.server.exception.TransactionException;
+import grakn.core.test.rule.GraknTestServer;
+import graql.lang.Graql;
+import graql.lang.query.GraqlInsert;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.ClassRule;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.assertEquals;
+
+@SuppressWarnings("CheckReturnValue")
+public class BulkLoaderIT {
+
+    @ClassRule
+    public static final GraknTestServer server = new GraknTestServer();
+
+    @Rule
+    public final ExpectedException expectedException = ExpectedException.none();
+
+    private Session session;
+
+    @Before
+    public void setUp() {
+        session = server.sessionWithNewKeyspace();
+        try (Transaction tx = session.transaction(Transaction.Type.WRITE)) {
+            tx.execute(Graql.parse("define " +
+                    "person sub entity, has name; " +
+                    "name sub attribute, value string;").asDefine());
+            tx.commit();
+        }
+    }
+
+    @After
+    public void tearDown() {
+        session.close();
+    }
+
+    @Test
+    public void whenBulkLoadingInBatches_allQueriesAreCommitted() {
+        int queries = 1050;
+        Stream<GraqlInsert> inserts = IntStream.range(0, queries)
+                .mapToObj(i -> Graql.parse("insert $x isa person, has name \"name-" + i % 100 + "\";").asInsert());
+
+        // each query inserts a person, while only the first 100 insert a name
+        long instances = new BulkLoader(session, 100).load(inserts);
+        assertEquals(queries + 100, instances);
+
+        try (Transaction tx = session.transaction(Transaction.Type.READ)) {
+            assertEquals(queries, tx.execute(Graql.parse("match $x isa person; get; count;").asGetAggregate()).get(0).number().intValue());
+            assertEquals(100, tx.execute(Graql.parse("match $x isa name; get; count;").asGetAggregate()).get(0).number().intValue());
+        }
+    }
+
+    @Test
+    public void whenDefiningInBatchTransaction_Throw() {
+        try (Transaction tx = session.transaction(Transaction.Type.BATCH)) {
+            expectedException.expect(TransactionException.class);
+            tx.execute(Graql.parse("define animal sub entity;").asDefine());
+        }
+    }
+}
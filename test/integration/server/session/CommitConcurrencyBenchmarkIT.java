@@ -0,0 +1,105 @@
+/*
+ * Copyright (C) 2020 Grakn Labs
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package grakn.core.server.session;
+
+import grakn.core.kb.server.Session;
+import grakn.core.kb.server.Transaction;
+import grakn.core.test.rule.GraknTestServer;
+import graql.lang.Graql;
+import org.junit.ClassRule;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.Assert.assertEquals;
+
+@SuppressWarnings("CheckReturnValue")
+public class CommitConcurrencyBenchmarkIT {
+
+    @ClassRule
+    public static final GraknTestServer server = new GraknTestServer();
+
+    private static final int COMMITS_PER_WRITER = 40;
+    private static final int ATTRIBUTES_PER_COMMIT = 20;
+    private static final int VALUES_PER_GROUP = 100;
+
+    /**
+     * Measures commit throughput of writers inserting attributes that clash only within pairs of writers.
+     * Every transaction requires commit locks because its pair-mate inserts the same attribute values,
+     * but different pairs touch disjoint attribute indices, so their commits should proceed in parallel
+     * and the throughput should grow with the number of writer threads.
+     */
+    @Test
+    public void commitThroughputScalesWithWriterThreads_whenAttributeIndicesAreDisjoint() throws ExecutionException, InterruptedException {
+        System.out.println(new Object(){}.getClass().getEnclosingMethod().getName());
+        for (int writers : new int[]{2, 4, 8, 16}) {
+            Session session = server.sessionWithNewKeyspace();
+            try (Transaction tx = session.transaction(Transaction.Type.WRITE)) {
+                tx.execute(Graql.parse("define " +
+                        "person sub entity, has name; " +
+                        "name sub attribute, value string;").asDefine());
+                tx.commit();
+            }
+
+            long start = System.currentTimeMillis();
+            insertConcurrently(session, writers);
+            long totalTime = System.currentTimeMillis() - start;
+
+            int commits = writers * COMMITS_PER_WRITER;
+            System.out.println("writers: " + writers + " commits: " + commits + " totalTime: " + totalTime +
+                    " throughput (commits/s): " + commits * 1000L / Math.max(totalTime, 1));
+
+            try (Transaction tx = session.transaction(Transaction.Type.READ)) {
+                int names = tx.execute(Graql.parse("match $x isa name; get; count;").asGetAggregate()).get(0).number().intValue();
+                int groups = writers / 2;
+                assertEquals(groups * VALUES_PER_GROUP, names);
+            }
+            session.close();
+        }
+    }
+
+    private void insertConcurrently(Session session, int writers) throws ExecutionException, InterruptedException {
+        ExecutorService executorService = Executors.newFixedThreadPool(writers);
+        List<CompletableFuture<Void>> asyncInsertions = new ArrayList<>();
+        for (int writer = 0; writer < writers; writer++) {
+            // writers 2k and 2k+1 share the same pool of attribute values
+            final int group = writer / 2;
+            final int offset = writer % 2;
+            CompletableFuture<Void> asyncInsert = CompletableFuture.supplyAsync(() -> {
+                for (int commit = 0; commit < COMMITS_PER_WRITER; commit++) {
+                    try (Transaction tx = session.transaction(Transaction.Type.WRITE)) {
+                        for (int i = 0; i < ATTRIBUTES_PER_COMMIT; i++) {
+                            int value = (commit * ATTRIBUTES_PER_COMMIT + i + offset) % VALUES_PER_GROUP;
+                            tx.execute(Graql.parse("insert $x isa person, has name \"group" + group + "-" + value + "\";").asInsert());
+                        }
+                        tx.commit();
+                    }
+                }
+                return null;
+            }, executorService);
+            asyncInsertions.add(asyncInsert);
+        }
+        CompletableFuture.allOf(asyncInsertions.toArray(new CompletableFuture[]{})).get();
+        executorService.shutdown();
+    }
+}
@@ -0,0 +1,137 @@
+/*
+ * Copyright (C) 2020 Grakn Labs
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ */
+
+package grakn.core.server.session;
+
+import grakn.core.common.config.ConfigKey;
+import grakn.core.concept.answer.ConceptMap;
+import grakn.core.kb.server.Session;
+import grakn.core.kb.server.Transaction;
+import grakn.core.kb.server.keyspace.Keyspace;
+import grakn.core.test.rule.GraknTestServer;
+import graql.lang.Graql;
+import graql.lang.query.GraqlGet;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.ClassRule;
+import org.junit.Test;
+
+import java.util.List;
+
+import static grakn.core.util.GraqlTestUtil.loadFromFileAndCommit;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+@SuppressWarnings("CheckReturnValue")
+public class MaterialisedRulesIT {
+
+    @ClassRule
+    public static final GraknTestServer server = new GraknTestServer();
+
+    private static final String RESOURCE_PATH = "test/integration/graql/reasoner/resources/";
+
+    private static final GraqlGet TAGGED_PEOPLE = Graql.parse("match $x has tag $t; get;").asGet();
+
+    private Session session;
+
+    @Before
+    public void setUp() {
+        Keyspace keyspace = server.randomKeyspaceName();
+        server.serverConfig().setConfigProperty(ConfigKey.MATERIALISED_RULES_KEYSPACES, keyspace.name());
+        session = server.session(keyspace);
+        loadFromFileAndCommit(RESOURCE_PATH, "vipTagTest.gql", session);
+        awaitMaintenance();
+    }
+
+    @After
+    public void tearDown() {
+        session.close();
+    }
+
+    private void awaitMaintenance() {
+        try (Transaction tx = session.transaction(Transaction.Type.READ)) {
+            ((TransactionImpl) tx).materialisedRules().awaitMaintenance();
+        }
+    }
+
+    @Test
+    public void whenDataIsCommitted_ruleConclusionsArePersistedAndHiddenWithoutInference() {
+        try (Transaction tx = session.transaction(Transaction.Type.READ)) {
+            assertTrue(((TransactionImpl) tx).materialisedRules().isComplete());
+            assertEquals(1, tx.execute(TAGGED_PEOPLE).size());
+            assertTrue(tx.execute(TAGGED_PEOPLE, false).isEmpty());
+        }
+    }
+
+    @Test
+    public void whenReadingPersistedConclusions_answersAreExplainedByRules() {
+        try (Transaction tx = session.transaction(Transaction.Type.READ)) {
+            List<ConceptMap> answers = tx.execute(TAGGED_PEOPLE);
+            assertEquals(1, answers.size());
+            ConceptMap answer = answers.get(0);
+            assertFalse(answer.explanation().isEmpty());
+            assertTrue(tx.explanation(answer.getPattern()).isRuleExplanation());
+
+            List<ConceptMap> storedTags = tx.execute(Graql.parse("match $t \"vip\" isa tag; get;").asGet());
+            assertEquals(1, storedTags.size());
+            assertTrue(storedTags.get(0).explanation().isEmpty());
+        }
+    }
+
+    @Test
+    public void whenInsertingFactsMatchingRuleBody_newConclusionsArePersisted() {
+        try (Transaction tx = session.transaction(Transaction.Type.WRITE)) {
+            tx.execute(Graql.parse("insert $x isa person, has name \"Alice\";").asInsert());
+            tx.commit();
+        }
+        awaitMaintenance();
+        try (Transaction tx = session.transaction(Transaction.Type.READ)) {
+            assertTrue(tx.execute(TAGGED_PEOPLE, false).isEmpty());
+            assertEquals(2, tx.execute(TAGGED_PEOPLE).size());
+        }
+    }
+
+    @Test
+    public void whenDeletingFactsSupportingConclusions_conclusionsAreRetracted() {
+        try (Transaction tx = session.transaction(Transaction.Type.WRITE)) {
+            tx.execute(Graql.parse("match $x isa person, has name $n; $n \"Alice\"; delete $x has name $n;").asDelete());
+            tx.commit();
+        }
+        awaitMaintenance();
+        try (Transaction tx = session.transaction(Transaction.Type.READ)) {
+            assertTrue(tx.execute(TAGGED_PEOPLE, false).isEmpty());
+            assertTrue(tx.execute(TAGGED_PEOPLE).isEmpty());
+            assertEquals(1, tx.execute(Graql.parse("match $t \"vip\" isa tag; get;").asGet(), false).size());
+        }
+    }
+
+    @Test
+    public void whenDeletingRule_itsConclusionsAreRetracted() {
+        try (Transaction tx = session.transaction(Transaction.Type.WRITE)) {
+            tx.execute(Graql.parse("undefine vip-rule sub rule;").asUndefine());
+            tx.commit();
+        }
+        awaitMaintenance();
+        try (Transaction tx = session.transaction(Transaction.Type.READ)) {
+            assertTrue(((TransactionImpl) tx).materialisedRules().isComplete());
+            assertTrue(tx.execute(TAGGED_PEOPLE, false).isEmpty());
+            assertTrue(tx.execute(TAGGED_PEOPLE).isEmpty());
+        }
+    }
+}
@@ -0,0 +1,141 @@
+/*
+ * Copyright (C) 2020 Grakn Labs
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as
+ * published by the Free Software Foundation, either version 3 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ *
+ */
+
+package grakn.core.server.session;
+
+import grakn.core.common.config.Config;
+import grakn.core.core.Schema;
+import grakn.core.graph.core.JanusGraph;
+import grakn.core.graph.core.JanusGraphEdge;
+import grakn.core.graph.core.JanusGraphTransaction;
+import grakn.core.graph.core.JanusGraphVertex;
+import grakn.core.test.rule.GraknTestStorage;
+import org.apache.tinkerpop.gremlin.structure.Direction;
+import org.junit.ClassRule;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import static grakn.core.graph.graphdb.configuration.GraphDatabaseConfiguration.PAGE_SIZE;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Checks the edges of vertices read back from the CQL storage, by one slice query per vertex and by multi-vertex queries,
+ * with results fitting in one page and spanning several pages.
+ */
+public class SliceQueryIT {
+
+    @ClassRule
+    public static final GraknTestStorage storage = new GraknTestStorage();
+
+    private static final String VERTEX_LABEL = Schema.BaseType.ENTITY.name();
+    private static final String EDGE_LABEL = Schema.EdgeLabel.ATTRIBUTE.getLabel();
+
+    @Test
+    public void whenQueryingEdgesOfManyVerticesAtOnce_resultsMatchQueryingEachVertex() {
+        int[] degrees = {0, 1, 7, 30, 200};
+        try (JanusGraph graph = openGraph(storage.createCompatibleServerConfig())) {
+            long[] hubs = insertHubs(graph, degrees);
+
+            Map<Long, Set<Object>> edgesByVertex = edgesOneByOne(graph, hubs);
+            for (int i = 0; i < hubs.length; i++) {
+                assertEquals(degrees[i], edgesByVertex.get(hubs[i]).size());
+            }
+            assertEquals(edgesByVertex, edgesAtOnce(graph, hubs));
+        }
+    }
+
+    @Test
+    public void whenEdgesSpanSeveralPages_allPagesAreRetrieved() {
+        int pageSize = 10;
+        int[] degrees = {pageSize - 1, pageSize, pageSize + 1, 3 * pageSize + 5};
+        Config config = storage.createCompatibleServerConfig();
+        config.properties().setProperty("storage." + PAGE_SIZE.getName(), String.valueOf(pageSize));
+        try (JanusGraph graph = openGraph(config)) {
+            long[] hubs = insertHubs(graph, degrees);
+
+            Map<Long, Set<Object>> edgesByVertex = edgesOneByOne(graph, hubs);
+            for (int i = 0; i < hubs.length; i++) {
+                assertEquals(degrees[i], edgesByVertex.get(hubs[i]).size());
+            }
+            assertEquals(edgesByVertex, edgesAtOnce(graph, hubs));
+
+            // a limited query stops in the middle of the pages
+            long largestHub = hubs[hubs.length - 1];
+            JanusGraphTransaction tx = graph.newTransaction();
+            Set<Object> limitedEdges = edgeIds(tx.getVertex(largestHub).query().direction(Direction.OUT).limit(pageSize + 5).edges());
+            tx.close();
+            assertEquals(pageSize + 5, limitedEdges.size());
+            assertTrue(edgesByVertex.get(largestHub).containsAll(limitedEdges));
+        }
+    }
+
+    private static JanusGraph openGraph(Config config) {
+        String keyspace = "a" + UUID.randomUUID().toString().replaceAll("-", "");
+        return new JanusGraphFactory(config).openGraph(keyspace);
+    }
+
+    /**
+     * @return ids of the stored vertices, each having the number of out edges given by the corresponding degree
+     */
+    private static long[] insertHubs(JanusGraph graph, int... degrees) {
+        JanusGraphTransaction tx = graph.newTransaction();
+        long[] hubs = new long[degrees.length];
+        for (int i = 0; i < degrees.length; i++) {
+            JanusGraphVertex hub = tx.addVertex(VERTEX_LABEL);
+            for (int j = 0; j < degrees[i]; j++) {
+                hub.addEdge(EDGE_LABEL, tx.addVertex(VERTEX_LABEL));
+            }
+            hubs[i] = hub.longId();
+        }
+        tx.commit();
+        return hubs;
+    }
+
+    private static Map<Long, Set<Object>> edgesOneByOne(JanusGraph graph, long[] hubs) {
+        JanusGraphTransaction tx = graph.newTransaction();
+        Map<Long, Set<Object>> edges = new HashMap<>();
+        for (long hub : hubs) {
+            edges.put(hub, edgeIds(tx.getVertex(hub).query().direction(Direction.OUT).edges()));
+        }
+        tx.close();
+        return edges;
+    }
+
+    private static Map<Long, Set<Object>> edgesAtOnce(JanusGraph graph, long[] hubs) {
+        JanusGraphTransaction tx = graph.newTransaction();
+        JanusGraphVertex[] vertices = Arrays.stream(hubs).mapToObj(tx::getVertex).toArray(JanusGraphVertex[]::new);
+        Map<Long, Set<Object>> edges = new HashMap<>();
+        tx.multiQuery(vertices).direction(Direction.OUT).edges()
+                .forEach((vertex, vertexEdges) -> edges.put(vertex.longId(), edgeIds(vertexEdges)));
+        tx.close();
+        return edges;
+    }
+
+    private static Set<Object> edgeIds(Iterable<JanusGraphEdge> edges) {
+        Set<Object> ids = new HashSet<>();
+        edges.forEach(edge -> ids.add(edge.id()));
+        return ids;
+    }
+}
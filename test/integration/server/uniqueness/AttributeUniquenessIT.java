@@ -379,6 +379,64 @@ public class AttributeUniquenessIT {
         }
     }
 
+    @Test
+    public void whenManyAttributesAreDuplicatedInOneTransaction_allAreMergedWithTheirEdgesInOneCommit() {
+        String ownedAttributeLabel = "owned-attribute";
+        String ownedAttributeValue = "owned-attribute-value-";
+        int attributeCount = 5;
+
+        // define the schema
+        try (Transaction tx = session.transaction(Transaction.Type.WRITE)) {
+            tx.execute(Graql.define(
+                    type("ownership").sub("relation").relates("entity-role-player").relates("attribute-role-player"),
+                    type("owner").sub("entity").has(ownedAttributeLabel).plays("entity-role-player"),
+                    type(ownedAttributeLabel).sub("attribute").plays("attribute-role-player").value(Graql.Token.ValueType.STRING)
+            ));
+            tx.commit();
+        }
+
+        // each transaction inserts all the attributes, so that the ones committed later merge a batch of duplicates
+        StringBuilder insert = new StringBuilder("insert ");
+        for (int i = 0; i < attributeCount; i++) {
+            insert.append("$owned").append(i).append(" \"").append(ownedAttributeValue).append(i).append("\" isa owned-attribute;")
+                    .append("$owner").append(i).append(" isa owner, has owned-attribute $owned").append(i).append(";")
+                    .append("(entity-role-player: $owner").append(i).append(", attribute-role-player: $owned").append(i).append(") isa ownership;");
+        }
+        GraqlInsert query = Graql.parse(insert.toString()).asInsert();
+        insertConcurrently(Collections.list(query, query, query));
+
+        // verify
+        try (Transaction tx = session.transaction(Transaction.Type.READ)) {
+            assertEquals(attributeCount, tx.execute(Graql.match(var("x").isa(ownedAttributeLabel)).get().count()).get(0).number().intValue());
+
+            for (int i = 0; i < attributeCount; i++) {
+                Set<String> owned = new HashSet<>();
+                Set<String> owner = new HashSet<>();
+                List<ConceptMap> ownerships = tx.execute(Graql.match(
+                        var("owned").isa(ownedAttributeLabel).val(ownedAttributeValue + i),
+                        var("owner").isa("owner").has(ownedAttributeLabel, var("owned"))).get());
+                for (ConceptMap conceptMap : ownerships) {
+                    owned.add(conceptMap.get("owned").asAttribute().id().getValue());
+                    owner.add(conceptMap.get("owner").asEntity().id().getValue());
+                }
+                assertThat(owned, hasSize(1));
+                assertThat(owner, hasSize(3));
+
+                Set<String> arp = new HashSet<>();
+                Set<String> relations = new HashSet<>();
+                List<ConceptMap> rolePlayers = tx.execute(Graql.match(
+                        var("arp").isa(ownedAttributeLabel).val(ownedAttributeValue + i),
+                        var("r").isa("ownership").rel("attribute-role-player", var("arp"))).get());
+                for (ConceptMap conceptMap : rolePlayers) {
+                    arp.add(conceptMap.get("arp").asAttribute().id().getValue());
+                    relations.add(conceptMap.get("r").asRelation().id().getValue());
+                }
+                assertEquals(owned, arp);
+                assertThat(relations, hasSize(3));
+            }
+        }
+    }
+
     @Test
     public void whenDeletingAndReaddingSameAttributeInDifferentTx_attributesCacheIsInSyncAndShouldNotTryToMerge() {
         String testAttributeLabel = "test-attribute";
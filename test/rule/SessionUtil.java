@@ -33,11 +33,10 @@ import grakn.core.server.keyspace.KeyspaceImpl;
 import grakn.core.server.session.HadoopGraphFactory;
 import grakn.core.server.session.JanusGraphFactory;
 import grakn.core.server.session.SessionImpl;
+import grakn.core.server.util.LockManager;
 import org.apache.tinkerpop.gremlin.hadoop.structure.HadoopGraph;
 
 import java.util.UUID;
-import java.util.concurrent.locks.ReadWriteLock;
-import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 /**
  * For testing, we sometimes ONLY start cassandra, without starting the full Grakn Server
@@ -94,11 +93,11 @@ public class SessionUtil {
         KeyspaceSchemaCache cache = new KeyspaceSchemaCache();
         AttributeManager attributeManager = new AttributeManagerImpl();
         ShardManager shardManager = new ShardManagerImpl();
-        ReadWriteLock graphLock = new ReentrantReadWriteLock();
+        LockManager commitLockManager = new LockManager();
         HadoopGraph hadoopGraph = hadoopGraphFactory.getGraph(randomKeyspace);
 
         long typeShardThreshold = 250000; // TODO decide if this belongs in the mockServerConfig or not
-        TransactionProvider transactionProvider = new TestTransactionProvider(graph, hadoopGraph, cache, keyspaceStatistics, attributeManager, graphLock, typeShardThreshold);
+        TransactionProvider transactionProvider = new TestTransactionProvider(graph, hadoopGraph, cache, keyspaceStatistics, attributeManager, commitLockManager, typeShardThreshold);
         return new SessionImpl(randomKeyspace, transactionProvider, cache, graph, keyspaceStatistics, attributeManager, shardManager);
     }
 
@@ -113,10 +112,10 @@ public class SessionUtil {
         KeyspaceStatistics keyspaceStatistics = new KeyspaceStatisticsImpl();
         AttributeManager attributeManager = new AttributeManagerImpl();
         ShardManager shardManager = new ShardManagerImpl();
-        ReadWriteLock graphLock = new ReentrantReadWriteLock();
+        LockManager commitLockManager = new LockManager();
         HadoopGraph hadoopGraph = hadoopGraphFactory.getGraph(randomKeyspace);
 
-        TransactionProvider transactionProvider = new TestTransactionProvider(graph, hadoopGraph, cache, keyspaceStatistics, attributeManager, graphLock, typeShardThreshold);
+        TransactionProvider transactionProvider = new TestTransactionProvider(graph, hadoopGraph, cache, keyspaceStatistics, attributeManager, commitLockManager, typeShardThreshold);
         return new SessionImpl(randomKeyspace, transactionProvider, cache, graph, keyspaceStatistics, attributeManager, shardManager);
     }
 
@@ -51,10 +51,9 @@ import grakn.core.kb.server.TransactionProvider;
 import grakn.core.kb.server.cache.TransactionCache;
 import grakn.core.keyspace.StatisticsDeltaImpl;
 import grakn.core.server.session.TransactionImpl;
+import grakn.core.server.util.LockManager;
 import org.apache.tinkerpop.gremlin.hadoop.structure.HadoopGraph;
 
-import java.util.concurrent.locks.ReadWriteLock;
-
 /**
  * Implementation of TransactionProvider that can be relied upon to return a `TestTransaction`,
  * which is an extension of `TransactionImpl` with further fields and getters
@@ -65,23 +64,23 @@ public class TestTransactionProvider implements TransactionProvider {
     private final KeyspaceSchemaCache keyspaceSchemaCache;
     private final KeyspaceStatistics keyspaceStatistics;
     private final AttributeManager attributeManager;
-    private ReadWriteLock graphLock;
+    private final LockManager commitLockManager;
     private final long typeShardThreshold;
 
     public TestTransactionProvider(StandardJanusGraph graph, HadoopGraph hadoopGraph,
                                    KeyspaceSchemaCache keyspaceSchemaCache, KeyspaceStatistics keyspaceStatistics,
-                                   AttributeManager attributeManager, ReadWriteLock graphLock, long typeShardThreshold) {
+                                   AttributeManager attributeManager, LockManager commitLockManager, long typeShardThreshold) {
         this.graph = graph;
         this.hadoopGraph = hadoopGraph;
         this.keyspaceSchemaCache = keyspaceSchemaCache;
         this.keyspaceStatistics = keyspaceStatistics;
         this.attributeManager = attributeManager;
-        this.graphLock = graphLock;
+        this.commitLockManager = commitLockManager;
         this.typeShardThreshold = typeShardThreshold;
     }
 
     @Override
-    public Transaction newTransaction(Session session) {
+    public Transaction newTransaction(Session session, Transaction.Type type) {
 
         // Data structures
         ConceptNotificationChannel conceptNotificationChannel = new ConceptNotificationChannelImpl();
@@ -89,7 +88,9 @@ public class TestTransactionProvider implements TransactionProvider {
         StatisticsDeltaImpl statisticsDelta = new StatisticsDeltaImpl();
 
         // Janus elements
-        StandardJanusGraphTx janusGraphTransaction = graph.newThreadBoundTransaction();
+        StandardJanusGraphTx janusGraphTransaction = Transaction.Type.BATCH.equals(type) ?
+                graph.buildTransaction().threadBound().enableBatchLoading().start() :
+                graph.newThreadBoundTransaction();
         JanusTraversalSourceProvider janusTraversalSourceProvider = new JanusTraversalSourceProvider(janusGraphTransaction);
         ElementFactory elementFactory = new ElementFactory(janusGraphTransaction, janusTraversalSourceProvider);
 
@@ -115,7 +116,7 @@ public class TestTransactionProvider implements TransactionProvider {
         return new TestTransaction(
                 session, janusGraphTransaction, conceptManager, janusTraversalSourceProvider, transactionCache,
                 queryCache, ruleCache, statisticsDelta, executorFactory, traversalPlanFactory, traversalExecutor,
-                reasonerQueryFactory, graphLock, typeShardThreshold,
+                reasonerQueryFactory, commitLockManager, typeShardThreshold,
                 conceptNotificationChannel, elementFactory, propertyAtomicFactory, conceptListener, propertyExecutorFactory
         );
     }
@@ -138,14 +139,14 @@ public class TestTransactionProvider implements TransactionProvider {
                                RuleCacheImpl ruleCache, StatisticsDeltaImpl statisticsDelta,
                                ExecutorFactoryImpl executorFactory, TraversalPlanFactory traversalPlanFactory,
                                TraversalExecutor traversalExecutor, ReasonerQueryFactory reasonerQueryFactory,
-                               ReadWriteLock graphLock, long typeShardThreshold,
+                               LockManager commitLockManager, long typeShardThreshold,
                                ConceptNotificationChannel conceptNotificationChannel, ElementFactory elementFactory,
                                PropertyAtomicFactory propertyAtomicFactory, ConceptListener conceptListener,
                                PropertyExecutorFactory propertyExecutorFactory) {
 
             super(session, janusGraphTransaction, conceptManager, janusTraversalSourceProvider, transactionCache,
                     queryCache, ruleCache, statisticsDelta, executorFactory,
-                    reasonerQueryFactory, graphLock, typeShardThreshold);
+                    reasonerQueryFactory, commitLockManager, null, null, null, null, false, typeShardThreshold);
             this.traversalPlanFactory = traversalPlanFactory;
             this.traversalExecutor = traversalExecutor;
 